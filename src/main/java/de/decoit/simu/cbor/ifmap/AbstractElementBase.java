@@ -20,7 +20,6 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
 import de.decoit.simu.cbor.xml.dictionary.Dictionary;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
@@ -39,10 +38,11 @@ import org.apache.commons.lang3.StringUtils;
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "frozen")
+@ToString(exclude = "frozen")
 @Slf4j
-public abstract class AbstractElementBase {
+public abstract class AbstractElementBase implements Freezable {
+	private volatile boolean frozen = false;
 	protected boolean nestedElementProvideParentBuilder = false;
 	@Getter
 	protected final String namespace;
@@ -70,21 +70,84 @@ public abstract class AbstractElementBase {
 	}
 
 
+	/**
+	 * Lock this element and all nested elements against modification.
+	 * Subclasses containing nested elements freeze them in {@link #freezeNestedElements()}.
+	 */
+	@Override
+	public final void freeze() {
+		if(this.frozen) {
+			return;
+		}
+
+		this.freezeNestedElements();
+		this.frozen = true;
+	}
+
+
+	@Override
+	public final boolean isFrozen() {
+		return this.frozen;
+	}
+
+
+	/**
+	 * Freeze the nested elements of this element.
+	 * The default implementation does nothing, subclasses containing nested elements must override it.
+	 */
+	protected void freezeNestedElements() {
+	}
+
+
+	/**
+	 * Make sure that this element is not frozen, this must be called by all mutating methods.
+	 *
+	 * @throws IllegalStateException if this element is frozen
+	 */
+	protected final void checkNotFrozen() {
+		if(this.frozen) {
+			throw new IllegalStateException("Element is frozen and must not be modified");
+		}
+	}
+
+
+	/**
+	 * Serialize this element into the specified ArrayBuilder using the global dictionary.
+	 *
+	 * @param builder ArrayBuilder instance to serialize into
+	 * @throws CBORSerializationException if serialization failed
+	 */
 	public void cborSerialize(final ArrayBuilder<?> builder) throws CBORSerializationException {
-		serializeNamespaceAndName(builder);
+		this.cborSerialize(builder, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Serialize this element into the specified ArrayBuilder using the dictionary of the specified context.
+	 *
+	 * @param builder ArrayBuilder instance to serialize into
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if serialization failed
+	 */
+	public void cborSerialize(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		serializeNamespaceAndName(builder, context);
 
 		// Add attributes array
 		ArrayBuilder attrBuilder = builder.addArray();
-		this.serializeAttributes(attrBuilder);
+		this.serializeAttributes(attrBuilder, context);
 		attrBuilder.end();
 
 		// Add nested elements array
 		if(nestedElementProvideParentBuilder) {
-			this.serializeNestedElements(builder);
+			this.serializeNestedElements(builder, context);
 		}
 		else {
 			ArrayBuilder elementsBuilder = builder.addArray();
-			this.serializeNestedElements(elementsBuilder);
+			this.serializeNestedElements(elementsBuilder, context);
 			elementsBuilder.end();
 		}
 	}
@@ -94,17 +157,18 @@ public abstract class AbstractElementBase {
 	 * Serialize namespace and element name into the specified ArrayBuilder.
 	 *
 	 * @param builder ArrayBuilder instance to serialize into
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORSerializationException
 	 */
-	protected void serializeNamespaceAndName(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNamespaceAndName(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			DataItem namespaceCborName;
 			DataItem elementCborName;
 
-			Dictionary dict = DictionaryProvider.getInstance();
+			Dictionary dict = context.getDictionary();
 
 			namespaceCborName = this.getNamespaceMapping(this.namespace, dict);
-			elementCborName = this.getTopLevelElementNameMapping(this.elementName, dict.lookupNamespace(this.namespace));
+			elementCborName = this.getTopLevelElementNameMapping(this.elementName, context.lookupNamespace(this.namespace));
 
 			builder.add(namespaceCborName);
 			builder.add(elementCborName);
@@ -122,9 +186,10 @@ public abstract class AbstractElementBase {
 	 * By default this is a no-op method and needs to be overridden by extending classes.
 	 *
 	 * @param builder Attributes ArrayBuilder instance
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORSerializationException
 	 */
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {};
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {};
 
 
 	/**
@@ -134,9 +199,10 @@ public abstract class AbstractElementBase {
 	 * By default this is a no-op method and needs to be overridden by extending classes.
 	 *
 	 * @param builder Nested elements ArrayBuilder instance
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORSerializationException
 	 */
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {};
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {};
 
 
 	/**
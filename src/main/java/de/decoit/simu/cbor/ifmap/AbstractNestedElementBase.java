@@ -39,10 +39,11 @@ import org.apache.commons.lang3.StringUtils;
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "frozen")
+@ToString(exclude = "frozen")
 @Slf4j
-public abstract class AbstractNestedElementBase {
+public abstract class AbstractNestedElementBase implements Freezable {
+	private volatile boolean frozen = false;
 	protected boolean nestedElementProvideParentBuilder = false;
 	@Getter
 	protected final String elementName;
@@ -57,7 +58,72 @@ public abstract class AbstractNestedElementBase {
 	}
 
 
+	/**
+	 * Lock this element and all nested elements against modification.
+	 * Subclasses containing nested elements freeze them in {@link #freezeNestedElements()}.
+	 */
+	@Override
+	public final void freeze() {
+		if(this.frozen) {
+			return;
+		}
+
+		this.freezeNestedElements();
+		this.frozen = true;
+	}
+
+
+	@Override
+	public final boolean isFrozen() {
+		return this.frozen;
+	}
+
+
+	/**
+	 * Freeze the nested elements of this element.
+	 * The default implementation does nothing, subclasses containing nested elements must override it.
+	 */
+	protected void freezeNestedElements() {
+	}
+
+
+	/**
+	 * Make sure that this element is not frozen, this must be called by all mutating methods.
+	 *
+	 * @throws IllegalStateException if this element is frozen
+	 */
+	protected final void checkNotFrozen() {
+		if(this.frozen) {
+			throw new IllegalStateException("Element is frozen and must not be modified");
+		}
+	}
+
+
+	/**
+	 * Serialize this element into the specified ArrayBuilder using the global dictionary.
+	 *
+	 * @param builder ArrayBuilder instance to serialize into
+	 * @param parentElementEntry Dictionary entry of parent element
+	 * @throws CBORSerializationException if serialization failed
+	 */
 	public void cborSerialize(final ArrayBuilder<?> builder, final DictionarySimpleElement parentElementEntry) throws CBORSerializationException {
+		this.cborSerialize(builder, parentElementEntry, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Serialize this element into the specified ArrayBuilder using the dictionary of the specified context.
+	 *
+	 * @param builder ArrayBuilder instance to serialize into
+	 * @param parentElementEntry Dictionary entry of parent element
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if serialization failed
+	 */
+	public void cborSerialize(final ArrayBuilder<?> builder, final DictionarySimpleElement parentElementEntry, final CodecContext context) throws CBORSerializationException {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
 		try {
 			DictionarySimpleElement elementEntry = DictionaryHelper.findNestedElement(this.elementName, parentElementEntry);
 
@@ -65,16 +131,16 @@ public abstract class AbstractNestedElementBase {
 
 			// Add attributes array
 			ArrayBuilder attrBuilder = builder.addArray();
-			this.serializeAttributes(attrBuilder, elementEntry);
+			this.serializeAttributes(attrBuilder, elementEntry, context);
 			attrBuilder.end();
 
 			// Add nested elements array
 			if(nestedElementProvideParentBuilder) {
-				this.serializeNestedElements(builder, elementEntry);
+				this.serializeNestedElements(builder, elementEntry, context);
 			}
 			else {
 				ArrayBuilder elementsBuilder = builder.addArray();
-				this.serializeNestedElements(elementsBuilder, elementEntry);
+				this.serializeNestedElements(elementsBuilder, elementEntry, context);
 				elementsBuilder.end();
 			}
 		}
@@ -118,9 +184,10 @@ public abstract class AbstractNestedElementBase {
 	 *
 	 * @param builder Attributes ArrayBuilder instance
 	 * @param elementEntry Dictionary entry of parent element
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORSerializationException
 	 */
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {};
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {};
 
 
 	/**
@@ -131,9 +198,10 @@ public abstract class AbstractNestedElementBase {
 	 *
 	 * @param builder Nested elements ArrayBuilder instance
 	 * @param elementEntry Dictionary entry of parent element
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORSerializationException
 	 */
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {};
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {};
 
 
 	/**
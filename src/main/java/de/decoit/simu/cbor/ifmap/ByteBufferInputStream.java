@@ -0,0 +1,64 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+
+
+/**
+ * Minimal {@link InputStream} reading from a {@link ByteBuffer}, used to feed the CBOR decoder without
+ * copying the buffer contents. The decoder only reads the bytes of the data items it decodes, so the
+ * position of the buffer marks the end of the last decoded item.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+final class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer buffer;
+
+
+	ByteBufferInputStream(final ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+
+	@Override
+	public int read() {
+		if(!this.buffer.hasRemaining()) {
+			return -1;
+		}
+
+		return this.buffer.get() & 0xFF;
+	}
+
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if(len == 0) {
+			return 0;
+		}
+
+		if(!this.buffer.hasRemaining()) {
+			return -1;
+		}
+
+		int count = Math.min(len, this.buffer.remaining());
+		this.buffer.get(b, off, count);
+
+		return count;
+	}
+}
@@ -22,11 +22,16 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.ResponseDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.ResponseVisitorDriver;
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.RequestHeader;
 import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.util.CBORHeaderHelper;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -35,6 +40,9 @@ import java.util.List;
  * {@link InputStream}. In both cases the data must follow the specified structure, otherwise the
  * process will fail.
  * 
+ * All methods of this class may be called concurrently from any number of threads. The deserializers are
+ * stateless singletons and the registries of the deserializer managers are immutable snapshots.
+ * 
  * @author Thomas Rix (rix@decoit.de)
  */
 public class CBORDeserializer {
@@ -48,10 +56,24 @@ public class CBORDeserializer {
 	 * @throws CBORDeserializationException if anything goes wrong during deserialization
 	 */
 	public static AbstractRequest deserializeRequest(byte[] cborBytes) throws CBORDeserializationException {
+		return deserializeRequest(cborBytes, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a byte array that contains CBOR data representing an IF-MAP request into java objects.
+	 * The dictionary of the specified codec context is used to map CBOR names.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP request
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized request object structure
+	 * @throws CBORDeserializationException if anything goes wrong during deserialization
+	 */
+	public static AbstractRequest deserializeRequest(byte[] cborBytes, CodecContext context) throws CBORDeserializationException {
 		try {
-			ByteArrayInputStream bis = new ByteArrayInputStream(cborBytes);
+			InputStream bis = limitInput(cborBytes, context);
 
-			return deserializeRequest(bis);
+			return deserializeRequest(bis, context);
 		}
 		catch(RuntimeException ex) {
 			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
@@ -68,8 +90,23 @@ public class CBORDeserializer {
 	 * @throws CBORDeserializationException if anything goes wrong during deserialization
 	 */
 	public static AbstractRequest deserializeRequest(InputStream cborInputStream) throws CBORDeserializationException {
+		return deserializeRequest(cborInputStream, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform the bytes inside the provided {@link InputStream} into java objects.
+	 * The bytes must represent a valid IF-MAP request. The dictionary of the specified codec context is used
+	 * to map CBOR names.
+	 * 
+	 * @param cborInputStream CBOR byte string representing a IF-MAP request
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized request object structure
+	 * @throws CBORDeserializationException if anything goes wrong during deserialization
+	 */
+	public static AbstractRequest deserializeRequest(InputStream cborInputStream, CodecContext context) throws CBORDeserializationException {
 		try {
-			CborDecoder cd = new CborDecoder(cborInputStream);
+			CborDecoder cd = new CborDecoder(limitInput(cborInputStream, context));
 			List<DataItem> diList = cd.decode();
 			
 			if(diList.isEmpty()) {
@@ -87,7 +124,8 @@ public class CBORDeserializer {
 			AbstractRequest result = RequestDeserializerManager.deserialize(topLevelArray.getDataItems().get(0), 
 																	 topLevelArray.getDataItems().get(1), 
 																	 (Array)topLevelArray.getDataItems().get(2), 
-																	 (Array)topLevelArray.getDataItems().get(3));
+																	 (Array)topLevelArray.getDataItems().get(3),
+																	 context);
 			
 			return result;
 		}
@@ -110,10 +148,24 @@ public class CBORDeserializer {
 	 * @throws CBORDeserializationException if anything goes wrong during deserialization
 	 */
 	public static CBORResponse deserializeResponse(byte[] cborBytes) throws CBORDeserializationException {
+		return deserializeResponse(cborBytes, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a byte array that contains CBOR data representing an IF-MAP response into java objects.
+	 * The dictionary of the specified codec context is used to map CBOR names.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP response
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized response object structure
+	 * @throws CBORDeserializationException if anything goes wrong during deserialization
+	 */
+	public static CBORResponse deserializeResponse(byte[] cborBytes, CodecContext context) throws CBORDeserializationException {
 		try {
-			ByteArrayInputStream bis = new ByteArrayInputStream(cborBytes);
+			InputStream bis = limitInput(cborBytes, context);
 
-			return deserializeResponse(bis);
+			return deserializeResponse(bis, context);
 		}
 		catch(RuntimeException ex) {
 			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
@@ -130,8 +182,23 @@ public class CBORDeserializer {
 	 * @throws CBORDeserializationException if anything goes wrong during deserialization
 	 */
 	public static CBORResponse deserializeResponse(InputStream cborInputStream) throws CBORDeserializationException {
+		return deserializeResponse(cborInputStream, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform the bytes inside the provided {@link InputStream} into java objects.
+	 * The bytes must represent a valid IF-MAP response. The dictionary of the specified codec context is used
+	 * to map CBOR names.
+	 * 
+	 * @param cborInputStream CBOR byte string representing a IF-MAP response
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized response object structure
+	 * @throws CBORDeserializationException if anything goes wrong during deserialization
+	 */
+	public static CBORResponse deserializeResponse(InputStream cborInputStream, CodecContext context) throws CBORDeserializationException {
 		try {
-			CborDecoder cd = new CborDecoder(cborInputStream);
+			CborDecoder cd = new CborDecoder(limitInput(cborInputStream, context));
 			List<DataItem> diList = cd.decode();
 			
 			if(diList.isEmpty()) {
@@ -149,7 +216,8 @@ public class CBORDeserializer {
 			CBORResponse result = ResponseDeserializerManager.deserialize(topLevelArray.getDataItems().get(0), 
 																	 topLevelArray.getDataItems().get(1), 
 																	 (Array)topLevelArray.getDataItems().get(2), 
-																	 (Array)topLevelArray.getDataItems().get(3));
+																	 (Array)topLevelArray.getDataItems().get(3),
+																	 context);
 			
 			return result;
 		}
@@ -160,4 +228,380 @@ public class CBORDeserializer {
 			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
 		}
 	}
+	
+	
+	/**
+	 * Walk the CBOR data of an IF-MAP response contained in a byte array and report its content to the
+	 * specified visitor instead of building the response object structure.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP response
+	 * @param visitor Visitor receiving the decoding events
+	 * @throws CBORDeserializationException if anything goes wrong during decoding or the visitor aborted it
+	 */
+	public static void visitResponse(byte[] cborBytes, ResponseVisitor visitor) throws CBORDeserializationException {
+		visitResponse(cborBytes, visitor, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Walk the CBOR data of an IF-MAP response contained in a byte array and report its content to the
+	 * specified visitor instead of building the response object structure. The dictionary and decode options
+	 * of the specified codec context are used.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP response
+	 * @param visitor Visitor receiving the decoding events
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORDeserializationException if anything goes wrong during decoding or the visitor aborted it
+	 */
+	public static void visitResponse(byte[] cborBytes, ResponseVisitor visitor, CodecContext context) throws CBORDeserializationException {
+		try {
+			InputStream bis = limitInput(cborBytes, context);
+
+			visitResponse(bis, visitor, context);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
+		}
+	}
+	
+	
+	/**
+	 * Walk the CBOR data of an IF-MAP response read from the provided {@link InputStream} and report its
+	 * content to the specified visitor instead of building the response object structure. The dictionary
+	 * and decode options of the specified codec context are used. The message is decoded into CBOR data
+	 * items completely before the visitor is driven, see {@link ResponseVisitor} for the resulting costs.
+	 * 
+	 * @param cborInputStream CBOR byte string representing a IF-MAP response
+	 * @param visitor Visitor receiving the decoding events
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORDeserializationException if anything goes wrong during decoding or the visitor aborted it
+	 */
+	public static void visitResponse(InputStream cborInputStream, ResponseVisitor visitor, CodecContext context) throws CBORDeserializationException {
+		try {
+			CborDecoder cd = new CborDecoder(limitInput(cborInputStream, context));
+			List<DataItem> diList = cd.decode();
+			
+			if(diList.isEmpty()) {
+				throw new CBORDeserializationException("InputStream did not contain CBOR data items");
+			}
+			
+			if(diList.get(0).getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid data structure! "
+													   + "Expected top level array data item, found: "
+													   + diList.get(0).getMajorType());
+			}
+			
+			Array topLevelArray = (Array) diList.get(0);
+		
+			ResponseVisitorDriver.visit(topLevelArray.getDataItems().get(0), 
+										topLevelArray.getDataItems().get(1), 
+										(Array)topLevelArray.getDataItems().get(2), 
+										(Array)topLevelArray.getDataItems().get(3),
+										visitor,
+										context);
+		}
+		catch(CborException ex) {
+			throw new CBORDeserializationException("Error during CBOR decoding, see nested exception for details", ex);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
+		}
+	}
+
+	
+	/**
+	 * Validate and deserialize a byte array that contains CBOR data representing an IF-MAP request.
+	 * Malformed messages are reported by a failed {@link DecodeResult} instead of an exception.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP request
+	 * @return Result carrying the deserialized request or the reason for rejecting it
+	 */
+	public static DecodeResult<AbstractRequest> tryDeserializeRequest(byte[] cborBytes) {
+		return tryDeserializeRequest(cborBytes, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Validate and deserialize a byte array that contains CBOR data representing an IF-MAP request.
+	 * Instead of throwing an exception, malformed messages are reported by a failed {@link DecodeResult}
+	 * carrying an error code and the offset of the failure. The structure of the CBOR data is validated
+	 * before any data item is created, so garbage input is rejected without exceptions. The dictionary
+	 * and decode options of the specified codec context are used, decode limits are enforced if present.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP request
+	 * @param context Codec context providing the dictionary
+	 * @return Result carrying the deserialized request or the reason for rejecting it
+	 */
+	public static DecodeResult<AbstractRequest> tryDeserializeRequest(byte[] cborBytes, CodecContext context) {
+		DecodeResult<Array> topLevel = validateTopLevelArray(cborBytes, context);
+		if(!topLevel.isSuccess()) {
+			return topLevel.asFailure();
+		}
+		
+		Array topLevelArray = topLevel.getValue();
+		try {
+			return DecodeResult.success(RequestDeserializerManager.deserialize(topLevelArray.getDataItems().get(0), 
+																			   topLevelArray.getDataItems().get(1), 
+																			   (Array)topLevelArray.getDataItems().get(2), 
+																			   (Array)topLevelArray.getDataItems().get(3),
+																			   context));
+		}
+		catch(CBORDeserializationException | RuntimeException ex) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, ex.getMessage(), DecodeResult.UNKNOWN_OFFSET);
+		}
+	}
+	
+	
+	/**
+	 * Validate and deserialize a byte array that contains CBOR data representing an IF-MAP response.
+	 * Malformed messages are reported by a failed {@link DecodeResult} instead of an exception.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP response
+	 * @return Result carrying the deserialized response or the reason for rejecting it
+	 */
+	public static DecodeResult<CBORResponse> tryDeserializeResponse(byte[] cborBytes) {
+		return tryDeserializeResponse(cborBytes, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Validate and deserialize a byte array that contains CBOR data representing an IF-MAP response.
+	 * Instead of throwing an exception, malformed messages are reported by a failed {@link DecodeResult}
+	 * carrying an error code and the offset of the failure. The structure of the CBOR data is validated
+	 * before any data item is created, so garbage input is rejected without exceptions. The dictionary
+	 * and decode options of the specified codec context are used, decode limits are enforced if present.
+	 * 
+	 * @param cborBytes CBOR byte string representing a IF-MAP response
+	 * @param context Codec context providing the dictionary
+	 * @return Result carrying the deserialized response or the reason for rejecting it
+	 */
+	public static DecodeResult<CBORResponse> tryDeserializeResponse(byte[] cborBytes, CodecContext context) {
+		DecodeResult<Array> topLevel = validateTopLevelArray(cborBytes, context);
+		if(!topLevel.isSuccess()) {
+			return topLevel.asFailure();
+		}
+		
+		Array topLevelArray = topLevel.getValue();
+		try {
+			return DecodeResult.success(ResponseDeserializerManager.deserialize(topLevelArray.getDataItems().get(0), 
+																				topLevelArray.getDataItems().get(1), 
+																				(Array)topLevelArray.getDataItems().get(2), 
+																				(Array)topLevelArray.getDataItems().get(3),
+																				context));
+		}
+		catch(CBORDeserializationException | RuntimeException ex) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, ex.getMessage(), DecodeResult.UNKNOWN_OFFSET);
+		}
+	}
+	
+	
+	/**
+	 * Validate the CBOR data of a message and decode its top level array.
+	 * The raw data is scanned first, the top level array is only decoded if the data is well formed and
+	 * within the decode limits of the codec context. The nesting depth is capped at
+	 * {@link DecodeLimits#DEFAULT_MAX_DEPTH} even if the context has no or higher limits. The array must contain namespace, name, attributes
+	 * and nested tags.
+	 * 
+	 * @param cborBytes CBOR data of the message
+	 * @param context Codec context providing the decode options
+	 * @return Result carrying the top level array or the reason for rejecting the message
+	 */
+	private static DecodeResult<Array> validateTopLevelArray(byte[] cborBytes, CodecContext context) {
+		if(cborBytes == null) {
+			throw new IllegalArgumentException("CBOR bytes must not be null");
+		}
+		
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+		
+		if(cborBytes.length == 0) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, "Message did not contain CBOR data items", 0);
+		}
+		
+		DecodeLimits limits = context.getDecodeOptions().getDecodeLimits();
+		if(limits == null) {
+			limits = DecodeLimits.getUnlimited();
+		}
+		
+		// The decoder is recursive, deeper messages would overflow the stack instead of failing
+		if(limits.getMaxDepth() > DecodeLimits.DEFAULT_MAX_DEPTH) {
+			limits = limits.withMaxDepth(DecodeLimits.DEFAULT_MAX_DEPTH);
+		}
+		
+		DecodeResult<Void> scanResult = DecodeLimitChecker.scan(cborBytes, limits);
+		if(!scanResult.isSuccess()) {
+			return scanResult.asFailure();
+		}
+		
+		if(MajorType.ofByte(cborBytes[0] & 0xFF) != MajorType.ARRAY) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, "Invalid data structure! Expected top level array data item, found: "
+										+ MajorType.ofByte(cborBytes[0] & 0xFF), 0);
+		}
+		
+		DataItem topLevelItem;
+		try {
+			topLevelItem = new CborDecoder(new ByteArrayInputStream(cborBytes)).decodeNext();
+		}
+		catch(CborException ex) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, ex.getMessage(), DecodeResult.UNKNOWN_OFFSET);
+		}
+		
+		List<DataItem> topLevelDataItems = ((Array) topLevelItem).getDataItems();
+		if(topLevelDataItems.size() != 4
+		   || topLevelDataItems.get(2).getMajorType() != MajorType.ARRAY
+		   || topLevelDataItems.get(3).getMajorType() != MajorType.ARRAY) {
+			return DecodeResult.failure(IfMapErrorCode.FAILURE, "Invalid data structure! "
+										+ "Expected top level array of namespace, name, attributes and nested tags", 0);
+		}
+		
+		return DecodeResult.success((Array) topLevelItem);
+	}
+	
+	
+	/**
+	 * Read the header of an IF-MAP request from the provided buffer without decoding the request body.
+	 * Only the top level namespace, name and attribute array are decoded, the nested tags are left unread.
+	 * This allows routing a request by its type and session ID at a fraction of the cost of a full decode.
+	 * The position of the buffer is not modified.
+	 * 
+	 * @param cborBuffer Buffer containing the CBOR data representing a IF-MAP request
+	 * @return The request header
+	 * @throws CBORDeserializationException if the header cannot be read
+	 */
+	public static RequestHeader peekRequestHeader(ByteBuffer cborBuffer) throws CBORDeserializationException {
+		return peekRequestHeader(cborBuffer, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Read the header of an IF-MAP request from the provided buffer without decoding the request body.
+	 * Only the top level namespace, name and attribute array are decoded, the nested tags are left unread.
+	 * The position of the buffer is not modified. The dictionary of the specified codec context is used
+	 * to map CBOR names. If the context carries decode limits, the size of the buffer and the decoded
+	 * header items are checked against them, the request body is not scanned.
+	 * 
+	 * @param cborBuffer Buffer containing the CBOR data representing a IF-MAP request
+	 * @param context Codec context providing the dictionary
+	 * @return The request header
+	 * @throws CBORDeserializationException if the header cannot be read
+	 */
+	public static RequestHeader peekRequestHeader(ByteBuffer cborBuffer, CodecContext context) throws CBORDeserializationException {
+		if(cborBuffer == null) {
+			throw new IllegalArgumentException("CBOR buffer must not be null");
+		}
+		
+		ByteBuffer buffer = cborBuffer.duplicate();
+		
+		DecodeLimits limits = context.getDecodeOptions().getDecodeLimits();
+		if(limits != null) {
+			// Only namespace, name and attributes are decoded, the request body is not scanned
+			DecodeLimitChecker.checkHeader(buffer, limits, 3);
+		}
+		
+		try {
+			if(!buffer.hasRemaining()) {
+				throw new CBORDeserializationException("ByteBuffer did not contain CBOR data items");
+			}
+			
+			skipArrayHeader(buffer);
+			
+			CborDecoder cd = new CborDecoder(new ByteBufferInputStream(buffer));
+			DataItem namespace = cd.decodeNext();
+			DataItem name = cd.decodeNext();
+			DataItem attributes = cd.decodeNext();
+			
+			if(attributes == null || attributes.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid data structure! "
+													   + "Expected attribute array data item, found: "
+													   + (attributes != null ? attributes.getMajorType() : null));
+			}
+			
+			return RequestDeserializerManager.readHeader(namespace, name, (Array) attributes, context);
+		}
+		catch(CborException ex) {
+			throw new CBORDeserializationException("Error during CBOR decoding, see nested exception for details", ex);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
+		}
+	}
+	
+	
+	/**
+	 * Check the specified CBOR data against the decode limits of the codec context, if any.
+	 * 
+	 * @param cborBytes CBOR data
+	 * @param context Codec context providing the decode options
+	 * @return Stream reading the CBOR data
+	 * @throws CBORDeserializationException if a limit is exceeded
+	 */
+	private static InputStream limitInput(byte[] cborBytes, CodecContext context) throws CBORDeserializationException {
+		DecodeLimits limits = context.getDecodeOptions().getDecodeLimits();
+		if(limits == null) {
+			return new ByteArrayInputStream(cborBytes);
+		}
+		
+		DecodeLimitChecker.check(cborBytes, limits);
+		
+		return new CheckedInputStream(cborBytes);
+	}
+	
+	
+	/**
+	 * Read the CBOR data from the specified stream and check it against the decode limits of the codec
+	 * context, if any. Streams created by {@link #limitInput(byte[], CodecContext)} were already checked
+	 * and are returned unchanged.
+	 * 
+	 * @param cborInputStream Stream providing the CBOR data
+	 * @param context Codec context providing the decode options
+	 * @return Stream reading the CBOR data
+	 * @throws CBORDeserializationException if a limit is exceeded
+	 */
+	private static InputStream limitInput(InputStream cborInputStream, CodecContext context) throws CBORDeserializationException {
+		DecodeLimits limits = context.getDecodeOptions().getDecodeLimits();
+		if(limits == null || cborInputStream instanceof CheckedInputStream) {
+			return cborInputStream;
+		}
+		
+		byte[] cborBytes = DecodeLimitChecker.readBounded(cborInputStream, limits.getMaxBytes());
+		DecodeLimitChecker.check(cborBytes, limits);
+		
+		return new CheckedInputStream(cborBytes);
+	}
+	
+	
+	/**
+	 * Consume the initial byte and length bytes of the top level array from the buffer.
+	 * The length is not needed to read the header, so it is skipped.
+	 * 
+	 * @param buffer Buffer positioned at the top level data item
+	 * @throws CBORDeserializationException if the top level data item is not an array
+	 */
+	private static void skipArrayHeader(ByteBuffer buffer) throws CBORDeserializationException {
+		int initialByte = buffer.get() & 0xFF;
+		MajorType majorType = MajorType.ofByte(initialByte);
+		
+		if(majorType != MajorType.ARRAY) {
+			throw new CBORDeserializationException("Invalid data structure! "
+												   + "Expected top level array data item, found: "
+												   + majorType);
+		}
+		
+		// Length is not needed, arrays of indefinite length have no argument
+		int headerLength = CBORHeaderHelper.headerLength(initialByte);
+		if(headerLength > 1) {
+			buffer.position(buffer.position() + headerLength - 1);
+		}
+	}
+	
+	
+	/**
+	 * Stream over CBOR data which was already checked against the decode limits.
+	 */
+	private static final class CheckedInputStream extends ByteArrayInputStream {
+		CheckedInputStream(byte[] cborBytes) {
+			super(cborBytes);
+		}
+	}
 }
@@ -39,9 +39,23 @@ public class CBORSerializer {
 	 * @throws CBORSerializationException if anything goes wrong during serialization
 	 */
 	public static byte[] serializeRequest(AbstractRequest input) throws CBORSerializationException {
+		return serializeRequest(input, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a Java object request structure into a CBOR byte string.
+	 * The dictionary of the specified codec context is used to map XML names.
+	 * 
+	 * @param input Object structure to serialize
+	 * @param context Codec context providing the dictionary
+	 * @return Array containing the CBOR byte array
+	 * @throws CBORSerializationException if anything goes wrong during serialization
+	 */
+	public static byte[] serializeRequest(AbstractRequest input, CodecContext context) throws CBORSerializationException {
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		
-		serializeRequest(input, bos);
+		serializeRequest(input, bos, context);
 		
 		return bos.toByteArray();
 	}
@@ -56,11 +70,26 @@ public class CBORSerializer {
 	 * @throws CBORSerializationException if anything goes wrong during serialization
 	 */
 	public static void serializeRequest(AbstractRequest input, OutputStream targetStream) throws CBORSerializationException {
+		serializeRequest(input, targetStream, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a Java object request structure into a CBOR byte string.
+	 * The CBOR bytes will be sent to the specified target {@link OutputStream}. The dictionary of the
+	 * specified codec context is used to map XML names.
+	 * 
+	 * @param input Object structure to serialize
+	 * @param targetStream Bytes will be sent to this stream
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if anything goes wrong during serialization
+	 */
+	public static void serializeRequest(AbstractRequest input, OutputStream targetStream, CodecContext context) throws CBORSerializationException {
 		try {
 			CborBuilder cb = new CborBuilder();
 			ArrayBuilder ab = cb.addArray();
 
-			input.cborSerialize(ab);
+			input.cborSerialize(ab, context);
 
 			ab.end();
 
@@ -84,9 +113,23 @@ public class CBORSerializer {
 	 * @throws CBORSerializationException if anything goes wrong during serialization
 	 */
 	public static byte[] serializeResponse(AbstractResponse input) throws CBORSerializationException {
+		return serializeResponse(input, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a Java object response structure into a CBOR byte string.
+	 * The dictionary of the specified codec context is used to map XML names.
+	 * 
+	 * @param input Object structure to serialize
+	 * @param context Codec context providing the dictionary
+	 * @return Array containing the CBOR byte array
+	 * @throws CBORSerializationException if anything goes wrong during serialization
+	 */
+	public static byte[] serializeResponse(AbstractResponse input, CodecContext context) throws CBORSerializationException {
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		
-		serializeResponse(input, bos);
+		serializeResponse(input, bos, context);
 		
 		return bos.toByteArray();
 	}
@@ -101,11 +144,26 @@ public class CBORSerializer {
 	 * @throws CBORSerializationException if anything goes wrong during serialization
 	 */
 	public static void serializeResponse(AbstractResponse input, OutputStream targetStream) throws CBORSerializationException {
+		serializeResponse(input, targetStream, CodecContext.getDefault());
+	}
+	
+	
+	/**
+	 * Transform a Java object response structure into a CBOR byte string.
+	 * The CBOR bytes will be sent to the specified target {@link OutputStream}. The dictionary of the
+	 * specified codec context is used to map XML names.
+	 * 
+	 * @param input Object structure to serialize
+	 * @param targetStream Bytes will be sent to this stream
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if anything goes wrong during serialization
+	 */
+	public static void serializeResponse(AbstractResponse input, OutputStream targetStream, CodecContext context) throws CBORSerializationException {
 		try {
 			CborBuilder cb = new CborBuilder();
 			ArrayBuilder ab = cb.addArray();
 
-			input.cborSerialize(ab);
+			input.cborSerialize(ab, context);
 
 			ab.end();
 
@@ -0,0 +1,338 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
+import de.decoit.simu.cbor.xml.dictionary.Dictionary;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/**
+ * A codec context bundles the dictionary used for serialization and deserialization with the lookup caches
+ * built for that dictionary. It may be passed to {@link CBORSerializer} and {@link CBORDeserializer} to use a
+ * specific dictionary instead of the global one managed by the {@link DictionaryProvider}. That way a single
+ * JVM can talk to peers which use different dictionary revisions.
+ *
+ * Contexts are immutable and may be shared by any number of threads. The dictionary of a context created by
+ * {@link #forDictionary(Dictionary)} must not be modified after the context was created, otherwise the cached
+ * lookups may be outdated. The default context returned by {@link #getDefault()} always delegates to the
+ * current global dictionary, which may be replaced at any time. It only caches element descriptors and
+ * validates every cache hit against the namespace entry of the current global dictionary.
+ *
+ * A context also carries the {@link DecodeOptions} applied by the deserializer. Contexts with different
+ * options are created by {@link #withDecodeOptions(DecodeOptions)} and share the lookup caches of the
+ * context they were derived from.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public final class CodecContext {
+	private static final CodecContext DEFAULT_CONTEXT = new CodecContext(null);
+
+	private final Dictionary dictionary;
+	private final ConcurrentHashMap<String, Optional<DictionarySimpleElement>> elementPathCache;
+	private final ConcurrentHashMap<String, DictionaryNamespace> namespaceCache;
+	private final ConcurrentHashMap<DataItem, DictionaryNamespace> namespaceReverseCache;
+	private final ConcurrentHashMap<ElementKey, CachedDescriptor> elementDescriptorCache;
+	private final DecodeOptions decodeOptions;
+
+
+	/**
+	 * Get the default context.
+	 * It uses the global dictionary provided by {@link DictionaryProvider#getInstance()}.
+	 *
+	 * @return Default context
+	 */
+	public static CodecContext getDefault() {
+		return DEFAULT_CONTEXT;
+	}
+
+
+	/**
+	 * Create a new context using the specified dictionary.
+	 * The dictionary must be completely loaded and must not be modified afterwards.
+	 *
+	 * @param dictionary Dictionary to be used by the new context
+	 * @return The new context
+	 */
+	public static CodecContext forDictionary(final Dictionary dictionary) {
+		if(dictionary == null) {
+			throw new IllegalArgumentException("Dictionary must not be null");
+		}
+
+		return new CodecContext(dictionary);
+	}
+
+
+	/**
+	 * Private constructor, use the static factory methods to create contexts.
+	 *
+	 * @param dictionary Dictionary of this context, null for the global dictionary
+	 */
+	private CodecContext(final Dictionary dictionary) {
+		this.dictionary = dictionary;
+		this.decodeOptions = DecodeOptions.getDefault();
+
+		this.elementDescriptorCache = new ConcurrentHashMap<>();
+
+		if(dictionary != null) {
+			this.elementPathCache = new ConcurrentHashMap<>();
+			this.namespaceCache = new ConcurrentHashMap<>();
+			this.namespaceReverseCache = new ConcurrentHashMap<>();
+		}
+		else {
+			this.elementPathCache = null;
+			this.namespaceCache = null;
+			this.namespaceReverseCache = null;
+		}
+	}
+
+
+	/**
+	 * Private constructor used to derive a context with different decode options.
+	 * The derived context shares dictionary and lookup caches with the source context.
+	 *
+	 * @param source Context to derive from
+	 * @param decodeOptions Decode options of the derived context
+	 */
+	private CodecContext(final CodecContext source, final DecodeOptions decodeOptions) {
+		this.dictionary = source.dictionary;
+		this.elementPathCache = source.elementPathCache;
+		this.namespaceCache = source.namespaceCache;
+		this.namespaceReverseCache = source.namespaceReverseCache;
+		this.elementDescriptorCache = source.elementDescriptorCache;
+		this.decodeOptions = decodeOptions;
+	}
+
+
+	/**
+	 * Create a context that uses the same dictionary and lookup caches as this context, but applies the
+	 * specified decode options.
+	 *
+	 * @param decodeOptions Decode options of the new context
+	 * @return The new context
+	 */
+	public CodecContext withDecodeOptions(final DecodeOptions decodeOptions) {
+		if(decodeOptions == null) {
+			throw new IllegalArgumentException("Decode options must not be null");
+		}
+
+		return new CodecContext(this, decodeOptions);
+	}
+
+
+	/**
+	 * Get the decode options applied when deserializing with this context.
+	 *
+	 * @return Decode options
+	 */
+	public DecodeOptions getDecodeOptions() {
+		return this.decodeOptions;
+	}
+
+
+	/**
+	 * Check if this is the default context which uses the global dictionary.
+	 *
+	 * @return true if this is the default context, false otherwise
+	 */
+	public boolean isDefault() {
+		return this.dictionary == null;
+	}
+
+
+	/**
+	 * Get the dictionary used by this context.
+	 *
+	 * @return Dictionary object
+	 */
+	public Dictionary getDictionary() {
+		if(this.dictionary != null) {
+			return this.dictionary;
+		}
+
+		return DictionaryProvider.getInstance();
+	}
+
+
+	/**
+	 * Evaluate a dictionary path on the dictionary of this context.
+	 * Results are cached for contexts that were created for a specific dictionary.
+	 *
+	 * @param path Dictionary path to evaluate
+	 * @return The resolved dictionary entry or null, if the path did not resolve to an entry
+	 * @throws DictionaryPathException if the path cannot be evaluated
+	 */
+	public DictionarySimpleElement findElementByPath(final String path) throws DictionaryPathException {
+		if(this.elementPathCache == null) {
+			return this.getDictionary().findElementByPath(path);
+		}
+
+		Optional<DictionarySimpleElement> cached = this.elementPathCache.get(path);
+		if(cached == null) {
+			// Paths are built by the element classes and not read from the wire, so caching misses is safe here
+			cached = Optional.ofNullable(this.dictionary.findElementByPath(path));
+			this.elementPathCache.putIfAbsent(path, cached);
+		}
+
+		return cached.orElse(null);
+	}
+
+
+	/**
+	 * Look up a namespace by its XML name.
+	 * Only successful lookups are cached.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @return Namespace entry or null, if no entry was found
+	 */
+	public DictionaryNamespace lookupNamespace(final String namespace) {
+		if(this.namespaceCache == null) {
+			return this.getDictionary().lookupNamespace(namespace);
+		}
+
+		DictionaryNamespace rv = this.namespaceCache.get(namespace);
+		if(rv == null) {
+			rv = this.dictionary.lookupNamespace(namespace);
+
+			if(rv != null) {
+				this.namespaceCache.putIfAbsent(namespace, rv);
+			}
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Look up a namespace by its CBOR name.
+	 * Only successful lookups are cached to prevent unknown names read from the wire from growing the cache.
+	 *
+	 * @param namespace CBOR data item representing the namespace
+	 * @return Namespace entry or null, if no entry was found
+	 */
+	public DictionaryNamespace reverseLookupNamespace(final DataItem namespace) {
+		if(this.namespaceReverseCache == null) {
+			return this.getDictionary().reverseLookupNamespace(namespace);
+		}
+
+		DictionaryNamespace rv = this.namespaceReverseCache.get(namespace);
+		if(rv == null) {
+			rv = this.dictionary.reverseLookupNamespace(namespace);
+
+			if(rv != null) {
+				this.namespaceReverseCache.putIfAbsent(namespace, rv);
+			}
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Get the cached descriptor of the top level element identified by the specified CBOR namespace and name.
+	 * The default context only returns a cached descriptor if the namespace still resolves to the same
+	 * namespace entry in the global dictionary, so replacing the global dictionary invalidates the cache.
+	 *
+	 * @param namespace CBOR data item representing the namespace
+	 * @param elementName CBOR data item representing the element name
+	 * @return Cached descriptor or null, if no valid descriptor was cached
+	 */
+	public ElementDescriptor getElementDescriptor(final DataItem namespace, final DataItem elementName) {
+		CachedDescriptor cached = this.elementDescriptorCache.get(new ElementKey(namespace, elementName));
+
+		if(cached == null) {
+			return null;
+		}
+
+		if(this.dictionary == null && this.getDictionary().reverseLookupNamespace(namespace) != cached.namespaceEntry) {
+			return null;
+		}
+
+		return cached.descriptor;
+	}
+
+
+	/**
+	 * Cache the descriptor of the top level element identified by the specified CBOR namespace and name.
+	 * Callers must only cache descriptors backed by a dictionary entry, names that are unknown to the
+	 * dictionary are read from the wire and would let the cache grow without bounds.
+	 * The default context only caches descriptors whose namespace is a CBOR name of the global dictionary,
+	 * since the namespace entry is needed to validate the cached descriptor later. Descriptors which were
+	 * cached for a replaced global dictionary are overwritten.
+	 *
+	 * @param namespace CBOR data item representing the namespace
+	 * @param elementName CBOR data item representing the element name
+	 * @param descriptor Descriptor to cache
+	 */
+	public void cacheElementDescriptor(final DataItem namespace, final DataItem elementName, final ElementDescriptor descriptor) {
+		ElementKey key = new ElementKey(namespace, elementName);
+
+		if(this.dictionary != null) {
+			this.elementDescriptorCache.putIfAbsent(key, new CachedDescriptor(null, descriptor));
+			return;
+		}
+
+		DictionaryNamespace namespaceEntry = this.getDictionary().reverseLookupNamespace(namespace);
+		if(namespaceEntry != null) {
+			this.elementDescriptorCache.put(key, new CachedDescriptor(namespaceEntry, descriptor));
+		}
+	}
+
+
+
+	/**
+	 * Key of the element descriptor cache, combines CBOR namespace and element name.
+	 * Both data items are compared including their tags.
+	 */
+	@EqualsAndHashCode
+	private static final class ElementKey {
+		private final DataItem namespace;
+		private final DataItem elementName;
+
+
+		private ElementKey(final DataItem namespace, final DataItem elementName) {
+			this.namespace = namespace;
+			this.elementName = elementName;
+		}
+	}
+
+
+
+	/**
+	 * Entry of the element descriptor cache. The namespace entry is only set for the default context and is
+	 * used to detect a replaced global dictionary.
+	 */
+	private static final class CachedDescriptor {
+		private final DictionaryNamespace namespaceEntry;
+		private final ElementDescriptor descriptor;
+
+
+		private CachedDescriptor(final DictionaryNamespace namespaceEntry, final ElementDescriptor descriptor) {
+			this.namespaceEntry = namespaceEntry;
+			this.descriptor = descriptor;
+		}
+	}
+}
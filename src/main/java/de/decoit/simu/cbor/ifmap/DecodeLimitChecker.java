@@ -0,0 +1,455 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.util.CBORHeaderHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+
+/**
+ * Checks raw CBOR data against {@link DecodeLimits}.
+ * The data is scanned header by header without creating any data items. String payloads are skipped,
+ * so the scan is cheap compared to decoding and fails at the first header exceeding a limit.
+ * Independent of the limits, chains of more than {@value #MAX_CONSECUTIVE_TAGS} tags on a single item are
+ * rejected: the CBOR decoder processes tags recursively, so a long run of tag bytes would exhaust the stack.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+final class DecodeLimitChecker {
+	private static final long INDEFINITE = -1;
+	private static final int BREAK = 0xFF;
+	private static final int BUFFER_SIZE = 4096;
+	private static final int MAX_CONSECUTIVE_TAGS = 8;
+
+
+	/**
+	 * Read all bytes from the specified stream, failing as soon as more than the specified number of
+	 * bytes were read.
+	 *
+	 * @param in Stream to read from
+	 * @param maxBytes Maximum number of bytes
+	 * @return Bytes read from the stream
+	 * @throws CBORDeserializationException if the stream exceeds the maximum size or cannot be read
+	 */
+	static byte[] readBounded(final InputStream in, final long maxBytes) throws CBORDeserializationException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long total = 0;
+
+		try {
+			int read;
+			while((read = in.read(buffer)) != -1) {
+				total += read;
+				if(total > maxBytes) {
+					throw new CBORDeserializationException("Decode limit exceeded: message size exceeds maximum of "
+														   + maxBytes + " bytes");
+				}
+
+				out.write(buffer, 0, read);
+			}
+		}
+		catch(IOException ex) {
+			throw new CBORDeserializationException("Error while reading CBOR data, see nested exception for details", ex);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Check the specified CBOR data against the specified limits.
+	 *
+	 * @param data CBOR data
+	 * @param limits Limits to enforce
+	 * @throws CBORDeserializationException if a limit is exceeded or the data is malformed
+	 */
+	static void check(final byte[] data, final DecodeLimits limits) throws CBORDeserializationException {
+		check(ByteBuffer.wrap(data), limits);
+	}
+
+
+	/**
+	 * Check the CBOR data between position and limit of the specified buffer against the specified limits.
+	 * The position of the buffer is not modified.
+	 *
+	 * @param data Buffer containing the CBOR data
+	 * @param limits Limits to enforce
+	 * @throws CBORDeserializationException if a limit is exceeded or the data is malformed
+	 */
+	static void check(final ByteBuffer data, final DecodeLimits limits) throws CBORDeserializationException {
+		DecodeResult<Void> result = scan(data, limits);
+
+		if(!result.isSuccess()) {
+			throw new CBORDeserializationException(result.describeFailure());
+		}
+	}
+
+
+	/**
+	 * Check the header of the message between position and limit of the specified buffer against the
+	 * specified limits, see {@link #scanHeader(ByteBuffer, DecodeLimits, int)}. The position of the buffer
+	 * is not modified.
+	 *
+	 * @param data Buffer containing the CBOR data
+	 * @param limits Limits to enforce
+	 * @param headerItems Number of leading items of the top level array forming the header
+	 * @throws CBORDeserializationException if a limit is exceeded or the header is malformed
+	 */
+	static void checkHeader(final ByteBuffer data, final DecodeLimits limits, final int headerItems) throws CBORDeserializationException {
+		DecodeResult<Void> result = scanHeader(data, limits, headerItems);
+
+		if(!result.isSuccess()) {
+			throw new CBORDeserializationException(result.describeFailure());
+		}
+	}
+
+
+	/**
+	 * Scan the specified CBOR data and check it against the specified limits without throwing exceptions.
+	 * Besides the limits, the scan verifies that the data is well formed: every header is complete, no
+	 * string exceeds the end of the data and every array, map and indefinite length string is closed.
+	 *
+	 * @param data CBOR data
+	 * @param limits Limits to enforce
+	 * @return Successful result or failure describing the first violation
+	 */
+	static DecodeResult<Void> scan(final byte[] data, final DecodeLimits limits) {
+		return scan(ByteBuffer.wrap(data), limits);
+	}
+
+
+	/**
+	 * Scan the CBOR data between position and limit of the specified buffer, see {@link #scan(byte[], DecodeLimits)}.
+	 * Reported offsets are relative to the position of the buffer, which is not modified.
+	 *
+	 * @param buffer Buffer containing the CBOR data
+	 * @param limits Limits to enforce
+	 * @return Successful result or failure describing the first violation
+	 */
+	static DecodeResult<Void> scan(final ByteBuffer buffer, final DecodeLimits limits) {
+		int size = buffer.remaining();
+
+		if(size > limits.getMaxBytes()) {
+			return sizeFailure(size, limits);
+		}
+
+		return scan(buffer, buffer.position(), limits, 0, Long.MAX_VALUE);
+	}
+
+
+	/**
+	 * Scan only the header of the message between position and limit of the specified buffer and check it
+	 * against the specified limits. The maximum message size is applied to the remaining bytes of the
+	 * buffer, then the top level array header and its first {@code headerItems} items are scanned like
+	 * {@link #scan(ByteBuffer, DecodeLimits)} does. The items following the header are not read, so the
+	 * cost does not depend on the size of the message body. If the message does not start with an array,
+	 * only the size is checked and reporting the unexpected item is left to the reader.
+	 * Reported offsets are relative to the position of the buffer, which is not modified.
+	 *
+	 * @param buffer Buffer containing the CBOR data
+	 * @param limits Limits to enforce
+	 * @param headerItems Number of leading items of the top level array forming the header
+	 * @return Successful result or failure describing the first violation
+	 */
+	static DecodeResult<Void> scanHeader(final ByteBuffer buffer, final DecodeLimits limits, final int headerItems) {
+		int start = buffer.position();
+		int size = buffer.remaining();
+
+		if(size > limits.getMaxBytes()) {
+			return sizeFailure(size, limits);
+		}
+
+		if(size == 0 || CBORHeaderHelper.majorType(buffer.get(start)) != 4) {
+			return DecodeResult.success(null);
+		}
+
+		int initialByte = buffer.get(start) & 0xFF;
+		int headerLength = CBORHeaderHelper.headerLength(initialByte);
+		long count;
+
+		if(headerLength > 0) {
+			if(headerLength > size) {
+				return failure("Malformed CBOR data: truncated header", 0);
+			}
+
+			count = CBORHeaderHelper.argument(buffer, start);
+			if(count < 0 || count > limits.getMaxArrayLength()) {
+				return failure("Decode limit exceeded: array length of " + Long.toUnsignedString(count)
+							   + " exceeds maximum of " + limits.getMaxArrayLength(), 0);
+			}
+		}
+		else if(CBORHeaderHelper.additionalInfo(initialByte) == CBORHeaderHelper.INDEFINITE_LENGTH) {
+			headerLength = 1;
+			count = headerItems;
+		}
+		else {
+			return failure("Malformed CBOR data: invalid additional information " + CBORHeaderHelper.additionalInfo(initialByte), 0);
+		}
+
+		if(limits.getMaxItems() < 1) {
+			return failure("Decode limit exceeded: number of data items exceeds maximum of " + limits.getMaxItems(), 0);
+		}
+
+		if(count == 0) {
+			return DecodeResult.success(null);
+		}
+
+		if(limits.getMaxDepth() < 1) {
+			return failure("Decode limit exceeded: nesting depth exceeds maximum of " + limits.getMaxDepth(), 0);
+		}
+
+		return scan(buffer, start + headerLength, limits, 1, Math.min(count, headerItems));
+	}
+
+
+	/**
+	 * Scan CBOR data starting at the specified absolute position inside of {@code baseDepth} already opened
+	 * containers, which are counted as data items. The scan stops at the limit of the buffer or when the
+	 * specified number of items on the starting level was completed, whatever comes first.
+	 *
+	 * @param buffer Buffer containing the CBOR data, offsets are reported relative to its position
+	 * @param from Absolute position of the first header to scan
+	 * @param limits Limits to enforce
+	 * @param baseDepth Number of containers enclosing the scanned items
+	 * @param topLevelItems Number of items on the starting level after which the scan stops
+	 * @return Successful result or failure describing the first violation
+	 */
+	private static DecodeResult<Void> scan(final ByteBuffer buffer, final int from, final DecodeLimits limits,
+										   final int baseDepth, final long topLevelItems) {
+		int start = buffer.position();
+		int end = buffer.limit();
+
+		// Remaining number of items of every open array or map, INDEFINITE for indefinite length containers
+		long[] remaining = new long[16];
+		int depth = 0;
+		long items = baseDepth;
+		long completed = 0;
+		int tags = 0;
+		int pos = from;
+
+		while(pos < end && completed < topLevelItems) {
+			int offset = pos - start;
+			int initialByte = buffer.get(pos++) & 0xFF;
+
+			if(initialByte == BREAK) {
+				if(tags > 0) {
+					return failure("Malformed CBOR data: tag without tagged item", offset);
+				}
+
+				if(depth == 0 || remaining[depth-1] != INDEFINITE) {
+					return failure("Malformed CBOR data: unexpected break", offset);
+				}
+
+				depth--;
+				depth = completeItem(remaining, depth);
+				if(depth == 0) {
+					completed++;
+				}
+
+				continue;
+			}
+
+			int majorType = CBORHeaderHelper.majorType(initialByte);
+			int additionalInfo = CBORHeaderHelper.additionalInfo(initialByte);
+			int headerLength = CBORHeaderHelper.headerLength(initialByte);
+			long argument;
+
+			if(headerLength > 0) {
+				if(headerLength - 1 > end - pos) {
+					return failure("Malformed CBOR data: truncated header", offset);
+				}
+
+				argument = CBORHeaderHelper.argument(buffer, pos - 1);
+				pos += headerLength - 1;
+
+				// Arguments above Long.MAX_VALUE exceed every limit
+				if(argument < 0) {
+					argument = Long.MAX_VALUE;
+				}
+			}
+			else if(additionalInfo == CBORHeaderHelper.INDEFINITE_LENGTH && majorType >= 2 && majorType <= 5) {
+				argument = INDEFINITE;
+			}
+			else {
+				return failure("Malformed CBOR data: invalid additional information " + additionalInfo, offset);
+			}
+
+			// Tags only annotate the following item, but every tag costs a stack frame in the decoder
+			if(majorType == 6) {
+				tags++;
+				if(tags > MAX_CONSECUTIVE_TAGS) {
+					return failure("Malformed CBOR data: more than " + MAX_CONSECUTIVE_TAGS + " consecutive tags", offset);
+				}
+
+				continue;
+			}
+
+			tags = 0;
+
+			items++;
+			if(items > limits.getMaxItems()) {
+				return failure("Decode limit exceeded: number of data items exceeds maximum of " + limits.getMaxItems(), offset);
+			}
+
+			switch(majorType) {
+				case 2:
+				case 3:
+					if(argument == INDEFINITE) {
+						if(baseDepth + depth + 1 > limits.getMaxDepth()) {
+							return failure("Decode limit exceeded: nesting depth exceeds maximum of " + limits.getMaxDepth(), offset);
+						}
+
+						remaining = push(remaining, depth++, INDEFINITE);
+						break;
+					}
+
+					if(argument > limits.getMaxStringLength()) {
+						return failure("Decode limit exceeded: string length of " + argument + " bytes exceeds maximum of "
+									   + limits.getMaxStringLength() + " bytes", offset);
+					}
+
+					if(argument > end - pos) {
+						return failure("Malformed CBOR data: string exceeds the end of the message", offset);
+					}
+
+					pos += (int) argument;
+					depth = completeItem(remaining, depth);
+					break;
+				case 4:
+				case 5:
+					if(argument != INDEFINITE && argument > limits.getMaxArrayLength()) {
+						return failure("Decode limit exceeded: " + (majorType == 4 ? "array" : "map") + " length of "
+									   + argument + " exceeds maximum of " + limits.getMaxArrayLength(), offset);
+					}
+
+					if(argument == 0) {
+						depth = completeItem(remaining, depth);
+						break;
+					}
+
+					if(baseDepth + depth + 1 > limits.getMaxDepth()) {
+						return failure("Decode limit exceeded: nesting depth exceeds maximum of " + limits.getMaxDepth(), offset);
+					}
+
+					long count = argument;
+					if(majorType == 5 && argument != INDEFINITE) {
+						count = argument > Long.MAX_VALUE / 2 ? Long.MAX_VALUE : argument * 2;
+					}
+
+					remaining = push(remaining, depth++, count);
+					break;
+				default:
+					depth = completeItem(remaining, depth);
+					break;
+			}
+
+			if(depth == 0) {
+				completed++;
+			}
+		}
+
+		if(tags > 0) {
+			return failure("Malformed CBOR data: message ends after a tag", end - start);
+		}
+
+		if(depth != 0 || (baseDepth > 0 && completed < topLevelItems)) {
+			return failure("Malformed CBOR data: message ends inside an array, map or string", end - start);
+		}
+
+		return DecodeResult.success(null);
+	}
+
+
+	/**
+	 * Create a failed scan result for a message exceeding the maximum size.
+	 *
+	 * @param size Size of the message in bytes
+	 * @param limits Limits to enforce
+	 * @return Failed result
+	 */
+	private static DecodeResult<Void> sizeFailure(final int size, final DecodeLimits limits) {
+		return failure("Decode limit exceeded: message size of " + size + " bytes exceeds maximum of "
+					   + limits.getMaxBytes() + " bytes", 0);
+	}
+
+
+	/**
+	 * Create a failed scan result.
+	 *
+	 * @param message Description of the failure
+	 * @param offset Offset of the offending header
+	 * @return Failed result
+	 */
+	private static DecodeResult<Void> failure(final String message, final int offset) {
+		return DecodeResult.failure(IfMapErrorCode.FAILURE, message, offset);
+	}
+
+
+	/**
+	 * Open a new array, map or indefinite length string by storing its number of items at the specified
+	 * depth. The stack is grown if necessary.
+	 *
+	 * @param remaining Stack of remaining item counts
+	 * @param depth Depth of the new container
+	 * @param count Number of items of the new container
+	 * @return The stack, possibly grown
+	 */
+	private static long[] push(final long[] remaining, final int depth, final long count) {
+		long[] stack = remaining;
+		if(depth >= stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+		}
+
+		stack[depth] = count;
+
+		return stack;
+	}
+
+
+	/**
+	 * Mark an item as complete in its enclosing container. Containers whose last item was completed are
+	 * closed and completed in their parent container in turn.
+	 *
+	 * @param remaining Stack of remaining item counts
+	 * @param depth Current depth
+	 * @return New depth
+	 */
+	private static int completeItem(final long[] remaining, int depth) {
+		while(depth > 0 && remaining[depth-1] != INDEFINITE) {
+			remaining[depth-1]--;
+			if(remaining[depth-1] > 0) {
+				break;
+			}
+
+			depth--;
+		}
+
+		return depth;
+	}
+
+
+	/**
+	 * Private constructor, this class is not meant to be instanciated.
+	 */
+	private DecodeLimitChecker() {}
+}
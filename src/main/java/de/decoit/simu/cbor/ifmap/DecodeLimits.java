@@ -0,0 +1,207 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import java.nio.ByteBuffer;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+
+
+/**
+ * Resource limits enforced while decoding a message.
+ * The limits are checked on the raw CBOR data before any data item or domain object is created, so a
+ * message exceeding them is rejected without allocating memory for its declared contents. Limits are
+ * immutable, every modification returns a new limits object. They are attached to a codec context by
+ * calling {@link DecodeOptions#withDecodeLimits(DecodeLimits)}.
+ *
+ * The limits of a codec context are enforced by all entry points reading CBOR data with that context:
+ * the deserialize, tryDeserialize and visit methods of {@link CBORDeserializer},
+ * {@link CBORDeserializer#peekRequestHeader(java.nio.ByteBuffer, CodecContext)}, {@link SessionIdRewriter},
+ * the forEach methods of {@link de.decoit.simu.cbor.ifmap.view.MessageView} and
+ * {@link de.decoit.simu.cbor.ifmap.transcoder.CBORToXMLTranscoder}. The header peek and the session ID
+ * rewriter apply the maximum size to the whole buffer, but only scan the header items they read, so the
+ * other limits are not enforced on the request body. The CBOR to XML
+ * transcoder does not scan ahead, it checks every header while streaming, so XML written before a
+ * violation was found has already reached the writer. The XML to CBOR transcoder reads XML and is not
+ * affected by these limits.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class DecodeLimits {
+	/**
+	 * Nesting depth up to which messages are decoded when no lower maximum depth is set. The CBOR decoder
+	 * processes nested arrays recursively, so tryDeserialize rejects deeper messages even without limits.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 512;
+	private static final DecodeLimits UNLIMITED = new DecodeLimits(Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+	/**
+	 * Maximum total number of bytes of a message.
+	 */
+	private final long maxBytes;
+	/**
+	 * Maximum nesting depth of arrays and maps, the top level array has depth 1.
+	 */
+	private final int maxDepth;
+	/**
+	 * Maximum declared number of elements of an array or pairs of a map.
+	 */
+	private final long maxArrayLength;
+	/**
+	 * Maximum declared length of a text or byte string in bytes.
+	 */
+	private final long maxStringLength;
+	/**
+	 * Maximum total number of data items of a message.
+	 */
+	private final long maxItems;
+
+
+	/**
+	 * Get limits that do not restrict decoding at all.
+	 * Use the modification methods to derive limits from this object.
+	 *
+	 * @return Unlimited limits
+	 */
+	public static DecodeLimits getUnlimited() {
+		return UNLIMITED;
+	}
+
+
+	/**
+	 * Private constructor, use {@link #getUnlimited()} and the modification methods to create limits.
+	 *
+	 * @param maxBytes Maximum total number of bytes
+	 * @param maxDepth Maximum nesting depth
+	 * @param maxArrayLength Maximum array or map length
+	 * @param maxStringLength Maximum text or byte string length
+	 * @param maxItems Maximum total number of data items
+	 */
+	private DecodeLimits(final long maxBytes, 
+						 final int maxDepth, 
+						 final long maxArrayLength, 
+						 final long maxStringLength, 
+						 final long maxItems) {
+		this.maxBytes = maxBytes;
+		this.maxDepth = maxDepth;
+		this.maxArrayLength = maxArrayLength;
+		this.maxStringLength = maxStringLength;
+		this.maxItems = maxItems;
+	}
+
+
+	/**
+	 * Return a copy of these limits with the specified maximum total number of bytes of a message.
+	 * Messages read from an {@link java.io.InputStream} are buffered up to this size before they are checked,
+	 * so this limit also bounds the memory used for buffering.
+	 *
+	 * @param maxBytes Maximum number of bytes, must be positive
+	 * @return New limits object
+	 */
+	public DecodeLimits withMaxBytes(final long maxBytes) {
+		if(maxBytes <= 0) {
+			throw new IllegalArgumentException("Maximum number of bytes must be positive");
+		}
+
+		return new DecodeLimits(maxBytes, this.maxDepth, this.maxArrayLength, this.maxStringLength, this.maxItems);
+	}
+
+
+	/**
+	 * Return a copy of these limits with the specified maximum nesting depth of arrays and maps.
+	 *
+	 * @param maxDepth Maximum nesting depth, must be positive
+	 * @return New limits object
+	 */
+	public DecodeLimits withMaxDepth(final int maxDepth) {
+		if(maxDepth <= 0) {
+			throw new IllegalArgumentException("Maximum depth must be positive");
+		}
+
+		return new DecodeLimits(this.maxBytes, maxDepth, this.maxArrayLength, this.maxStringLength, this.maxItems);
+	}
+
+
+	/**
+	 * Return a copy of these limits with the specified maximum declared length of arrays and maps.
+	 * For maps the number of key/value pairs is checked.
+	 *
+	 * @param maxArrayLength Maximum array length, must not be negative
+	 * @return New limits object
+	 */
+	public DecodeLimits withMaxArrayLength(final long maxArrayLength) {
+		if(maxArrayLength < 0) {
+			throw new IllegalArgumentException("Maximum array length must not be negative");
+		}
+
+		return new DecodeLimits(this.maxBytes, this.maxDepth, maxArrayLength, this.maxStringLength, this.maxItems);
+	}
+
+
+	/**
+	 * Return a copy of these limits with the specified maximum length of text and byte strings in bytes.
+	 * For strings of indefinite length the length of each chunk is checked.
+	 *
+	 * @param maxStringLength Maximum string length, must not be negative
+	 * @return New limits object
+	 */
+	public DecodeLimits withMaxStringLength(final long maxStringLength) {
+		if(maxStringLength < 0) {
+			throw new IllegalArgumentException("Maximum string length must not be negative");
+		}
+
+		return new DecodeLimits(this.maxBytes, this.maxDepth, this.maxArrayLength, maxStringLength, this.maxItems);
+	}
+
+
+	/**
+	 * Return a copy of these limits with the specified maximum total number of data items of a message.
+	 * Every array, map, string, number and simple value counts as one item, tags are not counted.
+	 *
+	 * @param maxItems Maximum number of data items, must be positive
+	 * @return New limits object
+	 */
+	public DecodeLimits withMaxItems(final long maxItems) {
+		if(maxItems <= 0) {
+			throw new IllegalArgumentException("Maximum number of items must be positive");
+		}
+
+		return new DecodeLimits(this.maxBytes, this.maxDepth, this.maxArrayLength, this.maxStringLength, maxItems);
+	}
+
+
+	/**
+	 * Check the CBOR data between position and limit of the specified buffer against these limits.
+	 * The data is scanned without creating any data items, the position of the buffer is not modified.
+	 * Components reading raw CBOR data themselves use this method before reading.
+	 *
+	 * @param data Buffer containing the CBOR data
+	 * @throws CBORDeserializationException if a limit is exceeded or the data is malformed
+	 */
+	public void check(final ByteBuffer data) throws CBORDeserializationException {
+		if(data == null) {
+			throw new IllegalArgumentException("Buffer must not be null");
+		}
+
+		DecodeLimitChecker.check(data, this);
+	}
+}
@@ -0,0 +1,337 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+
+
+/**
+ * Options controlling how {@link CBORDeserializer} builds the domain objects of a message.
+ * Options are immutable, every modification returns a new options object. They are attached to a
+ * {@link CodecContext} by calling {@link CodecContext#withDecodeOptions(DecodeOptions)}.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@EqualsAndHashCode
+@ToString
+public final class DecodeOptions {
+	private static final DecodeOptions DEFAULT_OPTIONS = new Builder().build();
+
+	/**
+	 * If enabled, the metadata of search and poll result items is kept as CBOR data items and only
+	 * deserialized when it is accessed for the first time.
+	 */
+	@Getter
+	private final boolean lazyMetadata;
+	/**
+	 * Metadata classes accepted in search and poll results, null if metadata is not filtered by class.
+	 */
+	@Getter
+	private final Set<Class<? extends AbstractMetadata>> acceptedMetadataTypes;
+	/**
+	 * Metadata namespaces accepted in search and poll results, null if metadata is not filtered by namespace.
+	 */
+	@Getter
+	private final Set<String> acceptedMetadataNamespaces;
+	/**
+	 * Pool used to decode the result blocks of large poll results in parallel, null for sequential decoding.
+	 */
+	@Getter
+	private final ForkJoinPool parallelPool;
+	/**
+	 * Pool providing canonical instances of decoded identifiers, null if identifiers are not pooled.
+	 */
+	@Getter
+	private final IdentifierPool identifierPool;
+	/**
+	 * Resource limits enforced on the raw CBOR data, null if decoding is not limited.
+	 */
+	@Getter
+	private final DecodeLimits decodeLimits;
+	/**
+	 * If enabled, the lists of decoded result items, result blocks and publish operations are trimmed to their size.
+	 */
+	@Getter
+	private final boolean compactModel;
+	/**
+	 * If enabled, metadata without a registered deserializer is kept as {@link de.decoit.simu.cbor.ifmap.metadata.RawMetadata}.
+	 */
+	@Getter
+	private final boolean rawUnknownMetadata;
+
+
+	/**
+	 * Get the default options.
+	 * All metadata is deserialized eagerly, no metadata is filtered, poll results are decoded sequentially,
+	 * identifiers are not pooled, decoding is not limited, lists are not trimmed and unknown metadata
+	 * fails decoding.
+	 *
+	 * @return Default options
+	 */
+	public static DecodeOptions getDefault() {
+		return DEFAULT_OPTIONS;
+	}
+
+
+	/**
+	 * Private constructor, use {@link #getDefault()} and the modification methods to create options.
+	 *
+	 * @param builder Builder holding the option values
+	 */
+	private DecodeOptions(final Builder builder) {
+		this.lazyMetadata = builder.lazyMetadata;
+		this.acceptedMetadataTypes = builder.acceptedMetadataTypes;
+		this.acceptedMetadataNamespaces = builder.acceptedMetadataNamespaces;
+		this.parallelPool = builder.parallelPool;
+		this.identifierPool = builder.identifierPool;
+		this.decodeLimits = builder.decodeLimits;
+		this.compactModel = builder.compactModel;
+		this.rawUnknownMetadata = builder.rawUnknownMetadata;
+	}
+
+
+	/**
+	 * Create a builder initialized with the values of these options.
+	 * The modification methods change a single value of the builder and build the new options from it.
+	 *
+	 * @return New builder
+	 */
+	private Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.lazyMetadata = this.lazyMetadata;
+		builder.acceptedMetadataTypes = this.acceptedMetadataTypes;
+		builder.acceptedMetadataNamespaces = this.acceptedMetadataNamespaces;
+		builder.parallelPool = this.parallelPool;
+		builder.identifierPool = this.identifierPool;
+		builder.decodeLimits = this.decodeLimits;
+		builder.compactModel = this.compactModel;
+		builder.rawUnknownMetadata = this.rawUnknownMetadata;
+
+		return builder;
+	}
+
+
+	/**
+	 * Return a copy of these options with lazy deserialization of result item metadata enabled or disabled.
+	 * Lazy deserialization pays off if most consumers only look at the identifiers of a result item. The
+	 * CBOR data items of the metadata are kept in memory until it is accessed, which usually takes more
+	 * memory than the deserialized metadata.
+	 *
+	 * @param lazyMetadata true to enable lazy deserialization, false to disable it
+	 * @return New options object
+	 */
+	public DecodeOptions withLazyMetadata(final boolean lazyMetadata) {
+		Builder builder = this.toBuilder();
+		builder.lazyMetadata = lazyMetadata;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options which only accept metadata of the specified classes in search and poll
+	 * results. Other metadata is skipped without being deserialized and result items left without any
+	 * metadata are dropped. Metadata is accepted if it matches either the accepted classes or the accepted
+	 * namespaces.
+	 *
+	 * @param acceptedMetadataTypes Accepted metadata classes, null to disable filtering by class
+	 * @return New options object
+	 */
+	public DecodeOptions withAcceptedMetadataTypes(final Set<Class<? extends AbstractMetadata>> acceptedMetadataTypes) {
+		Set<Class<? extends AbstractMetadata>> types = null;
+		if(acceptedMetadataTypes != null) {
+			if(acceptedMetadataTypes.contains(null)) {
+				throw new IllegalArgumentException("Accepted metadata types must not contain null");
+			}
+
+			types = Collections.unmodifiableSet(new HashSet<>(acceptedMetadataTypes));
+		}
+
+		Builder builder = this.toBuilder();
+		builder.acceptedMetadataTypes = types;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options which only accept metadata of the specified namespaces in search and
+	 * poll results. Other metadata is skipped without being deserialized and result items left without any
+	 * metadata are dropped. Metadata is accepted if it matches either the accepted classes or the accepted
+	 * namespaces.
+	 *
+	 * @param acceptedMetadataNamespaces Accepted metadata namespaces, null to disable filtering by namespace
+	 * @return New options object
+	 */
+	public DecodeOptions withAcceptedMetadataNamespaces(final Set<String> acceptedMetadataNamespaces) {
+		Set<String> namespaces = null;
+		if(acceptedMetadataNamespaces != null) {
+			if(acceptedMetadataNamespaces.contains(null)) {
+				throw new IllegalArgumentException("Accepted metadata namespaces must not contain null");
+			}
+
+			namespaces = Collections.unmodifiableSet(new HashSet<>(acceptedMetadataNamespaces));
+		}
+
+		Builder builder = this.toBuilder();
+		builder.acceptedMetadataNamespaces = namespaces;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options which decode the result blocks of large poll results in parallel
+	 * using the specified pool. The blocks are independent of each other, the order of the decoded results
+	 * is the same as with sequential decoding. Small poll results are always decoded sequentially.
+	 *
+	 * @param parallelPool Pool used for decoding, for example {@link ForkJoinPool#commonPool()}, null to
+	 *                     decode sequentially
+	 * @return New options object
+	 */
+	public DecodeOptions withParallelPool(final ForkJoinPool parallelPool) {
+		Builder builder = this.toBuilder();
+		builder.parallelPool = parallelPool;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options which replace decoded identifiers by the canonical instances provided
+	 * by the specified pool. Use {@link IdentifierPool#getGlobal()} to share identifiers between all
+	 * sessions or a separate pool per session.
+	 *
+	 * @param identifierPool Pool providing canonical identifier instances, null to disable pooling
+	 * @return New options object
+	 */
+	public DecodeOptions withIdentifierPool(final IdentifierPool identifierPool) {
+		Builder builder = this.toBuilder();
+		builder.identifierPool = identifierPool;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options which enforce the specified resource limits. The raw CBOR data of
+	 * every message is checked against the limits before it is decoded, messages exceeding a limit are
+	 * rejected with a {@link de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException}.
+	 *
+	 * @param decodeLimits Resource limits, null to disable limits
+	 * @return New options object
+	 */
+	public DecodeOptions withDecodeLimits(final DecodeLimits decodeLimits) {
+		Builder builder = this.toBuilder();
+		builder.decodeLimits = decodeLimits;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options with compact mode enabled or disabled. In compact mode the lists of
+	 * decoded result items, result blocks, metadata and publish operations are trimmed to their exact size
+	 * instead of keeping the spare capacity of a growing list. This reduces the heap used by applications
+	 * keeping large numbers of decoded results, for example to mirror the graph of a MAP server.
+	 *
+	 * @param compactModel true to enable compact mode, false to disable it
+	 * @return New options object
+	 */
+	public DecodeOptions withCompactModel(final boolean compactModel) {
+		Builder builder = this.toBuilder();
+		builder.compactModel = compactModel;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Return a copy of these options with pass-through of unknown metadata enabled or disabled. If enabled,
+	 * metadata elements without a registered deserializer are decoded into
+	 * {@link de.decoit.simu.cbor.ifmap.metadata.RawMetadata} objects which keep the decoded data items and
+	 * are serialized unchanged. If disabled, such elements fail decoding of the whole message.
+	 *
+	 * @param rawUnknownMetadata true to enable pass-through, false to disable it
+	 * @return New options object
+	 */
+	public DecodeOptions withRawUnknownMetadata(final boolean rawUnknownMetadata) {
+		Builder builder = this.toBuilder();
+		builder.rawUnknownMetadata = rawUnknownMetadata;
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Check if these options filter the metadata of search and poll results.
+	 *
+	 * @return true if metadata is filtered, false if all metadata is accepted
+	 */
+	public boolean isMetadataFiltered() {
+		return this.acceptedMetadataTypes != null || this.acceptedMetadataNamespaces != null;
+	}
+
+
+	/**
+	 * Check if metadata of the specified namespace and class is accepted by these options.
+	 * If metadata is not filtered at all, this always returns true.
+	 *
+	 * @param namespace Namespace of the metadata element
+	 * @param metadataType Target class of the metadata element, may be null for unknown elements
+	 * @return true if the metadata is accepted, false otherwise
+	 */
+	public boolean acceptsMetadata(final String namespace, final Class<? extends AbstractMetadata> metadataType) {
+		if(!this.isMetadataFiltered()) {
+			return true;
+		}
+
+		if(this.acceptedMetadataTypes != null && metadataType != null && this.acceptedMetadataTypes.contains(metadataType)) {
+			return true;
+		}
+
+		return this.acceptedMetadataNamespaces != null && namespace != null && this.acceptedMetadataNamespaces.contains(namespace);
+	}
+
+
+	/**
+	 * Mutable holder of all option values, used to create modified copies of the immutable options.
+	 * The modification methods only set their own value, they are not affected by adding new options.
+	 */
+	private static final class Builder {
+		private boolean lazyMetadata;
+		private Set<Class<? extends AbstractMetadata>> acceptedMetadataTypes;
+		private Set<String> acceptedMetadataNamespaces;
+		private ForkJoinPool parallelPool;
+		private IdentifierPool identifierPool;
+		private DecodeLimits decodeLimits;
+		private boolean compactModel;
+		private boolean rawUnknownMetadata;
+
+
+		private DecodeOptions build() {
+			return new DecodeOptions(this);
+		}
+	}
+}
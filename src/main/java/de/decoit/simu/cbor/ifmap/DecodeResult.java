@@ -0,0 +1,199 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Result of a validation-first decode by {@link CBORDeserializer#tryDeserializeRequest(byte[], CodecContext)}
+ * or {@link CBORDeserializer#tryDeserializeResponse(byte[], CodecContext)}.
+ * A result either carries the decoded value or the reason why the message was rejected. Malformed
+ * messages are rejected without throwing exceptions wherever possible.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ * @param <T> Type of the decoded value
+ */
+@EqualsAndHashCode
+@ToString
+public final class DecodeResult<T> {
+	/**
+	 * Offset value used if the position of the failure within the message is unknown.
+	 */
+	public static final long UNKNOWN_OFFSET = -1;
+
+	private final T value;
+	/**
+	 * IF-MAP error code describing the failure, null for successful results.
+	 */
+	@Getter
+	private final IfMapErrorCode errorCode;
+	/**
+	 * Human readable description of the failure, null for successful results.
+	 */
+	@Getter
+	private final String errorMessage;
+	/**
+	 * Byte offset of the failure within the message or {@link #UNKNOWN_OFFSET}.
+	 */
+	@Getter
+	private final long offset;
+
+
+	/**
+	 * Create a successful result.
+	 *
+	 * @param <T> Type of the decoded value
+	 * @param value Decoded value
+	 * @return New result
+	 */
+	public static <T> DecodeResult<T> success(final T value) {
+		return new DecodeResult<>(value, null, null, UNKNOWN_OFFSET);
+	}
+
+
+	/**
+	 * Create a failed result.
+	 *
+	 * @param <T> Type of the value that could not be decoded
+	 * @param errorCode IF-MAP error code describing the failure
+	 * @param errorMessage Description of the failure
+	 * @param offset Byte offset of the failure or {@link #UNKNOWN_OFFSET}
+	 * @return New result
+	 */
+	public static <T> DecodeResult<T> failure(final IfMapErrorCode errorCode, final String errorMessage, final long offset) {
+		if(errorCode == null) {
+			throw new IllegalArgumentException("Error code must not be null");
+		}
+
+		return new DecodeResult<>(null, errorCode, errorMessage, offset);
+	}
+
+
+	/**
+	 * Private constructor, use {@link #success(Object)} or {@link #failure(IfMapErrorCode, String, long)}.
+	 *
+	 * @param value Decoded value
+	 * @param errorCode Error code, null for successful results
+	 * @param errorMessage Description of the failure
+	 * @param offset Byte offset of the failure
+	 */
+	private DecodeResult(final T value, final IfMapErrorCode errorCode, final String errorMessage, final long offset) {
+		this.value = value;
+		this.errorCode = errorCode;
+		this.errorMessage = errorMessage;
+		this.offset = offset;
+	}
+
+
+	/**
+	 * Check if the message was decoded successfully.
+	 *
+	 * @return true on success, false if the message was rejected
+	 */
+	public boolean isSuccess() {
+		return this.errorCode == null;
+	}
+
+
+	/**
+	 * Get the decoded value.
+	 *
+	 * @return Decoded value
+	 * @throws IllegalStateException if the message was rejected
+	 */
+	public T getValue() {
+		if(!this.isSuccess()) {
+			throw new IllegalStateException("Message was rejected: " + this.errorMessage);
+		}
+
+		return this.value;
+	}
+
+
+	/**
+	 * Convert a failed result to another value type.
+	 *
+	 * @param <U> Target value type
+	 * @return Failed result with the same failure information
+	 * @throws IllegalStateException if this result is successful
+	 */
+	public <U> DecodeResult<U> asFailure() {
+		if(this.isSuccess()) {
+			throw new IllegalStateException("Result is not a failure");
+		}
+
+		return new DecodeResult<>(null, this.errorCode, this.errorMessage, this.offset);
+	}
+
+
+	/**
+	 * Build an exception describing the failure, for callers that want to continue with exception handling.
+	 * The exception does not capture a stack trace, the failure is fully described by its message and offset.
+	 *
+	 * @return Exception describing the failure
+	 * @throws IllegalStateException if this result is successful
+	 */
+	public CBORDeserializationException toException() {
+		if(this.isSuccess()) {
+			throw new IllegalStateException("Result is not a failure");
+		}
+
+		return new CBORDeserializationException(this.describeFailure(), false);
+	}
+
+
+	/**
+	 * Build an IF-MAP error result describing the failure, for example to answer a rejected request.
+	 *
+	 * @return Error result
+	 * @throws IllegalStateException if this result is successful
+	 */
+	public CBORErrorResult toErrorResult() {
+		if(this.isSuccess()) {
+			throw new IllegalStateException("Result is not a failure");
+		}
+
+		CBORErrorResult errorResult = new CBORErrorResult(this.errorCode);
+		if(StringUtils.isNotBlank(this.errorMessage)) {
+			errorResult.setErrorString(this.describeFailure());
+		}
+
+		return errorResult;
+	}
+
+
+	/**
+	 * Describe the failure by its message and, if known, its offset. This is the only place where the
+	 * offset is added to the message, producers of failures must not include it in the message.
+	 *
+	 * @return Description of the failure
+	 */
+	String describeFailure() {
+		if(this.offset != UNKNOWN_OFFSET) {
+			return this.errorMessage + " (offset " + this.offset + ")";
+		}
+
+		return this.errorMessage;
+	}
+}
@@ -0,0 +1,42 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+
+
+/**
+ * Interface for model objects which can be locked against further modification.
+ * Freezing an object also freezes all nested elements it contains. Once frozen, every mutating method
+ * throws an {@link IllegalStateException}, so a frozen tree may be shared between threads and reused
+ * in many messages without copying it.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public interface Freezable {
+	/**
+	 * Lock this object and all nested elements against modification.
+	 * Calling this method on an already frozen object has no effect.
+	 */
+	public void freeze();
+
+
+	/**
+	 * Check if this object was frozen.
+	 *
+	 * @return true if frozen, false otherwise
+	 */
+	public boolean isFrozen();
+}
@@ -0,0 +1,92 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import lombok.Getter;
+
+
+
+/**
+ * Immutable wrapper around a frozen model object with a cached hash code.
+ * The generated hashCode() methods of the model classes walk the complete element tree on every call.
+ * This wrapper computes the hash code once, which makes frozen trees cheap to use as keys of maps and caches.
+ * Equality is delegated to the wrapped object, wrappers with different hash codes are never compared deeply.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ * @param <T> Type of the wrapped object
+ */
+public final class FrozenElement<T extends Freezable> {
+	@Getter
+	private final T element;
+	private final int hashCode;
+
+
+	/**
+	 * Freeze the specified object and wrap it.
+	 *
+	 * @param <T> Type of the wrapped object
+	 * @param element Object to freeze and wrap
+	 * @return Wrapper instance
+	 */
+	public static <T extends Freezable> FrozenElement<T> of(final T element) {
+		if(element == null) {
+			throw new IllegalArgumentException("Element must not be null");
+		}
+
+		element.freeze();
+
+		return new FrozenElement<>(element);
+	}
+
+
+	/**
+	 * Private constructor, use {@link #of(Freezable)} to create instances.
+	 *
+	 * @param element Frozen object to wrap
+	 */
+	private FrozenElement(final T element) {
+		this.element = element;
+		this.hashCode = element.hashCode();
+	}
+
+
+	@Override
+	public int hashCode() {
+		return this.hashCode;
+	}
+
+
+	@Override
+	public boolean equals(final Object obj) {
+		if(this == obj) {
+			return true;
+		}
+
+		if(!(obj instanceof FrozenElement)) {
+			return false;
+		}
+
+		FrozenElement<?> other = (FrozenElement<?>) obj;
+
+		return this.hashCode == other.hashCode && (this.element == other.element || this.element.equals(other.element));
+	}
+
+
+	@Override
+	public String toString() {
+		return "FrozenElement(element=" + this.element + ")";
+	}
+}
@@ -0,0 +1,201 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+
+/**
+ * Pool of canonical identifier instances used during deserialization.
+ * If a pool is attached to the {@link DecodeOptions} of a codec context, every identifier decoded by the
+ * standard identifier deserializers is replaced by the pooled instance that is equal to it. Equal
+ * identifiers occurring in many result items or in successive poll results then share a single object,
+ * which reduces heap usage and allows comparing them by identity.
+ *
+ * A pool is either weak, keeping identifiers only as long as they are referenced elsewhere, or bounded,
+ * keeping the most recently used identifiers up to a maximum number. A pool may be shared globally by
+ * using {@link #getGlobal()} or created per session. All methods are thread safe. The identifiers are
+ * spread over several independently locked stripes by their hash code, so decoders running in parallel
+ * rarely wait for each other. Bounded pools keep the usage order per stripe, small pools use a single
+ * stripe and evict in exact least recently used order.
+ *
+ * Pooled identifiers are shared by all messages decoded with the pool. They are frozen when they are
+ * added to the pool, see {@link Freezable}.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class IdentifierPool {
+	private static final int MAX_STRIPES = 16;
+	private static final int MIN_BOUNDED_STRIPE_SIZE = 64;
+	private static final IdentifierPool GLOBAL_POOL = weak();
+
+	private final Map<AbstractIdentifier, Object>[] stripes;
+	private final boolean weakEntries;
+
+
+	/**
+	 * Get the global pool shared by all codec contexts which use it.
+	 * The global pool is a weak pool.
+	 *
+	 * @return Global pool
+	 */
+	public static IdentifierPool getGlobal() {
+		return GLOBAL_POOL;
+	}
+
+
+	/**
+	 * Create a new pool which keeps identifiers only as long as they are referenced outside of the pool.
+	 *
+	 * @return New pool
+	 */
+	public static IdentifierPool weak() {
+		IdentifierPool rv = new IdentifierPool(MAX_STRIPES, true);
+		for(int i=0; i<rv.stripes.length; i++) {
+			rv.stripes[i] = new WeakHashMap<>();
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Create a new pool which keeps the most recently used identifiers up to the specified number.
+	 * If a stripe of the pool is full, its least recently used identifier is evicted.
+	 *
+	 * @param maxSize Maximum number of pooled identifiers, must be positive
+	 * @return New pool
+	 */
+	public static IdentifierPool bounded(final int maxSize) {
+		if(maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive");
+		}
+
+		IdentifierPool rv = new IdentifierPool(Math.max(1, Math.min(MAX_STRIPES, maxSize / MIN_BOUNDED_STRIPE_SIZE)), false);
+		for(int i=0; i<rv.stripes.length; i++) {
+			// Distribute the remainder, so the sum of all stripe sizes is exactly maxSize
+			final int stripeSize = maxSize / rv.stripes.length + (i < maxSize % rv.stripes.length ? 1 : 0);
+
+			rv.stripes[i] = new LinkedHashMap<AbstractIdentifier, Object>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<AbstractIdentifier, Object> eldest) {
+					return size() > stripeSize;
+				}
+			};
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Private constructor, use {@link #weak()} or {@link #bounded(int)} to create a pool.
+	 *
+	 * @param stripeCount Number of stripes, the maps of the stripes are created by the factory method
+	 * @param weakEntries true if the values of the maps are weak references
+	 */
+	@SuppressWarnings("unchecked")
+	private IdentifierPool(final int stripeCount, final boolean weakEntries) {
+		this.stripes = (Map<AbstractIdentifier, Object>[]) new Map<?, ?>[stripeCount];
+		this.weakEntries = weakEntries;
+	}
+
+
+	/**
+	 * Return the canonical instance of the specified identifier.
+	 * If an equal identifier is already pooled, that instance is returned. Otherwise the specified
+	 * identifier is frozen, added to the pool and returned.
+	 *
+	 * @param <T> Type of the identifier
+	 * @param identifier Identifier to intern
+	 * @return Canonical instance equal to the specified identifier, it is always frozen
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AbstractIdentifier> T intern(final T identifier) {
+		if(identifier == null) {
+			throw new IllegalArgumentException("Identifier must not be null");
+		}
+
+		Map<AbstractIdentifier, Object> stripe = this.stripeOf(identifier);
+
+		synchronized(stripe) {
+			Object entry = stripe.get(identifier);
+			if(entry instanceof WeakReference) {
+				entry = ((WeakReference<?>) entry).get();
+			}
+
+			// Equal identifiers always have the same class, so the cast is safe
+			if(entry != null) {
+				return (T) entry;
+			}
+
+			// The instance is shared from now on, lock it before other threads can see it
+			identifier.freeze();
+
+			stripe.put(identifier, this.weakEntries ? new WeakReference<>(identifier) : identifier);
+			return identifier;
+		}
+	}
+
+
+	/**
+	 * Get the number of pooled identifiers.
+	 * Weak pools may include identifiers which are no longer referenced but were not yet collected.
+	 *
+	 * @return Number of pooled identifiers
+	 */
+	public int size() {
+		int rv = 0;
+		for(Map<AbstractIdentifier, Object> stripe : this.stripes) {
+			synchronized(stripe) {
+				rv += stripe.size();
+			}
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Remove all identifiers from the pool.
+	 */
+	public void clear() {
+		for(Map<AbstractIdentifier, Object> stripe : this.stripes) {
+			synchronized(stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+
+	/**
+	 * Get the stripe responsible for the specified identifier.
+	 *
+	 * @param identifier Identifier to look up
+	 * @return Map of the stripe
+	 */
+	private Map<AbstractIdentifier, Object> stripeOf(final AbstractIdentifier identifier) {
+		int h = identifier.hashCode();
+
+		// Spread the high bits, the hash codes of similar identifiers often differ in few low bits only
+		return this.stripes[Math.floorMod(h ^ (h >>> 16), this.stripes.length)];
+	}
+}
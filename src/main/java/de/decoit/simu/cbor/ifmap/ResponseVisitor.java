@@ -0,0 +1,174 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import co.nstant.in.cbor.model.Array;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
+import de.decoit.simu.cbor.ifmap.response.model.AbstractResult;
+
+
+
+/**
+ * Callback interface for event driven decoding of responses using
+ * {@link CBORDeserializer#visitResponse(byte[], ResponseVisitor, CodecContext)}.
+ * Search and poll results are reported element by element without building result and metadata objects.
+ * Identifiers of result items are only deserialized if {@link #onIdentifier(String, String, Array, Array)}
+ * asks for it. All other results are small and reported as deserialized objects by {@link #onResult(AbstractResult)}.
+ *
+ * The visitor saves the result and metadata objects, not the CBOR decoding: the complete message is
+ * decoded into CBOR data items before the first event, so every name, attribute value and array of the
+ * message is still allocated and memory use grows with the message. Identifiers and values are passed
+ * as these data items, and result items report their identifiers before their metadata, so the events
+ * cannot be produced from a stream without buffering each result item.
+ *
+ * If pass-through of unknown metadata is enabled in the decode options, elements whose names cannot be
+ * resolved through the dictionary are reported by the string form of their CBOR names instead of
+ * failing, like {@link de.decoit.simu.cbor.ifmap.metadata.RawMetadata}. Such identifiers are never
+ * deserialized.
+ *
+ * All methods have empty default implementations, so implementors only override the events they are
+ * interested in. Any method may throw a {@link CBORDeserializationException} to abort decoding.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public interface ResponseVisitor {
+	/**
+	 * Called for a search result and for every search, update, delete and notify result block of a poll result.
+	 *
+	 * @param type XML name of the result block, for example 'searchResult' or 'updateResult'
+	 * @param name Name of the result block, may be null
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onResultBlock(String type, String name) throws CBORDeserializationException {}
+
+
+	/**
+	 * Called for every identifier of the current result item before the item is reported.
+	 * The attributes and nested elements are passed as CBOR data items, names inside them are not resolved.
+	 *
+	 * @param namespace XML namespace of the identifier element
+	 * @param elementName XML name of the identifier element
+	 * @param attributes CBOR array containing the attributes of the identifier
+	 * @param nestedTags CBOR array containing the nested elements of the identifier
+	 * @return true to deserialize the identifier and pass it to {@link #onItem(AbstractIdentifier, AbstractIdentifier)}, false to pass null instead
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default boolean onIdentifier(String namespace, String elementName, Array attributes, Array nestedTags) throws CBORDeserializationException {
+		return true;
+	}
+
+
+	/**
+	 * Called for every result item of the current result block.
+	 * Identifiers declined by {@link #onIdentifier(String, String, Array, Array)} are passed as null.
+	 *
+	 * @param identifierA First identifier of the item
+	 * @param identifierB Second identifier of the item, null for items with a single identifier
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onItem(AbstractIdentifier identifierA, AbstractIdentifier identifierB) throws CBORDeserializationException {}
+
+
+	/**
+	 * Called for every metadata element of the current result item.
+	 * Metadata not accepted by the decode options of the codec context is not reported.
+	 *
+	 * @param namespace XML namespace of the metadata element
+	 * @param elementName XML name of the metadata element
+	 * @return true to receive the attributes and nested elements of this metadata element, false to skip them
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default boolean onMetadata(String namespace, String elementName) throws CBORDeserializationException {
+		return false;
+	}
+
+
+	/**
+	 * Called for every attribute of the current metadata element, if requested by {@link #onMetadata(String, String)}.
+	 * Enumeration attributes are reported by {@link #onMetadataEnumAttribute(String, String)} instead.
+	 *
+	 * @param name XML name of the attribute
+	 * @param value CBOR data item holding the attribute value
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onMetadataAttribute(String name, DataItem value) throws CBORDeserializationException {}
+
+
+	/**
+	 * Called for every enumeration attribute of the current metadata element, if requested by
+	 * {@link #onMetadata(String, String)}. The value is resolved to its XML name. The default implementation
+	 * reports it to {@link #onMetadataAttribute(String, DataItem)} as UnicodeString; override this method
+	 * to receive the name without that allocation.
+	 *
+	 * @param name XML name of the attribute
+	 * @param value XML name of the enumeration value
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onMetadataEnumAttribute(String name, String value) throws CBORDeserializationException {
+		this.onMetadataAttribute(name, new UnicodeString(value));
+	}
+
+
+	/**
+	 * Called for every nested element of the current metadata element, if requested by
+	 * {@link #onMetadata(String, String)}. Enumeration elements are reported by
+	 * {@link #onMetadataEnumElement(String, String)} instead.
+	 *
+	 * @param name XML name of the nested element
+	 * @param value CBOR data item holding the element value or its nested elements
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onMetadataElement(String name, DataItem value) throws CBORDeserializationException {}
+
+
+	/**
+	 * Called for every nested enumeration element of the current metadata element, if requested by
+	 * {@link #onMetadata(String, String)}. The value is resolved to its XML name. The default implementation
+	 * reports it to {@link #onMetadataElement(String, DataItem)} as UnicodeString; override this method
+	 * to receive the name without that allocation.
+	 *
+	 * @param name XML name of the nested element
+	 * @param value XML name of the enumeration value
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onMetadataEnumElement(String name, String value) throws CBORDeserializationException {
+		this.onMetadataElement(name, new UnicodeString(value));
+	}
+
+
+	/**
+	 * Called for an error result, either as the result of the response or as a block of a poll result.
+	 *
+	 * @param errorCode Error code
+	 * @param name Name of the failed subscription, may be null
+	 * @param errorString Error description, may be null
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onError(IfMapErrorCode errorCode, String name, String errorString) throws CBORDeserializationException {}
+
+
+	/**
+	 * Called for any result that is neither a search, poll nor error result.
+	 *
+	 * @param result Deserialized result object
+	 * @throws CBORDeserializationException to abort decoding
+	 */
+	public default void onResult(AbstractResult result) throws CBORDeserializationException {}
+}
@@ -0,0 +1,238 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import co.nstant.in.cbor.CborDecoder;
+import co.nstant.in.cbor.CborEncoder;
+import co.nstant.in.cbor.CborException;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.MajorType;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
+import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.util.CBORHeaderHelper;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Replaces the session ID of an encoded IF-MAP request without decoding and re-encoding the request.
+ * Only namespace, name and attribute array of the request are read to locate the session-id attribute.
+ * The encoded session ID is replaced by the new value, all other bytes are copied unchanged. Since one
+ * data item is replaced by another, no array header of the message has to be adjusted.
+ *
+ * The rewritten message can either be returned as new byte array, copied in blocks, or as three buffers
+ * for scatter/gather I/O, see {@link #rewriteSessionId(ByteBuffer, String)}. Requests without a session ID
+ * (newSession) and attribute arrays of indefinite length are rejected.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class SessionIdRewriter {
+	/**
+	 * Replace the session ID of the request in the specified byte array.
+	 * The global dictionary is used to locate the session-id attribute.
+	 *
+	 * @param cborBytes CBOR data representing an IF-MAP request
+	 * @param sessionId New session ID
+	 * @return Rewritten request
+	 * @throws CBORDeserializationException if the request header cannot be read or contains no session ID
+	 */
+	public static byte[] rewriteSessionId(byte[] cborBytes, String sessionId) throws CBORDeserializationException {
+		return rewriteSessionId(cborBytes, sessionId, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Replace the session ID of the request in the specified byte array.
+	 * The dictionary of the specified codec context is used to locate the session-id attribute.
+	 *
+	 * @param cborBytes CBOR data representing an IF-MAP request
+	 * @param sessionId New session ID
+	 * @param context Codec context providing the dictionary
+	 * @return Rewritten request
+	 * @throws CBORDeserializationException if the request header cannot be read or contains no session ID
+	 */
+	public static byte[] rewriteSessionId(byte[] cborBytes, String sessionId, CodecContext context) throws CBORDeserializationException {
+		if(cborBytes == null) {
+			throw new IllegalArgumentException("CBOR bytes must not be null");
+		}
+
+		ByteBuffer[] parts = rewriteSessionId(ByteBuffer.wrap(cborBytes), sessionId, context);
+		byte[] rv = new byte[parts[0].remaining() + parts[1].remaining() + parts[2].remaining()];
+
+		// The first and last part are copied as blocks from the original array
+		System.arraycopy(cborBytes, 0, rv, 0, parts[0].remaining());
+		parts[1].get(rv, parts[0].remaining(), parts[1].remaining());
+		System.arraycopy(cborBytes, cborBytes.length - parts[2].remaining(), rv, rv.length - parts[2].remaining(), parts[2].remaining());
+
+		return rv;
+	}
+
+
+	/**
+	 * Replace the session ID of the request between position and limit of the specified buffer.
+	 * The global dictionary is used to locate the session-id attribute.
+	 *
+	 * @param cborBuffer Buffer containing the CBOR data representing an IF-MAP request
+	 * @param sessionId New session ID
+	 * @return Buffers containing the rewritten request, see {@link #rewriteSessionId(ByteBuffer, String, CodecContext)}
+	 * @throws CBORDeserializationException if the request header cannot be read or contains no session ID
+	 */
+	public static ByteBuffer[] rewriteSessionId(ByteBuffer cborBuffer, String sessionId) throws CBORDeserializationException {
+		return rewriteSessionId(cborBuffer, sessionId, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Replace the session ID of the request between position and limit of the specified buffer.
+	 * The result consists of three buffers which contain the rewritten request if written in order, for
+	 * example by {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])}: the bytes before the
+	 * session ID, the encoded new session ID and the bytes after the session ID. The first and last buffer
+	 * share the content of the specified buffer, which must not be modified until they were written.
+	 * The position of the specified buffer is not modified.
+	 *
+	 * @param cborBuffer Buffer containing the CBOR data representing an IF-MAP request
+	 * @param sessionId New session ID
+	 * @param context Codec context providing the dictionary and decode limits
+	 * @return Buffers containing the rewritten request
+	 * @throws CBORDeserializationException if the request header cannot be read or contains no session ID
+	 */
+	public static ByteBuffer[] rewriteSessionId(ByteBuffer cborBuffer, String sessionId, CodecContext context) throws CBORDeserializationException {
+		if(cborBuffer == null) {
+			throw new IllegalArgumentException("CBOR buffer must not be null");
+		}
+
+		if(StringUtils.isBlank(sessionId)) {
+			throw new IllegalArgumentException("Session ID must not be blank");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		ByteBuffer buffer = cborBuffer.duplicate();
+		int start = buffer.position();
+		int limit = buffer.limit();
+
+		DecodeLimits limits = context.getDecodeOptions().getDecodeLimits();
+		if(limits != null) {
+			// Only namespace, name and attributes are read, the request body is not scanned
+			DecodeLimitChecker.checkHeader(buffer, limits, 3);
+		}
+
+		try {
+			readArrayHeader(buffer, "top level");
+
+			CborDecoder cd = new CborDecoder(new ByteBufferInputStream(buffer));
+			DataItem namespace = cd.decodeNext();
+			DataItem name = cd.decodeNext();
+
+			if(namespace == null || name == null) {
+				throw new CBORDeserializationException("Request header is incomplete");
+			}
+
+			ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(namespace, name, context);
+			long attributeCount = readArrayHeader(buffer, "attribute");
+
+			// Iterate over the attribute name/value pairs and remember the location of the value
+			for(long i=0; i<attributeCount; i=i+2) {
+				DataItem attributeName = cd.decodeNext();
+				int valueStart = buffer.position();
+				DataItem attributeValue = cd.decodeNext();
+				int valueEnd = buffer.position();
+
+				if(attributeName == null || attributeValue == null) {
+					throw new CBORDeserializationException("Attribute array is incomplete");
+				}
+
+				String attrNameStr = RequestDeserializerManager.getAttributeXmlName(attributeName, descriptor.getElementEntry());
+				if(SessionAttributeGroup.SESSION_ID.equals(attrNameStr)) {
+					ByteBuffer before = cborBuffer.duplicate();
+					before.position(start).limit(valueStart);
+
+					ByteBuffer after = cborBuffer.duplicate();
+					after.position(valueEnd).limit(limit);
+
+					return new ByteBuffer[] {before.slice(), encode(new UnicodeString(sessionId)), after.slice()};
+				}
+			}
+
+			throw new CBORDeserializationException("Request does not contain a session ID");
+		}
+		catch(CborException ex) {
+			throw new CBORDeserializationException("Error during CBOR decoding, see nested exception for details", ex);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Read the header of an array data item and return the number of items in the array.
+	 *
+	 * @param buffer Buffer positioned at the array header, the position is moved behind the header
+	 * @param description Description of the array for error messages
+	 * @return Number of items in the array
+	 * @throws CBORDeserializationException if the data item is no array of definite length
+	 */
+	private static long readArrayHeader(ByteBuffer buffer, String description) throws CBORDeserializationException {
+		if(!buffer.hasRemaining()) {
+			throw new CBORDeserializationException("Buffer ended before " + description + " array");
+		}
+
+		int initialByte = buffer.get(buffer.position()) & 0xFF;
+		MajorType majorType = MajorType.ofByte(initialByte);
+
+		if(majorType != MajorType.ARRAY) {
+			throw new CBORDeserializationException("Invalid data structure! "
+												   + "Expected " + description + " array data item, found: "
+												   + majorType);
+		}
+
+		int headerLength = CBORHeaderHelper.headerLength(initialByte);
+		if(headerLength < 0) {
+			throw new CBORDeserializationException("Arrays of indefinite length are not supported: " + description);
+		}
+
+		if(headerLength > buffer.remaining()) {
+			throw new CBORDeserializationException("Buffer ended inside of " + description + " array header");
+		}
+
+		long rv = CBORHeaderHelper.argument(buffer, buffer.position());
+		buffer.position(buffer.position() + headerLength);
+
+		return rv;
+	}
+
+
+	private static ByteBuffer encode(DataItem item) throws CborException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new CborEncoder(out).encode(item);
+
+		return ByteBuffer.wrap(out.toByteArray());
+	}
+
+
+	/**
+	 * Private constructor, this class is not meant to be instanciated.
+	 */
+	private SessionIdRewriter() {}
+}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.attributegroup;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.Freezable;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
@@ -34,10 +35,40 @@ import lombok.extern.slf4j.Slf4j;
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "frozen")
+@ToString(exclude = "frozen")
 @Slf4j
-public abstract class AbstractAttributeGroup {
+public abstract class AbstractAttributeGroup implements Freezable {
+	private volatile boolean frozen = false;
+
+
+	/**
+	 * Lock this attribute group against modification.
+	 */
+	@Override
+	public final void freeze() {
+		this.frozen = true;
+	}
+
+
+	@Override
+	public final boolean isFrozen() {
+		return this.frozen;
+	}
+
+
+	/**
+	 * Make sure that this attribute group is not frozen, this must be called by all mutating methods.
+	 *
+	 * @throws IllegalStateException if this attribute group is frozen
+	 */
+	protected final void checkNotFrozen() {
+		if(this.frozen) {
+			throw new IllegalStateException("Element is frozen and must not be modified");
+		}
+	}
+
+
 	/**
 	 * Serialize the values stored in this class into the parent element's attributes array.
 	 * If the provided dictionary entry for the parent element is null or does not contain one or more
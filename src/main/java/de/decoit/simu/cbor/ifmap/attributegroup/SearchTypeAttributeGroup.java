@@ -72,6 +72,8 @@ public final class SearchTypeAttributeGroup extends AbstractAttributeGroup {
 	 * @param matchLinks Filter string
 	 */
 	public void setMatchLinks(String matchLinks) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(matchLinks)) {
 			throw new IllegalArgumentException("Match links must not be empty or whitespace only");
 		}
@@ -86,6 +88,8 @@ public final class SearchTypeAttributeGroup extends AbstractAttributeGroup {
 	 * @param maxDepth Maximum depth, must be positive or 0
 	 */
 	public void setMaxDepth(Integer maxDepth) {
+		this.checkNotFrozen();
+
 		if(maxDepth != null) {
 			if(maxDepth < 0) {
 				throw new IllegalArgumentException("Max depth must be positive or 0");
@@ -102,6 +106,8 @@ public final class SearchTypeAttributeGroup extends AbstractAttributeGroup {
 	 * @param maxSize Maximum size, must be positive or 0
 	 */
 	public void setMaxSize(Integer maxSize) {
+		this.checkNotFrozen();
+
 		if(maxSize != null) {
 			if(maxSize < 1) {
 				throw new IllegalArgumentException("Max size must be positive");
@@ -120,6 +126,8 @@ public final class SearchTypeAttributeGroup extends AbstractAttributeGroup {
 	 * @param resultFilter Filter string
 	 */
 	public void setResultFilter(String resultFilter) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(resultFilter)) {
 			throw new IllegalArgumentException("Result filter must not be empty or whitespace only");
 		}
@@ -136,6 +144,8 @@ public final class SearchTypeAttributeGroup extends AbstractAttributeGroup {
 	 * @param terminalIdentifierType
 	 */
 	public void setTerminalIdentifierType(String terminalIdentifierType) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(terminalIdentifierType)) {
 			throw new IllegalArgumentException("Terminal identifier type must not be empty or whitespace only");
 		}
@@ -29,6 +29,7 @@ import co.nstant.in.cbor.model.SpecialType;
 import co.nstant.in.cbor.model.Tag;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
@@ -36,7 +37,6 @@ import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueElement;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import java.math.BigInteger;
@@ -55,6 +55,13 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class AbstractDeserializerManager {
+	/**
+	 * Absent value passed to {@link #readInt(DataItem, boolean, int)} and {@link #readLong(DataItem, boolean, long)}
+	 * for optional unsigned values. Unsigned values are never negative, so this value is never a valid result.
+	 */
+	public static final int ABSENT_VALUE = -1;
+
+
 	/**
 	 * Extract the BigInteger value from a UnsignedInteger data item.
 	 * If the data item is null and the required flag is set to true, an
@@ -133,6 +140,142 @@ public abstract class AbstractDeserializerManager {
 	}
 
 
+	/**
+	 * Extract the value of a UnsignedInteger data item as a primitive long.
+	 * If the data item is null and the required flag is set to true, an
+	 * exception will be raised. If the required flag is set to false, the
+	 * method will return the specified absent value. Unlike
+	 * {@link #processUnsignedIntegerItem(DataItem, boolean)} no boxed or BigInteger
+	 * object is created.
+	 *
+	 * @param di Data item to process, may be null if required=false
+	 * @param required May di paramter be null or not
+	 * @param absentValue Value returned if di is null and not required
+	 * @return The extracted value
+	 * @throws CBORDeserializationException if deserialization failed or the value does not fit into a long
+	 */
+	public static long readLong(DataItem di, boolean required, long absentValue) throws CBORDeserializationException {
+		if(di == null) {
+			if(required) {
+				throw new CBORDeserializationException("Null pointer passed for required item");
+			}
+
+			return absentValue;
+		}
+
+		if(di.getMajorType() != MajorType.UNSIGNED_INTEGER) {
+			throw new CBORDeserializationException("Invalid major type for UnsignedInteger item: " + di.getMajorType().toString());
+		}
+
+		BigInteger value = ((UnsignedInteger) di).getValue();
+		if(value.bitLength() > 63) {
+			throw new CBORDeserializationException("UnsignedInteger item exceeds range of long: " + value);
+		}
+
+		return value.longValue();
+	}
+
+
+	/**
+	 * Extract the value of a required UnsignedInteger data item as a primitive int.
+	 *
+	 * @param di Data item to process, must not be null
+	 * @return The extracted value
+	 * @throws CBORDeserializationException if the data item is null, deserialization failed or the value does not fit into an int
+	 */
+	public static int readInt(DataItem di) throws CBORDeserializationException {
+		return readInt(di, true, ABSENT_VALUE);
+	}
+
+
+	/**
+	 * Extract the value of a UnsignedInteger data item as a primitive int.
+	 * If the data item is null and the required flag is set to true, an
+	 * exception will be raised. If the required flag is set to false, the
+	 * method will return the specified absent value. Unlike
+	 * {@link #processUnsignedIntegerItem(DataItem, boolean)} no boxed or BigInteger
+	 * object is created.
+	 *
+	 * @param di Data item to process, may be null if required=false
+	 * @param required May di paramter be null or not
+	 * @param absentValue Value returned if di is null and not required
+	 * @return The extracted value
+	 * @throws CBORDeserializationException if deserialization failed or the value does not fit into an int
+	 */
+	public static int readInt(DataItem di, boolean required, int absentValue) throws CBORDeserializationException {
+		if(di == null) {
+			if(required) {
+				throw new CBORDeserializationException("Null pointer passed for required item");
+			}
+
+			return absentValue;
+		}
+
+		if(di.getMajorType() != MajorType.UNSIGNED_INTEGER) {
+			throw new CBORDeserializationException("Invalid major type for UnsignedInteger item: " + di.getMajorType().toString());
+		}
+
+		BigInteger value = ((UnsignedInteger) di).getValue();
+		if(value.bitLength() > 31) {
+			throw new CBORDeserializationException("UnsignedInteger item exceeds range of int: " + value);
+		}
+
+		return value.intValue();
+	}
+
+
+	/**
+	 * Extract the value of a required floating point data item of any precision as a primitive double.
+	 *
+	 * @param di Data item to process, must not be null
+	 * @return The extracted value
+	 * @throws CBORDeserializationException if the data item is null or deserialization failed
+	 */
+	public static double readDouble(DataItem di) throws CBORDeserializationException {
+		return readDouble(di, true, Double.NaN);
+	}
+
+
+	/**
+	 * Extract the value of any kind of floating point data item as a primitive double.
+	 * If the data item is null and the required flag is set to true, an
+	 * exception will be raised. If the required flag is set to false, the
+	 * method will return the specified absent value. Unlike
+	 * {@link #processFloatingPointItem(DataItem, boolean)} the value is not boxed.
+	 *
+	 * @param di Data item to process, may be null if required=false
+	 * @param required May di paramter be null or not
+	 * @param absentValue Value returned if di is null and not required
+	 * @return The extracted value
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static double readDouble(DataItem di, boolean required, double absentValue) throws CBORDeserializationException {
+		if(di == null) {
+			if(required) {
+				throw new CBORDeserializationException("Null pointer passed for required item");
+			}
+
+			return absentValue;
+		}
+
+		if(di.getMajorType() != MajorType.SPECIAL) {
+			throw new CBORDeserializationException("Invalid major type for floating point item: " + di.getMajorType().toString());
+		}
+
+		Special special = (Special) di;
+		switch(special.getSpecialType()) {
+			case IEEE_754_DOUBLE_PRECISION_FLOAT:
+				return ((DoublePrecisionFloat) special).getValue();
+			case IEEE_754_SINGLE_PRECISION_FLOAT:
+				return ((SinglePrecisionFloat) special).getValue();
+			case IEEE_754_HALF_PRECISION_FLOAT:
+				return ((HalfPrecisionFloat) special).getValue();
+			default:
+				throw new CBORDeserializationException("Invalid special type for floating point item: " + special.getSpecialType().toString());
+		}
+	}
+
+
 	/**
 	 * Extract the string value from a UnicodeString data item.
 	 * If the data item is null and the required flag is set to true, an
@@ -334,7 +477,22 @@ public abstract class AbstractDeserializerManager {
 	 * @return The resolved dictionary entry or null
 	 */
 	public static DictionarySimpleElement getTopLevelElement(DataItem namespace, DataItem elementName) {
-		DictionaryNamespace nsEntry = DictionaryProvider.getInstance().reverseLookupNamespace(namespace);
+		return getTopLevelElement(namespace, elementName, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Try to get a dictionary entry for the specified combination of namespace and element.
+	 * Works like {@link #getTopLevelElement(DataItem, DataItem)} but uses the dictionary of the specified
+	 * codec context.
+	 *
+	 * @param namespace CBOR data item specifying the XML namespace
+	 * @param elementName CBOR data item specifying the XML element name
+	 * @param context Codec context providing the dictionary
+	 * @return The resolved dictionary entry or null
+	 */
+	public static DictionarySimpleElement getTopLevelElement(DataItem namespace, DataItem elementName, CodecContext context) {
+		DictionaryNamespace nsEntry = context.reverseLookupNamespace(namespace);
 
 		// If reverse lookup did not work, try forward lookup if namespace data item is of type UnicodeString
 		if(nsEntry == null) {
@@ -342,7 +500,7 @@ public abstract class AbstractDeserializerManager {
 				UnicodeString us = (UnicodeString) namespace;
 				String nsString = us.getString();
 
-				nsEntry = DictionaryProvider.getInstance().lookupNamespace(nsString);
+				nsEntry = context.lookupNamespace(nsString);
 
 				// If namespace cannot be resolved, element name cannot be looked up. Return null.
 				if(nsEntry == null) {
@@ -371,6 +529,75 @@ public abstract class AbstractDeserializerManager {
 	}
 	
 	
+	/**
+	 * Resolve the top level element identified by the specified CBOR namespace and name in a single pass.
+	 * The returned descriptor contains the XML names of namespace and element and the dictionary entry of the
+	 * element, if one exists. Names that cannot be resolved by the dictionary must be of type UnicodeString,
+	 * their string value is used as XML name in that case. Descriptors backed by a dictionary entry are
+	 * cached by the codec context.
+	 *
+	 * @param namespace CBOR data item specifying the XML namespace
+	 * @param elementName CBOR data item specifying the XML element name
+	 * @param context Codec context providing the dictionary
+	 * @return The resolved element descriptor
+	 * @throws CBORDeserializationException if namespace or element cannot be resolved and are not of type UnicodeString
+	 */
+	public static ElementDescriptor resolveElement(DataItem namespace, DataItem elementName, CodecContext context) throws CBORDeserializationException {
+		ElementDescriptor rv = context.getElementDescriptor(namespace, elementName);
+
+		if(rv != null) {
+			return rv;
+		}
+
+		String nsXmlName;
+		DictionaryNamespace nsEntry = context.reverseLookupNamespace(namespace);
+
+		if(nsEntry != null) {
+			nsXmlName = nsEntry.getXmlName();
+		}
+		else if(namespace.getMajorType() == MajorType.UNICODE_STRING) {
+			UnicodeString us = (UnicodeString) namespace;
+			nsXmlName = us.getString();
+
+			nsEntry = context.lookupNamespace(nsXmlName);
+		}
+		else {
+			throw new CBORDeserializationException("Non-UnicodeString namespace found without dictionary entry");
+		}
+
+		String elementXmlName;
+		DictionarySimpleElement elementEntry = null;
+
+		if(nsEntry != null) {
+			elementEntry = nsEntry.reverseLookupElement(elementName);
+		}
+
+		if(elementEntry != null) {
+			elementXmlName = elementEntry.getXmlName();
+		}
+		else if(elementName.getMajorType() == MajorType.UNICODE_STRING) {
+			UnicodeString us = (UnicodeString) elementName;
+			elementXmlName = us.getString();
+
+			if(nsEntry != null) {
+				elementEntry = nsEntry.lookupElement(elementXmlName);
+			}
+		}
+		else {
+			throw new CBORDeserializationException("Non-UnicodeString element name found without dictionary entry");
+		}
+
+		rv = new ElementDescriptor(nsXmlName, elementXmlName, elementEntry);
+
+		// Only dictionary backed names are cached, arbitrary strings from the wire must not grow the cache
+		if(elementEntry != null) {
+			context.cacheElementDescriptor(namespace, elementName, rv);
+		}
+
+		return rv;
+	}
+	
+	
 	/**
 	 * Get the XML name of a CBOR encoded namespace.
 	 * The method first checks if the namespace can be resolved using the default dictionary. 
@@ -382,7 +609,20 @@ public abstract class AbstractDeserializerManager {
 	 * @throws CBORDeserializationException if the namespace cannot be resolved and is not of type UnicodeString
 	 */
 	public static String getNamespaceXmlName(DataItem namespace) throws CBORDeserializationException {
-		DictionaryNamespace nsEntry = DictionaryProvider.getInstance().reverseLookupNamespace(namespace);
+		return getNamespaceXmlName(namespace, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Get the XML name of a CBOR encoded namespace using the dictionary of the specified codec context.
+	 *
+	 * @param namespace  CBOR data item specifying the namespace
+	 * @param context Codec context providing the dictionary
+	 * @return The XML name of the attribute
+	 * @throws CBORDeserializationException if the namespace cannot be resolved and is not of type UnicodeString
+	 */
+	public static String getNamespaceXmlName(DataItem namespace, CodecContext context) throws CBORDeserializationException {
+		DictionaryNamespace nsEntry = context.reverseLookupNamespace(namespace);
 		
 		if(nsEntry != null) {
 			return nsEntry.getXmlName();
@@ -399,7 +639,12 @@ public abstract class AbstractDeserializerManager {
 	
 	
 	public static String getTopLevelElementXmlName(DataItem namespace, DataItem element) throws CBORDeserializationException {
-		DictionaryNamespace nsEntry = DictionaryProvider.getInstance().reverseLookupNamespace(namespace);
+		return getTopLevelElementXmlName(namespace, element, CodecContext.getDefault());
+	}
+	
+	
+	public static String getTopLevelElementXmlName(DataItem namespace, DataItem element, CodecContext context) throws CBORDeserializationException {
+		DictionaryNamespace nsEntry = context.reverseLookupNamespace(namespace);
 		
 		if(nsEntry != null) {
 			DictionarySimpleElement elementEntry = nsEntry.reverseLookupElement(element);
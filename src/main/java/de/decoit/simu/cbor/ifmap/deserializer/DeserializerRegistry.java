@@ -0,0 +1,193 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Registry holding the deserializers of a deserializer manager together with the mapping of element
+ * namespace and name to the domain class each deserializer produces.
+ * Both mappings are kept in one immutable snapshot which is published through a single reference. Every
+ * modification copies the current snapshot, applies the change and publishes the copy atomically, so readers
+ * never lock and never see a target class without its deserializer or the other way round.
+ *
+ * Target classes are stored in a two level map (namespace, then element name), so lookups do not have to
+ * build a combined key and do not allocate any objects.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ * @param <T> Base type of the registered domain classes
+ * @param <D> Deserializer type
+ */
+final class DeserializerRegistry<T, D> {
+	private final AtomicReference<Snapshot<T, D>> snapshot = new AtomicReference<>(new Snapshot<>(Collections.emptyMap(), Collections.emptyMap()));
+
+
+	/**
+	 * Get the deserializer registered for the specified domain class.
+	 *
+	 * @param targetClass Domain class to look up
+	 * @return Registered deserializer or null, if nothing was registered for the class
+	 */
+	D getDeserializer(final Class<?> targetClass) {
+		return this.snapshot.get().deserializers.get(targetClass);
+	}
+
+
+	/**
+	 * Check if a deserializer is registered for the specified domain class.
+	 *
+	 * @param targetClass Domain class to look up
+	 * @return true if a deserializer was found, false otherwise
+	 */
+	boolean hasDeserializer(final Class<?> targetClass) {
+		return this.snapshot.get().deserializers.containsKey(targetClass);
+	}
+
+
+	/**
+	 * Look up the target class of the element defined by the specified namespace and element name.
+	 * The arguments are not validated, a null or unknown namespace or name simply yields null.
+	 *
+	 * @param namespace Namespace of the element
+	 * @param elementName Name of the element
+	 * @return Registered target class or null, if no class was registered
+	 */
+	Class<? extends T> lookup(final String namespace, final String elementName) {
+		Map<String, Class<? extends T>> elements = this.snapshot.get().targetClasses.get(namespace);
+
+		if(elements == null) {
+			return null;
+		}
+
+		return elements.get(elementName);
+	}
+
+
+	/**
+	 * Register a deserializer for the specified domain class and the element defined by namespace and name
+	 * in a single step. The registration fails if a deserializer is already registered for the class. An
+	 * existing target class registration for the element is replaced.
+	 *
+	 * @param targetClass Domain class produced by the deserializer
+	 * @param deserializer Deserializer to register
+	 * @param namespace Namespace of the target element
+	 * @param elementName Name of the target element
+	 * @return true if the deserializer was registered, false if another deserializer was already registered for the class
+	 */
+	boolean register(final Class<? extends T> targetClass, final D deserializer, final String namespace, final String elementName) {
+		if(targetClass == null) {
+			throw new IllegalArgumentException("Target class must not be null");
+		}
+
+		if(deserializer == null) {
+			throw new IllegalArgumentException("Deserializer must not be null");
+		}
+
+		if(StringUtils.isBlank(namespace)) {
+			throw new IllegalArgumentException("Namespace must not be blank");
+		}
+
+		if(StringUtils.isBlank(elementName)) {
+			throw new IllegalArgumentException("Element name must not be blank");
+		}
+
+		while(true) {
+			Snapshot<T, D> current = this.snapshot.get();
+
+			if(current.deserializers.containsKey(targetClass)) {
+				return false;
+			}
+
+			HashMap<Class<? extends T>, D> deserializers = new HashMap<>(current.deserializers);
+			deserializers.put(targetClass, deserializer);
+
+			HashMap<String, Class<? extends T>> elements = new HashMap<>(current.targetClasses.getOrDefault(namespace, Collections.emptyMap()));
+			elements.put(elementName, targetClass);
+
+			HashMap<String, Map<String, Class<? extends T>>> targetClasses = new HashMap<>(current.targetClasses);
+			targetClasses.put(namespace, Collections.unmodifiableMap(elements));
+
+			if(this.snapshot.compareAndSet(current, new Snapshot<>(deserializers, targetClasses))) {
+				return true;
+			}
+		}
+	}
+
+
+	/**
+	 * Remove the deserializer of the specified domain class together with all elements mapped to that class.
+	 *
+	 * @param targetClass Domain class to remove
+	 */
+	void unregister(final Class<? extends T> targetClass) {
+		this.snapshot.updateAndGet((current) -> {
+			if(!current.deserializers.containsKey(targetClass)) {
+				return current;
+			}
+
+			HashMap<Class<? extends T>, D> deserializers = new HashMap<>(current.deserializers);
+			deserializers.remove(targetClass);
+
+			HashMap<String, Map<String, Class<? extends T>>> targetClasses = new HashMap<>();
+			for(Map.Entry<String, Map<String, Class<? extends T>>> namespace : current.targetClasses.entrySet()) {
+				HashMap<String, Class<? extends T>> elements = new HashMap<>(namespace.getValue());
+				elements.values().removeIf(targetClass::equals);
+
+				if(!elements.isEmpty()) {
+					targetClasses.put(namespace.getKey(), Collections.unmodifiableMap(elements));
+				}
+			}
+
+			return new Snapshot<>(deserializers, targetClasses);
+		});
+	}
+
+
+	/**
+	 * Replace all registrations by the registrations of the specified registry in a single step.
+	 * The specified registry may be modified afterwards without affecting this one.
+	 *
+	 * @param contents Registry holding the new registrations
+	 */
+	void replaceAll(final DeserializerRegistry<T, D> contents) {
+		this.snapshot.set(contents.snapshot.get());
+	}
+
+
+
+	/**
+	 * Immutable state of the registry.
+	 *
+	 * @param <T> Base type of the registered domain classes
+	 * @param <D> Deserializer type
+	 */
+	private static final class Snapshot<T, D> {
+		private final Map<Class<? extends T>, D> deserializers;
+		private final Map<String, Map<String, Class<? extends T>>> targetClasses;
+
+
+		Snapshot(final Map<Class<? extends T>, D> deserializers, final Map<String, Map<String, Class<? extends T>>> targetClasses) {
+			this.deserializers = Collections.unmodifiableMap(deserializers);
+			this.targetClasses = Collections.unmodifiableMap(targetClasses);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Resolved description of a top level element read from CBOR data.
+ * A descriptor carries everything the deserializers need to know about a namespace/name pair: the XML names
+ * of namespace and element and the dictionary entry of the element. It is created by
+ * {@link AbstractDeserializerManager#resolveElement(co.nstant.in.cbor.model.DataItem, co.nstant.in.cbor.model.DataItem, de.decoit.simu.cbor.ifmap.CodecContext)}
+ * and may be cached by the codec context, so instances are immutable.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@ToString
+public final class ElementDescriptor {
+	@Getter
+	private final String namespace;
+	@Getter
+	private final String elementName;
+	@Getter
+	private final DictionarySimpleElement elementEntry;
+
+
+	/**
+	 * Create a new descriptor.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the element
+	 * @param elementEntry Dictionary entry of the element, may be null
+	 */
+	ElementDescriptor(final String namespace, final String elementName, final DictionarySimpleElement elementEntry) {
+		if(StringUtils.isBlank(namespace)) {
+			throw new IllegalArgumentException("Namespace must not be blank");
+		}
+
+		if(StringUtils.isBlank(elementName)) {
+			throw new IllegalArgumentException("Element name must not be blank");
+		}
+
+		this.namespace = namespace;
+		this.elementName = elementName;
+		this.elementEntry = elementEntry;
+	}
+}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.deserializer.identifier.extended.IfMapServerDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorIdentifierDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -24,7 +25,6 @@ import de.decoit.simu.cbor.ifmap.identifier.extended.AbstractExtendedIdentifier;
 import de.decoit.simu.cbor.ifmap.identifier.extended.CBORExtendedIfMapServer;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
-import java.util.HashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
@@ -34,15 +34,14 @@ import org.apache.commons.lang3.StringUtils;
  * Central class for managing extended identifier deserializers.
  * Users of this library should never use the methods provided by this class directly except when
  * registering and managing their own custom deserializers.
+ * Registrations are held in immutable snapshots, so deserializers may be registered and unregistered while
+ * other threads deserialize data.
  * 
  * @author Thomas Rix (rix@decoit.de)
  */
 @Slf4j
 public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerManager {
-	private static final HashMap<Class<? extends AbstractExtendedIdentifier>, VendorIdentifierDeserializer<? extends AbstractExtendedIdentifier>> registeredDeserializers = new HashMap<>();
-	private static final HashMap<String, Class<? extends AbstractExtendedIdentifier>> targetClassMap = new HashMap<>();
-	private static final String resolveMapKeySeparator = "?";
-	private static boolean initialized = false;
+	private static final DeserializerRegistry<AbstractExtendedIdentifier, VendorIdentifierDeserializer<? extends AbstractExtendedIdentifier>> registry = new DeserializerRegistry<>();
 	
 	static {
 		init();
@@ -67,6 +66,31 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 																	   final Array attributes, 
 																	   final Array nestedTags, 
 																	   final Class<T> identifierType) throws CBORDeserializationException {
+		return deserialize(namespace, cborName, attributes, nestedTags, identifierType, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class from the specified data items using the
+	 * dictionary of the specified codec context.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractExtendedIdentifier}
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param identifierType Type of the object to be deserialized
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractExtendedIdentifier> T deserialize(final DataItem namespace, 
+																	   final DataItem cborName, 
+																	   final Array attributes, 
+																	   final Array nestedTags, 
+																	   final Class<T> identifierType,
+																	   final CodecContext context) throws CBORDeserializationException {
 		if(namespace == null) {
 			throw new IllegalArgumentException("Namespace must not be null");
 		}
@@ -87,17 +111,68 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 			throw new IllegalArgumentException("Target identifier type must not be null");
 		}
 
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
 		try {
-			// If default deserializers were not registered yet, do so
-			if(!initialized) {
-				init();
+			// Check if a deserializer for this type was registered
+			VendorIdentifierDeserializer<? extends AbstractExtendedIdentifier> deserializer = registry.getDeserializer(identifierType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName, context);
+
+				return identifierType.cast(deserializer.deserialize(attributes, nestedTags, elementEntry));
 			}
 
+			// If no deserializer was found, fail with exception
+			throw new UnsupportedOperationException("Cannot deserialize class: " + identifierType.getCanonicalName());
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception"
+												   + "for details", ex);
+		}
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class using an already resolved element descriptor.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractExtendedIdentifier}
+	 * @param descriptor Resolved descriptor of the element
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param identifierType Type of the object to be deserialized
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractExtendedIdentifier> T deserialize(final ElementDescriptor descriptor, 
+																	   final Array attributes, 
+																	   final Array nestedTags, 
+																	   final Class<T> identifierType) throws CBORDeserializationException {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
+		}
+
+		if(attributes == null) {
+			throw new IllegalArgumentException("Attributes array must not be null");
+		}
+
+		if(nestedTags == null) {
+			throw new IllegalArgumentException("Nested tags array must not be null");
+		}
+		
+		if(identifierType == null) {
+			throw new IllegalArgumentException("Target identifier type must not be null");
+		}
+
+		try {
 			// Check if a deserializer for this type was registered
-			if(hasVendorDeserializer(identifierType)) {
-				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName);
+			VendorIdentifierDeserializer<? extends AbstractExtendedIdentifier> deserializer = registry.getDeserializer(identifierType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = descriptor.getElementEntry();
 
-				return identifierType.cast(registeredDeserializers.get(identifierType).deserialize(attributes, nestedTags, elementEntry));
+				return identifierType.cast(deserializer.deserialize(attributes, nestedTags, elementEntry));
 			}
 
 			// If no deserializer was found, fail with exception
@@ -133,12 +208,17 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 			throw new IllegalArgumentException("Target class must not be null");
 		}
 
-		if(registeredDeserializers.containsKey(targetClass)) {
-			throw new IllegalStateException("Deserializer already registered for " + targetClass.getCanonicalName());
+		if(StringUtils.isBlank(namespace)) {
+			throw new IllegalArgumentException("Namespace must not be blank");
+		}
+
+		if(StringUtils.isBlank(elementName)) {
+			throw new IllegalArgumentException("Element name must not be blank");
 		}
 
-		registerResolveKey(namespace, elementName, targetClass);
-		registeredDeserializers.put(targetClass, deserializer);
+		if(!registry.register(targetClass, deserializer, namespace, elementName)) {
+			throw new IllegalStateException("Deserializer already registered for " + targetClass.getCanonicalName());
+		}
 	}
 
 
@@ -149,7 +229,7 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 	 * @param targetClass Type for which the deserializer was registered
 	 */
 	public static <M extends AbstractExtendedIdentifier> void unregisterVendorDeserializer(Class<M> targetClass) {
-		registeredDeserializers.remove(targetClass);
+		registry.unregister(targetClass);
 	}
 
 
@@ -161,19 +241,17 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 	 * @return true if deserializer was found, false otherwise
 	 */
 	public static <M extends AbstractExtendedIdentifier> boolean hasVendorDeserializer(Class<M> targetClass) {
-		return registeredDeserializers.containsKey(targetClass);
+		return registry.hasDeserializer(targetClass);
 	}
 
 
 	/**
 	 * Unregister all registered deserializer for vendor specific extended identifiers.
-	 * This operation sets the initialized flag to false which will cause all deserializers of the IF-MAP base
-	 * package to be registered again when queried.
+	 * The registrations are replaced by the deserializers of the IF-MAP base package in a single step, so
+	 * concurrent deserialization of IF-MAP base elements is not affected.
 	 */
 	public static void clearAllVendorDeserializers() {
-		registeredDeserializers.clear();
-		
-		initialized = false;
+		init();
 	}
 	
 	
@@ -193,14 +271,22 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 			throw new IllegalArgumentException("Element name must not be blank");
 		}
 		
-		// If default deserializers were not registered yet, do so
-		if(!initialized) {
-			init();
+		return registry.lookup(namespace, elementName);
+	}
+
+	
+	/**
+	 * Get the domain class Class object of the element described by the specified element descriptor.
+	 * 
+	 * @param descriptor Resolved descriptor of the element
+	 * @return Class object of the domain class
+	 */
+	public static Class<? extends AbstractExtendedIdentifier> resolveTargetClass(ElementDescriptor descriptor) {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
 		}
 		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
-		
-		return targetClassMap.get(mapKey);
+		return registry.lookup(descriptor.getNamespace(), descriptor.getElementName());
 	}
 
 
@@ -209,38 +295,11 @@ public class ExtendedIdentifierDeserializerManager extends AbstractDeserializerM
 	 * This means that all default deserializers are registered for usage.
 	 */
 	private static void init() {
-		registeredDeserializers.put(CBORExtendedIfMapServer.class, IfMapServerDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_SERVER, CBORExtendedIfMapServer.XML_NAME, CBORExtendedIfMapServer.class);
+		DeserializerRegistry<AbstractExtendedIdentifier, VendorIdentifierDeserializer<? extends AbstractExtendedIdentifier>> defaults = new DeserializerRegistry<>();
 
-		initialized = true;
-	}
-	
-	
-	/**
-	 * Register a target class resolve key with this deserializer.
-	 * The key is generated of the namespace and name of the target element. It is required to look up {@link Class}
-	 * objects representing target element when deserializing.
-	 * 
-	 * @param namespace Namespace of the target element
-	 * @param elementName Name of the target element
-	 * @param targetClass The {@link Class} object to be registered for this element
-	 */
-	private static void registerResolveKey(String namespace, String elementName, Class<? extends AbstractExtendedIdentifier> targetClass) {
-		if(StringUtils.isBlank(namespace)) {
-			throw new IllegalArgumentException("Namespace must not be blank");
-		}
-		
-		if(StringUtils.isBlank(elementName)) {
-			throw new IllegalArgumentException("Element name must not be blank");
-		}
-		
-		if(targetClass == null) {
-			throw new IllegalArgumentException("Target class must not be null");
-		}
-		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
-		
-		targetClassMap.put(mapKey, targetClass);
+		defaults.register(CBORExtendedIfMapServer.class, IfMapServerDeserializer.getInstance(), IfMapNamespaces.IFMAP_SERVER, CBORExtendedIfMapServer.XML_NAME);
+
+		registry.replaceAll(defaults);
 	}
 
 
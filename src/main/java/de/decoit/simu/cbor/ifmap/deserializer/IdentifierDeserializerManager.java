@@ -17,6 +17,8 @@ package de.decoit.simu.cbor.ifmap.deserializer;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.IdentifierPool;
 import de.decoit.simu.cbor.ifmap.deserializer.identifier.AccessRequestDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.identifier.DeviceDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.identifier.IdentityDeserializer;
@@ -32,7 +34,6 @@ import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
 import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
-import java.util.HashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
@@ -46,10 +47,7 @@ import org.apache.commons.lang3.StringUtils;
  */
 @Slf4j
 public class IdentifierDeserializerManager extends AbstractDeserializerManager {
-	private static final HashMap<Class<? extends AbstractIdentifier>, InternalIdentifierDeserializer<? extends AbstractIdentifier>> registeredDeserializers = new HashMap<>();
-	private static final HashMap<String, Class<? extends AbstractIdentifier>> targetClassMap = new HashMap<>();
-	private static final String resolveMapKeySeparator = "?";
-	private static boolean initialized = false;
+	private static final DeserializerRegistry<AbstractIdentifier, InternalIdentifierDeserializer<? extends AbstractIdentifier>> registry = new DeserializerRegistry<>();
 	
 	static {
 		init();
@@ -74,6 +72,31 @@ public class IdentifierDeserializerManager extends AbstractDeserializerManager {
 															   final Array attributes, 
 															   final Array nestedTags, 
 															   final Class<T> identifierType) throws CBORDeserializationException {
+		return deserialize(namespace, cborName, attributes, nestedTags, identifierType, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class from the specified data items using the
+	 * dictionary of the specified codec context.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractIdentifier}
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param identifierType Type of the object to be deserialized
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractIdentifier> T deserialize(final DataItem namespace, 
+															   final DataItem cborName, 
+															   final Array attributes, 
+															   final Array nestedTags, 
+															   final Class<T> identifierType,
+															   final CodecContext context) throws CBORDeserializationException {
 		if(namespace == null) {
 			throw new IllegalArgumentException("Namespace must not be null");
 		}
@@ -94,17 +117,68 @@ public class IdentifierDeserializerManager extends AbstractDeserializerManager {
 			throw new IllegalArgumentException("Target identifier type must not be null");
 		}
 
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
 		try {
-			// If default deserializers were not registered yet, do so
-			if(!initialized) {
-				init();
+			// Check if a deserializer for this type was registered
+			InternalIdentifierDeserializer<? extends AbstractIdentifier> deserializer = registry.getDeserializer(identifierType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName, context);
+
+				return intern(identifierType.cast(deserializer.deserialize(attributes, nestedTags, elementEntry)), context);
 			}
 
+			// If no deserializer was found, fail with exception
+			throw new UnsupportedOperationException("Cannot deserialize class: " + identifierType.getCanonicalName());
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during deserialization, see nested exception"
+												   + "for details", ex);
+		}
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class using an already resolved element descriptor.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractIdentifier}
+	 * @param descriptor Resolved descriptor of the element
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param identifierType Type of the object to be deserialized
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractIdentifier> T deserialize(final ElementDescriptor descriptor, 
+															   final Array attributes, 
+															   final Array nestedTags, 
+															   final Class<T> identifierType) throws CBORDeserializationException {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
+		}
+
+		if(attributes == null) {
+			throw new IllegalArgumentException("Attributes array must not be null");
+		}
+
+		if(nestedTags == null) {
+			throw new IllegalArgumentException("Nested tags array must not be null");
+		}
+		
+		if(identifierType == null) {
+			throw new IllegalArgumentException("Target identifier type must not be null");
+		}
+
+		try {
 			// Check if a deserializer for this type was registered
-			if(registeredDeserializers.containsKey(identifierType)) {
-				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName);
+			InternalIdentifierDeserializer<? extends AbstractIdentifier> deserializer = registry.getDeserializer(identifierType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = descriptor.getElementEntry();
 
-				return identifierType.cast(registeredDeserializers.get(identifierType).deserialize(attributes, nestedTags, elementEntry));
+				return identifierType.cast(deserializer.deserialize(attributes, nestedTags, elementEntry));
 			}
 
 			// If no deserializer was found, fail with exception
@@ -117,6 +191,53 @@ public class IdentifierDeserializerManager extends AbstractDeserializerManager {
 	}
 	
 	
+	/**
+	 * Deserialize an object of the specified class using an already resolved element descriptor.
+	 * If the decode options of the specified codec context provide an {@link IdentifierPool}, the
+	 * canonical instance equal to the deserialized identifier is returned.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractIdentifier}
+	 * @param descriptor Resolved descriptor of the element
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param identifierType Type of the object to be deserialized
+	 * @param context Codec context providing the decode options
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractIdentifier> T deserialize(final ElementDescriptor descriptor, 
+															   final Array attributes, 
+															   final Array nestedTags, 
+															   final Class<T> identifierType,
+															   final CodecContext context) throws CBORDeserializationException {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		return intern(deserialize(descriptor, attributes, nestedTags, identifierType), context);
+	}
+
+
+	/**
+	 * Replace the specified identifier by its canonical instance, if the decode options of the codec
+	 * context provide an identifier pool.
+	 *
+	 * @param <T> Type of the identifier
+	 * @param identifier Deserialized identifier
+	 * @param context Codec context providing the decode options
+	 * @return Canonical instance or the specified identifier, if identifiers are not pooled
+	 */
+	private static <T extends AbstractIdentifier> T intern(final T identifier, final CodecContext context) {
+		IdentifierPool pool = context.getDecodeOptions().getIdentifierPool();
+		if(pool == null) {
+			return identifier;
+		}
+
+		return pool.intern(identifier);
+	}
+	
+	
 	/**
 	 * Get the domain class Class object of the element defined by the specified namespace and element name.
 	 * 
@@ -133,9 +254,22 @@ public class IdentifierDeserializerManager extends AbstractDeserializerManager {
 			throw new IllegalArgumentException("Element name must not be blank");
 		}
 		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
+		return registry.lookup(namespace, elementName);
+	}
+
+	
+	/**
+	 * Get the domain class Class object of the element described by the specified element descriptor.
+	 * 
+	 * @param descriptor Resolved descriptor of the element
+	 * @return Class object of the domain class
+	 */
+	public static Class<? extends AbstractIdentifier> resolveTargetClass(ElementDescriptor descriptor) {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
+		}
 		
-		return targetClassMap.get(mapKey);
+		return registry.lookup(descriptor.getNamespace(), descriptor.getElementName());
 	}
 
 
@@ -144,41 +278,19 @@ public class IdentifierDeserializerManager extends AbstractDeserializerManager {
 	 * This means that all default deserializers are registered for usage.
 	 */
 	private static void init() {
-		registeredDeserializers.put(CBORAccessRequest.class, AccessRequestDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP, "access-request", CBORAccessRequest.class);
-		
-		registeredDeserializers.put(CBORDevice.class, DeviceDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP, "device", CBORDevice.class);
-		
-		registeredDeserializers.put(CBORIdentity.class, IdentityDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP, "identity", CBORIdentity.class);
-		
-		registeredDeserializers.put(CBORIpAddress.class, IpAddressDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP, "ip-address", CBORIpAddress.class);
-		
-		registeredDeserializers.put(CBORMacAddress.class, MacAddressDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP, "mac-address", CBORMacAddress.class);
+		DeserializerRegistry<AbstractIdentifier, InternalIdentifierDeserializer<? extends AbstractIdentifier>> defaults = new DeserializerRegistry<>();
 
-		initialized = true;
-	}
-	
-	
-	private static void registerResolveKey(String namespace, String elementName, Class<? extends AbstractIdentifier> targetClass) {
-		if(StringUtils.isBlank(namespace)) {
-			throw new IllegalArgumentException("Namespace must not be blank");
-		}
+		defaults.register(CBORAccessRequest.class, AccessRequestDeserializer.getInstance(), IfMapNamespaces.IFMAP, "access-request");
 		
-		if(StringUtils.isBlank(elementName)) {
-			throw new IllegalArgumentException("Element name must not be blank");
-		}
+		defaults.register(CBORDevice.class, DeviceDeserializer.getInstance(), IfMapNamespaces.IFMAP, "device");
 		
-		if(targetClass == null) {
-			throw new IllegalArgumentException("Target class must not be null");
-		}
+		defaults.register(CBORIdentity.class, IdentityDeserializer.getInstance(), IfMapNamespaces.IFMAP, "identity");
 		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
+		defaults.register(CBORIpAddress.class, IpAddressDeserializer.getInstance(), IfMapNamespaces.IFMAP, "ip-address");
 		
-		targetClassMap.put(mapKey, targetClass);
+		defaults.register(CBORMacAddress.class, MacAddressDeserializer.getInstance(), IfMapNamespaces.IFMAP, "mac-address");
+
+		registry.replaceAll(defaults);
 	}
 
 
@@ -0,0 +1,213 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/**
+ * Maps CBOR attribute and nested tag names of a single element type to integer tokens.
+ * Deserializers may switch on these tokens instead of resolving every CBOR name to its XML name and
+ * switching on the resulting string. The token of a name is its index in the array of XML names passed
+ * to the constructor, names not contained in that array are mapped to {@link #UNKNOWN}.
+ *
+ * The CBOR names assigned by the dictionary are resolved once per dictionary entry and kept in a lookup
+ * table. Names without a dictionary entry are resolved by their XML name as before. A table remembers the
+ * lookup tables of the last {@value #MAX_BINDINGS} dictionary entries it was used with, so it may be shared by
+ * a few element types with identical attributes or nested tags.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public final class KeyDispatchTable {
+	/**
+	 * Token returned for names that are not known by the table.
+	 */
+	public static final int UNKNOWN = -1;
+	private static final int MAX_BINDINGS = 8;
+
+	private final Map<String, Integer> attributeTokensByXmlName;
+	private final Map<String, Integer> nestedTagTokensByXmlName;
+	private volatile Binding[] bindings = new Binding[0];
+
+
+	/**
+	 * Create a new table for the specified attribute and nested tag names.
+	 *
+	 * @param attributeNames XML names of the attributes, the index of a name is used as its token
+	 * @param nestedTagNames XML names of the nested tags, the index of a name is used as its token
+	 */
+	public KeyDispatchTable(final String[] attributeNames, final String[] nestedTagNames) {
+		if(attributeNames == null) {
+			throw new IllegalArgumentException("Attribute names array must not be null");
+		}
+
+		if(nestedTagNames == null) {
+			throw new IllegalArgumentException("Nested tag names array must not be null");
+		}
+
+		this.attributeTokensByXmlName = buildXmlNameMap(attributeNames);
+		this.nestedTagTokensByXmlName = buildXmlNameMap(nestedTagNames);
+	}
+
+
+	/**
+	 * Get the token of a CBOR encoded attribute name.
+	 *
+	 * @param attributeName CBOR data item specifying the attribute name
+	 * @param fromElement Dictionary entry of the element containing the attribute, may be null
+	 * @return Token of the attribute or {@link #UNKNOWN}
+	 * @throws CBORDeserializationException if the attribute cannot be resolved and is not of type UnicodeString
+	 */
+	public int attributeToken(final DataItem attributeName, final DictionarySimpleElement fromElement) throws CBORDeserializationException {
+		Binding b = this.bind(fromElement);
+		if(b != null) {
+			Integer token = b.attributeTokens.get(attributeName);
+
+			if(token != null) {
+				return token;
+			}
+		}
+
+		String xmlName = AbstractDeserializerManager.getAttributeXmlName(attributeName, fromElement);
+		Integer token = this.attributeTokensByXmlName.get(xmlName);
+
+		return token != null ? token : UNKNOWN;
+	}
+
+
+	/**
+	 * Get the token of a CBOR encoded nested tag name.
+	 *
+	 * @param nestedTag CBOR data item specifying the nested tag name
+	 * @param fromElement Dictionary entry of the element containing the nested tag, may be null
+	 * @return Token of the nested tag or {@link #UNKNOWN}
+	 * @throws CBORDeserializationException if the nested tag cannot be resolved and is not of type UnicodeString
+	 */
+	public int nestedTagToken(final DataItem nestedTag, final DictionarySimpleElement fromElement) throws CBORDeserializationException {
+		Binding b = this.bind(fromElement);
+		if(b != null) {
+			Integer token = b.nestedTagTokens.get(nestedTag);
+
+			if(token != null) {
+				return token;
+			}
+		}
+
+		String xmlName = AbstractDeserializerManager.getNestedTagXmlName(nestedTag, fromElement);
+		Integer token = this.nestedTagTokensByXmlName.get(xmlName);
+
+		return token != null ? token : UNKNOWN;
+	}
+
+
+	/**
+	 * Get the lookup tables for the specified dictionary entry.
+	 * The tables are built on first use of an entry, the least recently built tables are dropped
+	 * once more than {@value #MAX_BINDINGS} entries were seen.
+	 *
+	 * @param fromElement Dictionary entry, may be null
+	 * @return Lookup tables or null, if fromElement is null
+	 */
+	private Binding bind(final DictionarySimpleElement fromElement) {
+		if(fromElement == null) {
+			return null;
+		}
+
+		Binding[] current = this.bindings;
+		for(Binding b : current) {
+			if(b.element == fromElement) {
+				return b;
+			}
+		}
+
+		// Copy on write, concurrent callers may build the same tables twice which is harmless
+		Binding b = new Binding(fromElement, this.attributeTokensByXmlName, this.nestedTagTokensByXmlName);
+		int keep = Math.min(current.length, MAX_BINDINGS - 1);
+		Binding[] updated = new Binding[keep + 1];
+		updated[0] = b;
+		System.arraycopy(current, 0, updated, 1, keep);
+		this.bindings = updated;
+
+		return b;
+	}
+
+
+	private static Map<String, Integer> buildXmlNameMap(final String[] xmlNames) {
+		Map<String, Integer> rv = new HashMap<>();
+
+		for(int i=0; i<xmlNames.length; i++) {
+			if(rv.put(xmlNames[i], i) != null) {
+				throw new IllegalArgumentException("Duplicate XML name: " + xmlNames[i]);
+			}
+		}
+
+		return rv;
+	}
+
+
+
+	/**
+	 * Lookup tables from the CBOR names assigned by one dictionary entry to tokens.
+	 * Instances are never modified after construction.
+	 */
+	private static final class Binding {
+		private final DictionarySimpleElement element;
+		private final Map<DataItem, Integer> attributeTokens;
+		private final Map<DataItem, Integer> nestedTagTokens;
+
+
+		private Binding(final DictionarySimpleElement element,
+						final Map<String, Integer> attributeTokensByXmlName,
+						final Map<String, Integer> nestedTagTokensByXmlName) {
+			this.element = element;
+			this.attributeTokens = new HashMap<>();
+			this.nestedTagTokens = new HashMap<>();
+
+			attributeTokensByXmlName.forEach((xmlName, token) -> {
+				DictionarySimpleAttribute attrEntry = element.lookupAttribute(xmlName);
+
+				if(attrEntry != null) {
+					this.attributeTokens.put(attrEntry.getCborName(), token);
+				}
+			});
+
+			if(element instanceof DictionaryComplexElement) {
+				DictionaryComplexElement complexElement = (DictionaryComplexElement) element;
+
+				nestedTagTokensByXmlName.forEach((xmlName, token) -> {
+					DictionarySimpleElement nestedEntry = complexElement.lookupNestedElement(xmlName);
+
+					if(nestedEntry != null) {
+						this.nestedTagTokens.put(nestedEntry.getCborName(), token);
+					}
+				});
+			}
+
+			if(log.isDebugEnabled()) {
+				log.debug("Built dispatch table for dictionary entry: " + element);
+			}
+		}
+	}
+}
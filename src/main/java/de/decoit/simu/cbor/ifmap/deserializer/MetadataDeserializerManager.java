@@ -17,6 +17,10 @@ package de.decoit.simu.cbor.ifmap.deserializer;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.MajorType;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
 import de.decoit.simu.cbor.ifmap.deserializer.metadata.AccessRequestDeviceDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.metadata.AccessRequestIpDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.metadata.AccessRequestMacDeserializer;
@@ -39,8 +43,10 @@ import de.decoit.simu.cbor.ifmap.deserializer.metadata.ServerCapabilityDeseriali
 import de.decoit.simu.cbor.ifmap.deserializer.metadata.UnexpectedBehaviorDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.metadata.WlanInformationDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
+import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.RawMetadata;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceCharacteristic;
@@ -63,8 +69,11 @@ import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDiscoveredBy;
 import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORServerCapability;
 import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORWlanInformation;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
@@ -74,15 +83,14 @@ import org.apache.commons.lang3.StringUtils;
  * Central class for managing metadata deserializers.
  * Users of this library should never use the methods provided by this class directly except when
  * registering and managing their own custom deserializers.
+ * Registrations are held in immutable snapshots, so deserializers may be registered and unregistered while
+ * other threads deserialize data.
  * 
  * @author Thomas Rix (rix@decoit.de)
  */
 @Slf4j
 public class MetadataDeserializerManager extends AbstractDeserializerManager {
-	private static final HashMap<Class<? extends AbstractMetadata>, VendorMetadataDeserializer<? extends AbstractMetadata>> registeredDeserializers = new HashMap<>();
-	private static final HashMap<String, Class<? extends AbstractMetadata>> targetClassMap = new HashMap<>();
-	private static final String resolveMapKeySeparator = "?";
-	private static boolean initialized = false;
+	private static final DeserializerRegistry<AbstractMetadata, VendorMetadataDeserializer<? extends AbstractMetadata>> registry = new DeserializerRegistry<>();
 	
 	static {
 		init();
@@ -107,6 +115,31 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 															 final Array attributes, 
 															 final DataItem nestedDataItem, 
 															 final Class<T> metadataType) throws CBORDeserializationException {
+		return deserialize(namespace, cborName, attributes, nestedDataItem, metadataType, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class from the specified data items using the
+	 * dictionary of the specified codec context.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractMetadata}
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedDataItem CBOR data item containing the element's nested tags or value
+	 * @param metadataType Type of the object to be deserialized
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractMetadata> T deserialize(final DataItem namespace, 
+															 final DataItem cborName, 
+															 final Array attributes, 
+															 final DataItem nestedDataItem, 
+															 final Class<T> metadataType,
+															 final CodecContext context) throws CBORDeserializationException {
 		if(namespace == null) {
 			throw new IllegalArgumentException("Namespace must not be null");
 		}
@@ -127,17 +160,70 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 			throw new IllegalArgumentException("Target metadata type must not be null");
 		}
 
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
 		try {
-			// If default deserializers were not registered yet, do so
-			if(!initialized) {
-				init();
+			// Check if a deserializer for this type was registered
+			VendorMetadataDeserializer<? extends AbstractMetadata> deserializer = registry.getDeserializer(metadataType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName, context);
+
+				return metadataType.cast(deserializer.deserialize(attributes, nestedDataItem, elementEntry));
 			}
 
+			// If no deserializer was found, fail with exception
+			throw new UnsupportedOperationException("Cannot deserialize class: " + metadataType.getCanonicalName());
+		}
+		catch(CBORDeserializationException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new CBORDeserializationException("Could not cast deserialization result to target class", ex);
+		}
+	}
+
+
+	/**
+	 * Deserialize an object of the specified class using an already resolved element descriptor.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param <T> Type of the object to be deserialized, must be a subclass of {@link AbstractMetadata}
+	 * @param descriptor Resolved descriptor of the element
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedDataItem CBOR data item containing the element's nested tags or value
+	 * @param metadataType Type of the object to be deserialized
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static <T extends AbstractMetadata> T deserialize(final ElementDescriptor descriptor, 
+															 final Array attributes, 
+															 final DataItem nestedDataItem, 
+															 final Class<T> metadataType) throws CBORDeserializationException {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
+		}
+
+		if(attributes == null) {
+			throw new IllegalArgumentException("Attributes array must not be null");
+		}
+
+		if(nestedDataItem == null) {
+			throw new IllegalArgumentException("Nested tags array must not be null");
+		}
+		
+		if(metadataType == null) {
+			throw new IllegalArgumentException("Target metadata type must not be null");
+		}
+
+		try {
 			// Check if a deserializer for this type was registered
-			if(hasVendorDeserializer(metadataType)) {
-				DictionarySimpleElement elementEntry = getTopLevelElement(namespace, cborName);
+			VendorMetadataDeserializer<? extends AbstractMetadata> deserializer = registry.getDeserializer(metadataType);
+			if(deserializer != null) {
+				DictionarySimpleElement elementEntry = descriptor.getElementEntry();
 
-				return metadataType.cast(registeredDeserializers.get(metadataType).deserialize(attributes, nestedDataItem, elementEntry));
+				return metadataType.cast(deserializer.deserialize(attributes, nestedDataItem, elementEntry));
 			}
 
 			// If no deserializer was found, fail with exception
@@ -152,6 +238,220 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 	}
 
 
+	/**
+	 * Deserialize all metadata elements contained in the nested tags array of a 'metadata' element.
+	 * The array contains the elements in steps of 4 (namespace, name, attributes, nested tags or value).
+	 * Elements not accepted by the decode options of the context are skipped without being deserialized.
+	 *
+	 * @param metadataArray CBOR array data item containing the metadata elements
+	 * @param context Codec context providing the dictionary and decode options
+	 * @return List of deserialized metadata objects in wire order
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static List<AbstractMetadata> deserializeMetadataList(final Array metadataArray,
+																 final CodecContext context) throws CBORDeserializationException {
+		if(metadataArray == null) {
+			throw new IllegalArgumentException("Metadata array must not be null");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		DecodeOptions options = context.getDecodeOptions();
+
+		// Get list of all nested tags data items
+		List<DataItem> metadataDataItems = metadataArray.getDataItems();
+		List<AbstractMetadata> rv = new ArrayList<>(metadataDataItems.size() / 4);
+
+		// Iterate over the data items in steps of 4
+		for(int j=0; j<metadataDataItems.size(); j=j+4) {
+			DataItem metadataNamespace = metadataDataItems.get(j);
+			DataItem metadataName = metadataDataItems.get(j+1);
+			DataItem metadataAttributes = metadataDataItems.get(j+2);
+			DataItem metadataNestedTags = metadataDataItems.get(j+3);
+
+			if(metadataAttributes.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + metadataAttributes.getMajorType());
+			}
+
+			ElementDescriptor descriptor = resolveMetadataElement(metadataNamespace, metadataName, context);
+
+			Class<? extends AbstractMetadata> targetClass = descriptor != null ? resolveTargetClass(descriptor) : null;
+
+			if(!options.acceptsMetadata(descriptor != null ? descriptor.getNamespace() : null, targetClass)) {
+				continue;
+			}
+
+			rv.add(deserializeElement(descriptor, metadataNamespace, metadataName, (Array) metadataAttributes, metadataNestedTags, targetClass, context));
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Deserialize a single metadata element using an already resolved element descriptor.
+	 * If pass-through of unknown metadata is enabled in the decode options of the context, elements without
+	 * a registered deserializer are returned as {@link RawMetadata}. Otherwise they fail deserialization.
+	 *
+	 * @param descriptor Resolved descriptor of the element, may only be null if pass-through is enabled
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedDataItem CBOR data item containing the element's nested tags or value
+	 * @param metadataType Type of the object to be deserialized, may be null for unknown elements
+	 * @param context Codec context providing the decode options
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static AbstractMetadata deserializeElement(final ElementDescriptor descriptor,
+													  final DataItem namespace,
+													  final DataItem cborName,
+													  final Array attributes,
+													  final DataItem nestedDataItem,
+													  final Class<? extends AbstractMetadata> metadataType,
+													  final CodecContext context) throws CBORDeserializationException {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		if(context.getDecodeOptions().isRawUnknownMetadata() && (metadataType == null || !registry.hasDeserializer(metadataType))) {
+			return createRawMetadata(descriptor, namespace, cborName, attributes, nestedDataItem);
+		}
+
+		return deserialize(descriptor, attributes, nestedDataItem, metadataType);
+	}
+
+
+	/**
+	 * Resolve the descriptor of a metadata element.
+	 * If pass-through of unknown metadata is enabled in the decode options of the context, names which
+	 * cannot be resolved yield null instead of an exception.
+	 *
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param context Codec context providing the dictionary and decode options
+	 * @return Resolved descriptor or null, if the names cannot be resolved and pass-through is enabled
+	 * @throws CBORDeserializationException if the names cannot be resolved and pass-through is disabled
+	 */
+	public static ElementDescriptor resolveMetadataElement(final DataItem namespace,
+														   final DataItem cborName,
+														   final CodecContext context) throws CBORDeserializationException {
+		try {
+			return resolveElement(namespace, cborName, context);
+		}
+		catch(CBORDeserializationException ex) {
+			if(context.getDecodeOptions().isRawUnknownMetadata()) {
+				return null;
+			}
+
+			throw ex;
+		}
+	}
+
+
+	/**
+	 * Create a raw metadata object for an element without a registered deserializer.
+	 * The cardinality is read from the ifmap-cardinality attribute if it can be recognized, either by the
+	 * dictionary entry of the element or by its plain XML name. Otherwise multiValue is assumed.
+	 *
+	 * @param descriptor Resolved descriptor of the element, null if the names could not be resolved
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedDataItem CBOR data item containing the element's nested tags or value
+	 * @return Raw metadata object
+	 */
+	private static RawMetadata createRawMetadata(final ElementDescriptor descriptor,
+												 final DataItem namespace,
+												 final DataItem cborName,
+												 final Array attributes,
+												 final DataItem nestedDataItem) {
+		String nsName = descriptor != null ? descriptor.getNamespace() : String.valueOf(namespace);
+		String elementName = descriptor != null ? descriptor.getElementName() : String.valueOf(cborName);
+		DictionarySimpleElement elementEntry = descriptor != null ? descriptor.getElementEntry() : null;
+
+		DataItem cardinalityName = new UnicodeString(AbstractMetadata.IFMAP_CARDINALITY);
+		DataItem singleValue = new UnicodeString(IfMapCardinality.SINGLE_VALUE.getXmlName());
+		DataItem mappedCardinalityName = null;
+		DataItem mappedSingleValue = null;
+
+		if(elementEntry != null) {
+			DictionarySimpleAttribute attributeEntry = elementEntry.lookupAttribute(AbstractMetadata.IFMAP_CARDINALITY);
+
+			if(attributeEntry != null) {
+				mappedCardinalityName = attributeEntry.getCborName();
+			}
+
+			if(attributeEntry instanceof DictionaryEnumValueAttribute) {
+				mappedSingleValue = ((DictionaryEnumValueAttribute) attributeEntry).lookupEnumValue(IfMapCardinality.SINGLE_VALUE.getXmlName());
+			}
+		}
+
+		IfMapCardinality cardinality = IfMapCardinality.MULTI_VALUE;
+		List<DataItem> attributeItems = attributes.getDataItems();
+
+		for(int i=0; i+1<attributeItems.size(); i=i+2) {
+			DataItem key = attributeItems.get(i);
+			DataItem value = attributeItems.get(i+1);
+
+			if(key.equals(cardinalityName) || key.equals(mappedCardinalityName)) {
+				if(value.equals(singleValue) || value.equals(mappedSingleValue)) {
+					cardinality = IfMapCardinality.SINGLE_VALUE;
+				}
+
+				break;
+			}
+		}
+
+		return new RawMetadata(nsName, elementName, cardinality, namespace, cborName, attributes, nestedDataItem);
+	}
+
+
+	/**
+	 * Check if the nested tags array of a 'metadata' element contains at least one element accepted by the
+	 * decode options of the specified context. Only the element names are resolved, no metadata is deserialized.
+	 *
+	 * @param metadataArray CBOR array data item containing the metadata elements
+	 * @param context Codec context providing the dictionary and decode options
+	 * @return true if an accepted element was found, false otherwise
+	 * @throws CBORDeserializationException if an element name cannot be resolved
+	 */
+	public static boolean containsAcceptedMetadata(final Array metadataArray,
+												   final CodecContext context) throws CBORDeserializationException {
+		if(metadataArray == null) {
+			throw new IllegalArgumentException("Metadata array must not be null");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		DecodeOptions options = context.getDecodeOptions();
+		List<DataItem> metadataDataItems = metadataArray.getDataItems();
+
+		// Iterate over the data items in steps of 4
+		for(int j=0; j<metadataDataItems.size(); j=j+4) {
+			ElementDescriptor descriptor = resolveMetadataElement(metadataDataItems.get(j), metadataDataItems.get(j+1), context);
+
+			if(descriptor == null) {
+				if(options.acceptsMetadata(null, null)) {
+					return true;
+				}
+
+				continue;
+			}
+
+			if(options.acceptsMetadata(descriptor.getNamespace(), resolveTargetClass(descriptor))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
 	/**
 	 * Register a deserializer object for vendor specific metadata.
 	 * The deserializer class must implement VendorMetadataDeserializer for the type specified
@@ -175,12 +475,17 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 			throw new IllegalArgumentException("Target class must not be null");
 		}
 
-		if(registeredDeserializers.containsKey(targetClass)) {
-			throw new IllegalStateException("Deserializer already registered for " + targetClass.getCanonicalName());
+		if(StringUtils.isBlank(namespace)) {
+			throw new IllegalArgumentException("Namespace must not be blank");
 		}
 
-		registerResolveKey(namespace, elementName, targetClass);
-		registeredDeserializers.put(targetClass, deserializer);
+		if(StringUtils.isBlank(elementName)) {
+			throw new IllegalArgumentException("Element name must not be blank");
+		}
+
+		if(!registry.register(targetClass, deserializer, namespace, elementName)) {
+			throw new IllegalStateException("Deserializer already registered for " + targetClass.getCanonicalName());
+		}
 	}
 
 
@@ -191,7 +496,7 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 	 * @param targetClass Type for which the deserializer was registered
 	 */
 	public static <M extends AbstractMetadata> void unregisterVendorDeserializer(Class<M> targetClass) {
-		registeredDeserializers.remove(targetClass);
+		registry.unregister(targetClass);
 	}
 
 
@@ -203,19 +508,17 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 	 * @return true if deserializer was found, false otherwise
 	 */
 	public static <M extends AbstractMetadata> boolean hasVendorDeserializer(Class<M> targetClass) {
-		return registeredDeserializers.containsKey(targetClass);
+		return registry.hasDeserializer(targetClass);
 	}
 
 
 	/**
 	 * Unregister all registered deserializer for vendor specific metadata.
-	 * This operation sets the initialized flag to false which will cause all deserializers of the IF-MAP base
-	 * package to be registered again when queried.
+	 * The registrations are replaced by the deserializers of the IF-MAP base package in a single step, so
+	 * concurrent deserialization of IF-MAP base elements is not affected.
 	 */
 	public static void clearAllVendorDeserializers() {
-		registeredDeserializers.clear();
-		
-		initialized = false;
+		init();
 	}
 	
 	
@@ -235,14 +538,22 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 			throw new IllegalArgumentException("Element name must not be blank");
 		}
 		
-		// If default deserializers were not registered yet, do so
-		if(!initialized) {
-			init();
+		return registry.lookup(namespace, elementName);
+	}
+
+	
+	/**
+	 * Get the domain class Class object of the element described by the specified element descriptor.
+	 * 
+	 * @param descriptor Resolved descriptor of the element
+	 * @return Class object of the domain class
+	 */
+	public static Class<? extends AbstractMetadata> resolveTargetClass(ElementDescriptor descriptor) {
+		if(descriptor == null) {
+			throw new IllegalArgumentException("Element descriptor must not be null");
 		}
 		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
-		
-		return targetClassMap.get(mapKey);
+		return registry.lookup(descriptor.getNamespace(), descriptor.getElementName());
 	}
 	
 	
@@ -251,98 +562,51 @@ public class MetadataDeserializerManager extends AbstractDeserializerManager {
 	 * This means that all default deserializers are registered for usage.
 	 */
 	private static void init() {
-		registeredDeserializers.put(CBORAccessRequestDevice.class, AccessRequestDeviceDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestDevice.XML_NAME, CBORAccessRequestDevice.class);
+		DeserializerRegistry<AbstractMetadata, VendorMetadataDeserializer<? extends AbstractMetadata>> defaults = new DeserializerRegistry<>();
+
+		defaults.register(CBORAccessRequestDevice.class, AccessRequestDeviceDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestDevice.XML_NAME);
 		
-		registeredDeserializers.put(CBORAccessRequestIp.class, AccessRequestIpDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestIp.XML_NAME, CBORAccessRequestIp.class);
+		defaults.register(CBORAccessRequestIp.class, AccessRequestIpDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestIp.XML_NAME);
 		
-		registeredDeserializers.put(CBORAccessRequestMac.class, AccessRequestMacDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestMac.XML_NAME, CBORAccessRequestMac.class);
+		defaults.register(CBORAccessRequestMac.class, AccessRequestMacDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORAccessRequestMac.XML_NAME);
 		
-		registeredDeserializers.put(CBORAuthenticatedAs.class, AuthenticatedAsDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORAuthenticatedAs.XML_NAME, CBORAuthenticatedAs.class);
+		defaults.register(CBORAuthenticatedAs.class, AuthenticatedAsDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORAuthenticatedAs.XML_NAME);
 		
-		registeredDeserializers.put(CBORAuthenticatedBy.class, AuthenticatedByDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORAuthenticatedBy.XML_NAME, CBORAuthenticatedBy.class);
+		defaults.register(CBORAuthenticatedBy.class, AuthenticatedByDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORAuthenticatedBy.XML_NAME);
 		
-		registeredDeserializers.put(CBORCapability.class, CapabilityDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORCapability.XML_NAME, CBORCapability.class);
+		defaults.register(CBORCapability.class, CapabilityDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORCapability.XML_NAME);
 		
-		registeredDeserializers.put(CBORClientTime.class, ClientTimeDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_OPEARATIONAL_METADATA, CBORClientTime.XML_NAME, CBORClientTime.class);
+		defaults.register(CBORClientTime.class, ClientTimeDeserializer.getInstance(), IfMapNamespaces.IFMAP_OPEARATIONAL_METADATA, CBORClientTime.XML_NAME);
 		
-		registeredDeserializers.put(CBORDeviceAttribute.class, DeviceAttributeDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORDeviceAttribute.XML_NAME, CBORDeviceAttribute.class);
+		defaults.register(CBORDeviceAttribute.class, DeviceAttributeDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORDeviceAttribute.XML_NAME);
 		
-		registeredDeserializers.put(CBORDeviceCharacteristic.class, DeviceCharacteristicDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORDeviceCharacteristic.XML_NAME, CBORDeviceCharacteristic.class);
+		defaults.register(CBORDeviceCharacteristic.class, DeviceCharacteristicDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORDeviceCharacteristic.XML_NAME);
 		
-		registeredDeserializers.put(CBORDeviceIp.class, DeviceIpDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME, CBORDeviceIp.class);
+		defaults.register(CBORDeviceIp.class, DeviceIpDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME);
 		
-		registeredDeserializers.put(CBORDiscoveredBy.class, DiscoveredByDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORDiscoveredBy.XML_NAME, CBORDiscoveredBy.class);
+		defaults.register(CBORDiscoveredBy.class, DiscoveredByDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORDiscoveredBy.XML_NAME);
 		
-		registeredDeserializers.put(CBOREnforcementReport.class, EnforcementReportDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBOREnforcementReport.XML_NAME, CBOREnforcementReport.class);
+		defaults.register(CBOREnforcementReport.class, EnforcementReportDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBOREnforcementReport.XML_NAME);
 		
-		registeredDeserializers.put(CBOREvent.class, EventDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME, CBOREvent.class);
+		defaults.register(CBOREvent.class, EventDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
 		
-		registeredDeserializers.put(CBORIpMac.class, IpMacDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORIpMac.XML_NAME, CBORIpMac.class);
+		defaults.register(CBORIpMac.class, IpMacDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORIpMac.XML_NAME);
 		
-		registeredDeserializers.put(CBORLayer2Information.class, Layer2InformationDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORLayer2Information.XML_NAME, CBORLayer2Information.class);
+		defaults.register(CBORLayer2Information.class, Layer2InformationDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORLayer2Information.XML_NAME);
 		
-		registeredDeserializers.put(CBORLocation.class, LocationDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORLocation.XML_NAME, CBORLocation.class);
+		defaults.register(CBORLocation.class, LocationDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORLocation.XML_NAME);
 		
-		registeredDeserializers.put(CBORRequestForInvestigation.class, RequestForInvestigationDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORRequestForInvestigation.XML_NAME, CBORRequestForInvestigation.class);
+		defaults.register(CBORRequestForInvestigation.class, RequestForInvestigationDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORRequestForInvestigation.XML_NAME);
 		
-		registeredDeserializers.put(CBORRole.class, RoleDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORRole.XML_NAME, CBORRole.class);
+		defaults.register(CBORRole.class, RoleDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORRole.XML_NAME);
 		
-		registeredDeserializers.put(CBORServerCapability.class, ServerCapabilityDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_SERVER, CBORServerCapability.XML_NAME, CBORServerCapability.class);
+		defaults.register(CBORServerCapability.class, ServerCapabilityDeserializer.getInstance(), IfMapNamespaces.IFMAP_SERVER, CBORServerCapability.XML_NAME);
 		
-		registeredDeserializers.put(CBORUnexpectedBehavior.class, UnexpectedBehaviorDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORUnexpectedBehavior.XML_NAME, CBORUnexpectedBehavior.class);
+		defaults.register(CBORUnexpectedBehavior.class, UnexpectedBehaviorDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORUnexpectedBehavior.XML_NAME);
 		
-		registeredDeserializers.put(CBORWlanInformation.class, WlanInformationDeserializer.getInstance());
-		registerResolveKey(IfMapNamespaces.IFMAP_METADATA, CBORWlanInformation.XML_NAME, CBORWlanInformation.class);
+		defaults.register(CBORWlanInformation.class, WlanInformationDeserializer.getInstance(), IfMapNamespaces.IFMAP_METADATA, CBORWlanInformation.XML_NAME);
 
-		initialized = true;
-	}
-	
-	
-	/**
-	 * Register a target class resolve key with this deserializer.
-	 * The key is generated of the namespace and name of the target element. It is required to look up {@link Class}
-	 * objects representing target element when deserializing.
-	 * 
-	 * @param namespace Namespace of the target element
-	 * @param elementName Name of the target element
-	 * @param targetClass The {@link Class} object to be registered for this element
-	 */
-	private static void registerResolveKey(String namespace, String elementName, Class<? extends AbstractMetadata> targetClass) {
-		if(StringUtils.isBlank(namespace)) {
-			throw new IllegalArgumentException("Namespace must not be blank");
-		}
-		
-		if(StringUtils.isBlank(elementName)) {
-			throw new IllegalArgumentException("Element name must not be blank");
-		}
-		
-		if(targetClass == null) {
-			throw new IllegalArgumentException("Target class must not be null");
-		}
-		
-		String mapKey = namespace + resolveMapKeySeparator + elementName;
-		
-		targetClassMap.put(mapKey, targetClass);
+		registry.replaceAll(defaults);
 	}
 
 
@@ -19,6 +19,8 @@ import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.deserializer.request.EndSessionDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.request.NewSessionDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.request.PollDeserializer;
@@ -29,7 +31,9 @@ import de.decoit.simu.cbor.ifmap.deserializer.request.SearchDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.request.SubscribeDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.RequestHeader;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -56,7 +60,29 @@ public class RequestDeserializerManager extends AbstractDeserializerManager {
 											  final DataItem cborName, 
 											  final Array attributes, 
 											  final Array nestedTags) throws CBORDeserializationException {
-		DictionarySimpleElement requestEntry =  getTopLevelElement(namespace, cborName);
+		return deserialize(namespace, cborName, attributes, nestedTags, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Deserialize a request object structure from the specified data items using the
+	 * dictionary of the specified codec context.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static AbstractRequest deserialize(final DataItem namespace, 
+											  final DataItem cborName, 
+											  final Array attributes, 
+											  final Array nestedTags,
+											  final CodecContext context) throws CBORDeserializationException {
+		DictionarySimpleElement requestEntry =  getTopLevelElement(namespace, cborName, context);
 		String reqXmlName;
 		
 		if(requestEntry != null) {
@@ -75,21 +101,21 @@ public class RequestDeserializerManager extends AbstractDeserializerManager {
 		try {
 			switch(reqXmlName) {
 				case "publish":
-					return PublishDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return PublishDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "search":
-					return SearchDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return SearchDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "subscribe":
-					return SubscribeDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return SubscribeDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "poll":
-					return PollDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return PollDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "purgePublisher":
-					return PurgePublisherDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return PurgePublisherDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "newSession":
-					return NewSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return NewSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "endSession":
-					return EndSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return EndSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				case "renewSession":
-					return RenewSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry);
+					return RenewSessionDeserializer.getInstance().deserialize(attributes, nestedTags, requestEntry, context);
 				default:
 					throw new CBORDeserializationException("Unknown request type: " + reqXmlName);
 			}
@@ -98,4 +124,40 @@ public class RequestDeserializerManager extends AbstractDeserializerManager {
 			throw new CBORDeserializationException("Deserialization failed, see nested exception for details", ex);
 		}
 	}
+
+
+	/**
+	 * Read the header of a request from the specified data items.
+	 * Only the namespace, name and attributes of the request element are inspected, the nested tags are
+	 * not required.
+	 *
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param context Codec context providing the dictionary
+	 * @return The request header
+	 * @throws CBORDeserializationException if the header cannot be read
+	 */
+	public static RequestHeader readHeader(final DataItem namespace, 
+										   final DataItem cborName, 
+										   final Array attributes,
+										   final CodecContext context) throws CBORDeserializationException {
+		ElementDescriptor descriptor = resolveElement(namespace, cborName, context);
+		String sessionId = null;
+		
+		// Get list of all attribute data items
+		List<DataItem> attributesDataItems = attributes.getDataItems();
+
+		// Iterate over the data items in steps of 2
+		for(int i=0; i<attributesDataItems.size(); i=i+2) {
+			String attrNameStr = getAttributeXmlName(attributesDataItems.get(i), descriptor.getElementEntry());
+			
+			if(SessionAttributeGroup.SESSION_ID.equals(attrNameStr)) {
+				sessionId = processUnicodeStringItem(attributesDataItems.get(i+1), true);
+				break;
+			}
+		}
+		
+		return new RequestHeader(descriptor.getNamespace(), descriptor.getElementName(), sessionId);
+	}
 }
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import static de.decoit.simu.cbor.ifmap.deserializer.AbstractDeserializerManager.getTopLevelElement;
 import de.decoit.simu.cbor.ifmap.deserializer.response.EndSessionResultDeserializer;
 import de.decoit.simu.cbor.ifmap.deserializer.response.ErrorResultDeserializer;
@@ -63,7 +64,29 @@ public class ResponseDeserializerManager extends AbstractDeserializerManager {
 										   final DataItem cborName, 
 										   final Array attributes, 
 										   final Array nestedTags) throws CBORDeserializationException {
-		DictionarySimpleElement requestEntry =  getTopLevelElement(namespace, cborName);
+		return deserialize(namespace, cborName, attributes, nestedTags, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Deserialize a response object structure from the specified data items using the
+	 * dictionary of the specified codec context.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param context Codec context providing the dictionary
+	 * @return The deserialized object
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public static CBORResponse deserialize(final DataItem namespace, 
+										   final DataItem cborName, 
+										   final Array attributes, 
+										   final Array nestedTags,
+										   final CodecContext context) throws CBORDeserializationException {
+		DictionarySimpleElement requestEntry =  getTopLevelElement(namespace, cborName, context);
 		
 		IfMapValidationType validation = null;
 		
@@ -102,7 +125,7 @@ public class ResponseDeserializerManager extends AbstractDeserializerManager {
 			throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
 		}
 		
-		AbstractResult result = processResult(ntNamespace, ntName, (Array) ntAttributes, (Array) ntNestedTags, requestEntry);
+		AbstractResult result = processResult(ntNamespace, ntName, (Array) ntAttributes, (Array) ntNestedTags, requestEntry, context);
 		
 		CBORResponse rv = new CBORResponse(result);
 		rv.setValidation(validation);
@@ -119,6 +142,7 @@ public class ResponseDeserializerManager extends AbstractDeserializerManager {
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param parentEntry Dictionary entry of the response element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized result object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
@@ -126,7 +150,8 @@ public class ResponseDeserializerManager extends AbstractDeserializerManager {
 												final DataItem cborName, 
 												final Array attributes, 
 												final Array nestedTags,
-												final DictionarySimpleElement parentEntry) throws CBORDeserializationException {
+												final DictionarySimpleElement parentEntry,
+												final CodecContext context) throws CBORDeserializationException {
 		if(!isSimpleValueNull(namespace)) {
 			throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'response' element");
 		}
@@ -139,31 +164,31 @@ public class ResponseDeserializerManager extends AbstractDeserializerManager {
 
 			switch(resultName) {
 				case "errorResult":
-					rv = ErrorResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = ErrorResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "publishReceived":
-					rv = PublishReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = PublishReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "searchResult":
-					rv = SearchResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = SearchResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "subscribeReceived":
-					rv = SubscribeReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = SubscribeReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "pollResult":
-					rv = PollResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = PollResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "purgePublisherReceived":
-					rv = PurgePublisherReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = PurgePublisherReceivedDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "newSessionResult":
-					rv = NewSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = NewSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "endSessionResult":
-					rv = EndSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = EndSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				case "renewSessionResult":
-					rv = RenewSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry);
+					rv = RenewSessionResultDeserializer.getInstance().deserialize(attributes, nestedTags, resultEntry, context);
 					break;
 				default:
 					throw new CBORDeserializationException("Unknown result type: " + resultName);
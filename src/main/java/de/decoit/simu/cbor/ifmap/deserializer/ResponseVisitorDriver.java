@@ -0,0 +1,483 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import co.nstant.in.cbor.model.Array;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.ResponseVisitor;
+import de.decoit.simu.cbor.ifmap.enums.CBORTags;
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
+import de.decoit.simu.cbor.ifmap.identifier.extended.AbstractExtendedIdentifier;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.DeletePollSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.NotifyPollSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchPollSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/**
+ * Drives a {@link ResponseVisitor} directly from the CBOR structure of a response.
+ * Search and poll results are walked element by element, names are resolved using the same dictionary
+ * lookups as the deserializers and dispatched on the integer tokens of {@link KeyDispatchTable}s. No result
+ * or metadata objects are built, identifiers are only deserialized if the visitor asks for them.
+ * Users of this library should use {@link de.decoit.simu.cbor.ifmap.CBORDeserializer} instead of calling
+ * this class directly.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class ResponseVisitorDriver extends AbstractDeserializerManager {
+	private static final int TAG_ERROR_RESULT = 0;
+	private static final int TAG_SEARCH_RESULT = 1;
+	private static final int TAG_POLL_RESULT = 2;
+	private static final KeyDispatchTable responseDispatchTable = new KeyDispatchTable(
+			new String[] {},
+			new String[] {CBORErrorResult.XML_NAME, CBORSearchResult.XML_NAME, CBORPollResult.XML_NAME});
+
+	private static final String[] POLL_BLOCK_NAMES = {CBORErrorResult.XML_NAME, SearchPollSearchResult.XML_NAME, 
+		UpdatePollSearchResult.XML_NAME, DeletePollSearchResult.XML_NAME, NotifyPollSearchResult.XML_NAME};
+	private static final KeyDispatchTable pollResultDispatchTable = new KeyDispatchTable(
+			new String[] {},
+			POLL_BLOCK_NAMES);
+
+	private static final int ATTR_NAME = 0;
+	private static final int TAG_RESULT_ITEM = 0;
+	private static final KeyDispatchTable searchResultDispatchTable = new KeyDispatchTable(
+			new String[] {SearchResult.NAME},
+			new String[] {SearchResultItem.XML_NAME});
+
+	private static final int TAG_METADATA = 0;
+	private static final KeyDispatchTable resultItemDispatchTable = new KeyDispatchTable(
+			new String[] {},
+			new String[] {SearchResultItem.METADATA});
+
+	private static final int ATTR_ERROR_NAME = 0;
+	private static final int ATTR_ERROR_CODE = 1;
+	private static final int TAG_ERROR_STRING = 0;
+	private static final KeyDispatchTable errorResultDispatchTable = new KeyDispatchTable(
+			new String[] {CBORErrorResult.NAME, CBORErrorResult.ERROR_CODE},
+			new String[] {CBORErrorResult.ERROR_STRING});
+
+
+	/**
+	 * Walk the response defined by the specified data items and report its content to the visitor.
+	 * The attributes and nested tags arrays may be empty but never null.
+	 *
+	 * @param namespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedTags CBOR array data item containing the element's nested tags
+	 * @param visitor Visitor receiving the events
+	 * @param context Codec context providing the dictionary and decode options
+	 * @throws CBORDeserializationException if decoding failed or was aborted by the visitor
+	 */
+	public static void visit(final DataItem namespace, 
+							 final DataItem cborName, 
+							 final Array attributes, 
+							 final Array nestedTags,
+							 final ResponseVisitor visitor,
+							 final CodecContext context) throws CBORDeserializationException {
+		if(visitor == null) {
+			throw new IllegalArgumentException("Response visitor must not be null");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		DictionarySimpleElement responseEntry = getTopLevelElement(namespace, cborName, context);
+
+		// Get list of all nested tags data items
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		DataItem ntNamespace = nestedTagsDataItems.get(0);
+		DataItem ntName = nestedTagsDataItems.get(1);
+		DataItem ntAttributes = nestedTagsDataItems.get(2);
+		DataItem ntNestedTags = nestedTagsDataItems.get(3);
+
+		if(ntAttributes.getMajorType() != MajorType.ARRAY) {
+			throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + ntAttributes.getMajorType());
+		}
+
+		if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+			throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+		}
+
+		if(!isSimpleValueNull(ntNamespace)) {
+			throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'response' element");
+		}
+
+		int token = responseDispatchTable.nestedTagToken(ntName, responseEntry);
+		switch(token) {
+			case TAG_ERROR_RESULT:
+				visitErrorResult((Array) ntAttributes, (Array) ntNestedTags, nestedElementEntry(ntName, CBORErrorResult.XML_NAME, responseEntry), visitor);
+				break;
+			case TAG_SEARCH_RESULT:
+				visitSearchResult(CBORSearchResult.XML_NAME, (Array) ntAttributes, (Array) ntNestedTags, 
+						nestedElementEntry(ntName, CBORSearchResult.XML_NAME, responseEntry), visitor, context);
+				break;
+			case TAG_POLL_RESULT:
+				visitPollResult((Array) ntNestedTags, nestedElementEntry(ntName, CBORPollResult.XML_NAME, responseEntry), visitor, context);
+				break;
+			default:
+				// All other results are small, deserialize them completely
+				visitor.onResult(ResponseDeserializerManager.deserialize(namespace, cborName, attributes, nestedTags, context).getResult());
+		}
+	}
+
+
+	private static void visitErrorResult(final Array attributes, 
+										 final Array nestedTags, 
+										 final DictionarySimpleElement elementDictEntry,
+										 final ResponseVisitor visitor) throws CBORDeserializationException {
+		String name = null;
+		IfMapErrorCode errorCode = null;
+		String errorString = null;
+
+		// Iterate over the attribute data items in steps of 2
+		List<DataItem> attributesDataItems = attributes.getDataItems();
+		for(int i=0; i<attributesDataItems.size(); i=i+2) {
+			DataItem attrName = attributesDataItems.get(i);
+			DataItem attrValue = attributesDataItems.get(i+1);
+
+			switch(errorResultDispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_ERROR_NAME:
+					name = processUnicodeStringItem(attrValue, true);
+					break;
+				case ATTR_ERROR_CODE:
+					errorCode = IfMapErrorCode.fromXmlName(getAttributeEnumValueXmlName(attrName, attrValue, elementDictEntry));
+					break;
+			}
+		}
+
+		// Iterate over the nested tag data items in steps of 4
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			if(!isSimpleValueNull(nestedTagsDataItems.get(i))) {
+				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'errorResult' element");
+			}
+
+			if(errorResultDispatchTable.nestedTagToken(nestedTagsDataItems.get(i+1), elementDictEntry) == TAG_ERROR_STRING) {
+				errorString = processUnicodeStringItem(nestedTagsDataItems.get(i+3), true);
+			}
+		}
+
+		visitor.onError(errorCode, name, errorString);
+	}
+
+
+	private static void visitPollResult(final Array nestedTags, 
+										final DictionarySimpleElement elementDictEntry,
+										final ResponseVisitor visitor,
+										final CodecContext context) throws CBORDeserializationException {
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		// Iterate over the data items in steps of 4
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntName = nestedTagsDataItems.get(i+1);
+			DataItem ntAttributes = nestedTagsDataItems.get(i+2);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+
+			if(!isSimpleValueNull(ntNamespace)) {
+				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'pollResult' element");
+			}
+
+			int token = pollResultDispatchTable.nestedTagToken(ntName, elementDictEntry);
+			if(token == KeyDispatchTable.UNKNOWN) {
+				throw new CBORDeserializationException("Found unknown nested tag inside pollResult element: " + getNestedTagXmlName(ntName, elementDictEntry));
+			}
+
+			String blockName = POLL_BLOCK_NAMES[token];
+			DictionarySimpleElement blockEntry = nestedElementEntry(ntName, blockName, elementDictEntry);
+
+			if(token == TAG_ERROR_RESULT) {
+				visitErrorResult((Array) ntAttributes, (Array) ntNestedTags, blockEntry, visitor);
+			}
+			else {
+				visitSearchResult(blockName, (Array) ntAttributes, (Array) ntNestedTags, blockEntry, visitor, context);
+			}
+		}
+	}
+
+
+	private static void visitSearchResult(final String type,
+										  final Array attributes, 
+										  final Array nestedTags, 
+										  final DictionarySimpleElement elementDictEntry,
+										  final ResponseVisitor visitor,
+										  final CodecContext context) throws CBORDeserializationException {
+		String name = null;
+
+		// Get list of all attribute data items
+		List<DataItem> attributesDataItems = attributes.getDataItems();
+
+		// Iterate over the data items in steps of 2
+		for(int i=0; i<attributesDataItems.size(); i=i+2) {
+			if(searchResultDispatchTable.attributeToken(attributesDataItems.get(i), elementDictEntry) == ATTR_NAME) {
+				name = processUnicodeStringItem(attributesDataItems.get(i+1), true);
+			}
+		}
+
+		visitor.onResultBlock(type, name);
+
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		// Iterate over the data items in steps of 4
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntName = nestedTagsDataItems.get(i+1);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+
+			if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+			}
+
+			if(!isSimpleValueNull(ntNamespace)) {
+				throw new CBORDeserializationException("Unexpected nested element with namespace found inside '" + type + "' element");
+			}
+
+			if(searchResultDispatchTable.nestedTagToken(ntName, elementDictEntry) == TAG_RESULT_ITEM) {
+				DictionarySimpleElement resultItemEntry = nestedElementEntry(ntName, SearchResultItem.XML_NAME, elementDictEntry);
+
+				visitResultItem((Array) ntNestedTags, resultItemEntry, visitor, context);
+			}
+		}
+	}
+
+
+	private static void visitResultItem(final Array nestedTags, 
+										final DictionarySimpleElement elementDictEntry,
+										final ResponseVisitor visitor,
+										final CodecContext context) throws CBORDeserializationException {
+		AbstractIdentifier identifierA = null;
+		AbstractIdentifier identifierB = null;
+		int identifierCount = 0;
+
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		// First pass: identifiers, they are reported before the metadata
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntName = nestedTagsDataItems.get(i+1);
+			DataItem ntAttributes = nestedTagsDataItems.get(i+2);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+
+			if(isSimpleValueNull(ntNamespace)) {
+				continue;
+			}
+
+			if(ntAttributes.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + ntAttributes.getMajorType());
+			}
+
+			if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+			}
+
+			if(identifierCount >= 2) {
+				throw new CBORDeserializationException("Result item contains more than two identifiers");
+			}
+
+			ElementDescriptor descriptor = MetadataDeserializerManager.resolveMetadataElement(ntNamespace, ntName, context);
+			AbstractIdentifier identifier = null;
+
+			if(descriptor == null) {
+				// Unknown names with raw pass-through enabled, the identifier is reported but cannot be deserialized
+				visitor.onIdentifier(String.valueOf(ntNamespace), String.valueOf(ntName), (Array) ntAttributes, (Array) ntNestedTags);
+			}
+			else if(visitor.onIdentifier(descriptor.getNamespace(), descriptor.getElementName(), (Array) ntAttributes, (Array) ntNestedTags)) {
+				// The visitor decides whether the identifier is worth deserializing
+				identifier = deserializeIdentifier(descriptor, ntName, (Array) ntAttributes, (Array) ntNestedTags, context);
+			}
+
+			if(identifierCount == 0) {
+				identifierA = identifier;
+			}
+			else {
+				identifierB = identifier;
+			}
+
+			identifierCount++;
+		}
+
+		visitor.onItem(identifierA, identifierB);
+
+		// Second pass: metadata
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntName = nestedTagsDataItems.get(i+1);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+
+			if(!isSimpleValueNull(ntNamespace)) {
+				continue;
+			}
+
+			if(resultItemDispatchTable.nestedTagToken(ntName, elementDictEntry) != TAG_METADATA) {
+				throw new CBORDeserializationException("Found unknown nested tag inside resultItem element: " + getNestedTagXmlName(ntName, elementDictEntry));
+			}
+
+			if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+			}
+
+			visitMetadata((Array) ntNestedTags, visitor, context);
+		}
+	}
+
+
+	private static AbstractIdentifier deserializeIdentifier(final ElementDescriptor descriptor,
+															final DataItem ntName,
+															final Array attributes,
+															final Array nestedTags,
+															final CodecContext context) throws CBORDeserializationException {
+		// Determine if target element is an extended identifier or not
+		if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
+			Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
+
+			return ExtendedIdentifierDeserializerManager.deserialize(descriptor, attributes, nestedTags, targetClass);
+		}
+		else {
+			Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
+
+			return IdentifierDeserializerManager.deserialize(descriptor, attributes, nestedTags, targetClass, context);
+		}
+	}
+
+
+	private static void visitMetadata(final Array metadataArray,
+									  final ResponseVisitor visitor,
+									  final CodecContext context) throws CBORDeserializationException {
+		DecodeOptions options = context.getDecodeOptions();
+		List<DataItem> metadataDataItems = metadataArray.getDataItems();
+
+		// Iterate over the data items in steps of 4
+		for(int j=0; j<metadataDataItems.size(); j=j+4) {
+			DataItem metadataAttributes = metadataDataItems.get(j+2);
+			DataItem metadataNestedTags = metadataDataItems.get(j+3);
+
+			if(metadataAttributes.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + metadataAttributes.getMajorType());
+			}
+
+			DataItem metadataNamespace = metadataDataItems.get(j);
+			DataItem metadataName = metadataDataItems.get(j+1);
+			ElementDescriptor descriptor = MetadataDeserializerManager.resolveMetadataElement(metadataNamespace, metadataName, context);
+
+			// Unknown names are only resolved to null if raw pass-through is enabled, they are reported by their string form
+			String nsName = descriptor != null ? descriptor.getNamespace() : String.valueOf(metadataNamespace);
+			String elementName = descriptor != null ? descriptor.getElementName() : String.valueOf(metadataName);
+			Class<? extends AbstractMetadata> metadataType = null;
+
+			if(options.isMetadataFiltered()) {
+				if(descriptor != null) {
+					metadataType = MetadataDeserializerManager.resolveTargetClass(descriptor);
+				}
+
+				if(!options.acceptsMetadata(descriptor != null ? nsName : null, metadataType)) {
+					continue;
+				}
+			}
+
+			if(!visitor.onMetadata(nsName, elementName)) {
+				continue;
+			}
+
+			DictionarySimpleElement metadataEntry = descriptor != null ? descriptor.getElementEntry() : null;
+
+			// Report attributes, iterate over the data items in steps of 2
+			List<DataItem> attributesDataItems = ((Array) metadataAttributes).getDataItems();
+			for(int i=0; i<attributesDataItems.size(); i=i+2) {
+				DataItem attrName = attributesDataItems.get(i);
+				DataItem attrValue = attributesDataItems.get(i+1);
+				DictionarySimpleAttribute attrEntry = metadataEntry != null ? metadataEntry.reverseLookupAttribute(attrName) : null;
+
+				if(attrEntry == null) {
+					visitor.onMetadataAttribute(getAttributeXmlName(attrName, null), attrValue);
+				}
+				else if(attrEntry instanceof DictionaryEnumValueAttribute) {
+					String enumValueName = ((DictionaryEnumValueAttribute) attrEntry).reverseLookupEnumValue(attrValue);
+					visitor.onMetadataEnumAttribute(attrEntry.getXmlName(), enumValueName != null ? enumValueName : processUnicodeStringItem(attrValue, true));
+				}
+				else {
+					visitor.onMetadataAttribute(attrEntry.getXmlName(), attrValue);
+				}
+			}
+
+			// Report nested elements, iterate over the data items in steps of 4
+			if(metadataNestedTags.getMajorType() == MajorType.ARRAY) {
+				List<DataItem> nestedDataItems = ((Array) metadataNestedTags).getDataItems();
+				for(int i=0; i<nestedDataItems.size(); i=i+4) {
+					DataItem ntName = nestedDataItems.get(i+1);
+					DataItem ntValue = nestedDataItems.get(i+3);
+					DictionarySimpleElement ntEntry = metadataEntry instanceof DictionaryComplexElement 
+							? ((DictionaryComplexElement) metadataEntry).reverseLookupNestedElement(ntName) : null;
+
+					if(ntEntry == null) {
+						visitor.onMetadataElement(getNestedTagXmlName(ntName, null), ntValue);
+					}
+					else if(ntEntry instanceof DictionaryEnumValueElement) {
+						String enumValueName = ((DictionaryEnumValueElement) ntEntry).reverseLookupEnumValue(ntValue);
+						visitor.onMetadataEnumElement(ntEntry.getXmlName(), enumValueName != null ? enumValueName : processUnicodeStringItem(ntValue, true));
+					}
+					else {
+						visitor.onMetadataElement(ntEntry.getXmlName(), ntValue);
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Get the dictionary entry of a nested element.
+	 * The CBOR name is resolved first, the XML name the dispatch table resolved the element to is used as fallback
+	 * for elements sent by their XML name.
+	 *
+	 * @param ntName CBOR data item of the nested element name
+	 * @param xmlName XML name of the nested element
+	 * @param parentEntry Dictionary entry of the parent element, may be null
+	 * @return Dictionary entry or null, if the element has none
+	 */
+	private static DictionarySimpleElement nestedElementEntry(final DataItem ntName, final String xmlName, final DictionarySimpleElement parentEntry) {
+		if(!(parentEntry instanceof DictionaryComplexElement)) {
+			return null;
+		}
+
+		DictionaryComplexElement complexParentEntry = (DictionaryComplexElement) parentEntry;
+		DictionarySimpleElement rv = complexParentEntry.reverseLookupNestedElement(ntName);
+
+		return rv != null ? rv : complexParentEntry.lookupNestedElement(xmlName);
+	}
+}
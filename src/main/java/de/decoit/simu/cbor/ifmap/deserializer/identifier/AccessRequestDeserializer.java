@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORAccessRequest;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -33,7 +34,16 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public final class AccessRequestDeserializer implements InternalIdentifierDeserializer<CBORAccessRequest> {
-	private static AccessRequestDeserializer instance;
+	private static final AccessRequestDeserializer instance = new AccessRequestDeserializer();
+
+	private static final int ATTR_NAME = 0;
+	private static final int ATTR_ADMINISTRATIVE_DOMAIN = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORAccessRequest.NAME,
+				CBORAccessRequest.ADMINISTRATIVE_DOMAIN
+			},
+			new String[0]);
 
 
 	/**
@@ -42,10 +52,6 @@ public final class AccessRequestDeserializer implements InternalIdentifierDeseri
 	 * @return Deserializer instance
 	 */
 	public static AccessRequestDeserializer getInstance() {
-		if(instance == null) {
-			instance = new AccessRequestDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -79,14 +85,12 @@ public final class AccessRequestDeserializer implements InternalIdentifierDeseri
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = IdentifierDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORAccessRequest.NAME:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_NAME:
 					name = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORAccessRequest.ADMINISTRATIVE_DOMAIN:
+				case ATTR_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 			}
 		}
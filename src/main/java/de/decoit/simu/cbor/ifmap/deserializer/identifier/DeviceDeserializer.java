@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -33,7 +34,13 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class DeviceDeserializer implements InternalIdentifierDeserializer<CBORDevice> {
-	private static DeviceDeserializer instance;
+	private static final DeviceDeserializer instance = new DeviceDeserializer();
+
+	private static final int TAG_NAME = 0;
+	private static final int TAG_AIK_NAME = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[0],
+			new String[] {CBORDevice.NAME, CBORDevice.AIK_NAME});
 
 
 	/**
@@ -42,10 +49,6 @@ public class DeviceDeserializer implements InternalIdentifierDeserializer<CBORDe
 	 * @return Deserializer instance
 	 */
 	public static DeviceDeserializer getInstance() {
-		if(instance == null) {
-			instance = new DeviceDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -87,15 +90,13 @@ public class DeviceDeserializer implements InternalIdentifierDeserializer<CBORDe
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'device' element");
 			}
 
-			String nestedTagName = IdentifierDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORDevice.NAME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_NAME:
 					name = IdentifierDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					isAikName = false;
 					break;
-				case CBORDevice.AIK_NAME:
+				case TAG_AIK_NAME:
 					name = IdentifierDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					isAikName = true;
 			}
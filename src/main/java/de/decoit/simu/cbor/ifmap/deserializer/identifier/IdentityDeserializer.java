@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
@@ -34,7 +35,20 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class IdentityDeserializer implements InternalIdentifierDeserializer<CBORIdentity> {
-	private static IdentityDeserializer instance;
+	private static final IdentityDeserializer instance = new IdentityDeserializer();
+
+	private static final int ATTR_NAME = 0;
+	private static final int ATTR_ADMINISTRATIVE_DOMAIN = 1;
+	private static final int ATTR_OTHER_TYPE_DEFINITION = 2;
+	private static final int ATTR_TYPE = 3;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORIdentity.NAME,
+				CBORIdentity.ADMINISTRATIVE_DOMAIN,
+				CBORIdentity.OTHER_TYPE_DEFINITION,
+				CBORIdentity.TYPE
+			},
+			new String[0]);
 
 
 	/**
@@ -43,10 +57,6 @@ public class IdentityDeserializer implements InternalIdentifierDeserializer<CBOR
 	 * @return Deserializer instance
 	 */
 	public static IdentityDeserializer getInstance() {
-		if(instance == null) {
-			instance = new IdentityDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -82,20 +92,18 @@ public class IdentityDeserializer implements InternalIdentifierDeserializer<CBOR
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = IdentifierDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORIdentity.NAME:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_NAME:
 					name = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORIdentity.ADMINISTRATIVE_DOMAIN:
+				case ATTR_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORIdentity.OTHER_TYPE_DEFINITION:
+				case ATTR_OTHER_TYPE_DEFINITION:
 					otherTypeDefinition = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORIdentity.TYPE:
+				case ATTR_TYPE:
 					String enumValue = IdentifierDeserializerManager.getAttributeEnumValueXmlName(attrName, attrValue, elementDictEntry);
 					type = IfMapIdentityType.fromXmlName(enumValue);
 			}
@@ -18,11 +18,11 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
-import java.net.InetAddress;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,7 +35,16 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class IpAddressDeserializer implements InternalIdentifierDeserializer<CBORIpAddress> {
-	private static IpAddressDeserializer instance;
+	private static final IpAddressDeserializer instance = new IpAddressDeserializer();
+
+	private static final int ATTR_VALUE = 0;
+	private static final int ATTR_ADMINISTRATIVE_DOMAIN = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORIpAddress.VALUE,
+				CBORIpAddress.ADMINISTRATIVE_DOMAIN
+			},
+			new String[0]);
 
 
 	/**
@@ -44,10 +53,6 @@ public class IpAddressDeserializer implements InternalIdentifierDeserializer<CBO
 	 * @return Deserializer instance
 	 */
 	public static IpAddressDeserializer getInstance() {
-		if(instance == null) {
-			instance = new IpAddressDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -69,7 +74,7 @@ public class IpAddressDeserializer implements InternalIdentifierDeserializer<CBO
 		}
 
 		// Initially define the required variables to build the target object
-		InetAddress value = null;
+		byte[] value = null;
 		String administrativeDomain = null;
 
 		// Get list of all attribute data items
@@ -81,27 +86,26 @@ public class IpAddressDeserializer implements InternalIdentifierDeserializer<CBO
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = IdentifierDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORIpAddress.VALUE:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_VALUE:
 					if(!attrValue.hasTag()) {
 						log.warn("'value' attribute of 'ip-address' is not tagged, deserializartion outcome may be undefined");
 					}
 					else if(!attrValue.getTag().equals(CBORTags.IPV4_ADDRESS.getTagDataItem()) && !attrValue.getTag().equals(CBORTags.IPV6_ADDRESS.getTagDataItem())) {
 						log.warn("'value' attribute of 'ip-address' has unknown tag, deserializartion outcome may be undefined");
 					}
-					value = IdentifierDeserializerManager.processInetAddressItem(attrValue, true);
+					value = IdentifierDeserializerManager.processByteStringItem(attrValue, true);
 					break;
-				case CBORIpAddress.ADMINISTRATIVE_DOMAIN:
+				case ATTR_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 			}
 		}
 
 		// Build return value object
-		CBORIpAddress rv = new CBORIpAddress(value);
+		// Build the identifier from the raw address, no InetAddress object is created
+		CBORIpAddress rv = CBORIpAddress.fromAddressBytes(value);
 		rv.setAdministrativeDomain(administrativeDomain);
 
 		return rv;
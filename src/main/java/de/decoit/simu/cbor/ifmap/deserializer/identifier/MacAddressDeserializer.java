@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
@@ -34,7 +35,16 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class MacAddressDeserializer implements InternalIdentifierDeserializer<CBORMacAddress> {
-	private static MacAddressDeserializer instance;
+	private static final MacAddressDeserializer instance = new MacAddressDeserializer();
+
+	private static final int ATTR_VALUE = 0;
+	private static final int ATTR_ADMINISTRATIVE_DOMAIN = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORMacAddress.VALUE,
+				CBORMacAddress.ADMINISTRATIVE_DOMAIN
+			},
+			new String[0]);
 
 
 	/**
@@ -43,10 +53,6 @@ public class MacAddressDeserializer implements InternalIdentifierDeserializer<CB
 	 * @return Deserializer instance
 	 */
 	public static MacAddressDeserializer getInstance() {
-		if(instance == null) {
-			instance = new MacAddressDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -80,11 +86,9 @@ public class MacAddressDeserializer implements InternalIdentifierDeserializer<CB
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = IdentifierDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORMacAddress.VALUE:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_VALUE:
 					if(!attrValue.hasTag()) {
 						log.warn("'value' attribute of 'mac-address' is not tagged, deserializartion outcome may be undefined");
 					}
@@ -93,7 +97,7 @@ public class MacAddressDeserializer implements InternalIdentifierDeserializer<CB
 					}
 					value = IdentifierDeserializerManager.processByteStringItem(attrValue, true);
 					break;
-				case CBORMacAddress.ADMINISTRATIVE_DOMAIN:
+				case ATTR_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = IdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 			}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.identifier.extended;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorIdentifierDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.extended.CBORExtendedIfMapServer;
@@ -34,7 +35,12 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class IfMapServerDeserializer implements VendorIdentifierDeserializer<CBORExtendedIfMapServer> {
-	private static IfMapServerDeserializer instance;
+	private static final IfMapServerDeserializer instance = new IfMapServerDeserializer();
+
+	private static final int ATTR_ADMINISTRATIVE_DOMAIN = 0;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {CBORExtendedIfMapServer.ADMINISTRATIVE_DOMAIN},
+			new String[0]);
 
 
 	/**
@@ -43,10 +49,6 @@ public class IfMapServerDeserializer implements VendorIdentifierDeserializer<CBO
 	 * @return Deserializer instance
 	 */
 	public static IfMapServerDeserializer getInstance() {
-		if(instance == null) {
-			instance = new IfMapServerDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -79,11 +81,9 @@ public class IfMapServerDeserializer implements VendorIdentifierDeserializer<CBO
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = ExtendedIdentifierDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORExtendedIfMapServer.ADMINISTRATIVE_DOMAIN:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = ExtendedIdentifierDeserializerManager.processUnicodeStringItem(attrValue, true);
 			}
 		}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -34,7 +35,18 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class AccessRequestDeviceDeserializer implements VendorMetadataDeserializer<CBORAccessRequestDevice> {
-	private static AccessRequestDeviceDeserializer instance;
+	private static final AccessRequestDeviceDeserializer instance = new AccessRequestDeviceDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORAccessRequestDevice.IFMAP_PUBLISHER_ID,
+				CBORAccessRequestDevice.IFMAP_TIMESTAMP,
+				CBORAccessRequestDevice.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {});
 
 
 	/**
@@ -43,10 +55,6 @@ public class AccessRequestDeviceDeserializer implements VendorMetadataDeserializ
 	 * @return Deserializer instance
 	 */
 	public static AccessRequestDeviceDeserializer getInstance() {
-		if(instance == null) {
-			instance = new AccessRequestDeviceDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -82,17 +90,15 @@ public class AccessRequestDeviceDeserializer implements VendorMetadataDeserializ
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORAccessRequestDevice.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORAccessRequestDevice.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORAccessRequestDevice.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -34,7 +35,18 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class AuthenticatedAsDeserializer implements VendorMetadataDeserializer<CBORAuthenticatedAs> {
-	private static AuthenticatedAsDeserializer instance;
+	private static final AuthenticatedAsDeserializer instance = new AuthenticatedAsDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORAuthenticatedAs.IFMAP_PUBLISHER_ID,
+				CBORAuthenticatedAs.IFMAP_TIMESTAMP,
+				CBORAuthenticatedAs.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {});
 
 
 	/**
@@ -43,10 +55,6 @@ public class AuthenticatedAsDeserializer implements VendorMetadataDeserializer<C
 	 * @return Deserializer instance
 	 */
 	public static AuthenticatedAsDeserializer getInstance() {
-		if(instance == null) {
-			instance = new AuthenticatedAsDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -82,17 +90,15 @@ public class AuthenticatedAsDeserializer implements VendorMetadataDeserializer<C
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORAuthenticatedAs.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORAuthenticatedAs.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORAuthenticatedAs.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,20 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class CapabilityDeserializer implements VendorMetadataDeserializer<CBORCapability> {
-	private static CapabilityDeserializer instance;
+	private static final CapabilityDeserializer instance = new CapabilityDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_NAME = 0;
+	private static final int TAG_ADMINISTRATIVE_DOMAIN = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORCapability.IFMAP_PUBLISHER_ID,
+				CBORCapability.IFMAP_TIMESTAMP,
+				CBORCapability.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORCapability.NAME, CBORCapability.ADMINISTRATIVE_DOMAIN});
 
 
 	/**
@@ -44,10 +58,6 @@ public class CapabilityDeserializer implements VendorMetadataDeserializer<CBORCa
 	 * @return Deserializer instance
 	 */
 	public static CapabilityDeserializer getInstance() {
-		if(instance == null) {
-			instance = new CapabilityDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -90,17 +100,15 @@ public class CapabilityDeserializer implements VendorMetadataDeserializer<CBORCa
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORCapability.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORCapability.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORCapability.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -122,14 +130,12 @@ public class CapabilityDeserializer implements VendorMetadataDeserializer<CBORCa
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'capability' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORCapability.NAME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_NAME:
 					name = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORCapability.ADMINISTRATIVE_DOMAIN:
+				case TAG_ADMINISTRATIVE_DOMAIN:
 					admDomain = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -34,7 +35,20 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class ClientTimeDeserializer implements VendorMetadataDeserializer<CBORClientTime> {
-	private static ClientTimeDeserializer instance;
+	private static final ClientTimeDeserializer instance = new ClientTimeDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int ATTR_CURRENT_TIME = 3;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORClientTime.IFMAP_PUBLISHER_ID,
+				CBORClientTime.IFMAP_TIMESTAMP,
+				CBORClientTime.IFMAP_TIMESTAMP_FRACTION,
+				CBORClientTime.CURRENT_TIME
+			},
+			new String[] {});
 
 
 	/**
@@ -43,10 +57,6 @@ public class ClientTimeDeserializer implements VendorMetadataDeserializer<CBORCl
 	 * @return Deserializer instance
 	 */
 	public static ClientTimeDeserializer getInstance() {
-		if(instance == null) {
-			instance = new ClientTimeDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -83,20 +93,18 @@ public class ClientTimeDeserializer implements VendorMetadataDeserializer<CBORCl
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORClientTime.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORClientTime.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORClientTime.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 					break;
-				case CBORClientTime.CURRENT_TIME:
+				case ATTR_CURRENT_TIME:
 					currentTime = TimestampHelper.fromEpochTimeDataItem(attrValue, null);
 			}
 		}
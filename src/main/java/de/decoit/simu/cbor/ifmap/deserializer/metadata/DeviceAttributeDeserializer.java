@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,19 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class DeviceAttributeDeserializer implements VendorMetadataDeserializer<CBORDeviceAttribute> {
-	private static DeviceAttributeDeserializer instance;
+	private static final DeviceAttributeDeserializer instance = new DeviceAttributeDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_NAME = 0;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORDeviceAttribute.IFMAP_PUBLISHER_ID,
+				CBORDeviceAttribute.IFMAP_TIMESTAMP,
+				CBORDeviceAttribute.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORDeviceAttribute.NAME});
 
 
 	/**
@@ -44,10 +57,6 @@ public class DeviceAttributeDeserializer implements VendorMetadataDeserializer<C
 	 * @return Deserializer instance
 	 */
 	public static DeviceAttributeDeserializer getInstance() {
-		if(instance == null) {
-			instance = new DeviceAttributeDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -89,17 +98,15 @@ public class DeviceAttributeDeserializer implements VendorMetadataDeserializer<C
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORDeviceAttribute.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORDeviceAttribute.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORDeviceAttribute.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -121,11 +128,9 @@ public class DeviceAttributeDeserializer implements VendorMetadataDeserializer<C
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'device-attribute' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORDeviceAttribute.NAME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_NAME:
 					name = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,35 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class DeviceCharacteristicDeserializer implements VendorMetadataDeserializer<CBORDeviceCharacteristic> {
-	private static DeviceCharacteristicDeserializer instance;
+	private static final DeviceCharacteristicDeserializer instance = new DeviceCharacteristicDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_MANUFACTURER = 0;
+	private static final int TAG_MODEL = 1;
+	private static final int TAG_OS = 2;
+	private static final int TAG_OS_VERSION = 3;
+	private static final int TAG_DEVICE_TYPE = 4;
+	private static final int TAG_DISCOVERED_TIME = 5;
+	private static final int TAG_DISCOVERER_ID = 6;
+	private static final int TAG_DISCOVERY_METHOD = 7;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORDeviceCharacteristic.IFMAP_PUBLISHER_ID,
+				CBORDeviceCharacteristic.IFMAP_TIMESTAMP,
+				CBORDeviceCharacteristic.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBORDeviceCharacteristic.MANUFACTURER,
+				CBORDeviceCharacteristic.MODEL,
+				CBORDeviceCharacteristic.OS,
+				CBORDeviceCharacteristic.OS_VERSION,
+				CBORDeviceCharacteristic.DEVICE_TYPE,
+				CBORDeviceCharacteristic.DISCOVERED_TIME,
+				CBORDeviceCharacteristic.DISCOVERER_ID,
+				CBORDeviceCharacteristic.DISCOVERY_METHOD
+			});
 
 
 	/**
@@ -44,10 +73,6 @@ public class DeviceCharacteristicDeserializer implements VendorMetadataDeseriali
 	 * @return Deserializer instance
 	 */
 	public static DeviceCharacteristicDeserializer getInstance() {
-		if(instance == null) {
-			instance = new DeviceCharacteristicDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -96,17 +121,15 @@ public class DeviceCharacteristicDeserializer implements VendorMetadataDeseriali
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORDeviceCharacteristic.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORDeviceCharacteristic.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORDeviceCharacteristic.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -128,32 +151,30 @@ public class DeviceCharacteristicDeserializer implements VendorMetadataDeseriali
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'device-characteristic' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORDeviceCharacteristic.MANUFACTURER:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_MANUFACTURER:
 					manufacturer = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.MODEL:
+				case TAG_MODEL:
 					model = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.OS:
+				case TAG_OS:
 					os = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.OS_VERSION:
+				case TAG_OS_VERSION:
 					osVersion = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.DEVICE_TYPE:
+				case TAG_DEVICE_TYPE:
 					deviceType = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.DISCOVERED_TIME:
+				case TAG_DISCOVERED_TIME:
 					discoveredTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBORDeviceCharacteristic.DISCOVERER_ID:
+				case TAG_DISCOVERER_ID:
 					discovererId = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORDeviceCharacteristic.DISCOVERY_METHOD:
+				case TAG_DISCOVERY_METHOD:
 					discoveryMethod = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
 			}
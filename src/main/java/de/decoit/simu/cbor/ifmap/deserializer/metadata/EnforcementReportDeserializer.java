@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.enums.IfMapEnforcementAction;
@@ -36,7 +37,25 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class EnforcementReportDeserializer implements VendorMetadataDeserializer<CBOREnforcementReport> {
-	private static EnforcementReportDeserializer instance;
+	private static final EnforcementReportDeserializer instance = new EnforcementReportDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_ENFORCEMENT_ACTION = 0;
+	private static final int TAG_OTHER_TYPE_DEFINITION = 1;
+	private static final int TAG_ENFORCEMENT_REASON = 2;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBOREnforcementReport.IFMAP_PUBLISHER_ID,
+				CBOREnforcementReport.IFMAP_TIMESTAMP,
+				CBOREnforcementReport.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBOREnforcementReport.ENFORCEMENT_ACTION,
+				CBOREnforcementReport.OTHER_TYPE_DEFINITION,
+				CBOREnforcementReport.ENFORCEMENT_REASON
+			});
 
 
 	/**
@@ -45,10 +64,6 @@ public class EnforcementReportDeserializer implements VendorMetadataDeserializer
 	 * @return Deserializer instance
 	 */
 	public static EnforcementReportDeserializer getInstance() {
-		if(instance == null) {
-			instance = new EnforcementReportDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -92,17 +107,15 @@ public class EnforcementReportDeserializer implements VendorMetadataDeserializer
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBOREnforcementReport.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBOREnforcementReport.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBOREnforcementReport.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -124,17 +137,15 @@ public class EnforcementReportDeserializer implements VendorMetadataDeserializer
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'enforcement-report' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBOREnforcementReport.ENFORCEMENT_ACTION:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_ENFORCEMENT_ACTION:
 					enforcementAction = IfMapEnforcementAction.fromXmlName(MetadataDeserializerManager.getNestedTagEnumValueXmlName(ntName, ntNestedValue, elementDictEntry));
 					break;
-				case CBOREnforcementReport.OTHER_TYPE_DEFINITION:
+				case TAG_OTHER_TYPE_DEFINITION:
 					otherTypeDefinition = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBOREnforcementReport.ENFORCEMENT_REASON:
+				case TAG_ENFORCEMENT_REASON:
 					enforcementReason = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
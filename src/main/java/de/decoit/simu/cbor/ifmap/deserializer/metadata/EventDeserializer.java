@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
@@ -37,7 +38,39 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class EventDeserializer implements VendorMetadataDeserializer<CBOREvent> {
-	private static EventDeserializer instance;
+	private static final EventDeserializer instance = new EventDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_NAME = 0;
+	private static final int TAG_MAGNITUDE = 1;
+	private static final int TAG_CONFIDENCE = 2;
+	private static final int TAG_SIGNIFICANCE = 3;
+	private static final int TAG_DISCOVERED_TIME = 4;
+	private static final int TAG_DISCOVERER_ID = 5;
+	private static final int TAG_TYPE = 6;
+	private static final int TAG_OTHER_TYPE_DEFINITION = 7;
+	private static final int TAG_INFORMATION = 8;
+	private static final int TAG_VULNERABILITY_URI = 9;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBOREvent.IFMAP_PUBLISHER_ID,
+				CBOREvent.IFMAP_TIMESTAMP,
+				CBOREvent.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBOREvent.NAME,
+				CBOREvent.MAGNITUDE,
+				CBOREvent.CONFIDENCE,
+				CBOREvent.SIGNIFICANCE,
+				CBOREvent.DISCOVERED_TIME,
+				CBOREvent.DISCOVERER_ID,
+				CBOREvent.TYPE,
+				CBOREvent.OTHER_TYPE_DEFINITION,
+				CBOREvent.INFORMATION,
+				CBOREvent.VULNERABILITY_URI
+			});
 
 
 	/**
@@ -46,10 +79,6 @@ public class EventDeserializer implements VendorMetadataDeserializer<CBOREvent>
 	 * @return Deserializer instance
 	 */
 	public static EventDeserializer getInstance() {
-		if(instance == null) {
-			instance = new EventDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -81,8 +110,8 @@ public class EventDeserializer implements VendorMetadataDeserializer<CBOREvent>
 		String name = null;
 		ZonedDateTime discoveredTime = null;
 		String discovererId = null;
-		Integer magnitude = null;
-		Integer confidence = null;
+		int magnitude = MetadataDeserializerManager.ABSENT_VALUE;
+		int confidence = MetadataDeserializerManager.ABSENT_VALUE;
 		IfMapSignificance significance = null;
 		IfMapEventType type = null;
 		String otherTypeDefinition = null;
@@ -100,17 +129,15 @@ public class EventDeserializer implements VendorMetadataDeserializer<CBOREvent>
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBOREvent.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBOREvent.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBOREvent.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -132,38 +159,36 @@ public class EventDeserializer implements VendorMetadataDeserializer<CBOREvent>
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'event' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBOREvent.NAME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_NAME:
 					name = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBOREvent.MAGNITUDE:
-					magnitude = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+				case TAG_MAGNITUDE:
+					magnitude = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBOREvent.CONFIDENCE:
-					confidence = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+				case TAG_CONFIDENCE:
+					confidence = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBOREvent.SIGNIFICANCE:
+				case TAG_SIGNIFICANCE:
 					significance = IfMapSignificance.fromXmlName(MetadataDeserializerManager.getNestedTagEnumValueXmlName(ntName, ntNestedValue, elementDictEntry));
 					break;
-				case CBOREvent.DISCOVERED_TIME:
+				case TAG_DISCOVERED_TIME:
 					discoveredTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBOREvent.DISCOVERER_ID:
+				case TAG_DISCOVERER_ID:
 					discovererId = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBOREvent.TYPE:
+				case TAG_TYPE:
 					type = IfMapEventType.fromXmlName(MetadataDeserializerManager.getNestedTagEnumValueXmlName(ntName, ntNestedValue, elementDictEntry));
 					break;
-				case CBOREvent.OTHER_TYPE_DEFINITION:
+				case TAG_OTHER_TYPE_DEFINITION:
 					otherTypeDefinition = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBOREvent.INFORMATION:
+				case TAG_INFORMATION:
 					information = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBOREvent.VULNERABILITY_URI:
+				case TAG_VULNERABILITY_URI:
 					vulnerabilityUri = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
 			}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,21 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class IpMacDeserializer implements VendorMetadataDeserializer<CBORIpMac> {
-	private static IpMacDeserializer instance;
+	private static final IpMacDeserializer instance = new IpMacDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_START_TIME = 0;
+	private static final int TAG_END_TIME = 1;
+	private static final int TAG_DHCP_SERVER = 2;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORIpMac.IFMAP_PUBLISHER_ID,
+				CBORIpMac.IFMAP_TIMESTAMP,
+				CBORIpMac.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORIpMac.START_TIME, CBORIpMac.END_TIME, CBORIpMac.DHCP_SERVER});
 
 
 	/**
@@ -44,10 +59,6 @@ public class IpMacDeserializer implements VendorMetadataDeserializer<CBORIpMac>
 	 * @return Deserializer instance
 	 */
 	public static IpMacDeserializer getInstance() {
-		if(instance == null) {
-			instance = new IpMacDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -91,17 +102,15 @@ public class IpMacDeserializer implements VendorMetadataDeserializer<CBORIpMac>
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORIpMac.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORIpMac.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORIpMac.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -123,17 +132,15 @@ public class IpMacDeserializer implements VendorMetadataDeserializer<CBORIpMac>
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'ip-mac' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORIpMac.START_TIME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_START_TIME:
 					startTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBORIpMac.END_TIME:
+				case TAG_END_TIME:
 					endTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBORIpMac.DHCP_SERVER:
+				case TAG_DHCP_SERVER:
 					dhcpServer = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,27 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class Layer2InformationDeserializer implements VendorMetadataDeserializer<CBORLayer2Information> {
-	private static Layer2InformationDeserializer instance;
+	private static final Layer2InformationDeserializer instance = new Layer2InformationDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_VLAN = 0;
+	private static final int TAG_VLAN_NAME = 1;
+	private static final int TAG_PORT = 2;
+	private static final int TAG_ADMINISTRATIVE_DOMAIN = 3;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORLayer2Information.IFMAP_PUBLISHER_ID,
+				CBORLayer2Information.IFMAP_TIMESTAMP,
+				CBORLayer2Information.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBORLayer2Information.VLAN,
+				CBORLayer2Information.VLAN_NAME,
+				CBORLayer2Information.PORT,
+				CBORLayer2Information.ADMINISTRATIVE_DOMAIN
+			});
 
 
 	/**
@@ -44,10 +65,6 @@ public class Layer2InformationDeserializer implements VendorMetadataDeserializer
 	 * @return Deserializer instance
 	 */
 	public static Layer2InformationDeserializer getInstance() {
-		if(instance == null) {
-			instance = new Layer2InformationDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -76,9 +93,9 @@ public class Layer2InformationDeserializer implements VendorMetadataDeserializer
 		// Initially define the required variables to build the target object
 		String publisherId = null;
 		ZonedDateTime timestamp = null;
-		Integer vlan = null;
+		int vlan = MetadataDeserializerManager.ABSENT_VALUE;
 		String vlanName = null;
-		Integer port = null;
+		int port = MetadataDeserializerManager.ABSENT_VALUE;
 		String administrativeDomain = null;
 		DataItem timestampDi = null;
 		DataItem timestampFractionDi = null;
@@ -92,17 +109,15 @@ public class Layer2InformationDeserializer implements VendorMetadataDeserializer
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORLayer2Information.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORLayer2Information.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORLayer2Information.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -124,20 +139,18 @@ public class Layer2InformationDeserializer implements VendorMetadataDeserializer
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'layer2-information' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORLayer2Information.VLAN:
-					vlan = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_VLAN:
+					vlan = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBORLayer2Information.VLAN_NAME:
+				case TAG_VLAN_NAME:
 					vlanName = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORLayer2Information.PORT:
-					port = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+				case TAG_PORT:
+					port = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBORLayer2Information.ADMINISTRATIVE_DOMAIN:
+				case TAG_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
@@ -154,9 +167,13 @@ public class Layer2InformationDeserializer implements VendorMetadataDeserializer
 		else {
 			rv = new CBORLayer2Information();
 		}
-		rv.setVlan(vlan);
+		if(vlan != MetadataDeserializerManager.ABSENT_VALUE) {
+			rv.setVlan(vlan);
+		}
 		rv.setVlanName(vlanName);
-		rv.setPort(port);
+		if(port != MetadataDeserializerManager.ABSENT_VALUE) {
+			rv.setPort(port);
+		}
 		rv.setAdministrativeDomain(administrativeDomain);
 
 		return rv;
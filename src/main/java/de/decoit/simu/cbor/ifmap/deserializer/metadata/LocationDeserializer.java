@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -38,7 +39,30 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class LocationDeserializer implements VendorMetadataDeserializer<CBORLocation> {
-	private static LocationDeserializer instance;
+	private static final LocationDeserializer instance = new LocationDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_DISCOVERED_TIME = 0;
+	private static final int TAG_DISCOVERER_ID = 1;
+	private static final int TAG_LOCATION_INFORMATION = 2;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORLocation.IFMAP_PUBLISHER_ID,
+				CBORLocation.IFMAP_TIMESTAMP,
+				CBORLocation.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBORLocation.DISCOVERED_TIME,
+				CBORLocation.DISCOVERER_ID,
+				CBORLocation.LOCATION_INFORMATION
+			});
+	private static final int LOCATION_ATTR_TYPE = 0;
+	private static final int LOCATION_ATTR_VALUE = 1;
+	private static final KeyDispatchTable locationInformationDispatchTable = new KeyDispatchTable(
+			new String[] {CBORLocation.LocationInformation.TYPE, CBORLocation.LocationInformation.VALUE},
+			new String[0]);
 
 
 	/**
@@ -47,10 +71,6 @@ public class LocationDeserializer implements VendorMetadataDeserializer<CBORLoca
 	 * @return Deserializer instance
 	 */
 	public static LocationDeserializer getInstance() {
-		if(instance == null) {
-			instance = new LocationDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -93,17 +113,15 @@ public class LocationDeserializer implements VendorMetadataDeserializer<CBORLoca
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORLocation.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORLocation.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORLocation.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -126,17 +144,15 @@ public class LocationDeserializer implements VendorMetadataDeserializer<CBORLoca
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'location' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORLocation.DISCOVERED_TIME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_DISCOVERED_TIME:
 					discoveredTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBORLocation.DISCOVERER_ID:
+				case TAG_DISCOVERER_ID:
 					discovererId = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORLocation.LOCATION_INFORMATION:
+				case TAG_LOCATION_INFORMATION:
 					locationInformationDataItems.add(ntAttributes);
 			}
 		}
@@ -177,13 +193,11 @@ public class LocationDeserializer implements VendorMetadataDeserializer<CBORLoca
 				
 				try {
 					DictionarySimpleElement ntEntry = DictionaryHelper.findNestedElement(CBORLocation.LOCATION_INFORMATION, elementDictEntry);
-					String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, ntEntry);
-
-					switch(attrNameStr) {
-						case CBORLocation.LocationInformation.TYPE:
+					switch(locationInformationDispatchTable.attributeToken(attrName, ntEntry)) {
+						case LOCATION_ATTR_TYPE:
 							locationType = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 							break;
-						case CBORLocation.LocationInformation.VALUE:
+						case LOCATION_ATTR_VALUE:
 							locationValue = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 							break;
 					}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,19 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class RequestForInvestigationDeserializer implements VendorMetadataDeserializer<CBORRequestForInvestigation> {
-	private static RequestForInvestigationDeserializer instance;
+	private static final RequestForInvestigationDeserializer instance = new RequestForInvestigationDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_QUALIFIER = 0;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORRequestForInvestigation.IFMAP_PUBLISHER_ID,
+				CBORRequestForInvestigation.IFMAP_TIMESTAMP,
+				CBORRequestForInvestigation.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORRequestForInvestigation.QUALIFIER});
 
 
 	/**
@@ -44,10 +57,6 @@ public class RequestForInvestigationDeserializer implements VendorMetadataDeseri
 	 * @return Deserializer instance
 	 */
 	public static RequestForInvestigationDeserializer getInstance() {
-		if(instance == null) {
-			instance = new RequestForInvestigationDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -89,17 +98,15 @@ public class RequestForInvestigationDeserializer implements VendorMetadataDeseri
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORRequestForInvestigation.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORRequestForInvestigation.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORRequestForInvestigation.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -121,11 +128,9 @@ public class RequestForInvestigationDeserializer implements VendorMetadataDeseri
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'request-for-investigation' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORRequestForInvestigation.QUALIFIER:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_QUALIFIER:
 					qualifier = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -35,7 +36,20 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class RoleDeserializer implements VendorMetadataDeserializer<CBORRole> {
-	private static RoleDeserializer instance;
+	private static final RoleDeserializer instance = new RoleDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_NAME = 0;
+	private static final int TAG_ADMINISTRATIVE_DOMAIN = 1;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORRole.IFMAP_PUBLISHER_ID,
+				CBORRole.IFMAP_TIMESTAMP,
+				CBORRole.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORRole.NAME, CBORRole.ADMINISTRATIVE_DOMAIN});
 
 
 	/**
@@ -44,10 +58,6 @@ public class RoleDeserializer implements VendorMetadataDeserializer<CBORRole> {
 	 * @return Deserializer instance
 	 */
 	public static RoleDeserializer getInstance() {
-		if(instance == null) {
-			instance = new RoleDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -90,17 +100,15 @@ public class RoleDeserializer implements VendorMetadataDeserializer<CBORRole> {
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORRole.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORRole.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORRole.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -122,14 +130,12 @@ public class RoleDeserializer implements VendorMetadataDeserializer<CBORRole> {
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'role' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORRole.NAME:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_NAME:
 					name = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORRole.ADMINISTRATIVE_DOMAIN:
+				case TAG_ADMINISTRATIVE_DOMAIN:
 					administrativeDomain = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 			}
 		}
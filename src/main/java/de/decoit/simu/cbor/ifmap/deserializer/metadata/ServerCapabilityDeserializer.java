@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -36,7 +37,19 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class ServerCapabilityDeserializer implements VendorMetadataDeserializer<CBORServerCapability> {
-	private static ServerCapabilityDeserializer instance;
+	private static final ServerCapabilityDeserializer instance = new ServerCapabilityDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_CAPABILITY = 0;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORServerCapability.IFMAP_PUBLISHER_ID,
+				CBORServerCapability.IFMAP_TIMESTAMP,
+				CBORServerCapability.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {CBORServerCapability.CAPABILITY});
 
 
 	/**
@@ -45,10 +58,6 @@ public class ServerCapabilityDeserializer implements VendorMetadataDeserializer<
 	 * @return Deserializer instance
 	 */
 	public static ServerCapabilityDeserializer getInstance() {
-		if(instance == null) {
-			instance = new ServerCapabilityDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -90,17 +99,15 @@ public class ServerCapabilityDeserializer implements VendorMetadataDeserializer<
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORServerCapability.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORServerCapability.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORServerCapability.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -122,11 +129,9 @@ public class ServerCapabilityDeserializer implements VendorMetadataDeserializer<
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'server-capability' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORServerCapability.CAPABILITY:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_CAPABILITY:
 					String capability = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					capabilities.add(capability);
 					break;
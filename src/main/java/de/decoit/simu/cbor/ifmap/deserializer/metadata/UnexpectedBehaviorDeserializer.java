@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
@@ -36,7 +37,33 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserializer<CBORUnexpectedBehavior> {
-	private static UnexpectedBehaviorDeserializer instance;
+	private static final UnexpectedBehaviorDeserializer instance = new UnexpectedBehaviorDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_MAGNITUDE = 0;
+	private static final int TAG_CONFIDENCE = 1;
+	private static final int TAG_SIGNIFICANCE = 2;
+	private static final int TAG_DISCOVERED_TIME = 3;
+	private static final int TAG_DISCOVERER_ID = 4;
+	private static final int TAG_TYPE = 5;
+	private static final int TAG_INFORMATION = 6;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORUnexpectedBehavior.IFMAP_PUBLISHER_ID,
+				CBORUnexpectedBehavior.IFMAP_TIMESTAMP,
+				CBORUnexpectedBehavior.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBORUnexpectedBehavior.MAGNITUDE,
+				CBORUnexpectedBehavior.CONFIDENCE,
+				CBORUnexpectedBehavior.SIGNIFICANCE,
+				CBORUnexpectedBehavior.DISCOVERED_TIME,
+				CBORUnexpectedBehavior.DISCOVERER_ID,
+				CBORUnexpectedBehavior.TYPE,
+				CBORUnexpectedBehavior.INFORMATION
+			});
 
 
 	/**
@@ -45,10 +72,6 @@ public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserialize
 	 * @return Deserializer instance
 	 */
 	public static UnexpectedBehaviorDeserializer getInstance() {
-		if(instance == null) {
-			instance = new UnexpectedBehaviorDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -79,8 +102,8 @@ public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserialize
 		ZonedDateTime timestamp = null;
 		ZonedDateTime discoveredTime = null;
 		String discovererId = null;
-		Integer magnitude = null;
-		Integer confidence = null;
+		int magnitude = MetadataDeserializerManager.ABSENT_VALUE;
+		int confidence = MetadataDeserializerManager.ABSENT_VALUE;
 		IfMapSignificance significance = null;
 		String type = null;
 		String information = null;
@@ -96,17 +119,15 @@ public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserialize
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORUnexpectedBehavior.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORUnexpectedBehavior.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORUnexpectedBehavior.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -128,29 +149,27 @@ public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserialize
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'unexpected-behavior' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORUnexpectedBehavior.MAGNITUDE:
-					magnitude = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_MAGNITUDE:
+					magnitude = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBORUnexpectedBehavior.CONFIDENCE:
-					confidence = MetadataDeserializerManager.processUnsignedIntegerItem(ntNestedValue, true).intValueExact();
+				case TAG_CONFIDENCE:
+					confidence = MetadataDeserializerManager.readInt(ntNestedValue);
 					break;
-				case CBORUnexpectedBehavior.SIGNIFICANCE:
+				case TAG_SIGNIFICANCE:
 					significance = IfMapSignificance.fromXmlName(MetadataDeserializerManager.getNestedTagEnumValueXmlName(ntName, ntNestedValue, elementDictEntry));
 					break;
-				case CBORUnexpectedBehavior.DISCOVERED_TIME:
+				case TAG_DISCOVERED_TIME:
 					discoveredTime = TimestampHelper.fromEpochTimeDataItem(ntNestedValue, null);
 					break;
-				case CBORUnexpectedBehavior.DISCOVERER_ID:
+				case TAG_DISCOVERER_ID:
 					discovererId = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORUnexpectedBehavior.TYPE:
+				case TAG_TYPE:
 					type = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORUnexpectedBehavior.INFORMATION:
+				case TAG_INFORMATION:
 					information = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
 			}
@@ -168,7 +187,9 @@ public class UnexpectedBehaviorDeserializer implements VendorMetadataDeserialize
 		else {
 			rv = new CBORUnexpectedBehavior(discoveredTime, discovererId, magnitude, significance);
 		}
-		rv.setConfidence(confidence);
+		if(confidence != MetadataDeserializerManager.ABSENT_VALUE) {
+			rv.setConfidence(confidence);
+		}
 		rv.setInformation(information);
 		rv.setType(type);
 
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.metadata;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.enums.IfMapWlanSecurityType;
@@ -43,7 +44,31 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class WlanInformationDeserializer implements VendorMetadataDeserializer<CBORWlanInformation> {
-	private static WlanInformationDeserializer instance;
+	private static final WlanInformationDeserializer instance = new WlanInformationDeserializer();
+
+	private static final int ATTR_IFMAP_PUBLISHER_ID = 0;
+	private static final int ATTR_IFMAP_TIMESTAMP = 1;
+	private static final int ATTR_IFMAP_TIMESTAMP_FRACTION = 2;
+	private static final int TAG_SSID = 0;
+	private static final int TAG_SSID_GROUP_SECURITY = 1;
+	private static final int TAG_SSID_MANAGEMENT_SECURITY = 2;
+	private static final int TAG_SSID_UNICAST_SECURITY = 3;
+	private static final KeyDispatchTable dispatchTable = new KeyDispatchTable(
+			new String[] {
+				CBORWlanInformation.IFMAP_PUBLISHER_ID,
+				CBORWlanInformation.IFMAP_TIMESTAMP,
+				CBORWlanInformation.IFMAP_TIMESTAMP_FRACTION
+			},
+			new String[] {
+				CBORWlanInformation.SSID,
+				CBORWlanInformation.SSID_GROUP_SECURITY,
+				CBORWlanInformation.SSID_MANAGEMENT_SECURITY,
+				CBORWlanInformation.SSID_UNICAST_SECURITY
+			});
+	private static final int SECURITY_ATTR_OTHER_TYPE_DEFINITION = 0;
+	private static final KeyDispatchTable securityTypeDispatchTable = new KeyDispatchTable(
+			new String[] {CBORWlanInformation.WlanSecurityType.OTHER_TYPE_DEFINITION},
+			new String[0]);
 
 
 	/**
@@ -52,10 +77,6 @@ public class WlanInformationDeserializer implements VendorMetadataDeserializer<C
 	 * @return Deserializer instance
 	 */
 	public static WlanInformationDeserializer getInstance() {
-		if(instance == null) {
-			instance = new WlanInformationDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -103,17 +124,15 @@ public class WlanInformationDeserializer implements VendorMetadataDeserializer<C
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case CBORWlanInformation.IFMAP_PUBLISHER_ID:
+			switch(dispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_IFMAP_PUBLISHER_ID:
 					publisherId = MetadataDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
-				case CBORWlanInformation.IFMAP_TIMESTAMP:
+				case ATTR_IFMAP_TIMESTAMP:
 					timestampDi = attrValue;
 					break;
-				case CBORWlanInformation.IFMAP_TIMESTAMP_FRACTION:
+				case ATTR_IFMAP_TIMESTAMP_FRACTION:
 					timestampFractionDi = attrValue;
 			}
 		}
@@ -140,26 +159,24 @@ public class WlanInformationDeserializer implements VendorMetadataDeserializer<C
 				throw new CBORDeserializationException("Unexpected nested element with namespace found inside 'wlan-information' element");
 			}
 
-			String nestedTagName = MetadataDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
-
 			// Process the nested element value
-			switch(nestedTagName) {
-				case CBORWlanInformation.SSID:
+			switch(dispatchTable.nestedTagToken(ntName, elementDictEntry)) {
+				case TAG_SSID:
 					ssid = MetadataDeserializerManager.processUnicodeStringItem(ntNestedValue, true);
 					break;
-				case CBORWlanInformation.SSID_GROUP_SECURITY:
+				case TAG_SSID_GROUP_SECURITY:
 					groupSecurityDataItems.add(ntNamespace);
 					groupSecurityDataItems.add(ntName);
 					groupSecurityDataItems.add(ntAttributes);
 					groupSecurityDataItems.add(ntNestedValue);
 					break;
-				case CBORWlanInformation.SSID_MANAGEMENT_SECURITY:
+				case TAG_SSID_MANAGEMENT_SECURITY:
 					managementSecurityDataItems.add(ntNamespace);
 					managementSecurityDataItems.add(ntName);
 					managementSecurityDataItems.add(ntAttributes);
 					managementSecurityDataItems.add(ntNestedValue);
 					break;
-				case CBORWlanInformation.SSID_UNICAST_SECURITY:
+				case TAG_SSID_UNICAST_SECURITY:
 					unicastSecurityDataItems.add(ntNamespace);
 					unicastSecurityDataItems.add(ntName);
 					unicastSecurityDataItems.add(ntAttributes);
@@ -271,10 +288,8 @@ public class WlanInformationDeserializer implements VendorMetadataDeserializer<C
 			DataItem attrName = attributesDataItems.get(j);
 			DataItem attrValue = attributesDataItems.get(j+1);
 
-			String attrNameStr = MetadataDeserializerManager.getAttributeXmlName(attrName, elementEntry);
-
-			switch(attrNameStr) {
-				case CBORWlanInformation.WlanSecurityType.OTHER_TYPE_DEFINITION:
+			switch(securityTypeDispatchTable.attributeToken(attrName, elementEntry)) {
+				case SECURITY_ATTR_OTHER_TYPE_DEFINITION:
 					rv.setOtherTypeDefinition(MetadataDeserializerManager.processUnicodeStringItem(attrValue, true));
 					break;
 			}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -32,7 +33,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class EndSessionDeserializer implements InternalRequestDeserializer<CBOREndSessionRequest> {
-	private static EndSessionDeserializer instance;
+	private static final EndSessionDeserializer instance = new EndSessionDeserializer();
 
 
 	/**
@@ -41,10 +42,6 @@ public class EndSessionDeserializer implements InternalRequestDeserializer<CBORE
 	 * @return Deserializer instance
 	 */
 	public static EndSessionDeserializer getInstance() {
-		if(instance == null) {
-			instance = new EndSessionDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -58,7 +55,8 @@ public class EndSessionDeserializer implements InternalRequestDeserializer<CBORE
 	@Override
 	public CBOREndSessionRequest deserialize(final Array attributes, 
 											 final Array nestedTags, 
-											 final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											 final DictionarySimpleElement elementDictEntry,
+											 final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
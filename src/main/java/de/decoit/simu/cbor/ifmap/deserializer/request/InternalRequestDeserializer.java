@@ -16,6 +16,7 @@
 package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -38,8 +39,9 @@ public interface InternalRequestDeserializer<T extends AbstractRequest> {
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param elementDictEntry Dictionary entry for the target element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized request object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
-	public T deserialize(final Array attributes, final Array nestedTags, final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException;
+	public T deserialize(final Array attributes, final Array nestedTags, final DictionarySimpleElement elementDictEntry, final CodecContext context) throws CBORDeserializationException;
 }
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.request.CBORNewSessionRequest;
@@ -31,7 +32,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class NewSessionDeserializer implements InternalRequestDeserializer<CBORNewSessionRequest> {
-	private static NewSessionDeserializer instance;
+	private static final NewSessionDeserializer instance = new NewSessionDeserializer();
 
 
 	/**
@@ -40,10 +41,6 @@ public class NewSessionDeserializer implements InternalRequestDeserializer<CBORN
 	 * @return Deserializer instance
 	 */
 	public static NewSessionDeserializer getInstance() {
-		if(instance == null) {
-			instance = new NewSessionDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -57,7 +54,8 @@ public class NewSessionDeserializer implements InternalRequestDeserializer<CBORN
 	@Override
 	public CBORNewSessionRequest deserialize(final Array attributes, 
 											 final Array nestedTags, 
-											 final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											 final DictionarySimpleElement elementDictEntry,
+											 final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -65,7 +63,7 @@ public class NewSessionDeserializer implements InternalRequestDeserializer<CBORN
 		}
 		
 		// Initially define the required variables to build the target object
-		Integer maxPollResultSize = null;
+		int maxPollResultSize = RequestDeserializerManager.ABSENT_VALUE;
 
 		// Get list of all attribute data items
 		List<DataItem> attributesDataItems = attributes.getDataItems();
@@ -81,13 +79,15 @@ public class NewSessionDeserializer implements InternalRequestDeserializer<CBORN
 			// Process the attribute value
 			switch(attrNameStr) {
 				case CBORNewSessionRequest.MAX_POLL_RESULT_SIZE:
-					maxPollResultSize = RequestDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxPollResultSize = RequestDeserializerManager.readInt(attrValue);
 					break;
 			}
 		}
 		
 		CBORNewSessionRequest rv = new CBORNewSessionRequest();
-		rv.setMaxPollResultSize(maxPollResultSize);
+		if(maxPollResultSize != RequestDeserializerManager.ABSENT_VALUE) {
+			rv.setMaxPollResultSize(maxPollResultSize);
+		}
 		
 		return rv;
 	}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
@@ -34,7 +35,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class PollDeserializer implements InternalRequestDeserializer<CBORPollRequest> {
-	private static PollDeserializer instance;
+	private static final PollDeserializer instance = new PollDeserializer();
 
 
 	/**
@@ -43,10 +44,6 @@ public class PollDeserializer implements InternalRequestDeserializer<CBORPollReq
 	 * @return Deserializer instance
 	 */
 	public static PollDeserializer getInstance() {
-		if(instance == null) {
-			instance = new PollDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -60,7 +57,8 @@ public class PollDeserializer implements InternalRequestDeserializer<CBORPollReq
 	@Override
 	public CBORPollRequest deserialize(final Array attributes, 
 									   final Array nestedTags, 
-									   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+									   final DictionarySimpleElement elementDictEntry,
+									   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
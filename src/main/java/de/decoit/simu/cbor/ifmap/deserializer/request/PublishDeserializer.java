@@ -18,8 +18,10 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
@@ -51,7 +53,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class PublishDeserializer implements InternalRequestDeserializer<CBORPublishRequest> {
-	private static PublishDeserializer instance;
+	private static final PublishDeserializer instance = new PublishDeserializer();
 
 
 	/**
@@ -60,10 +62,6 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	 * @return Deserializer instance
 	 */
 	public static PublishDeserializer getInstance() {
-		if(instance == null) {
-			instance = new PublishDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -77,7 +75,8 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	@Override
 	public CBORPublishRequest deserialize(final Array attributes, 
 										  final Array nestedTags, 
-										  final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+										  final DictionarySimpleElement elementDictEntry,
+										  final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -137,13 +136,13 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 				
 				switch(nestedTagName) {
 					case CBORPublishUpdate.XML_NAME:
-						rv.addPublishType(processPublishUpdate((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry));
+						rv.addPublishType(processPublishUpdate((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry, context));
 						break;
 					case CBORPublishNotify.XML_NAME:
-						rv.addPublishType(processPublishNotify((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry));
+						rv.addPublishType(processPublishNotify((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry, context));
 						break;
 					case CBORPublishDelete.XML_NAME:
-						rv.addPublishType(processPublishDelete((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry));
+						rv.addPublishType(processPublishDelete((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry, context));
 						break;
 				}
 			}
@@ -152,6 +151,10 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 			}
 		}
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
@@ -162,12 +165,14 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param parentEntry Dictionary entry of the update element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized update object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
 	private CBORPublishUpdate processPublishUpdate(final Array attributes, 
 												   final Array nestedTags, 
-												   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+												   final DictionarySimpleElement elementDictEntry,
+												   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processPublishUpdate():");
 			log.debug("Attributes array: " + attributes);
@@ -200,7 +205,7 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 		AbstractIdentifier[] identifiers = {null, null};
 		List<AbstractMetadata> metadata = new ArrayList<>();
 		
-		processUpdateNotifyNestedTags(nestedTags, elementDictEntry, identifiers, metadata);
+		processUpdateNotifyNestedTags(nestedTags, elementDictEntry, identifiers, metadata, context);
 		
 		CBORPublishUpdate rv = new CBORPublishUpdate(identifiers[0], identifiers[1]);
 		rv.setLiftime(lifetime);
@@ -209,6 +214,10 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 			rv.addMetadata(m);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
@@ -219,12 +228,14 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param parentEntry Dictionary entry of the notify element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized notify object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
 	private CBORPublishNotify processPublishNotify(final Array attributes, 
 												   final Array nestedTags, 
-												   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+												   final DictionarySimpleElement elementDictEntry,
+												   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processPublishNotify():");
 			log.debug("Attributes array: " + attributes);
@@ -257,7 +268,7 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 		AbstractIdentifier[] identifiers = {null, null};
 		List<AbstractMetadata> metadata = new ArrayList<>();
 		
-		processUpdateNotifyNestedTags(nestedTags, elementDictEntry, identifiers, metadata);
+		processUpdateNotifyNestedTags(nestedTags, elementDictEntry, identifiers, metadata, context);
 		
 		CBORPublishNotify rv = new CBORPublishNotify(identifiers[0], identifiers[1]);
 		rv.setLiftime(lifetime);
@@ -266,6 +277,10 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 			rv.addMetadata(m);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
@@ -277,12 +292,14 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	 * @param elementDictEntry Dictionary entry of the update/notify element
 	 * @param identifiers The contained identifiers will be stored in this array
 	 * @param metadata The contained metadata will be stored in this list
+	 * @param context Codec context providing the dictionary
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
 	private void processUpdateNotifyNestedTags(final Array nestedTags, 
 											   final DictionarySimpleElement elementDictEntry,
 											   final AbstractIdentifier[] identifiers,
-											   final List<AbstractMetadata> metadata) throws CBORDeserializationException {
+											   final List<AbstractMetadata> metadata,
+											   final CodecContext context) throws CBORDeserializationException {
 		int identifierIndex = 0;
 		
 		// Get list of all nested tags data items
@@ -325,14 +342,12 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 							throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + metadataAttributes.getMajorType());
 						}
 						
-						String namespace = RequestDeserializerManager.getNamespaceXmlName(metadataNamespace);
-						String elementName = RequestDeserializerManager.getTopLevelElementXmlName(metadataNamespace, metadataName);
+						ElementDescriptor descriptor = MetadataDeserializerManager.resolveMetadataElement(metadataNamespace, metadataName, context);
 						
-						Class<? extends AbstractMetadata> targetClass = MetadataDeserializerManager.resolveTargetClass(namespace, elementName);
+						Class<? extends AbstractMetadata> targetClass = descriptor != null ? MetadataDeserializerManager.resolveTargetClass(descriptor) : null;
 						
-						metadata.add(MetadataDeserializerManager.deserialize(metadataNamespace, metadataName, 
-																	  (Array) metadataAttributes, metadataNestedTags,
-																	  targetClass));
+						metadata.add(MetadataDeserializerManager.deserializeElement(descriptor, metadataNamespace, metadataName, 
+																	  (Array) metadataAttributes, metadataNestedTags, targetClass, context));
 					}
 				}
 				else {
@@ -340,21 +355,20 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 				}
 			}
 			else {
-				String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-				String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+				ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 				// Determine if target element is an extended identifier or not
 				if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 							(Array) ntNestedTags, targetClass);
 				}
 				else {
-					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-							(Array) ntNestedTags, targetClass);
+					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+							(Array) ntNestedTags, targetClass, context);
 				}
 
 				identifierIndex++;
@@ -369,12 +383,14 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param parentEntry Dictionary entry of the delete element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized delete object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
 	private CBORPublishDelete processPublishDelete(final Array attributes, 
 												   final Array nestedTags, 
-												   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+												   final DictionarySimpleElement elementDictEntry,
+												   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processPublishDelete():");
 			log.debug("Attributes array: " + attributes);
@@ -432,19 +448,18 @@ public class PublishDeserializer implements InternalRequestDeserializer<CBORPubl
 				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
 			}
 
-			String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-			String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+			ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 			// Determine if target element is an extended identifier or not
 			if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
-				identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
+				identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 						(Array) ntNestedTags, targetClass);
 			}
 			else {
-				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
-				identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-						(Array) ntNestedTags, targetClass);
+				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
+				identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+						(Array) ntNestedTags, targetClass, context);
 			}
 			
 			identifierIndex++;
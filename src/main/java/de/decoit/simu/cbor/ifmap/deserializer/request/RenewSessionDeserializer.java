@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -32,7 +33,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class RenewSessionDeserializer implements InternalRequestDeserializer<CBORRenewSessionRequest> {
-	private static RenewSessionDeserializer instance;
+	private static final RenewSessionDeserializer instance = new RenewSessionDeserializer();
 
 
 	/**
@@ -41,10 +42,6 @@ public class RenewSessionDeserializer implements InternalRequestDeserializer<CBO
 	 * @return Deserializer instance
 	 */
 	public static RenewSessionDeserializer getInstance() {
-		if(instance == null) {
-			instance = new RenewSessionDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -58,7 +55,8 @@ public class RenewSessionDeserializer implements InternalRequestDeserializer<CBO
 	@Override
 	public CBORRenewSessionRequest deserialize(final Array attributes, 
 											   final Array nestedTags, 
-											   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											   final DictionarySimpleElement elementDictEntry,
+											   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
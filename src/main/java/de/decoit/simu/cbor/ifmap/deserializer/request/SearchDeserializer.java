@@ -17,9 +17,11 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SearchTypeAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
@@ -40,7 +42,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class SearchDeserializer implements InternalRequestDeserializer<CBORSearchRequest> {
-	private static SearchDeserializer instance;
+	private static final SearchDeserializer instance = new SearchDeserializer();
 
 
 	/**
@@ -49,10 +51,6 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 	 * @return Deserializer instance
 	 */
 	public static SearchDeserializer getInstance() {
-		if(instance == null) {
-			instance = new SearchDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -66,7 +64,8 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 	@Override
 	public CBORSearchRequest deserialize(final Array attributes, 
 										 final Array nestedTags, 
-										 final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+										 final DictionarySimpleElement elementDictEntry,
+										 final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -78,8 +77,8 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 		IfMapValidationType validation = null;
 		AbstractIdentifier identifier = null;
 		String matchLinks = null;
-		Integer maxDepth = null;
-		Integer maxSize = null;
+		int maxDepth = RequestDeserializerManager.ABSENT_VALUE;
+		int maxSize = RequestDeserializerManager.ABSENT_VALUE;
 		String resultFilter = null;
 		String terminalIdentifierType = null;
 
@@ -106,10 +105,10 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 					matchLinks = RequestDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 				case SearchTypeAttributeGroup.MAX_DEPTH:
-					maxDepth = RequestDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxDepth = RequestDeserializerManager.readInt(attrValue);
 					break;
 				case SearchTypeAttributeGroup.MAX_SIZE:
-					maxSize = RequestDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxSize = RequestDeserializerManager.readInt(attrValue);
 					break;
 				case SearchTypeAttributeGroup.RESULT_FILTER:
 					resultFilter = RequestDeserializerManager.processUnicodeStringItem(attrValue, true);
@@ -135,21 +134,20 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 
 		// Process the nested element value
 		try {
-			String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-			String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+			ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 			// Determine if target element is an extended identifier or not
 			if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
 
-				identifier = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+				identifier = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 						(Array) ntNestedTags, targetClass);
 			}
 			else {
-				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
 
-				identifier = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-						(Array) ntNestedTags, targetClass);
+				identifier = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+						(Array) ntNestedTags, targetClass, context);
 			}
 		}
 		catch(Exception ex) {
@@ -159,8 +157,12 @@ public class SearchDeserializer implements InternalRequestDeserializer<CBORSearc
 		CBORSearchRequest rv = new CBORSearchRequest(sessionId, identifier);
 		rv.setValidation(validation);
 		rv.getSearchTypeAttributes().setMatchLinks(matchLinks);
-		rv.getSearchTypeAttributes().setMaxDepth(maxDepth);
-		rv.getSearchTypeAttributes().setMaxSize(maxSize);
+		if(maxDepth != RequestDeserializerManager.ABSENT_VALUE) {
+			rv.getSearchTypeAttributes().setMaxDepth(maxDepth);
+		}
+		if(maxSize != RequestDeserializerManager.ABSENT_VALUE) {
+			rv.getSearchTypeAttributes().setMaxSize(maxSize);
+		}
 		rv.getSearchTypeAttributes().setResultFilter(resultFilter);
 		rv.getSearchTypeAttributes().setTerminalIdentifierType(terminalIdentifierType);
 		
@@ -17,9 +17,11 @@ package de.decoit.simu.cbor.ifmap.deserializer.request;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SearchTypeAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
@@ -44,7 +46,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSubscribeRequest> {
-	private static SubscribeDeserializer instance;
+	private static final SubscribeDeserializer instance = new SubscribeDeserializer();
 
 
 	/**
@@ -53,10 +55,6 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 	 * @return Deserializer instance
 	 */
 	public static SubscribeDeserializer getInstance() {
-		if(instance == null) {
-			instance = new SubscribeDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -70,7 +68,8 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 	@Override
 	public CBORSubscribeRequest deserialize(final Array attributes, 
 											final Array nestedTags, 
-											final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											final DictionarySimpleElement elementDictEntry,
+											final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -130,7 +129,7 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 				
 				switch(nestedTagName) {
 					case CBORSubscribeUpdate.XML_NAME:
-						rv.addSubscribeType(processSubscribeUpdate((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry));
+						rv.addSubscribeType(processSubscribeUpdate((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry, context));
 						break;
 					case CBORSubscribeDelete.XML_NAME:
 						rv.addSubscribeType(processSubscribeDelete((Array) ntAttributes, (Array) ntNestedTags, pubTypeEntry));
@@ -148,7 +147,8 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 	
 	private CBORSubscribeUpdate processSubscribeUpdate(final Array attributes, 
 													   final Array nestedTags, 
-													   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+													   final DictionarySimpleElement elementDictEntry,
+													   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processPublishUpdate():");
 			log.debug("Attributes array: " + attributes);
@@ -159,8 +159,8 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 		String name = null;
 		AbstractIdentifier identifier = null;
 		String matchLinks = null;
-		Integer maxDepth = null;
-		Integer maxSize = null;
+		int maxDepth = RequestDeserializerManager.ABSENT_VALUE;
+		int maxSize = RequestDeserializerManager.ABSENT_VALUE;
 		String resultFilter = null;
 		String terminalIdentifierType = null;
 		
@@ -184,10 +184,10 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 					matchLinks = RequestDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 				case SearchTypeAttributeGroup.MAX_DEPTH:
-					maxDepth = RequestDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxDepth = RequestDeserializerManager.readInt(attrValue);
 					break;
 				case SearchTypeAttributeGroup.MAX_SIZE:
-					maxSize = RequestDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxSize = RequestDeserializerManager.readInt(attrValue);
 					break;
 				case SearchTypeAttributeGroup.RESULT_FILTER:
 					resultFilter = RequestDeserializerManager.processUnicodeStringItem(attrValue, true);
@@ -213,21 +213,20 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 
 		// Process the nested element value
 		try {
-			String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-			String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+			ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 			// Determine if target element is an extended identifier or not
 			if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+				Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
 
-				identifier = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+				identifier = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 						(Array) ntNestedTags, targetClass);
 			}
 			else {
-				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+				Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
 
-				identifier = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-						(Array) ntNestedTags, targetClass);
+				identifier = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+						(Array) ntNestedTags, targetClass, context);
 			}
 		}
 		catch(Exception ex) {
@@ -236,8 +235,12 @@ public class SubscribeDeserializer implements InternalRequestDeserializer<CBORSu
 		
 		CBORSubscribeUpdate rv = new CBORSubscribeUpdate(name, identifier);
 		rv.getSearchTypeAttributes().setMatchLinks(matchLinks);
-		rv.getSearchTypeAttributes().setMaxDepth(maxDepth);
-		rv.getSearchTypeAttributes().setMaxSize(maxSize);
+		if(maxDepth != RequestDeserializerManager.ABSENT_VALUE) {
+			rv.getSearchTypeAttributes().setMaxDepth(maxDepth);
+		}
+		if(maxSize != RequestDeserializerManager.ABSENT_VALUE) {
+			rv.getSearchTypeAttributes().setMaxSize(maxSize);
+		}
 		rv.getSearchTypeAttributes().setResultFilter(resultFilter);
 		rv.getSearchTypeAttributes().setTerminalIdentifierType(terminalIdentifierType);
 		
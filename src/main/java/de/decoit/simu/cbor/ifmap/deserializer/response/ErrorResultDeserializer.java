@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.response;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.deserializer.ResponseDeserializerManager;
 import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -32,7 +33,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class ErrorResultDeserializer implements InternalResultDeserializer<CBORErrorResult> {
-	private static ErrorResultDeserializer instance;
+	private static final ErrorResultDeserializer instance = new ErrorResultDeserializer();
 
 
 	/**
@@ -41,10 +42,6 @@ public class ErrorResultDeserializer implements InternalResultDeserializer<CBORE
 	 * @return Deserializer instance
 	 */
 	public static ErrorResultDeserializer getInstance() {
-		if(instance == null) {
-			instance = new ErrorResultDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -58,7 +55,8 @@ public class ErrorResultDeserializer implements InternalResultDeserializer<CBORE
 	@Override
 	public CBORErrorResult deserialize(final Array attributes, 
 									   final Array nestedTags, 
-									   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+									   final DictionarySimpleElement elementDictEntry,
+									   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -16,6 +16,7 @@
 package de.decoit.simu.cbor.ifmap.deserializer.response;
 
 import co.nstant.in.cbor.model.Array;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.response.model.AbstractResult;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -36,8 +37,9 @@ public interface InternalResultDeserializer<T extends AbstractResult> {
 	 * @param attributes CBOR array data item containing the element's attributes
 	 * @param nestedTags CBOR array data item containing the element's nested tags
 	 * @param elementDictEntry Dictionary entry for the target element
+	 * @param context Codec context providing the dictionary
 	 * @return The deserialized response object
 	 * @throws CBORDeserializationException if deserialization failed
 	 */
-	public T deserialize(final Array attributes, final Array nestedTags, final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException;
+	public T deserialize(final Array attributes, final Array nestedTags, final DictionarySimpleElement elementDictEntry, final CodecContext context) throws CBORDeserializationException;
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.deserializer.response;
 
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.deserializer.ResponseDeserializerManager;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
@@ -32,7 +33,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class NewSessionResultDeserializer implements InternalResultDeserializer<CBORNewSessionResult> {
-	private static NewSessionResultDeserializer instance;
+	private static final NewSessionResultDeserializer instance = new NewSessionResultDeserializer();
 
 
 	/**
@@ -41,10 +42,6 @@ public class NewSessionResultDeserializer implements InternalResultDeserializer<
 	 * @return Deserializer instance
 	 */
 	public static NewSessionResultDeserializer getInstance() {
-		if(instance == null) {
-			instance = new NewSessionResultDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -58,7 +55,8 @@ public class NewSessionResultDeserializer implements InternalResultDeserializer<
 	@Override
 	public CBORNewSessionResult deserialize(final Array attributes, 
 											final Array nestedTags, 
-											final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											final DictionarySimpleElement elementDictEntry,
+											final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -67,7 +65,7 @@ public class NewSessionResultDeserializer implements InternalResultDeserializer<
 		
 		String sessionId = null;
 		String publisherId = null;
-		Integer maxPollResultSize = null;
+		int maxPollResultSize = ResponseDeserializerManager.ABSENT_VALUE;
 		
 		// Get list of all attribute data items
 		List<DataItem> attributesDataItems = attributes.getDataItems();
@@ -89,13 +87,15 @@ public class NewSessionResultDeserializer implements InternalResultDeserializer<
 					publisherId = ResponseDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 				case CBORNewSessionResult.MAX_POLL_RESULT_SIZE:
-					maxPollResultSize = ResponseDeserializerManager.processUnsignedIntegerItem(attrValue, true).intValueExact();
+					maxPollResultSize = ResponseDeserializerManager.readInt(attrValue);
 					break;
 			}
 		}
 		
 		CBORNewSessionResult rv = new CBORNewSessionResult(sessionId, publisherId);
-		rv.setMaxPollResultSize(maxPollResultSize);
+		if(maxPollResultSize != ResponseDeserializerManager.ABSENT_VALUE) {
+			rv.setMaxPollResultSize(maxPollResultSize);
+		}
 		
 		return rv;
 	}
@@ -18,8 +18,12 @@ package de.decoit.simu.cbor.ifmap.deserializer.response;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.KeyDispatchTable;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.RequestDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.ResponseDeserializerManager;
@@ -30,6 +34,7 @@ import de.decoit.simu.cbor.ifmap.identifier.extended.AbstractExtendedIdentifier;
 import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
 import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
 import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.AbstractPollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.DeletePollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.NotifyPollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.SearchPollSearchResult;
@@ -40,16 +45,31 @@ import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The singleton instance of this class may be used to deserialize response results of type {@link CBORPollResult}.
+ * If the decode options of the codec context provide a parallel pool, the result blocks of large poll results
+ * are decoded in parallel on that pool.
  * 
  * @author Thomas Rix (rix@decoit.de)
  */
 @Slf4j
 public class PollResultDeserializer implements InternalResultDeserializer<CBORPollResult> {
-	private static PollResultDeserializer instance;
+	private static final PollResultDeserializer instance = new PollResultDeserializer();
+
+	/**
+	 * Maximum number of result blocks decoded by a single task in parallel mode.
+	 * Poll results with fewer blocks are always decoded sequentially.
+	 */
+	private static final int PARALLEL_RANGE_SIZE = 8;
+
+	private static final int ATTR_NAME = 0;
+	private static final KeyDispatchTable resultAttributesDispatchTable = new KeyDispatchTable(
+			new String[] {"name"},
+			new String[] {});
 
 
 	/**
@@ -58,10 +78,6 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 	 * @return Deserializer instance
 	 */
 	public static PollResultDeserializer getInstance() {
-		if(instance == null) {
-			instance = new PollResultDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -75,7 +91,8 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 	@Override
 	public CBORPollResult deserialize(final Array attributes, 
 									  final Array nestedTags, 
-									  final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+									  final DictionarySimpleElement elementDictEntry,
+									  final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -86,9 +103,47 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 		
 		// Get list of all nested tags data items
 		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
-
-		// Iterate over the data items in steps of 4
-		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+		AbstractNestedElementBase[] blocks = new AbstractNestedElementBase[nestedTagsDataItems.size() / 4];
+		
+		ForkJoinPool parallelPool = context.getDecodeOptions().getParallelPool();
+		if(parallelPool != null && blocks.length > PARALLEL_RANGE_SIZE) {
+			decodeBlocksParallel(parallelPool, nestedTagsDataItems, blocks, elementDictEntry, context);
+		}
+		else {
+			decodeBlocks(nestedTagsDataItems, blocks, 0, blocks.length, elementDictEntry, context);
+		}
+		
+		// Add the results in wire order, unknown blocks were skipped and left null
+		for(AbstractNestedElementBase block : blocks) {
+			if(block instanceof CBORErrorResult) {
+				rv.addPollResult((CBORErrorResult) block);
+			}
+			else if(block != null) {
+				rv.addPollResult((AbstractPollSearchResult) block);
+			}
+		}
+		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
+		return rv;
+	}
+	
+	
+	/**
+	 * Decode the result blocks in the range [from, to) sequentially.
+	 * Each block consists of 4 data items, the decoded result of block i is stored at index i of the blocks array.
+	 */
+	private void decodeBlocks(final List<DataItem> nestedTagsDataItems,
+							  final AbstractNestedElementBase[] blocks,
+							  final int from,
+							  final int to,
+							  final DictionarySimpleElement elementDictEntry,
+							  final CodecContext context) throws CBORDeserializationException {
+		for(int b=from; b<to; b++) {
+			int i = b * 4;
+			
 			// Get namespace, name and nested tag/value data items (index i and i+1)
 			DataItem ntNamespace = nestedTagsDataItems.get(i);
 			DataItem ntName = nestedTagsDataItems.get(i+1);
@@ -108,19 +163,19 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 				
 				switch(nestedTagName) {
 					case CBORErrorResult.XML_NAME:
-						rv.addPollResult(processErrorResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						blocks[b] = processErrorResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
 						break;
 					case DeletePollSearchResult.XML_NAME:
-						rv.addPollResult(processDeleteResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						blocks[b] = processDeleteResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
 						break;
 					case NotifyPollSearchResult.XML_NAME:
-						rv.addPollResult(processNotifyResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						blocks[b] = processNotifyResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
 						break;
 					case SearchPollSearchResult.XML_NAME:
-						rv.addPollResult(processSearchResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						blocks[b] = processSearchResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
 						break;
 					case UpdatePollSearchResult.XML_NAME:
-						rv.addPollResult(processUpdateResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						blocks[b] = processUpdateResult((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
 						break;
 				}
 			}
@@ -128,78 +183,123 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 				throw new CBORDeserializationException("Deserialization failed, see nested exception for details", ex);
 			}
 		}
-		
-		return rv;
+	}
+	
+	
+	/**
+	 * Decode all result blocks on the specified pool.
+	 * The blocks are split into ranges which are decoded independently, every range writes to its own
+	 * slots of the blocks array, so the order of the results is preserved.
+	 */
+	private void decodeBlocksParallel(final ForkJoinPool pool,
+									  final List<DataItem> nestedTagsDataItems,
+									  final AbstractNestedElementBase[] blocks,
+									  final DictionarySimpleElement elementDictEntry,
+									  final CodecContext context) throws CBORDeserializationException {
+		try {
+			pool.invoke(new BlockRangeTask(nestedTagsDataItems, blocks, 0, blocks.length, elementDictEntry, context));
+		}
+		catch(RuntimeException ex) {
+			// The pool may wrap the exception thrown by the worker thread, search the causal chain
+			for(Throwable t = ex; t != null; t = t.getCause()) {
+				if(t instanceof CBORDeserializationException) {
+					throw (CBORDeserializationException) t;
+				}
+			}
+			
+			throw ex;
+		}
 	}
 	
 	
 	private CBORErrorResult processErrorResult(final Array attributes, 
 											   final Array nestedTags, 
-											   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
-		return ErrorResultDeserializer.getInstance().deserialize(attributes, nestedTags, elementDictEntry);
+											   final DictionarySimpleElement elementDictEntry,
+											   final CodecContext context) throws CBORDeserializationException {
+		return ErrorResultDeserializer.getInstance().deserialize(attributes, nestedTags, elementDictEntry, context);
 	}
 	
 	
 	private DeletePollSearchResult processDeleteResult(final Array attributes, 
 													   final Array nestedTags, 
-													   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+													   final DictionarySimpleElement elementDictEntry,
+													   final CodecContext context) throws CBORDeserializationException {
 		String name = processResultAttributes(attributes, elementDictEntry);
 		
 		DeletePollSearchResult rv = new DeletePollSearchResult();
 		rv.setName(name);
 		
-		processResultNestedTags(nestedTags, elementDictEntry).stream().forEach((sri) -> {
+		processResultNestedTags(nestedTags, elementDictEntry, context).stream().forEach((sri) -> {
 			rv.addSearchResultItem(sri);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
 	
 	private NotifyPollSearchResult processNotifyResult(final Array attributes, 
 													   final Array nestedTags, 
-													   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+													   final DictionarySimpleElement elementDictEntry,
+													   final CodecContext context) throws CBORDeserializationException {
 		String name = processResultAttributes(attributes, elementDictEntry);
 		
 		NotifyPollSearchResult rv = new NotifyPollSearchResult();
 		rv.setName(name);
 		
-		processResultNestedTags(nestedTags, elementDictEntry).stream().forEach((sri) -> {
+		processResultNestedTags(nestedTags, elementDictEntry, context).stream().forEach((sri) -> {
 			rv.addSearchResultItem(sri);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
 	
 	private SearchPollSearchResult processSearchResult(final Array attributes, 
 													   final Array nestedTags, 
-													   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+													   final DictionarySimpleElement elementDictEntry,
+													   final CodecContext context) throws CBORDeserializationException {
 		String name = processResultAttributes(attributes, elementDictEntry);
 		
 		SearchPollSearchResult rv = new SearchPollSearchResult();
 		rv.setName(name);
 		
-		processResultNestedTags(nestedTags, elementDictEntry).stream().forEach((sri) -> {
+		processResultNestedTags(nestedTags, elementDictEntry, context).stream().forEach((sri) -> {
 			rv.addSearchResultItem(sri);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
 	
 	private UpdatePollSearchResult processUpdateResult(final Array attributes, 
 													   final Array nestedTags, 
-													   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+													   final DictionarySimpleElement elementDictEntry,
+													   final CodecContext context) throws CBORDeserializationException {
 		String name = processResultAttributes(attributes, elementDictEntry);
 		
 		UpdatePollSearchResult rv = new UpdatePollSearchResult();
 		rv.setName(name);
 		
-		processResultNestedTags(nestedTags, elementDictEntry).stream().forEach((sri) -> {
+		processResultNestedTags(nestedTags, elementDictEntry, context).stream().forEach((sri) -> {
 			rv.addSearchResultItem(sri);
 		});
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			rv.trimToSize();
+		}
+		
 		return rv;
 	}
 	
@@ -217,11 +317,9 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 			DataItem attrName = attributesDataItems.get(i);
 			DataItem attrValue = attributesDataItems.get(i+1);
 
-			String attrNameStr = ResponseDeserializerManager.getAttributeXmlName(attrName, elementDictEntry);
-
 			// Process the attribute value
-			switch(attrNameStr) {
-				case "name":
+			switch(resultAttributesDispatchTable.attributeToken(attrName, elementDictEntry)) {
+				case ATTR_NAME:
 					name = ResponseDeserializerManager.processUnicodeStringItem(attrValue, true);
 					break;
 			}
@@ -232,7 +330,8 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 	
 	
 	private List<SearchResultItem> processResultNestedTags(final Array nestedTags, 
-														   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+														   final DictionarySimpleElement elementDictEntry,
+														   final CodecContext context) throws CBORDeserializationException {
 		List<SearchResultItem> rvList = new ArrayList<>();
 		
 		// Get list of all nested tags data items
@@ -259,7 +358,10 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 				
 				switch(nestedTagName) {
 					case "resultItem":
-						rvList.add(processResultItem((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						SearchResultItem item = processResultItem((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
+						if(item != null) {
+							rvList.add(item);
+						}
 						break;
 				}
 			}
@@ -274,7 +376,8 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 	
 	private SearchResultItem processResultItem(final Array attributes, 
 											   final Array nestedTags, 
-											   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											   final DictionarySimpleElement elementDictEntry,
+											   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processResultItem():");
 			log.debug("Attributes array: " + attributes);
@@ -282,8 +385,13 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 			log.debug("Dictionary entry: " + elementDictEntry);
 		}
 		
+		// Drop items without accepted metadata before any identifier or metadata is deserialized
+		if(context.getDecodeOptions().isMetadataFiltered() && !containsAcceptedMetadata(nestedTags, elementDictEntry, context)) {
+			return null;
+		}
+		
 		AbstractIdentifier[] identifiers = {null, null};
-		List<AbstractMetadata> metadata = new ArrayList<>();
+		List<Array> metadataArrays = new ArrayList<>(1);
 		
 		int identifierIndex = 0;
 		
@@ -310,53 +418,28 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 			if(RequestDeserializerManager.isSimpleValueNull(ntNamespace)) {
 				String ntXmlName = RequestDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
 				
-				if("metadata".equals(ntXmlName)) {
-					Array metadataArray = (Array) ntNestedTags;
-					
-					// Get list of all nested tags data items
-					List<DataItem> metadataDataItems = metadataArray.getDataItems();
-
-					// Iterate over the data items in steps of 4
-					for(int j=0; j<metadataDataItems.size(); j=j+4) {
-						DataItem metadataNamespace = metadataDataItems.get(j);
-						DataItem metadataName = metadataDataItems.get(j+1);
-						DataItem metadataAttributes = metadataDataItems.get(j+2);
-						DataItem metadataNestedTags = metadataDataItems.get(j+3);
-						
-						if(metadataAttributes.getMajorType() != MajorType.ARRAY) {
-							throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + metadataAttributes.getMajorType());
-						}
-
-						String namespace = RequestDeserializerManager.getNamespaceXmlName(metadataNamespace);
-						String elementName = RequestDeserializerManager.getTopLevelElementXmlName(metadataNamespace, metadataName);
-						
-						Class<? extends AbstractMetadata> targetClass = MetadataDeserializerManager.resolveTargetClass(namespace, elementName);
-						
-						metadata.add(MetadataDeserializerManager.deserialize(metadataNamespace, metadataName, 
-																	  (Array) metadataAttributes, metadataNestedTags,
-																	  targetClass));
-					}
+				if(SearchResultItem.METADATA.equals(ntXmlName)) {
+					metadataArrays.add((Array) ntNestedTags);
 				}
 				else {
 					throw new CBORDeserializationException("Found unknown nested tag inside publish/update element: " + ntXmlName);
 				}
 			}
 			else {
-				String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-				String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+				ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 				// Determine if target element is an extended identifier or not
 				if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 							(Array) ntNestedTags, targetClass);
 				}
 				else {
-					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-							(Array) ntNestedTags, targetClass);
+					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+							(Array) ntNestedTags, targetClass, context);
 				}
 
 				identifierIndex++;
@@ -364,10 +447,113 @@ public class PollResultDeserializer implements InternalResultDeserializer<CBORPo
 		}
 		
 		SearchResultItem rv = new SearchResultItem(identifiers[0], identifiers[1]);
-		metadata.stream().forEach((m) -> {
-			rv.addMetadata(m);
-		});
+		
+		if(context.getDecodeOptions().isLazyMetadata()) {
+			// Keep the metadata data items, they are deserialized on first access to the item's metadata
+			rv.setMetadataLoader(() -> {
+				List<AbstractMetadata> metadata = new ArrayList<>();
+				for(Array metadataArray : metadataArrays) {
+					metadata.addAll(MetadataDeserializerManager.deserializeMetadataList(metadataArray, context));
+				}
+				
+				return metadata;
+			});
+		}
+		else {
+			for(Array metadataArray : metadataArrays) {
+				MetadataDeserializerManager.deserializeMetadataList(metadataArray, context).stream().forEach((m) -> {
+					rv.addMetadata(m);
+				});
+			}
+			
+			if(context.getDecodeOptions().isCompactModel()) {
+				rv.trimToSize();
+			}
+		}
 		
 		return rv;
 	}
+	
+	
+	private boolean containsAcceptedMetadata(final Array nestedTags, 
+											 final DictionarySimpleElement elementDictEntry,
+											 final CodecContext context) throws CBORDeserializationException {
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		// Iterate over the data items in steps of 4, only 'metadata' elements are inspected
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+			
+			if(!RequestDeserializerManager.isSimpleValueNull(ntNamespace)) {
+				continue;
+			}
+			
+			String ntXmlName = RequestDeserializerManager.getNestedTagXmlName(nestedTagsDataItems.get(i+1), elementDictEntry);
+			if(!SearchResultItem.METADATA.equals(ntXmlName)) {
+				continue;
+			}
+			
+			if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+			}
+			
+			if(MetadataDeserializerManager.containsAcceptedMetadata((Array) ntNestedTags, context)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	
+	
+	/**
+	 * Fork/join task decoding a range of poll result blocks.
+	 * Ranges larger than {@link #PARALLEL_RANGE_SIZE} blocks are split in halves.
+	 */
+	private final class BlockRangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<DataItem> nestedTagsDataItems;
+		private final AbstractNestedElementBase[] blocks;
+		private final int from;
+		private final int to;
+		private final DictionarySimpleElement elementDictEntry;
+		private final CodecContext context;
+		
+		
+		private BlockRangeTask(final List<DataItem> nestedTagsDataItems,
+							   final AbstractNestedElementBase[] blocks,
+							   final int from,
+							   final int to,
+							   final DictionarySimpleElement elementDictEntry,
+							   final CodecContext context) {
+			this.nestedTagsDataItems = nestedTagsDataItems;
+			this.blocks = blocks;
+			this.from = from;
+			this.to = to;
+			this.elementDictEntry = elementDictEntry;
+			this.context = context;
+		}
+		
+		
+		@Override
+		protected void compute() {
+			if(this.to - this.from <= PARALLEL_RANGE_SIZE) {
+				try {
+					decodeBlocks(this.nestedTagsDataItems, this.blocks, this.from, this.to, this.elementDictEntry, this.context);
+				}
+				catch(CBORDeserializationException ex) {
+					throw new IllegalStateException("Decoding of poll result blocks failed, see nested exception for details", ex);
+				}
+				
+				return;
+			}
+			
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new BlockRangeTask(this.nestedTagsDataItems, this.blocks, this.from, middle, this.elementDictEntry, this.context),
+					  new BlockRangeTask(this.nestedTagsDataItems, this.blocks, middle, this.to, this.elementDictEntry, this.context));
+		}
+	}
 }
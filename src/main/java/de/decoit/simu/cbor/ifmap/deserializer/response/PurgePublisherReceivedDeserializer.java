@@ -16,6 +16,7 @@
 package de.decoit.simu.cbor.ifmap.deserializer.response;
 
 import co.nstant.in.cbor.model.Array;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.response.model.CBORPurgePublisherReceived;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -28,7 +29,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class PurgePublisherReceivedDeserializer implements InternalResultDeserializer<CBORPurgePublisherReceived> {
-	private static PurgePublisherReceivedDeserializer instance;
+	private static final PurgePublisherReceivedDeserializer instance = new PurgePublisherReceivedDeserializer();
 
 
 	/**
@@ -37,10 +38,6 @@ public class PurgePublisherReceivedDeserializer implements InternalResultDeseria
 	 * @return Deserializer instance
 	 */
 	public static PurgePublisherReceivedDeserializer getInstance() {
-		if(instance == null) {
-			instance = new PurgePublisherReceivedDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -54,7 +51,8 @@ public class PurgePublisherReceivedDeserializer implements InternalResultDeseria
 	@Override
 	public CBORPurgePublisherReceived deserialize(final Array attributes, 
 										   final Array nestedTags, 
-										   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+										   final DictionarySimpleElement elementDictEntry,
+										   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -16,6 +16,7 @@
 package de.decoit.simu.cbor.ifmap.deserializer.response;
 
 import co.nstant.in.cbor.model.Array;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.response.model.CBORRenewSessionResult;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -28,7 +29,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class RenewSessionResultDeserializer implements InternalResultDeserializer<CBORRenewSessionResult> {
-	private static RenewSessionResultDeserializer instance;
+	private static final RenewSessionResultDeserializer instance = new RenewSessionResultDeserializer();
 
 
 	/**
@@ -37,10 +38,6 @@ public class RenewSessionResultDeserializer implements InternalResultDeserialize
 	 * @return Deserializer instance
 	 */
 	public static RenewSessionResultDeserializer getInstance() {
-		if(instance == null) {
-			instance = new RenewSessionResultDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -54,7 +51,8 @@ public class RenewSessionResultDeserializer implements InternalResultDeserialize
 	@Override
 	public CBORRenewSessionResult deserialize(final Array attributes, 
 											  final Array nestedTags, 
-											  final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											  final DictionarySimpleElement elementDictEntry,
+											  final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -18,6 +18,8 @@ package de.decoit.simu.cbor.ifmap.deserializer.response;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.MajorType;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
 import de.decoit.simu.cbor.ifmap.deserializer.ExtendedIdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.IdentifierDeserializerManager;
 import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
@@ -45,7 +47,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class SearchResultDeserializer implements InternalResultDeserializer<CBORSearchResult> {
-	private static SearchResultDeserializer instance;
+	private static final SearchResultDeserializer instance = new SearchResultDeserializer();
 
 
 	/**
@@ -54,10 +56,6 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 	 * @return Deserializer instance
 	 */
 	public static SearchResultDeserializer getInstance() {
-		if(instance == null) {
-			instance = new SearchResultDeserializer();
-		}
-
 		return instance;
 	}
 
@@ -71,7 +69,8 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 	@Override
 	public CBORSearchResult deserialize(final Array attributes, 
 										final Array nestedTags, 
-										final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+										final DictionarySimpleElement elementDictEntry,
+										final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("Attributes array: " + attributes);
 			log.debug("Nested tags array: " + nestedTags);
@@ -134,7 +133,10 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 				
 				switch(nestedTagName) {
 					case SearchResultItem.XML_NAME:
-						sr.addSearchResultItem(processResultItem((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry));
+						SearchResultItem item = processResultItem((Array) ntAttributes, (Array) ntNestedTags, resultItemEntry, context);
+						if(item != null) {
+							sr.addSearchResultItem(item);
+						}
 						break;
 				}
 			}
@@ -143,6 +145,10 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 			}
 		}
 		
+		if(context.getDecodeOptions().isCompactModel()) {
+			sr.trimToSize();
+		}
+		
 		CBORSearchResult rv = new CBORSearchResult(sr);
 		
 		return rv;
@@ -151,7 +157,8 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 	
 	private SearchResultItem processResultItem(final Array attributes, 
 											   final Array nestedTags, 
-											   final DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
+											   final DictionarySimpleElement elementDictEntry,
+											   final CodecContext context) throws CBORDeserializationException {
 		if(log.isDebugEnabled()) {
 			log.debug("processResultItem():");
 			log.debug("Attributes array: " + attributes);
@@ -159,8 +166,13 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 			log.debug("Dictionary entry: " + elementDictEntry);
 		}
 		
+		// Drop items without accepted metadata before any identifier or metadata is deserialized
+		if(context.getDecodeOptions().isMetadataFiltered() && !containsAcceptedMetadata(nestedTags, elementDictEntry, context)) {
+			return null;
+		}
+		
 		AbstractIdentifier[] identifiers = {null, null};
-		List<AbstractMetadata> metadata = new ArrayList<>();
+		List<Array> metadataArrays = new ArrayList<>(1);
 		
 		int identifierIndex = 0;
 		
@@ -188,52 +200,27 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 				String ntXmlName = RequestDeserializerManager.getNestedTagXmlName(ntName, elementDictEntry);
 				
 				if(SearchResultItem.METADATA.equals(ntXmlName)) {
-					Array metadataArray = (Array) ntNestedTags;
-					
-					// Get list of all nested tags data items
-					List<DataItem> metadataDataItems = metadataArray.getDataItems();
-
-					// Iterate over the data items in steps of 4
-					for(int j=0; j<metadataDataItems.size(); j=j+4) {
-						DataItem metadataNamespace = metadataDataItems.get(j);
-						DataItem metadataName = metadataDataItems.get(j+1);
-						DataItem metadataAttributes = metadataDataItems.get(j+2);
-						DataItem metadataNestedTags = metadataDataItems.get(j+3);
-						
-						if(metadataAttributes.getMajorType() != MajorType.ARRAY) {
-							throw new CBORDeserializationException("Invalid major type for data item in attributes array position: " + metadataAttributes.getMajorType());
-						}
-
-						String namespace = RequestDeserializerManager.getNamespaceXmlName(metadataNamespace);
-						String elementName = RequestDeserializerManager.getTopLevelElementXmlName(metadataNamespace, metadataName);
-						
-						Class<? extends AbstractMetadata> targetClass = MetadataDeserializerManager.resolveTargetClass(namespace, elementName);
-						
-						metadata.add(MetadataDeserializerManager.deserialize(metadataNamespace, metadataName, 
-																	  (Array) metadataAttributes, metadataNestedTags,
-																	  targetClass));
-					}
+					metadataArrays.add((Array) ntNestedTags);
 				}
 				else {
 					throw new CBORDeserializationException("Found unknown nested tag inside publish/update element: " + ntXmlName);
 				}
 			}
 			else {
-				String namespace = RequestDeserializerManager.getNamespaceXmlName(ntNamespace);
-				String elementName = RequestDeserializerManager.getTopLevelElementXmlName(ntNamespace, ntName);
+				ElementDescriptor descriptor = RequestDeserializerManager.resolveElement(ntNamespace, ntName, context);
 
 				// Determine if target element is an extended identifier or not
 				if(ntName.hasTag() && ntName.getTag().equals(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem())) {
-					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractExtendedIdentifier> targetClass = ExtendedIdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
+					identifiers[identifierIndex] = ExtendedIdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
 							(Array) ntNestedTags, targetClass);
 				}
 				else {
-					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(namespace, elementName);
+					Class<? extends AbstractIdentifier> targetClass = IdentifierDeserializerManager.resolveTargetClass(descriptor);
 					
-					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(ntNamespace, ntName, (Array) ntAttributes,
-							(Array) ntNestedTags, targetClass);
+					identifiers[identifierIndex] = IdentifierDeserializerManager.deserialize(descriptor, (Array) ntAttributes,
+							(Array) ntNestedTags, targetClass, context);
 				}
 
 				identifierIndex++;
@@ -241,10 +228,62 @@ public class SearchResultDeserializer implements InternalResultDeserializer<CBOR
 		}
 		
 		SearchResultItem rv = new SearchResultItem(identifiers[0], identifiers[1]);
-		metadata.stream().forEach((m) -> {
-			rv.addMetadata(m);
-		});
+		
+		if(context.getDecodeOptions().isLazyMetadata()) {
+			// Keep the metadata data items, they are deserialized on first access to the item's metadata
+			rv.setMetadataLoader(() -> {
+				List<AbstractMetadata> metadata = new ArrayList<>();
+				for(Array metadataArray : metadataArrays) {
+					metadata.addAll(MetadataDeserializerManager.deserializeMetadataList(metadataArray, context));
+				}
+				
+				return metadata;
+			});
+		}
+		else {
+			for(Array metadataArray : metadataArrays) {
+				MetadataDeserializerManager.deserializeMetadataList(metadataArray, context).stream().forEach((m) -> {
+					rv.addMetadata(m);
+				});
+			}
+			
+			if(context.getDecodeOptions().isCompactModel()) {
+				rv.trimToSize();
+			}
+		}
 		
 		return rv;
 	}
+	
+	
+	private boolean containsAcceptedMetadata(final Array nestedTags, 
+											 final DictionarySimpleElement elementDictEntry,
+											 final CodecContext context) throws CBORDeserializationException {
+		List<DataItem> nestedTagsDataItems = nestedTags.getDataItems();
+
+		// Iterate over the data items in steps of 4, only 'metadata' elements are inspected
+		for(int i=0; i<nestedTagsDataItems.size(); i=i+4) {
+			DataItem ntNamespace = nestedTagsDataItems.get(i);
+			DataItem ntNestedTags = nestedTagsDataItems.get(i+3);
+			
+			if(!RequestDeserializerManager.isSimpleValueNull(ntNamespace)) {
+				continue;
+			}
+			
+			String ntXmlName = RequestDeserializerManager.getNestedTagXmlName(nestedTagsDataItems.get(i+1), elementDictEntry);
+			if(!SearchResultItem.METADATA.equals(ntXmlName)) {
+				continue;
+			}
+			
+			if(ntNestedTags.getMajorType() != MajorType.ARRAY) {
+				throw new CBORDeserializationException("Invalid major type for data item in nested tags array position: " + ntNestedTags.getMajorType());
+			}
+			
+			if(MetadataDeserializerManager.containsAcceptedMetadata((Array) ntNestedTags, context)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
 }
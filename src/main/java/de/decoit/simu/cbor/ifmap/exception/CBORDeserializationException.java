@@ -17,6 +17,10 @@ package de.decoit.simu.cbor.ifmap.exception;
 
 
 /**
+ * Exception thrown if CBOR data cannot be deserialized.
+ * Exceptions created by {@link #CBORDeserializationException(String, boolean)} may skip capturing the
+ * stack trace, this is used by {@link de.decoit.simu.cbor.ifmap.DecodeResult#toException()} for messages
+ * rejected by the validation-first decode. All other constructors capture the stack trace as usual.
  *
  * @author Thomas Rix (rix@decoit.de)
  */
@@ -29,4 +33,16 @@ public class CBORDeserializationException extends Exception {
 	public CBORDeserializationException(String msg, Throwable cause) {
 		super(msg, cause);
 	}
+
+
+	/**
+	 * Create an exception which optionally does not capture a stack trace.
+	 * Use this for rejecting input at a well known location, where the stack trace carries no information.
+	 *
+	 * @param msg Detail message
+	 * @param writableStackTrace false to skip capturing the stack trace
+	 */
+	public CBORDeserializationException(String msg, boolean writableStackTrace) {
+		super(msg, null, true, writableStackTrace);
+	}
 }
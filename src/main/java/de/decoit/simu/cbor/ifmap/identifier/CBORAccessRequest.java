@@ -17,7 +17,7 @@ package de.decoit.simu.cbor.ifmap.identifier;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
@@ -74,6 +74,8 @@ public final class CBORAccessRequest extends AbstractIdentifier {
 	 * @param administrativeDomain administrative-domain value, may be null
 	 */
 	public void setAdministrativeDomain(final String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("Administrative domain must not be empty or whitespace only");
 		}
@@ -83,7 +85,7 @@ public final class CBORAccessRequest extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -92,7 +94,7 @@ public final class CBORAccessRequest extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'name'
 			{
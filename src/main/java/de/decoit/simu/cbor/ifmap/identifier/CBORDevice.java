@@ -20,7 +20,7 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
@@ -73,7 +73,7 @@ public final class CBORDevice extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -82,7 +82,7 @@ public final class CBORDevice extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'aik-name'
 			if(this.aikName) {
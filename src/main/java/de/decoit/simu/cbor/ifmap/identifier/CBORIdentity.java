@@ -17,7 +17,7 @@ package de.decoit.simu.cbor.ifmap.identifier;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
@@ -113,6 +113,8 @@ public final class CBORIdentity extends AbstractIdentifier {
 	 * @param administrativeDomain administrative-domain value, may be null
 	 */
 	public void setAdministrativeDomain(String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("Administrative domain must not be empty or whitespace only");
 		}
@@ -122,7 +124,7 @@ public final class CBORIdentity extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -131,7 +133,7 @@ public final class CBORIdentity extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'name'
 			{
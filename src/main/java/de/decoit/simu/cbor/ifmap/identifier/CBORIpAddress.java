@@ -18,16 +18,17 @@ package de.decoit.simu.cbor.ifmap.identifier;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.ByteString;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.enums.IfMapIpAddressType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.UnknownHostException;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -38,22 +39,37 @@ import org.apache.commons.lang3.StringUtils;
 
 /**
  * Java representation of an IF-MAP ip-address identifier.
+ * The address is stored in raw form, an int for IPv4 and two longs for IPv6 addresses. An
+ * {@link InetAddress} object is only created if it is requested by {@link #getValue()}, equality and
+ * hashing work on the raw form.
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = {"value"})
+@ToString(callSuper = true, exclude = {"addressHigh", "addressLow"})
 @Slf4j
 public final class CBORIpAddress extends AbstractIdentifier {
 	public static final String XML_NAME = "ip-address";
 	public static final String VALUE = "value";
 	public static final String ADMINISTRATIVE_DOMAIN = "administrative-domain";
 	public static final String TYPE = "type";
+	private static final int IPV4_LENGTH = 4;
+	private static final int IPV6_LENGTH = 16;
 
+	/**
+	 * Lazily created InetAddress representation of this address.
+	 */
+	private volatile InetAddress value;
 	@Getter
-	private InetAddress value;
-	@Getter
-	private IfMapIpAddressType type;
+	private final IfMapIpAddressType type;
+	/**
+	 * Upper 64 bits of an IPv6 address, always 0 for IPv4 addresses.
+	 */
+	private final long addressHigh;
+	/**
+	 * Lower 64 bits of an IPv6 address or the unsigned IPv4 address.
+	 */
+	private final long addressLow;
 	@Getter
 	private String administrativeDomain;
 
@@ -68,12 +84,187 @@ public final class CBORIpAddress extends AbstractIdentifier {
 	public CBORIpAddress(InetAddress value) {
 		super(IfMapNamespaces.IFMAP, XML_NAME);
 
-		this.processInetAddress(value);
+		if(value == null) {
+			throw new IllegalArgumentException("value parameter must not be null");
+		}
+
+		if(value instanceof Inet4Address) {
+			this.type = IfMapIpAddressType.IPV4;
+		}
+		else if(value instanceof Inet6Address) {
+			this.type = IfMapIpAddressType.IPV6;
+		}
+		else {
+			throw new IllegalArgumentException("Unkown type for value parameter: " + value.getClass().getName());
+		}
+
+		byte[] address = value.getAddress();
+		this.addressHigh = this.type == IfMapIpAddressType.IPV6 ? toLong(address, 0) : 0;
+		this.addressLow = this.type == IfMapIpAddressType.IPV6 ? toLong(address, 8) : toLong(address, 0) >>> 32;
+		this.value = value;
+		this.administrativeDomain = null;
+	}
+
+
+	/**
+	 * Create a new ip-address identifier that represents the provided IPv4 address.
+	 * The address is given in network byte order, the first octet is stored in the most significant byte.
+	 *
+	 * @param ipv4Address IPv4 address to represent
+	 */
+	public CBORIpAddress(int ipv4Address) {
+		super(IfMapNamespaces.IFMAP, XML_NAME);
+
+		this.type = IfMapIpAddressType.IPV4;
+		this.addressHigh = 0;
+		this.addressLow = ipv4Address & 0xFFFFFFFFL;
+		this.administrativeDomain = null;
+	}
+
+
+	/**
+	 * Create a new ip-address identifier that represents the provided IPv6 address.
+	 * The address is given in network byte order, the first octet is stored in the most significant byte
+	 * of the upper half. As with {@link InetAddress#getByAddress(byte[])}, IPv4-mapped IPv6 addresses are
+	 * treated as IPv4 addresses.
+	 *
+	 * @param ipv6AddressHigh Upper 64 bits of the IPv6 address
+	 * @param ipv6AddressLow Lower 64 bits of the IPv6 address
+	 */
+	public CBORIpAddress(long ipv6AddressHigh, long ipv6AddressLow) {
+		super(IfMapNamespaces.IFMAP, XML_NAME);
+
+		// ::ffff:a.b.c.d is an IPv4-mapped address
+		if(ipv6AddressHigh == 0 && (ipv6AddressLow >>> 32) == 0xFFFFL) {
+			this.type = IfMapIpAddressType.IPV4;
+			this.addressLow = ipv6AddressLow & 0xFFFFFFFFL;
+		}
+		else {
+			this.type = IfMapIpAddressType.IPV6;
+			this.addressLow = ipv6AddressLow;
+		}
 
+		this.addressHigh = ipv6AddressHigh;
 		this.administrativeDomain = null;
 	}
 
 
+	/**
+	 * Create a new ip-address identifier from the raw bytes of an IP address in network byte order.
+	 * Arrays of 4 bytes are IPv4 addresses, arrays of 16 bytes are IPv6 addresses. As with
+	 * {@link InetAddress#getByAddress(byte[])}, IPv4-mapped IPv6 addresses are treated as IPv4 addresses.
+	 *
+	 * @param address Raw IP address
+	 * @return New ip-address identifier
+	 */
+	public static CBORIpAddress fromAddressBytes(byte[] address) {
+		if(address == null) {
+			throw new IllegalArgumentException("Address must not be null");
+		}
+
+		if(address.length == IPV4_LENGTH) {
+			return new CBORIpAddress((int) (toLong(address, 0) >>> 32));
+		}
+		else if(address.length == IPV6_LENGTH) {
+			return new CBORIpAddress(toLong(address, 0), toLong(address, 8));
+		}
+		else {
+			throw new IllegalArgumentException("Invalid IP address length: " + address.length);
+		}
+	}
+
+
+	/**
+	 * Get the InetAddress representation of this address.
+	 * The object is created on the first call.
+	 *
+	 * @return IP address
+	 */
+	public InetAddress getValue() {
+		InetAddress localValue = this.value;
+
+		if(localValue == null) {
+			try {
+				localValue = InetAddress.getByAddress(this.getAddressBytes());
+				this.value = localValue;
+			}
+			catch(UnknownHostException ex) {
+				// Cannot happen, the address always has a valid length
+				throw new IllegalStateException("Unable to create InetAddress", ex);
+			}
+		}
+
+		return localValue;
+	}
+
+
+	/**
+	 * Get the raw IPv4 address in network byte order.
+	 *
+	 * @return IPv4 address
+	 * @throws IllegalStateException if this is an IPv6 address
+	 */
+	public int getIpv4Address() {
+		if(this.type != IfMapIpAddressType.IPV4) {
+			throw new IllegalStateException("Not an IPv4 address");
+		}
+
+		return (int) this.addressLow;
+	}
+
+
+	/**
+	 * Get the upper 64 bits of the raw IPv6 address in network byte order.
+	 *
+	 * @return Upper half of the IPv6 address
+	 * @throws IllegalStateException if this is an IPv4 address
+	 */
+	public long getIpv6AddressHigh() {
+		if(this.type != IfMapIpAddressType.IPV6) {
+			throw new IllegalStateException("Not an IPv6 address");
+		}
+
+		return this.addressHigh;
+	}
+
+
+	/**
+	 * Get the lower 64 bits of the raw IPv6 address in network byte order.
+	 *
+	 * @return Lower half of the IPv6 address
+	 * @throws IllegalStateException if this is an IPv4 address
+	 */
+	public long getIpv6AddressLow() {
+		if(this.type != IfMapIpAddressType.IPV6) {
+			throw new IllegalStateException("Not an IPv6 address");
+		}
+
+		return this.addressLow;
+	}
+
+
+	/**
+	 * Get the raw bytes of this address in network byte order.
+	 * The returned array has a length of 4 for IPv4 and 16 for IPv6 addresses.
+	 *
+	 * @return New array containing the raw address
+	 */
+	public byte[] getAddressBytes() {
+		if(this.type == IfMapIpAddressType.IPV4) {
+			byte[] address = new byte[IPV4_LENGTH];
+			fromLong(this.addressLow << 32, address, 0, IPV4_LENGTH);
+
+			return address;
+		}
+
+		byte[] address = new byte[IPV6_LENGTH];
+		fromLong(this.addressHigh, address, 0, 8);
+		fromLong(this.addressLow, address, 8, 8);
+
+		return address;
+	}
+
+
 	/**
 	 * Set an administrative-domain for this ip-address identifier.
 	 * The administrative-domain may be null to remove this value from the metadata. If not null,
@@ -82,6 +273,8 @@ public final class CBORIpAddress extends AbstractIdentifier {
 	 * @param administrativeDomain administrative-domain value, may be null
 	 */
 	public void setAdministrativeDomain(String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("Administrative domain must not be empty or whitespace only");
 		}
@@ -91,7 +284,7 @@ public final class CBORIpAddress extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -100,13 +293,13 @@ public final class CBORIpAddress extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'value'
 			{
 				DataItem cborName = this.getAttributeNameMapping(CBORIpAddress.VALUE, elementEntry);
 
-				DataItem valueDi = new ByteString(this.value.getAddress());
+				DataItem valueDi = new ByteString(this.getAddressBytes());
 				if(this.type == IfMapIpAddressType.IPV4) {
 					valueDi.setTag(CBORTags.IPV4_ADDRESS.getTagDataItem());
 				}
@@ -143,23 +336,40 @@ public final class CBORIpAddress extends AbstractIdentifier {
 	}
 
 
-	private void processInetAddress(InetAddress value) {
-		if(value == null) {
-			throw new IllegalArgumentException("value parameter must not be null");
-		}
+	/**
+	 * Read up to 8 bytes in network byte order, starting at the specified offset, into the upper bytes of a long.
+	 * Arrays of 4 bytes fill the upper 32 bits only.
+	 *
+	 * @param address Raw address
+	 * @param offset Offset of the first byte
+	 * @return Bytes packed into a long
+	 */
+	private static long toLong(byte[] address, int offset) {
+		long result = 0;
+		int length = Math.min(8, address.length - offset);
 
-		IfMapIpAddressType localType;
-		if(value instanceof Inet4Address) {
-			localType = IfMapIpAddressType.IPV4;
-		}
-		else if(value instanceof Inet6Address) {
-			localType = IfMapIpAddressType.IPV6;
-		}
-		else {
-			throw new IllegalArgumentException("Unkown type for value parameter: " + value.getClass().getName());
+		for(int i=0; i<8; i++) {
+			result = result << 8;
+			if(i < length) {
+				result = result | (address[offset + i] & 0xFF);
+			}
 		}
 
-		this.value = value;
-		this.type = localType;
+		return result;
+	}
+
+
+	/**
+	 * Write the upper bytes of a long in network byte order into the specified array.
+	 *
+	 * @param bits Value to write
+	 * @param address Target array
+	 * @param offset Offset of the first byte
+	 * @param length Number of bytes to write
+	 */
+	private static void fromLong(long bits, byte[] address, int offset, int length) {
+		for(int i=0; i<length; i++) {
+			address[offset + i] = (byte) (bits >>> (56 - 8 * i));
+		}
 	}
 }
@@ -18,16 +18,14 @@ package de.decoit.simu.cbor.ifmap.identifier;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.ByteString;
 import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
-import javax.xml.bind.DatatypeConverter;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
@@ -35,19 +33,26 @@ import org.apache.commons.lang3.StringUtils;
 
 /**
  * Java representation of an IF-MAP mac-address identifier.
+ * The address is stored packed into the lower 48 bits of a long, so equality and hashing work on a
+ * primitive value.
  *
  * @author Thomas Rix (rix@decoit.de)
  */
 @EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
 @Slf4j
 public final class CBORMacAddress extends AbstractIdentifier {
 	public static final String XML_NAME = "mac-address";
 	public static final String VALUE = "value";
 	public static final String ADMINISTRATIVE_DOMAIN = "administrative-domain";
+	private static final int ADDRESS_LENGTH = 6;
+	private static final long MAX_ADDRESS = 0xFFFFFFFFFFFFL;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
+	/**
+	 * MAC address in network byte order, the first octet is stored in bits 40 to 47.
+	 */
 	@Getter
-	private byte[] value;
+	private final long address;
 	@Getter
 	private String administrativeDomain;
 
@@ -61,7 +66,7 @@ public final class CBORMacAddress extends AbstractIdentifier {
 	public CBORMacAddress(byte[] value) {
 		super(IfMapNamespaces.IFMAP, XML_NAME);
 
-		this.processByteArray(value);
+		this.address = packByteArray(value);
 	}
 
 
@@ -80,8 +85,59 @@ public final class CBORMacAddress extends AbstractIdentifier {
 	public CBORMacAddress(String value) {
 		super(IfMapNamespaces.IFMAP, XML_NAME);
 
-		byte[] address = this.processStringRepresentation(value);
-		this.processByteArray(address);
+		this.address = parseStringRepresentation(value);
+	}
+
+
+	/**
+	 * Create a new mac-address identifier representing the provided packed MAC address.
+	 * The first octet of the address must be stored in bits 40 to 47, the upper 16 bits must be zero.
+	 *
+	 * @param address Packed MAC address
+	 */
+	public CBORMacAddress(long address) {
+		super(IfMapNamespaces.IFMAP, XML_NAME);
+
+		if(address < 0 || address > MAX_ADDRESS) {
+			throw new IllegalArgumentException("Packed MAC address must fit into 48 bits");
+		}
+
+		this.address = address;
+	}
+
+
+	/**
+	 * Get the raw bytes of the MAC address in network byte order.
+	 *
+	 * @return New array containing the 6 bytes of the MAC address
+	 */
+	public byte[] getValue() {
+		byte[] value = new byte[ADDRESS_LENGTH];
+		for(int i=0; i<ADDRESS_LENGTH; i++) {
+			value[i] = (byte) (this.address >>> (40 - 8 * i));
+		}
+
+		return value;
+	}
+
+
+	/**
+	 * Get the string representation of the MAC address in the format 00:80:41:ae:fd:7e.
+	 *
+	 * @return String representation of the MAC address
+	 */
+	public String toMacString() {
+		char[] chars = new char[ADDRESS_LENGTH * 3 - 1];
+		for(int i=0; i<ADDRESS_LENGTH; i++) {
+			int octet = (int) (this.address >>> (40 - 8 * i)) & 0xFF;
+			if(i > 0) {
+				chars[i * 3 - 1] = ':';
+			}
+			chars[i * 3] = HEX_DIGITS[octet >>> 4];
+			chars[i * 3 + 1] = HEX_DIGITS[octet & 0x0F];
+		}
+
+		return new String(chars);
 	}
 
 
@@ -93,6 +149,8 @@ public final class CBORMacAddress extends AbstractIdentifier {
 	 * @param administrativeDomain administrative-domain value, may be null
 	 */
 	public void setAdministrativeDomain(String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("Administrative domain must not be empty or whitespace only");
 		}
@@ -102,7 +160,7 @@ public final class CBORMacAddress extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -111,13 +169,13 @@ public final class CBORMacAddress extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'value'
 			{
 				DataItem cborName = this.getAttributeNameMapping(CBORMacAddress.VALUE, elementEntry);
 
-				DataItem valueDi = new ByteString(this.value);
+				DataItem valueDi = new ByteString(this.getValue());
 				valueDi.setTag(CBORTags.MAC_ADDRESS.getTagDataItem());
 
 				builder.add(cborName);
@@ -139,56 +197,117 @@ public final class CBORMacAddress extends AbstractIdentifier {
 	}
 
 
+	@Override
+	public String toString() {
+		return "CBORMacAddress(super=" + super.toString() + ", value=" + this.toMacString()
+			   + ", administrativeDomain=" + this.administrativeDomain + ")";
+	}
+
+
 	/**
-	 * Parse the string representation of a MAC address into a byte array.
+	 * Parse the string representation of a MAC address into a packed long.
+	 * The separator of the colon, dash and dot formats must be used consistently. No intermediate
+	 * strings or arrays are created.
 	 *
 	 * @param value String representation of MAC address
-	 * @return Raw bytes of MAC address
+	 * @return Packed MAC address
 	 */
-	private byte[] processStringRepresentation(String value) {
+	private static long parseStringRepresentation(String value) {
 		if(StringUtils.isBlank(value)) {
 			throw new IllegalArgumentException("Value string may not be blank");
 		}
 
-		// Remove seprators and leading and trailing whitespaces
-		String strippedAddress;
-		if(value.contains("-")) {
-			strippedAddress = StringUtils.replace(value, "-", "");
-		}
-		else if(value.contains(":")) {
-			strippedAddress = StringUtils.replace(value, ":", "");
+		// Number of hex digits between two separators, 0 for the format without separators
+		int groupLength;
+		char separator;
+		switch(value.length()) {
+			case 17:
+				groupLength = 2;
+				separator = value.charAt(2);
+				if(separator != ':' && separator != '-') {
+					throw new IllegalArgumentException("Invalid MAC address format: " + value);
+				}
+				break;
+			case 14:
+				groupLength = 4;
+				separator = '.';
+				break;
+			case 12:
+				groupLength = 0;
+				separator = 0;
+				break;
+			default:
+				throw new IllegalArgumentException("Invalid MAC address format: " + value);
 		}
-		else if(value.contains(".")) {
-			strippedAddress = StringUtils.replace(value, ".", "");
-		}
-		else {
-			strippedAddress = value;
+
+		long result = 0;
+		int digits = 0;
+		for(int i=0; i<value.length(); i++) {
+			char c = value.charAt(i);
+
+			// Separators follow every complete group, except the last one
+			if(groupLength > 0 && digits > 0 && digits % groupLength == 0 && i == digits + digits / groupLength - 1) {
+				if(c != separator) {
+					throw new IllegalArgumentException("Invalid MAC address format: " + value);
+				}
+				continue;
+			}
+
+			int digit = hexDigit(c);
+			if(digit < 0) {
+				throw new IllegalArgumentException("Invalid MAC address format: " + value);
+			}
+
+			result = (result << 4) | digit;
+			digits++;
 		}
 
-		byte[] address = DatatypeConverter.parseHexBinary(strippedAddress);
+		return result;
+	}
+
 
-		if(address.length != 6) {
-			throw new IllegalArgumentException("Invalid number of bytes for MAC address: " + address.length);
+	/**
+	 * Get the value of an ASCII hex digit. Unlike {@link Character#digit(char, int)} this does not accept
+	 * digits of other scripts, such as fullwidth or Arabic-Indic digits.
+	 *
+	 * @param c Character to convert
+	 * @return Value of the digit, -1 if the character is not an ASCII hex digit
+	 */
+	private static int hexDigit(char c) {
+		if(c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		else if(c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		else if(c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
 		}
 
-		return address;
+		return -1;
 	}
 
 
 	/**
-	 * Validate and store the raw MAC address bytes.
+	 * Validate the raw MAC address bytes and pack them into a long.
 	 *
 	 * @param value Raw bytes of MAC address
+	 * @return Packed MAC address
 	 */
-	private void processByteArray(byte[] value) {
+	private static long packByteArray(byte[] value) {
 		if(value == null) {
 			throw new IllegalArgumentException("Value byte array may not be null");
 		}
 
-		if(value.length != 6) {
+		if(value.length != ADDRESS_LENGTH) {
 			throw new IllegalArgumentException("Invalid number of bytes for MAC address: " + value.length);
 		}
 
-		this.value = value;
+		long result = 0;
+		for(int i=0; i<ADDRESS_LENGTH; i++) {
+			result = (result << 8) | (value[i] & 0xFF);
+		}
+
+		return result;
 	}
 }
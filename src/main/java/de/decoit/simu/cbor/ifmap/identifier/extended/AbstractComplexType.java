@@ -26,6 +26,7 @@ import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -110,6 +111,8 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 	 * @param value Value to set
 	 */
 	public void setValue(String value) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(value)) {
 			throw new IllegalArgumentException("Value string must not be empty or whitespace only");
 		}
@@ -130,6 +133,8 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 	 * @param value Value to set
 	 */
 	public void setValue(Long value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -149,6 +154,8 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 	 * @param value Value to set
 	 */
 	public void setValue(Double value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -165,6 +172,8 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 	 * @param value Value to set
 	 */
 	public void setValue(byte[] value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -185,6 +194,8 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 	 * @param value Value to set
 	 */
 	public void setValue(Boolean value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -214,7 +225,15 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		for(AbstractComplexType e : this.complexElements) {
+			e.freeze();
+		}
+	}
+
+
+	@Override
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize custom attributes
 			for(Map.Entry<String, DataItem> mapEntry : this.attributes.entrySet()) {
@@ -244,7 +263,7 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			if(this.value != null) {
 				DataItem cborValue;
@@ -291,12 +310,12 @@ public abstract class AbstractComplexType extends AbstractNestedElementBase {
 							DictionaryComplexElement complexElementEntry = (DictionaryComplexElement) elementEntry;
 
 							for(AbstractComplexType act : this.complexElements) {
-								act.cborSerialize(localBuilder, complexElementEntry);
+								act.cborSerialize(localBuilder, complexElementEntry, context);
 							}
 						}
 						else if(elementEntry == null) {
 							for(AbstractComplexType act : this.complexElements) {
-								act.cborSerialize(localBuilder, null);
+								act.cborSerialize(localBuilder, null, context);
 							}
 						}
 						else {
@@ -24,15 +24,16 @@ import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.CBORTags;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.xml.dictionary.Dictionary;
 import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
@@ -65,8 +66,15 @@ import org.apache.commons.lang3.StringUtils;
 public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	public static final String ADMINISTRATIVE_DOMAIN = "administrative-domain";
 
-	protected final Map<String, DataItem> attributes;
-	protected final Map<String, DataItem> simpleElements;
+	/**
+	 * Attributes of this identifier. Empty maps are replaced by a shared empty map when the identifier is
+	 * frozen, so pooled identifiers without attributes do not keep an empty hash table each.
+	 */
+	protected Map<String, DataItem> attributes;
+	/**
+	 * Simple elements of this identifier, empty maps are shared after freezing like {@link #attributes}.
+	 */
+	protected Map<String, DataItem> simpleElements;
 	protected final List<AbstractComplexType> complexElements;
 	@Getter
 	protected String administrativeDomain;
@@ -74,6 +82,17 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	protected DataItem value;
 
 
+	/**
+	 * Create a new extended identifier using the specified maps for attributes and simple elements.
+	 * Subclasses which never add attributes or simple elements may pass {@link Collections#emptyMap()}
+	 * instead of allocating their own empty maps.
+	 *
+	 * @param namespace Namespace of the identifier element
+	 * @param elementName Identifier element name
+	 * @param administrativeDomain Administrative domain
+	 * @param attributes Map storing the attributes
+	 * @param simpleElements Map storing the simple elements
+	 */
 	public AbstractExtendedIdentifier(String namespace, String elementName, String administrativeDomain, Map<String, DataItem> attributes, Map<String, DataItem> simpleElements) {
 		super(namespace, elementName);
 
@@ -106,6 +125,8 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	 * @param value Value to set
 	 */
 	public void setValue(String value) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(value)) {
 			throw new IllegalArgumentException("Value string must not be empty or whitespace only");
 		}
@@ -126,6 +147,8 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	 * @param value Value to set
 	 */
 	public void setValue(Long value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -145,6 +168,8 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	 * @param value Value to set
 	 */
 	public void setValue(Double value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -161,6 +186,8 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	 * @param value Value to set
 	 */
 	public void setValue(byte[] value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -181,6 +208,8 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 	 * @param value Value to set
 	 */
 	public void setValue(Boolean value) {
+		this.checkNotFrozen();
+
 		if(value == null) {
 			setValue((DataItem) null);
 		}
@@ -210,15 +239,32 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeNamespaceAndName(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		for(AbstractComplexType e : this.complexElements) {
+			e.freeze();
+		}
+
+		// A frozen identifier is never modified again, empty maps can be dropped
+		if(this.attributes.isEmpty()) {
+			this.attributes = Collections.emptyMap();
+		}
+
+		if(this.simpleElements.isEmpty()) {
+			this.simpleElements = Collections.emptyMap();
+		}
+	}
+
+
+	@Override
+	protected void serializeNamespaceAndName(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			DataItem namespaceCborName;
 			DataItem elementCborName;
 
-			Dictionary dict = DictionaryProvider.getInstance();
+			Dictionary dict = context.getDictionary();
 
 			namespaceCborName = this.getNamespaceMapping(this.namespace, dict);
-			elementCborName = this.getTopLevelElementNameMapping(this.elementName, dict.lookupNamespace(this.namespace));
+			elementCborName = this.getTopLevelElementNameMapping(this.elementName, context.lookupNamespace(this.namespace));
 			elementCborName.setTag(CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem());
 
 			builder.add(namespaceCborName);
@@ -231,7 +277,7 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -240,7 +286,7 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'administrative-domain'
 			{
@@ -276,7 +322,7 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -285,7 +331,7 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			if(this.value != null) {
 				DataItem cborValue;
@@ -330,12 +376,12 @@ public abstract class AbstractExtendedIdentifier extends AbstractIdentifier {
 							DictionaryComplexElement complexElementEntry = (DictionaryComplexElement) elementEntry;
 
 							for(AbstractComplexType act : this.complexElements) {
-								act.cborSerialize(localBuilder, complexElementEntry);
+								act.cborSerialize(localBuilder, complexElementEntry, context);
 							}
 						}
 						else if(elementEntry == null) {
 							for(AbstractComplexType act : this.complexElements) {
-								act.cborSerialize(localBuilder, null);
+								act.cborSerialize(localBuilder, null, context);
 							}
 						}
 						else {
@@ -16,7 +16,7 @@
 package de.decoit.simu.cbor.ifmap.identifier.extended;
 
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import java.util.HashMap;
+import java.util.Collections;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -36,10 +36,12 @@ public final class CBORExtendedIfMapServer extends AbstractExtendedIdentifier {
 
 	/**
 	 * Create a new ifmap-server operational extended identifier.
+	 * The identifier has no attributes or simple elements besides the administrative domain, so it uses
+	 * shared empty maps.
 	 *
 	 * @param administrativeDomain
 	 */
 	public CBORExtendedIfMapServer(String administrativeDomain) {
-		super(IfMapNamespaces.IFMAP_SERVER, XML_NAME, administrativeDomain, new HashMap<>(), new HashMap<>());
+		super(IfMapNamespaces.IFMAP_SERVER, XML_NAME, administrativeDomain, Collections.emptyMap(), Collections.emptyMap());
 	}
 }
@@ -19,12 +19,14 @@ import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
 import de.decoit.simu.cbor.ifmap.AbstractElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -42,19 +44,30 @@ import org.apache.commons.lang3.StringUtils;
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = "ifMapTimestamp")
+@ToString(callSuper = true, exclude = {"ifMapTimestampSeconds", "ifMapTimestampNano"})
 @Slf4j
 public abstract class AbstractMetadata extends AbstractElementBase {
 	public static final String IFMAP_PUBLISHER_ID = "ifmap-publisher-id";
 	public static final String IFMAP_TIMESTAMP = "ifmap-timestamp";
 	public static final String IFMAP_TIMESTAMP_FRACTION = "ifmap-timestamp-fraction";
 	public static final String IFMAP_CARDINALITY = "ifmap-cardinality";
+	private static final int NO_TIMESTAMP_NANO = -1;
 
 	@Getter
 	protected final String ifMapPublisherId;
-	@Getter
-	protected final ZonedDateTime ifMapTimestamp;
+	/**
+	 * Seconds part of the IF-MAP timestamp since the epoch.
+	 * The timestamp is stored as primitive values because a ZonedDateTime consists of several objects, which
+	 * adds up for large search and poll results. Seconds and nanoseconds are kept separately to support the
+	 * full range of ZonedDateTime, a single long of nanoseconds would only cover the years 1677 to 2262.
+	 */
+	protected final long ifMapTimestampSeconds;
+	/**
+	 * Nanoseconds part of the IF-MAP timestamp, {@link #NO_TIMESTAMP_NANO} if the metadata has no timestamp.
+	 */
+	protected final int ifMapTimestampNano;
+	private volatile ZonedDateTime ifMapTimestamp;
 	@Getter
 	protected final IfMapCardinality ifMapCardinality;
 
@@ -86,7 +99,8 @@ public abstract class AbstractMetadata extends AbstractElementBase {
 		}
 
 		this.ifMapPublisherId = ifMapPublisherId;
-		this.ifMapTimestamp = TimestampHelper.toUTC(ifMapTimestamp);
+		this.ifMapTimestampSeconds = ifMapTimestamp.toEpochSecond();
+		this.ifMapTimestampNano = ifMapTimestamp.getNano();
 		this.ifMapCardinality = ifMapCardinality;
 	}
 
@@ -108,13 +122,35 @@ public abstract class AbstractMetadata extends AbstractElementBase {
 		}
 
 		this.ifMapPublisherId = null;
-		this.ifMapTimestamp = null;
+		this.ifMapTimestampSeconds = 0;
+		this.ifMapTimestampNano = NO_TIMESTAMP_NANO;
 		this.ifMapCardinality = ifMapCardinality;
 	}
 
 
+	/**
+	 * Returns the IF-MAP timestamp of this metadata in UTC.
+	 * The ZonedDateTime object is created on the first call and reused afterwards.
+	 *
+	 * @return Timestamp or null, if the metadata has no timestamp
+	 */
+	public ZonedDateTime getIfMapTimestamp() {
+		if(this.ifMapTimestampNano == NO_TIMESTAMP_NANO) {
+			return null;
+		}
+
+		ZonedDateTime rv = this.ifMapTimestamp;
+		if(rv == null) {
+			rv = ZonedDateTime.ofInstant(Instant.ofEpochSecond(this.ifMapTimestampSeconds, this.ifMapTimestampNano), ZoneOffset.UTC);
+			this.ifMapTimestamp = rv;
+		}
+
+		return rv;
+	}
+
+
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -123,7 +159,7 @@ public abstract class AbstractMetadata extends AbstractElementBase {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'ifmap-publisher-id'
 			if(this.ifMapPublisherId != null) {
@@ -135,15 +171,16 @@ public abstract class AbstractMetadata extends AbstractElementBase {
 
 
 			// Serialize 'ifmap-timestamp' and 'ifmap-timestamp-fraction'
-			if(this.ifMapTimestamp != null) {
+			if(this.ifMapTimestampNano != NO_TIMESTAMP_NANO) {
+				ZonedDateTime timestamp = this.getIfMapTimestamp();
 				DataItem timestampCborName = this.getAttributeNameMapping(AbstractMetadata.IFMAP_TIMESTAMP, elementEntry);
 				DataItem timestampFractionCborName = this.getAttributeNameMapping(AbstractMetadata.IFMAP_TIMESTAMP_FRACTION, elementEntry);
 
 				builder.add(timestampCborName);
-				builder.add(TimestampHelper.toEpochTimeDataItem(this.ifMapTimestamp));
+				builder.add(TimestampHelper.toEpochTimeDataItem(timestamp));
 
 				builder.add(timestampFractionCborName);
-				builder.add(TimestampHelper.toIfMapTimestampFractionDataItem(this.ifMapTimestamp));
+				builder.add(TimestampHelper.toIfMapTimestampFractionDataItem(timestamp));
 			}
 
 
@@ -0,0 +1,148 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.metadata;
+
+import co.nstant.in.cbor.CborEncoder;
+import co.nstant.in.cbor.CborException;
+import co.nstant.in.cbor.builder.ArrayBuilder;
+import co.nstant.in.cbor.model.Array;
+import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
+import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
+import java.io.ByteArrayOutputStream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/**
+ * Metadata element of a type without a registered deserializer, kept in its encoded form.
+ * The deserializer creates raw metadata instead of failing if pass-through of unknown metadata is enabled
+ * in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}. The decoded data items of the element are
+ * stored unchanged and written back by the serializer without any dictionary lookup, so relays can
+ * forward metadata they do not understand without loss.
+ *
+ * Namespace and element name are the XML names if they could be resolved through the dictionary,
+ * otherwise the string form of the CBOR data items. Publisher ID and timestamp are not interpreted,
+ * they remain part of the raw attributes.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Slf4j
+public final class RawMetadata extends AbstractMetadata {
+	private final DataItem cborNamespace;
+	private final DataItem cborName;
+	private final Array attributes;
+	private final DataItem nestedDataItem;
+
+
+	/**
+	 * Create a new raw metadata object from the decoded data items of a metadata element.
+	 *
+	 * @param namespace XML name of the namespace or string form of the CBOR namespace
+	 * @param elementName XML name of the element or string form of the CBOR element name
+	 * @param ifMapCardinality Cardinality of the element
+	 * @param cborNamespace CBOR data item representing the element namespace
+	 * @param cborName CBOR data item representing the element name
+	 * @param attributes CBOR array data item containing the element's attributes
+	 * @param nestedDataItem CBOR data item containing the element's nested tags or value
+	 */
+	public RawMetadata(final String namespace,
+					   final String elementName,
+					   final IfMapCardinality ifMapCardinality,
+					   final DataItem cborNamespace,
+					   final DataItem cborName,
+					   final Array attributes,
+					   final DataItem nestedDataItem) {
+		super(namespace, elementName, ifMapCardinality);
+
+		if(cborNamespace == null) {
+			throw new IllegalArgumentException("CBOR namespace must not be null");
+		}
+
+		if(cborName == null) {
+			throw new IllegalArgumentException("CBOR name must not be null");
+		}
+
+		if(attributes == null) {
+			throw new IllegalArgumentException("Attributes array must not be null");
+		}
+
+		if(nestedDataItem == null) {
+			throw new IllegalArgumentException("Nested tags data item must not be null");
+		}
+
+		this.cborNamespace = cborNamespace;
+		this.cborName = cborName;
+		this.attributes = attributes;
+		this.nestedDataItem = nestedDataItem;
+	}
+
+
+	/**
+	 * Get the encoded form of this element, the four data items namespace, name, attributes and nested
+	 * tags or value in wire order. The data items are encoded on every call, the bytes are not kept by
+	 * this object.
+	 *
+	 * @return Encoded element
+	 */
+	public byte[] getEncoded() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try {
+			CborEncoder encoder = new CborEncoder(out);
+			encoder.encode(this.cborNamespace);
+			encoder.encode(this.cborName);
+			encoder.encode(this.attributes);
+			encoder.encode(this.nestedDataItem);
+		}
+		catch(CborException ex) {
+			throw new IllegalStateException("Raw metadata cannot be encoded, see nested exception for details", ex);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Serialize this element by writing the stored data items unchanged into the specified ArrayBuilder.
+	 * The dictionary of the context is not used.
+	 *
+	 * @param builder ArrayBuilder instance to serialize into
+	 * @param context Codec context, not used by this class
+	 * @throws CBORSerializationException if serialization failed
+	 */
+	@Override
+	public void cborSerialize(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		try {
+			builder.add(this.cborNamespace);
+			builder.add(this.cborName);
+			builder.add(this.attributes);
+			builder.add(this.nestedDataItem);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORSerializationException("Error during serialization, see nested exception for details", ex);
+		}
+	}
+}
@@ -20,9 +20,9 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -107,6 +107,8 @@ public class CBORCapability extends AbstractMultiValueMetadata {
 	 * @param administrativeDomain administrative-domain for this metadata
 	 */
 	public void setAdministrativeDomain(String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("administrative-domain must not be empty or whitespace only");
 		}
@@ -116,7 +118,7 @@ public class CBORCapability extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -125,7 +127,7 @@ public class CBORCapability extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'name'
 			{
@@ -20,10 +20,10 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -164,6 +164,8 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 	 * @param manufacturer Manufacturer name
 	 */
 	public void setManufacturer(String manufacturer) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(manufacturer)) {
 			throw new IllegalArgumentException("Manufacturer must not be empty or whitespace only");
 		}
@@ -180,6 +182,8 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 	 * @param model Model name
 	 */
 	public void setModel(String model) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(model)) {
 			throw new IllegalArgumentException("Model must not be empty or whitespace only");
 		}
@@ -196,6 +200,8 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 	 * @param os Operating system name
 	 */
 	public void setOs(String os) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(os)) {
 			throw new IllegalArgumentException("OS must not be empty or whitespace only");
 		}
@@ -212,6 +218,8 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 	 * @param osVersion Operating system version
 	 */
 	public void setOsVersion(String osVersion) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(osVersion)) {
 			throw new IllegalArgumentException("OS version must not be empty or whitespace only");
 		}
@@ -228,6 +236,8 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 	 * @param deviceType Device type
 	 */
 	public void setDeviceType(String deviceType) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(deviceType)) {
 			throw new IllegalArgumentException("Device type must not be empty or whitespace only");
 		}
@@ -237,7 +247,7 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -246,7 +256,7 @@ public class CBORDeviceCharacteristic extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'discovered-time'
 			{
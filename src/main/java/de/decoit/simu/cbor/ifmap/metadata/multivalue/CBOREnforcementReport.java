@@ -20,10 +20,10 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapEnforcementAction;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -173,6 +173,8 @@ public class CBOREnforcementReport extends AbstractMultiValueMetadata {
 	 * @param enforcementReason enforcement-reason for this metadata
 	 */
 	public void setEnforcementReason(String enforcementReason) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(enforcementReason)) {
 			throw new IllegalArgumentException("administrative-domain must not be empty or whitespace only");
 		}
@@ -182,7 +184,7 @@ public class CBOREnforcementReport extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -191,7 +193,7 @@ public class CBOREnforcementReport extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'enforcement-action'
 			{
@@ -21,12 +21,12 @@ import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
 import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -207,6 +207,8 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 	 * @param information administrative-domain value, may be null
 	 */
 	public void setInformation(String information) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(information)) {
 			throw new IllegalArgumentException("Information must not be empty or whitespace only");
 		}
@@ -222,6 +224,8 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 	 * @param type Event type
 	 */
 	public void setType(IfMapEventType type) {
+		this.checkNotFrozen();
+
 		this.setType(type, null);
 	}
 
@@ -235,6 +239,8 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 	 * @param otherTypeDefinition Other type definition if applicable, may be null
 	 */
 	public void setType(IfMapEventType type, String otherTypeDefinition) {
+		this.checkNotFrozen();
+
 		if(type == null) {
 			throw new IllegalArgumentException("type parameter must not be null");
 		}
@@ -260,6 +266,8 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 	 * @param vulnerabilityUri Vulnerability URI, may be null
 	 */
 	public void setVulnerabilityUri(String vulnerabilityUri) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(vulnerabilityUri)) {
 			throw new IllegalArgumentException("Vulnerability URI must not be empty or whitespace only");
 		}
@@ -269,7 +277,7 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -278,7 +286,7 @@ public class CBOREvent extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'name'
 			{
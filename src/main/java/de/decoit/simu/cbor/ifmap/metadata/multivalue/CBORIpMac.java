@@ -20,10 +20,10 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -103,6 +103,8 @@ public class CBORIpMac extends AbstractMultiValueMetadata {
 	 * @param startTime Start time of DHCP lease
 	 */
 	public void setStartTime(ZonedDateTime startTime) {
+		this.checkNotFrozen();
+
 		if(startTime != null) {
 			startTime = TimestampHelper.toUTC(startTime);
 		}
@@ -120,6 +122,8 @@ public class CBORIpMac extends AbstractMultiValueMetadata {
 	 * @param endTime End time of DHCP lease
 	 */
 	public void setEndTime(ZonedDateTime endTime) {
+		this.checkNotFrozen();
+
 		if(endTime != null) {
 			endTime = TimestampHelper.toUTC(endTime);
 		}
@@ -136,6 +140,8 @@ public class CBORIpMac extends AbstractMultiValueMetadata {
 	 * @param dhcpServer dhcp-server for this metadata
 	 */
 	public void setDhcpServer(String dhcpServer) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(dhcpServer)) {
 			throw new IllegalArgumentException("DHCP server must not be empty or whitespace only");
 		}
@@ -145,7 +151,7 @@ public class CBORIpMac extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -154,7 +160,7 @@ public class CBORIpMac extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'start-time'
 			if(this.startTime != null) {
@@ -21,9 +21,9 @@ import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -106,6 +106,8 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 	 * @param vlan VLAN ID
 	 */
 	public void setVlan(Integer vlan) {
+		this.checkNotFrozen();
+
 		if(vlan != null && (vlan < 1 || vlan > 4094)) {
 			throw new IllegalArgumentException("VLAN ID must be a number from 1 to 4094");
 		}
@@ -122,6 +124,8 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 	 * @param vlanName VLAN name for this metadata
 	 */
 	public void setVlanName(String vlanName) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(vlanName)) {
 			throw new IllegalArgumentException("VLAN name must not be empty or whitespace only");
 		}
@@ -138,6 +142,8 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 	 * @param port Port number
 	 */
 	public void setPort(Integer port) {
+		this.checkNotFrozen();
+
 		if(port != null && (port < 0 || port > 65535)) {
 			throw new IllegalArgumentException("Port must be a number from 0 to 65535");
 		}
@@ -154,6 +160,8 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 	 * @param administrativeDomain administrative-domain for this metadata
 	 */
 	public void setAdministrativeDomain(String administrativeDomain) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(administrativeDomain)) {
 			throw new IllegalArgumentException("administrative-domain must not be empty or whitespace only");
 		}
@@ -163,7 +171,7 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -172,7 +180,7 @@ public class CBORLayer2Information extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'vlan'
 			if(this.vlan != null) {
@@ -20,11 +20,11 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.DictionaryHelper;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -139,6 +139,8 @@ public class CBORLocation extends AbstractMultiValueMetadata {
 	 * @param locationValue Location value
 	 */
 	public void addLocationInformation(String locationType, String locationValue) {
+		this.checkNotFrozen();
+
 		LocationInformation locInfo = new LocationInformation(locationType, locationValue);
 
 		this.locationInformation.add(locInfo);
@@ -152,6 +154,8 @@ public class CBORLocation extends AbstractMultiValueMetadata {
 	 * @param locationValue Location value
 	 */
 	public void removeLocationInformation(String locationType, String locationValue) {
+		this.checkNotFrozen();
+
 		LocationInformation locInfo = new LocationInformation(locationType, locationValue);
 
 		this.locationInformation.remove(locInfo);
@@ -159,7 +163,7 @@ public class CBORLocation extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		if(this.locationInformation.isEmpty()) {
 			throw new CBORSerializationException("Location information set must not be empty");
 		}
@@ -172,7 +176,7 @@ public class CBORLocation extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'discovered-time'
 			{
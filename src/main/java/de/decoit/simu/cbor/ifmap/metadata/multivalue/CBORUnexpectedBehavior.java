@@ -21,11 +21,11 @@ import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -171,6 +171,8 @@ public class CBORUnexpectedBehavior extends AbstractMultiValueMetadata {
 	 * @param information Information string
 	 */
 	public void setInformation(String information) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(information)) {
 			throw new IllegalArgumentException("Information must not be whitespace only");
 		}
@@ -187,6 +189,8 @@ public class CBORUnexpectedBehavior extends AbstractMultiValueMetadata {
 	 * @param type Type string
 	 */
 	public void setType(String type) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(type)) {
 			throw new IllegalArgumentException("Type must not be whitespace only");
 		}
@@ -203,6 +207,8 @@ public class CBORUnexpectedBehavior extends AbstractMultiValueMetadata {
 	 * @param confidence Confidence value
 	 */
 	public void setConfidence(Integer confidence) {
+		this.checkNotFrozen();
+
 		if(confidence != null && (confidence < 0 || confidence > 100)) {
 			throw new IllegalArgumentException("Confidence must have a value from 0 to 100");
 		}
@@ -212,7 +218,7 @@ public class CBORUnexpectedBehavior extends AbstractMultiValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -221,7 +227,7 @@ public class CBORUnexpectedBehavior extends AbstractMultiValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'discovered-time'
 			{
@@ -20,9 +20,9 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -105,6 +105,8 @@ public class CBORServerCapability extends AbstractSingleValueMetadata {
 	 * @param capability Capability to add
 	 */
 	public void addCapability(String capability) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isBlank(capability)) {
 			throw new IllegalArgumentException("Capability must not be blank");
 		}
@@ -119,6 +121,8 @@ public class CBORServerCapability extends AbstractSingleValueMetadata {
 	 * @param capability Capability to remove
 	 */
 	public void removeCapability(String capability) {
+		this.checkNotFrozen();
+
 		this.capabilities.remove(capability);
 	}
 
@@ -135,7 +139,7 @@ public class CBORServerCapability extends AbstractSingleValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		if(this.capabilities.isEmpty()) {
 			throw new CBORSerializationException("Capabilities set must not be empty");
 		}
@@ -148,7 +152,7 @@ public class CBORServerCapability extends AbstractSingleValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'capability'
 			{
@@ -20,11 +20,11 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapWlanSecurityType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.DictionaryHelper;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.time.ZonedDateTime;
@@ -159,6 +159,8 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 	 * @param ssid SSID for this metadata
 	 */
 	public void setSsid(String ssid) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(ssid)) {
 			throw new IllegalArgumentException("SSID must not be empty or whitespace only");
 		}
@@ -186,6 +188,8 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 	 * @param otherTypeDefinition Other type definition if applicable, may be null
 	 */
 	public void addSsidUnicastSecurity(IfMapWlanSecurityType wlanSecurityType, String otherTypeDefinition) {
+		this.checkNotFrozen();
+
 		WlanSecurityType secType = new WlanSecurityType(wlanSecurityType, otherTypeDefinition);
 
 		this.ssidUnicastSecurity.add(secType);
@@ -201,6 +205,8 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 	 * @param otherTypeDefinition Other type definition if applicable, may be null
 	 */
 	public void removeSsidUnicastSecurity(IfMapWlanSecurityType wlanSecurityType, String otherTypeDefinition) {
+		this.checkNotFrozen();
+
 		WlanSecurityType secType = new WlanSecurityType(wlanSecurityType, otherTypeDefinition);
 
 		this.ssidUnicastSecurity.remove(secType);
@@ -233,6 +239,8 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 	 * @param otherTypeDefinition Other type definition if applicable, may be null
 	 */
 	public void addSsidManagementSecurity(IfMapWlanSecurityType wlanSecurityType, String otherTypeDefinition) {
+		this.checkNotFrozen();
+
 		WlanSecurityType secType = new WlanSecurityType(wlanSecurityType, otherTypeDefinition);
 
 		this.ssidManagementSecurity.add(secType);
@@ -248,6 +256,8 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 	 * @param otherTypeDefinition Other type definition if applicable, may be null
 	 */
 	public void removeSsidManagementSecurity(IfMapWlanSecurityType wlanSecurityType, String otherTypeDefinition) {
+		this.checkNotFrozen();
+
 		WlanSecurityType secType = new WlanSecurityType(wlanSecurityType, otherTypeDefinition);
 
 		this.ssidManagementSecurity.remove(secType);
@@ -262,7 +272,7 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		if(this.ssidUnicastSecurity.isEmpty()) {
 			throw new CBORSerializationException("SSID unicast security set must not be empty");
 		}
@@ -279,7 +289,7 @@ public final class CBORWlanInformation extends AbstractSingleValueMetadata {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'ssid'
 			if(this.ssid != null) {
@@ -0,0 +1,47 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.pipeline;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+
+
+
+/**
+ * Receives the results of a {@link DecodePipeline}.
+ * Results are delivered by a single delivery thread in the order the messages were submitted, so
+ * implementations do not need to be thread safe. Time spent in these methods delays the delivery of
+ * subsequent messages and, once the pipeline is full, the submission of new messages.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ * @param <T> Type of the decoded objects
+ */
+public interface DecodeListener<T> {
+	/**
+	 * Called for every message that was decoded successfully.
+	 *
+	 * @param decoded Decoded object
+	 */
+	public void onDecoded(T decoded);
+
+
+	/**
+	 * Called for every message that could not be decoded.
+	 *
+	 * @param message Raw message as submitted to the pipeline
+	 * @param ex Exception describing the failure
+	 */
+	public void onFailure(byte[] message, CBORDeserializationException ex);
+}
@@ -0,0 +1,404 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.pipeline;
+
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/**
+ * Asynchronous decode pipeline between an I/O thread and a pool of decoding workers.
+ * Raw messages are submitted by the I/O thread and decoded by the workers. The results are delivered to a
+ * {@link DecodeListener} by a single delivery thread in submission order, regardless of which worker
+ * finished first.
+ *
+ * The pipeline holds at most capacity messages that were submitted but not yet delivered. If it is full,
+ * {@link #offer(byte[])} rejects the message and {@link #submit(byte[])} blocks until space is available,
+ * so a slow listener slows down the submitter instead of letting memory grow without bounds.
+ *
+ * Submitted byte arrays are owned by the pipeline until the message was delivered and must not be modified
+ * by the caller in the meantime.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ * @param <T> Type of the decoded objects
+ */
+@Slf4j
+public final class DecodePipeline<T> implements AutoCloseable {
+	private static final AtomicInteger pipelineCounter = new AtomicInteger();
+
+	private final Decoder<T> decoder;
+	private final CodecContext context;
+	private final DecodeListener<T> listener;
+	private final int capacity;
+	private final Semaphore permits;
+	private final ExecutorService workers;
+	private final LinkedBlockingQueue<Slot<T>> deliveryQueue = new LinkedBlockingQueue<>();
+	private final Slot<T> endOfStream = new Slot<>(null, 0L);
+	private final Thread deliveryThread;
+	private final Object submitLock = new Object();
+	private boolean closed = false;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong totalDecodeNanos = new AtomicLong();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0L);
+
+
+	/**
+	 * Create a pipeline decoding IF-MAP responses.
+	 *
+	 * @param capacity Maximum number of messages submitted but not yet delivered
+	 * @param workers Number of decoding worker threads
+	 * @param context Codec context used for decoding
+	 * @param listener Listener receiving the decoded responses
+	 * @return The new pipeline, already running
+	 */
+	public static DecodePipeline<CBORResponse> forResponses(final int capacity, 
+															final int workers, 
+															final CodecContext context, 
+															final DecodeListener<CBORResponse> listener) {
+		return new DecodePipeline<>(CBORDeserializer::deserializeResponse, capacity, workers, context, listener);
+	}
+
+
+	/**
+	 * Create a pipeline decoding IF-MAP requests.
+	 *
+	 * @param capacity Maximum number of messages submitted but not yet delivered
+	 * @param workers Number of decoding worker threads
+	 * @param context Codec context used for decoding
+	 * @param listener Listener receiving the decoded requests
+	 * @return The new pipeline, already running
+	 */
+	public static DecodePipeline<AbstractRequest> forRequests(final int capacity, 
+															  final int workers, 
+															  final CodecContext context, 
+															  final DecodeListener<AbstractRequest> listener) {
+		return new DecodePipeline<>(CBORDeserializer::deserializeRequest, capacity, workers, context, listener);
+	}
+
+
+	/**
+	 * Private constructor, use the static factory methods to create pipelines.
+	 *
+	 * @param decoder Function decoding a single message
+	 * @param capacity Maximum number of messages submitted but not yet delivered
+	 * @param workers Number of decoding worker threads
+	 * @param context Codec context used for decoding
+	 * @param listener Listener receiving the decoded objects
+	 */
+	private DecodePipeline(final Decoder<T> decoder, 
+						   final int capacity, 
+						   final int workers, 
+						   final CodecContext context, 
+						   final DecodeListener<T> listener) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+
+		if(workers < 1) {
+			throw new IllegalArgumentException("Number of workers must be at least 1");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		if(listener == null) {
+			throw new IllegalArgumentException("Decode listener must not be null");
+		}
+
+		this.decoder = decoder;
+		this.context = context;
+		this.listener = listener;
+		this.capacity = capacity;
+		this.permits = new Semaphore(capacity);
+
+		final String namePrefix = "cbor-decode-" + pipelineCounter.incrementAndGet();
+		final AtomicInteger workerCounter = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workers, (r) -> {
+			Thread t = new Thread(r, namePrefix + "-worker-" + workerCounter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+
+		this.deliveryThread = new Thread(this::deliver, namePrefix + "-delivery");
+		this.deliveryThread.setDaemon(true);
+		this.deliveryThread.start();
+	}
+
+
+	/**
+	 * Submit a message without waiting.
+	 *
+	 * @param message Raw CBOR message
+	 * @return true if the message was accepted, false if the pipeline is full
+	 * @throws IllegalStateException if the pipeline was closed
+	 */
+	public boolean offer(final byte[] message) {
+		checkMessage(message);
+
+		if(!this.permits.tryAcquire()) {
+			this.rejected.incrementAndGet();
+			return false;
+		}
+
+		this.enqueue(message);
+		return true;
+	}
+
+
+	/**
+	 * Submit a message, waiting up to the specified time if the pipeline is full.
+	 *
+	 * @param message Raw CBOR message
+	 * @param timeout Maximum time to wait
+	 * @param unit Unit of the timeout argument
+	 * @return true if the message was accepted, false if the pipeline stayed full
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws IllegalStateException if the pipeline was closed
+	 */
+	public boolean offer(final byte[] message, final long timeout, final TimeUnit unit) throws InterruptedException {
+		checkMessage(message);
+
+		if(!this.permits.tryAcquire(timeout, unit)) {
+			this.rejected.incrementAndGet();
+			return false;
+		}
+
+		this.enqueue(message);
+		return true;
+	}
+
+
+	/**
+	 * Submit a message, waiting as long as the pipeline is full.
+	 *
+	 * @param message Raw CBOR message
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws IllegalStateException if the pipeline was closed
+	 */
+	public void submit(final byte[] message) throws InterruptedException {
+		checkMessage(message);
+
+		this.permits.acquire();
+		this.enqueue(message);
+	}
+
+
+	/**
+	 * Get the number of messages submitted but not yet delivered.
+	 *
+	 * @return Current queue depth
+	 */
+	public int getQueueDepth() {
+		return this.capacity - this.permits.availablePermits();
+	}
+
+
+	/**
+	 * Get a snapshot of the metrics of this pipeline.
+	 *
+	 * @return Metrics snapshot
+	 */
+	public DecodePipelineMetrics getMetrics() {
+		return new DecodePipelineMetrics(this.getQueueDepth(),
+										 this.capacity,
+										 this.submitted.get(),
+										 this.rejected.get(),
+										 this.delivered.get(),
+										 this.failed.get(),
+										 this.totalDecodeNanos.get(),
+										 this.totalLatencyNanos.get(),
+										 this.maxLatencyNanos.get());
+	}
+
+
+	/**
+	 * Close this pipeline.
+	 * New messages are rejected, all messages submitted before are decoded and delivered before this
+	 * method returns. This method must not be called by the listener.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for the delivery of pending messages
+	 */
+	@Override
+	public void close() throws InterruptedException {
+		synchronized(this.submitLock) {
+			if(this.closed) {
+				return;
+			}
+
+			this.closed = true;
+			this.deliveryQueue.add(this.endOfStream);
+		}
+
+		try {
+			this.deliveryThread.join();
+		}
+		finally {
+			this.workers.shutdown();
+		}
+	}
+
+
+	private static void checkMessage(final byte[] message) {
+		if(message == null) {
+			throw new IllegalArgumentException("Message must not be null");
+		}
+	}
+
+
+	/**
+	 * Hand a message to the workers and register it for delivery.
+	 * A permit must have been acquired before calling this method.
+	 */
+	private void enqueue(final byte[] message) {
+		synchronized(this.submitLock) {
+			if(this.closed) {
+				this.permits.release();
+				throw new IllegalStateException("Decode pipeline was closed");
+			}
+
+			Slot<T> slot = new Slot<>(message, System.nanoTime());
+
+			// Registering the slot and submitting it under the same lock keeps delivery in submission order
+			this.deliveryQueue.add(slot);
+			this.workers.execute(() -> slot.decode(this.decoder, this.context));
+			this.submitted.incrementAndGet();
+		}
+	}
+
+
+	/**
+	 * Main loop of the delivery thread.
+	 * Slots are taken in submission order, each one is delivered as soon as its decoding has finished.
+	 */
+	private void deliver() {
+		try {
+			while(true) {
+				Slot<T> slot = this.deliveryQueue.take();
+				if(slot == this.endOfStream) {
+					return;
+				}
+
+				slot.done.await();
+
+				long latency = System.nanoTime() - slot.submitNanos;
+				this.totalLatencyNanos.addAndGet(latency);
+				this.maxLatencyNanos.accumulate(latency);
+				this.totalDecodeNanos.addAndGet(slot.decodeNanos);
+
+				try {
+					if(slot.exception != null) {
+						this.failed.incrementAndGet();
+						this.listener.onFailure(slot.message, slot.exception);
+					}
+					else {
+						this.listener.onDecoded(slot.result);
+					}
+				}
+				catch(Throwable ex) {
+					// Any failure of the listener must not stop the delivery of the remaining messages
+					log.error("Decode listener threw exception, continuing with next message", ex);
+				}
+				finally {
+					this.delivered.incrementAndGet();
+					this.permits.release();
+				}
+			}
+		}
+		catch(InterruptedException ex) {
+			log.warn("Delivery thread interrupted, pending messages are not delivered");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+
+	/**
+	 * Function decoding a single message.
+	 *
+	 * @param <T> Type of the decoded objects
+	 */
+	@FunctionalInterface
+	private interface Decoder<T> {
+		public T decode(byte[] message, CodecContext context) throws CBORDeserializationException;
+	}
+
+
+
+	/**
+	 * A submitted message and its decoding result.
+	 * The result fields are written by a worker before the latch is released and read by the delivery
+	 * thread afterwards, the latch provides the required happens-before relation.
+	 *
+	 * @param <T> Type of the decoded objects
+	 */
+	private static final class Slot<T> {
+		private final byte[] message;
+		private final long submitNanos;
+		private final CountDownLatch done = new CountDownLatch(1);
+		private T result;
+		private CBORDeserializationException exception;
+		private long decodeNanos;
+
+
+		private Slot(final byte[] message, final long submitNanos) {
+			this.message = message;
+			this.submitNanos = submitNanos;
+		}
+
+
+		private void decode(final Decoder<T> decoder, final CodecContext context) {
+			long start = System.nanoTime();
+
+			try {
+				this.result = decoder.decode(this.message, context);
+			}
+			catch(CBORDeserializationException ex) {
+				this.exception = ex;
+			}
+			catch(RuntimeException ex) {
+				this.exception = new CBORDeserializationException("RuntimeException during deserialization, see nested exception for details", ex);
+			}
+			catch(Throwable ex) {
+				// Errors like StackOverflowError must be recorded as well, the slot would be delivered as null result otherwise
+				this.exception = new CBORDeserializationException("Error during deserialization, see nested exception for details", ex);
+			}
+			finally {
+				this.decodeNanos = System.nanoTime() - start;
+				this.done.countDown();
+			}
+		}
+	}
+}
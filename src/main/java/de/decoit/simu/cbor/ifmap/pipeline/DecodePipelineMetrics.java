@@ -0,0 +1,89 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.pipeline;
+
+import lombok.Getter;
+import lombok.ToString;
+
+
+
+/**
+ * Immutable snapshot of the metrics of a {@link DecodePipeline}.
+ * Latencies are measured from the submission of a message to the start of its delivery to the listener.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Getter
+@ToString
+public final class DecodePipelineMetrics {
+	/**
+	 * Number of messages submitted and not yet delivered.
+	 */
+	private final int queueDepth;
+	/**
+	 * Maximum number of messages the pipeline holds before it applies backpressure.
+	 */
+	private final int capacity;
+	/**
+	 * Number of messages accepted by the pipeline.
+	 */
+	private final long submitted;
+	/**
+	 * Number of messages rejected because the pipeline was full.
+	 */
+	private final long rejected;
+	/**
+	 * Number of messages delivered to the listener, including failures.
+	 */
+	private final long delivered;
+	/**
+	 * Number of messages which could not be decoded.
+	 */
+	private final long failed;
+	/**
+	 * Average time spent decoding a message in nanoseconds.
+	 */
+	private final long averageDecodeNanos;
+	/**
+	 * Average time from submission to delivery in nanoseconds.
+	 */
+	private final long averageLatencyNanos;
+	/**
+	 * Maximum time from submission to delivery in nanoseconds.
+	 */
+	private final long maxLatencyNanos;
+
+
+	DecodePipelineMetrics(final int queueDepth,
+						  final int capacity,
+						  final long submitted,
+						  final long rejected,
+						  final long delivered,
+						  final long failed,
+						  final long totalDecodeNanos,
+						  final long totalLatencyNanos,
+						  final long maxLatencyNanos) {
+		this.queueDepth = queueDepth;
+		this.capacity = capacity;
+		this.submitted = submitted;
+		this.rejected = rejected;
+		this.delivered = delivered;
+		this.failed = failed;
+		this.averageDecodeNanos = delivered > 0 ? totalDecodeNanos / delivered : 0;
+		this.averageLatencyNanos = delivered > 0 ? totalLatencyNanos / delivered : 0;
+		this.maxLatencyNanos = maxLatencyNanos;
+	}
+}
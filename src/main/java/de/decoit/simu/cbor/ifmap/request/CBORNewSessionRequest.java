@@ -18,9 +18,9 @@ package de.decoit.simu.cbor.ifmap.request;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import lombok.EqualsAndHashCode;
@@ -66,6 +66,8 @@ public final class CBORNewSessionRequest extends AbstractRequest {
 	 * @param maxPollResultSize Poll result buffer size in bytes, may be null
 	 */
 	public void setMaxPollResultSize(Integer maxPollResultSize) {
+		this.checkNotFrozen();
+
 		if(maxPollResultSize != null) {
 			if(maxPollResultSize < 1) {
 				throw new IllegalArgumentException("Maximum poll result size must be greater than 0");
@@ -77,7 +79,7 @@ public final class CBORNewSessionRequest extends AbstractRequest {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -86,7 +88,7 @@ public final class CBORNewSessionRequest extends AbstractRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'max-poll-result-size'
 			if(this.maxPollResultSize != null) {
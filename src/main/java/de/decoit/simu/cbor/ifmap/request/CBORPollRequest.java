@@ -16,11 +16,11 @@
 package de.decoit.simu.cbor.ifmap.request;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.enums.IfMapValidationType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import lombok.EqualsAndHashCode;
@@ -62,6 +62,8 @@ public final class CBORPollRequest extends AbstractSessionIdRequest {
 	 * @param validationType IF-MAP validation type, may be null
 	 */
 	public void setValidation(IfMapValidationType validationType) {
+		this.checkNotFrozen();
+
 		if(validationType != null) {
 			this.validationAttributes = new ValidationAttributeGroup(validationType);
 		}
@@ -72,9 +74,9 @@ public final class CBORPollRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		// Call serializeAttributes on super class
-		super.serializeAttributes(builder);
+		super.serializeAttributes(builder, context);
 
 		try {
 			// Build dictionary path to this element
@@ -84,7 +86,7 @@ public final class CBORPollRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'validation'
 			if(this.validationAttributes != null) {
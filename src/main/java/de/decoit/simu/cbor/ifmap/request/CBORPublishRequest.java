@@ -16,12 +16,12 @@
 package de.decoit.simu.cbor.ifmap.request;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.enums.IfMapValidationType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.request.model.publish.AbstractPublishType;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.util.ArrayList;
@@ -45,7 +45,7 @@ import lombok.extern.slf4j.Slf4j;
 public final class CBORPublishRequest extends AbstractSessionIdRequest {
 	public final static String XML_NAME = "publish";
 	
-	private final List<AbstractPublishType> publishTypes;
+	private final ArrayList<AbstractPublishType> publishTypes;
 	@Getter
 	private ValidationAttributeGroup validationAttributes;
 
@@ -68,6 +68,8 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 	 * @param validationType IF-MAP validation type, may be null
 	 */
 	public void setValidation(IfMapValidationType validationType) {
+		this.checkNotFrozen();
+
 		if(validationType != null) {
 			this.validationAttributes = new ValidationAttributeGroup(validationType);
 		}
@@ -83,6 +85,8 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 	 * @param pubType Publish type
 	 */
 	public void addPublishType(final AbstractPublishType pubType) {
+		this.checkNotFrozen();
+
 		if(pubType == null) {
 			throw new IllegalArgumentException("Publish type must not be null");
 		}
@@ -97,6 +101,8 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 	 * @param pubType Publish type
 	 */
 	public void removePublishType(final AbstractPublishType pubType) {
+		this.checkNotFrozen();
+
 		this.publishTypes.remove(pubType);
 	}
 
@@ -111,10 +117,29 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 	}
 
 
+	/**
+	 * Trim the capacity of the internal publish type list to its current size.
+	 * The deserializer calls this after decoding if compact mode is enabled in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}.
+	 */
+	public void trimToSize() {
+		this.publishTypes.trimToSize();
+	}
+
+
+	@Override
+	protected void freezeNestedElements() {
+		for(AbstractPublishType e : this.publishTypes) {
+			e.freeze();
+		}
+
+		this.publishTypes.trimToSize();
+	}
+
+
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		// Call serializeAttributes on super class
-		super.serializeAttributes(builder);
+		super.serializeAttributes(builder, context);
 
 		try {
 			// Build dictionary path to this element
@@ -124,7 +149,7 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'validation'
 			if(this.validationAttributes != null) {
@@ -138,7 +163,7 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		if(this.publishTypes.isEmpty()) {
 			throw new CBORSerializationException("Cannot serialize publish request without publish types");
 		}
@@ -151,10 +176,10 @@ public final class CBORPublishRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			for(AbstractPublishType apt : this.publishTypes) {
-				apt.cborSerialize(builder, elementEntry);
+				apt.cborSerialize(builder, elementEntry, context);
 			}
 		}
 		catch(DictionaryPathException | RuntimeException ex) {
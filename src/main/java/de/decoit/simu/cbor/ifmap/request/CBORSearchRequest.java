@@ -16,13 +16,13 @@
 package de.decoit.simu.cbor.ifmap.request;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.enums.IfMapValidationType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.attributegroup.SearchTypeAttributeGroup;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import lombok.EqualsAndHashCode;
@@ -75,6 +75,8 @@ public final class CBORSearchRequest extends AbstractSessionIdRequest {
 	 * @param validationType IF-MAP validation type, may be null
 	 */
 	public void setValidation(IfMapValidationType validationType) {
+		this.checkNotFrozen();
+
 		if(validationType != null) {
 			this.validationAttributes = new ValidationAttributeGroup(validationType);
 		}
@@ -85,8 +87,15 @@ public final class CBORSearchRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
-		super.serializeAttributes(builder);
+	protected void freezeNestedElements() {
+		this.identifier.freeze();
+		this.searchTypeAttributes.freeze();
+	}
+
+
+	@Override
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
+		super.serializeAttributes(builder, context);
 
 		try {
 			// Build dictionary path to this element
@@ -96,7 +105,7 @@ public final class CBORSearchRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize search paramters
 			{
@@ -115,7 +124,7 @@ public final class CBORSearchRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
-		this.identifier.cborSerialize(builder);
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
+		this.identifier.cborSerialize(builder, context);
 	}
 }
@@ -16,12 +16,12 @@
 package de.decoit.simu.cbor.ifmap.request;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.enums.IfMapValidationType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.request.model.search.AbstractSubscribeType;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import java.util.ArrayList;
@@ -71,6 +71,8 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 	 * @param subscribeType Subscription type
 	 */
 	public void addSubscribeType(AbstractSubscribeType subscribeType) {
+		this.checkNotFrozen();
+
 		if(subscribeType == null) {
 			throw new IllegalArgumentException("Subscibe type must not be null");
 		}
@@ -85,6 +87,8 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 	 * @param subscribeType Subscription type
 	 */
 	public void removeSubscribeType(AbstractSubscribeType subscribeType) {
+		this.checkNotFrozen();
+
 		this.subscribeTypes.remove(subscribeType);
 	}
 
@@ -104,6 +108,8 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 	 * @param validationType IF-MAP validation type, may be null
 	 */
 	public void setValidation(IfMapValidationType validationType) {
+		this.checkNotFrozen();
+
 		if(validationType != null) {
 			this.validationAttributes = new ValidationAttributeGroup(validationType);
 		}
@@ -114,8 +120,16 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
-		super.serializeAttributes(builder);
+	protected void freezeNestedElements() {
+		for(AbstractSubscribeType e : this.subscribeTypes) {
+			e.freeze();
+		}
+	}
+
+
+	@Override
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
+		super.serializeAttributes(builder, context);
 
 		try {
 			// Build dictionary path to this element
@@ -125,7 +139,7 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'validation'
 			if(this.validationAttributes != null) {
@@ -139,7 +153,7 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		if(this.subscribeTypes.isEmpty()) {
 			throw new CBORSerializationException("Cannot serialize subscribe request without subscribe types");
 		}
@@ -152,11 +166,11 @@ public final class CBORSubscribeRequest extends AbstractSessionIdRequest {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize subscribe types
 			for(AbstractSubscribeType ast : this.subscribeTypes) {
-				ast.cborSerialize(builder, elementEntry);
+				ast.cborSerialize(builder, elementEntry, context);
 			}
 		}
 		catch(DictionaryPathException | RuntimeException ex) {
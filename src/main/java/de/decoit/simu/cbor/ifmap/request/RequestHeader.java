@@ -0,0 +1,68 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.request;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+
+
+/**
+ * Header information of a request, read by {@link de.decoit.simu.cbor.ifmap.CBORDeserializer#peekRequestHeader(java.nio.ByteBuffer)}
+ * without decoding the request body.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RequestHeader {
+	/**
+	 * XML namespace of the request element.
+	 */
+	private final String namespace;
+	/**
+	 * XML name of the request element, for example 'publish' or 'poll'.
+	 */
+	private final String elementName;
+	/**
+	 * IF-MAP session ID of the request, null for requests without a session ID (newSession).
+	 */
+	private final String sessionId;
+
+
+	/**
+	 * Create a new request header.
+	 *
+	 * @param namespace XML namespace of the request element
+	 * @param elementName XML name of the request element
+	 * @param sessionId IF-MAP session ID, may be null
+	 */
+	public RequestHeader(final String namespace, final String elementName, final String sessionId) {
+		if(namespace == null) {
+			throw new IllegalArgumentException("Namespace must not be null");
+		}
+
+		if(elementName == null) {
+			throw new IllegalArgumentException("Element name must not be null");
+		}
+
+		this.namespace = namespace;
+		this.elementName = elementName;
+		this.sessionId = sessionId;
+	}
+}
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.request.model.publish;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -67,6 +68,8 @@ public abstract class AbstractPublishType extends AbstractNestedElementBase {
 
 
 	public void setIdentifierB(final AbstractIdentifier identifierB) {
+		this.checkNotFrozen();
+
 		if(this.identifierA.equals(identifierB)) {
 			throw new IllegalArgumentException("Identifier B must not be equal to identifier A");
 		}
@@ -76,12 +79,22 @@ public abstract class AbstractPublishType extends AbstractNestedElementBase {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		this.identifierA.freeze();
+
+		if(this.identifierB != null) {
+			this.identifierB.freeze();
+		}
+	}
+
+
+	@Override
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
-			this.identifierA.cborSerialize(builder);
+			this.identifierA.cborSerialize(builder, context);
 
 			if(this.identifierB != null) {
-				this.identifierB.cborSerialize(builder);
+				this.identifierB.cborSerialize(builder, context);
 			}
 		}
 		catch(RuntimeException ex) {
@@ -19,6 +19,7 @@ import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapLifetime;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
@@ -46,7 +47,7 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 	public static final String METADATA = "metadata";
 	public static final String LIFETIME = "lifetime";
 
-	protected List<AbstractMetadata> metadata;
+	protected ArrayList<AbstractMetadata> metadata;
 	@Getter
 	protected IfMapLifetime lifetime;
 
@@ -73,6 +74,8 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 	 * @param metadata Metadata to add
 	 */
 	public void addMetadata(AbstractMetadata metadata) {
+		this.checkNotFrozen();
+
 		if(metadata == null) {
 			throw new IllegalArgumentException("Metadata must not be null");
 		}
@@ -87,6 +90,8 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 	 * @param metadata Metadata to remove
 	 */
 	public void removeMetadata(AbstractMetadata metadata) {
+		this.checkNotFrozen();
+
 		this.metadata.remove(metadata);
 	}
 
@@ -95,6 +100,8 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 	 * Remove all metadata from this update or notify request.
 	 */
 	public void removeAllMetadata() {
+		this.checkNotFrozen();
+
 		this.metadata.clear();
 	}
 
@@ -110,6 +117,8 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 
 
 	public void setLiftime(IfMapLifetime lifetime) {
+		this.checkNotFrozen();
+
 		if(lifetime == null) {
 			throw new IllegalArgumentException("Lifetime must not be null");
 		}
@@ -118,8 +127,29 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 	}
 
 
+	/**
+	 * Trim the capacity of the internal metadata list to its current size.
+	 * The deserializer calls this after decoding if compact mode is enabled in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}.
+	 */
+	public void trimToSize() {
+		this.metadata.trimToSize();
+	}
+
+
+	@Override
+	protected void freezeNestedElements() {
+		super.freezeNestedElements();
+
+		for(AbstractMetadata e : this.metadata) {
+			e.freeze();
+		}
+
+		this.metadata.trimToSize();
+	}
+
+
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize 'lifetime'
 			{
@@ -137,12 +167,12 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		if(this.metadata.isEmpty()) {
 			throw new CBORSerializationException("Cannot serialize update/notify request with no metadata");
 		}
 
-		super.serializeNestedElements(builder, elementEntry);
+		super.serializeNestedElements(builder, elementEntry, context);
 
 		try {
 			// Serialize 'metadata'
@@ -155,7 +185,7 @@ public abstract class AbstractUpdateNotify extends AbstractPublishType {
 				ArrayBuilder<?> metadataBuilder = builder.addArray();
 
 				for(AbstractMetadata m : this.metadata) {
-					m.cborSerialize(metadataBuilder);
+					m.cborSerialize(metadataBuilder, context);
 				}
 			}
 		}
@@ -18,6 +18,7 @@ package de.decoit.simu.cbor.ifmap.request.model.publish;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -76,6 +77,8 @@ public final class CBORPublishDelete extends AbstractPublishType {
 	 * @param filter Filter string
 	 */
 	public void setFilter(String filter) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(filter)) {
 			throw new IllegalArgumentException("Filter must not be empty or whitespace only");
 		}
@@ -85,7 +88,7 @@ public final class CBORPublishDelete extends AbstractPublishType {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize 'filter'
 			if(this.filter != null) {
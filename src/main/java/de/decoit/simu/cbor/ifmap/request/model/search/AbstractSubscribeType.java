@@ -19,6 +19,7 @@ import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import lombok.EqualsAndHashCode;
@@ -62,7 +63,7 @@ public abstract class AbstractSubscribeType extends AbstractNestedElementBase {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			DataItem cborName = this.getAttributeNameMapping(AbstractSubscribeType.NAME, elementEntry);
 
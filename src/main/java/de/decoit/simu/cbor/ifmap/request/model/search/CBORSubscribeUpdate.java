@@ -15,6 +15,7 @@
  */
 package de.decoit.simu.cbor.ifmap.request.model.search;
 
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SearchTypeAttributeGroup;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
@@ -57,8 +58,15 @@ public final class CBORSubscribeUpdate extends AbstractSubscribeType {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
-		super.serializeAttributes(builder, elementEntry);
+	protected void freezeNestedElements() {
+		this.identifier.freeze();
+		this.searchTypeAttributes.freeze();
+	}
+
+
+	@Override
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
+		super.serializeAttributes(builder, elementEntry, context);
 
 		try {
 			// Serialize search paramters
@@ -76,7 +84,7 @@ public final class CBORSubscribeUpdate extends AbstractSubscribeType {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
-		this.identifier.cborSerialize(builder);
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
+		this.identifier.cborSerialize(builder, context);
 	}
 }
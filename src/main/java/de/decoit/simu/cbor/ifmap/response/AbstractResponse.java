@@ -17,12 +17,12 @@ package de.decoit.simu.cbor.ifmap.response;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import de.decoit.simu.cbor.ifmap.AbstractElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.ValidationAttributeGroup;
 import de.decoit.simu.cbor.ifmap.enums.IfMapValidationType;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.response.model.AbstractResult;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
-import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
 import lombok.EqualsAndHashCode;
@@ -68,6 +68,8 @@ public abstract class AbstractResponse extends AbstractElementBase {
 	 * @param validationType IF-MAP validation type, may be null
 	 */
 	public void setValidation(IfMapValidationType validationType) {
+		this.checkNotFrozen();
+
 		if(validationType != null) {
 			this.validationAttributes = new ValidationAttributeGroup(validationType);
 		}
@@ -78,7 +80,13 @@ public abstract class AbstractResponse extends AbstractElementBase {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		this.result.freeze();
+	}
+
+
+	@Override
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -87,7 +95,7 @@ public abstract class AbstractResponse extends AbstractElementBase {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
 			// Serialize 'validation'
 			if(this.validationAttributes != null) {
@@ -101,7 +109,7 @@ public abstract class AbstractResponse extends AbstractElementBase {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Build dictionary path to this element
 			StringBuilder dictPathSb = new StringBuilder("<");
@@ -110,9 +118,9 @@ public abstract class AbstractResponse extends AbstractElementBase {
 			dictPathSb.append(this.elementName);
 
 			// Get dictionary entry for this element
-			DictionarySimpleElement elementEntry = DictionaryProvider.getInstance().findElementByPath(dictPathSb.toString());
+			DictionarySimpleElement elementEntry = context.findElementByPath(dictPathSb.toString());
 
-			this.result.cborSerialize(builder, elementEntry);
+			this.result.cborSerialize(builder, elementEntry, context);
 		}
 		catch(DictionaryPathException | RuntimeException ex) {
 			throw new CBORSerializationException("Error during serialization, see nested exception for details", ex);
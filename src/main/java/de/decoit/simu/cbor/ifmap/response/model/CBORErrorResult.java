@@ -20,6 +20,7 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -79,6 +80,8 @@ public final class CBORErrorResult extends AbstractResult {
 	 * @param errorString Error string, may be null
 	 */
 	public void setErrorString(String errorString) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(errorString)) {
 			throw new IllegalArgumentException("Error string must not be empty or whitespace only");
 		}
@@ -88,6 +91,8 @@ public final class CBORErrorResult extends AbstractResult {
 
 
 	public void setName(String name) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(name)) {
 			throw new IllegalArgumentException("Name must not be empty or whitespace only");
 		}
@@ -97,7 +102,7 @@ public final class CBORErrorResult extends AbstractResult {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize 'errorCode'
 			{
@@ -124,8 +129,8 @@ public final class CBORErrorResult extends AbstractResult {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
-		super.serializeNestedElements(builder, elementEntry);
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
+		super.serializeNestedElements(builder, elementEntry, context);
 
 		try {
 			// Serialize 'errorString'
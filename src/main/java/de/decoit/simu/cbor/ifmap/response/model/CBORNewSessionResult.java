@@ -19,6 +19,7 @@ import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
 import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.attributegroup.SessionAttributeGroup;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -80,6 +81,8 @@ public final class CBORNewSessionResult extends AbstractResult {
 	 * @param maxPollResultSize Poll result buffer size in bytes, may be null
 	 */
 	public void setMaxPollResultSize(Integer maxPollResultSize) {
+		this.checkNotFrozen();
+
 		if(maxPollResultSize != null) {
 			if(maxPollResultSize < 1) {
 				throw new IllegalArgumentException("Maximum poll result size must be greater than 0");
@@ -91,7 +94,7 @@ public final class CBORNewSessionResult extends AbstractResult {
 
 
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize 'session-id'
 			this.sessionAttributes.serializeAttributeGroup(builder, elementEntry);
@@ -17,6 +17,7 @@ package de.decoit.simu.cbor.ifmap.response.model;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.response.model.search.AbstractPollSearchResult;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -40,7 +41,7 @@ import lombok.extern.slf4j.Slf4j;
 public final class CBORPollResult extends AbstractResult {
 	public static final String XML_NAME = "pollResult";
 	
-	private final List<AbstractNestedElementBase> results;
+	private final ArrayList<AbstractNestedElementBase> results;
 
 
 	/**
@@ -59,6 +60,8 @@ public final class CBORPollResult extends AbstractResult {
 	 * @param result Error result
 	 */
 	public void addPollResult(CBORErrorResult result) {
+		this.checkNotFrozen();
+
 		if(result == null) {
 			throw new IllegalArgumentException("Error result must not be null");
 		}
@@ -73,6 +76,8 @@ public final class CBORPollResult extends AbstractResult {
 	 * @param result Poll search result
 	 */
 	public void addPollResult(AbstractPollSearchResult result) {
+		this.checkNotFrozen();
+
 		if(result == null) {
 			throw new IllegalArgumentException("Poll search result must not be null");
 		}
@@ -87,6 +92,8 @@ public final class CBORPollResult extends AbstractResult {
 	 * @param result Error result
 	 */
 	public void removePollResult(CBORErrorResult result) {
+		this.checkNotFrozen();
+
 		this.results.remove(result);
 	}
 
@@ -97,6 +104,8 @@ public final class CBORPollResult extends AbstractResult {
 	 * @param result Poll search result
 	 */
 	public void removePollResult(AbstractPollSearchResult result) {
+		this.checkNotFrozen();
+
 		this.results.remove(result);
 	}
 
@@ -113,11 +122,30 @@ public final class CBORPollResult extends AbstractResult {
 	}
 
 
+	/**
+	 * Trim the capacity of the internal result list to its current size.
+	 * The deserializer calls this after decoding if compact mode is enabled in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}.
+	 */
+	public void trimToSize() {
+		this.results.trimToSize();
+	}
+
+
+	@Override
+	protected void freezeNestedElements() {
+		for(AbstractNestedElementBase e : this.results) {
+			e.freeze();
+		}
+
+		this.results.trimToSize();
+	}
+
+
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		// Serialize poll result items
 		for(AbstractNestedElementBase result : this.results) {
-			result.cborSerialize(builder, elementEntry);
+			result.cborSerialize(builder, elementEntry, context);
 		}
 	}
 }
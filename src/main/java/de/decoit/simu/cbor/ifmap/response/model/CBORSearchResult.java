@@ -16,6 +16,7 @@
 package de.decoit.simu.cbor.ifmap.response.model;
 
 import co.nstant.in.cbor.builder.ArrayBuilder;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.response.model.search.SearchResult;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
@@ -59,8 +60,14 @@ public final class CBORSearchResult extends AbstractResult {
 
 
 	@Override
-	public void cborSerialize(final ArrayBuilder<?> builder, final DictionarySimpleElement parentElementEntry) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		this.result.freeze();
+	}
+
+
+	@Override
+	public void cborSerialize(final ArrayBuilder<?> builder, final DictionarySimpleElement parentElementEntry, final CodecContext context) throws CBORSerializationException {
 		// Redirect serialization to the search result class
-		this.result.cborSerialize(builder, parentElementEntry);
+		this.result.cborSerialize(builder, parentElementEntry, context);
 	}
 }
@@ -0,0 +1,40 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.response.model.search;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import java.util.List;
+
+
+
+/**
+ * Deferred deserialization of the metadata of a {@link SearchResultItem}.
+ * A loader is attached to a result item by the deserializer if lazy metadata deserialization is enabled.
+ * It is invoked at most once, on the first access to the metadata of the item.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@FunctionalInterface
+public interface MetadataLoader {
+	/**
+	 * Deserialize the metadata held by this loader.
+	 *
+	 * @return List of deserialized metadata objects
+	 * @throws CBORDeserializationException if deserialization failed
+	 */
+	public List<AbstractMetadata> load() throws CBORDeserializationException;
+}
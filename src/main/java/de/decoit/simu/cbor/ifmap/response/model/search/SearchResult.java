@@ -19,6 +19,7 @@ import co.nstant.in.cbor.builder.ArrayBuilder;
 import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.UnicodeString;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import java.util.ArrayList;
@@ -46,7 +47,7 @@ public class SearchResult extends AbstractNestedElementBase {
 
 	@Getter
 	private String name;
-	private final List<SearchResultItem> resultItems;
+	private final ArrayList<SearchResultItem> resultItems;
 
 
 	/**
@@ -73,6 +74,8 @@ public class SearchResult extends AbstractNestedElementBase {
 	 * @param name Search result name
 	 */
 	public void setName(String name) {
+		this.checkNotFrozen();
+
 		if(StringUtils.isWhitespace(name)) {
 			throw new IllegalArgumentException("Name must not be empty or whitespace only");
 		}
@@ -87,6 +90,8 @@ public class SearchResult extends AbstractNestedElementBase {
 	 * @param item Search result item to add
 	 */
 	public void addSearchResultItem(SearchResultItem item) {
+		this.checkNotFrozen();
+
 		if(item == null) {
 			throw new IllegalArgumentException("Search result item must not be null");
 		}
@@ -101,6 +106,8 @@ public class SearchResult extends AbstractNestedElementBase {
 	 * @param item Search result item to remove
 	 */
 	public void removeSearchResultItem(SearchResultItem item) {
+		this.checkNotFrozen();
+
 		this.resultItems.remove(item);
 	}
 
@@ -115,8 +122,27 @@ public class SearchResult extends AbstractNestedElementBase {
 	}
 
 
+	/**
+	 * Trim the capacity of the internal result item list to its current size.
+	 * The deserializer calls this after decoding if compact mode is enabled in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}.
+	 */
+	public void trimToSize() {
+		this.resultItems.trimToSize();
+	}
+
+
+	@Override
+	protected void freezeNestedElements() {
+		for(SearchResultItem e : this.resultItems) {
+			e.freeze();
+		}
+
+		this.resultItems.trimToSize();
+	}
+
+
 	@Override
-	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeAttributes(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize 'name'
 			if(this.name != null) {
@@ -133,11 +159,11 @@ public class SearchResult extends AbstractNestedElementBase {
 
 
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
 		try {
 			// Serialize search result items
 			for(SearchResultItem sri : resultItems) {
-				sri.cborSerialize(builder, elementEntry);
+				sri.cborSerialize(builder, elementEntry, context);
 			}
 		}
 		catch(RuntimeException ex) {
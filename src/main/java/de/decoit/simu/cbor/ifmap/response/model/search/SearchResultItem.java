@@ -20,6 +20,8 @@ import co.nstant.in.cbor.model.DataItem;
 import co.nstant.in.cbor.model.SimpleValue;
 import co.nstant.in.cbor.model.SimpleValueType;
 import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
@@ -36,11 +38,15 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Java representation of a single search or poll result item.
+ * If the item was deserialized with lazy metadata deserialization enabled, the metadata is deserialized
+ * on the first access to it. Any method reading or modifying the metadata triggers that step. Until then
+ * the item holds the CBOR data items of its 'metadata' elements, not the encoded bytes. Call
+ * {@link #resolveMetadata()} to deserialize pending metadata and receive decode errors as checked exception.
  *
  * @author Thomas Rix (rix@decoit.de)
  */
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = "metadataLoader")
+@ToString(callSuper = true, exclude = "metadataLoader")
 @Slf4j
 public final class SearchResultItem extends AbstractNestedElementBase {
 	public static final String XML_NAME = "resultItem";
@@ -50,7 +56,8 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 	private final AbstractIdentifier identifierA;
 	@Getter
 	private AbstractIdentifier identifierB;
-	private final List<AbstractMetadata> metadata;
+	private final ArrayList<AbstractMetadata> metadata;
+	private MetadataLoader metadataLoader;
 
 
 	/**
@@ -85,6 +92,8 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 
 
 	public void setIdentifierB(final AbstractIdentifier identifierB) {
+		this.checkNotFrozen();
+
 		if(this.identifierA.equals(identifierB)) {
 			throw new IllegalArgumentException("Identifier B must not be equal to identifier A");
 		}
@@ -99,10 +108,13 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 	 * @param metadata Metadata to add
 	 */
 	public void addMetadata(AbstractMetadata metadata) {
+		this.checkNotFrozen();
+
 		if(metadata == null) {
 			throw new IllegalArgumentException("Metadata must not be null");
 		}
 
+		this.loadMetadata();
 		this.metadata.add(metadata);
 	}
 
@@ -113,6 +125,9 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 	 * @param metadata Metadata to remove
 	 */
 	public void removeMetadata(AbstractMetadata metadata) {
+		this.checkNotFrozen();
+
+		this.loadMetadata();
 		this.metadata.remove(metadata);
 	}
 
@@ -121,33 +136,134 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 	 * Remove all metadata from this search result item.
 	 */
 	public void removeAllMetadata() {
+		this.checkNotFrozen();
+
+		this.loadMetadata();
 		this.metadata.clear();
 	}
 
 
 	/**
 	 * Returns an immutable view of the metadata list.
+	 * If the metadata was not deserialized yet, this is done before returning the list.
 	 *
 	 * @return Immutable list view
+	 * @throws IllegalStateException if lazy deserialization of the metadata failed, see {@link #resolveMetadata()}
 	 */
 	public List<AbstractMetadata> getMetadata() {
+		this.loadMetadata();
 		return Collections.unmodifiableList(this.metadata);
 	}
 
 
+	/**
+	 * Check if the metadata of this item is still waiting to be deserialized.
+	 *
+	 * @return true if a metadata loader is pending, false otherwise
+	 */
+	public synchronized boolean isMetadataPending() {
+		return this.metadataLoader != null;
+	}
+
+
+	/**
+	 * Attach a loader that deserializes the metadata of this item on first access.
+	 * This is used by the deserializer if lazy metadata deserialization is enabled and should not be
+	 * called by users of this library. Metadata added before is kept, loaded metadata is appended to it.
+	 *
+	 * @param metadataLoader Loader for the metadata of this item
+	 */
+	public synchronized void setMetadataLoader(final MetadataLoader metadataLoader) {
+		this.checkNotFrozen();
+
+		if(metadataLoader == null) {
+			throw new IllegalArgumentException("Metadata loader must not be null");
+		}
+
+		this.metadataLoader = metadataLoader;
+	}
+
+
+	/**
+	 * Deserialize the pending metadata of this item, if any.
+	 * The loader is discarded after it completed successfully, so it runs only once. If it failed, it is kept
+	 * and the next access to the metadata fails again.
+	 *
+	 * @throws CBORDeserializationException if lazy deserialization of the metadata failed
+	 */
+	public synchronized void resolveMetadata() throws CBORDeserializationException {
+		if(this.metadataLoader == null) {
+			return;
+		}
+
+		this.metadata.addAll(this.metadataLoader.load());
+		this.metadata.trimToSize();
+		this.metadataLoader = null;
+	}
+
+
+	/**
+	 * Run the pending metadata loader, if any.
+	 * This is used by methods which cannot throw a checked exception.
+	 */
+	private void loadMetadata() {
+		try {
+			this.resolveMetadata();
+		}
+		catch(CBORDeserializationException ex) {
+			throw new IllegalStateException("Lazy deserialization of metadata failed, see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Trim the capacity of the internal metadata list to its current size.
+	 * The deserializer calls this after decoding if compact mode is enabled in the {@link de.decoit.simu.cbor.ifmap.DecodeOptions}.
+	 */
+	public synchronized void trimToSize() {
+		this.metadata.trimToSize();
+	}
+
+
 	@Override
-	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry) throws CBORSerializationException {
+	protected void freezeNestedElements() {
+		// Pending metadata must be loaded before the item is locked
+		this.loadMetadata();
+
+		this.identifierA.freeze();
+
+		if(this.identifierB != null) {
+			this.identifierB.freeze();
+		}
+
+		for(AbstractMetadata e : this.metadata) {
+			e.freeze();
+		}
+
+		this.metadata.trimToSize();
+	}
+
+
+	@Override
+	protected void serializeNestedElements(final ArrayBuilder<?> builder, final DictionarySimpleElement elementEntry, final CodecContext context) throws CBORSerializationException {
+		try {
+			this.resolveMetadata();
+		}
+		catch(CBORDeserializationException ex) {
+			throw new CBORSerializationException("Cannot serialize result item with undecodable metadata", ex);
+		}
+
 		if(this.metadata.isEmpty()) {
 			throw new CBORSerializationException("Cannot serialize result item with no metadata");
 		}
 
 		try {
 			// Serialize identifier A
-			this.identifierA.cborSerialize(builder);
+			this.identifierA.cborSerialize(builder, context);
 
 			// Serialize identifier B
 			if(this.identifierB != null) {
-				this.identifierB.cborSerialize(builder);
+				this.identifierB.cborSerialize(builder, context);
 			}
 
 
@@ -161,7 +277,7 @@ public final class SearchResultItem extends AbstractNestedElementBase {
 
 			// Serialize metadata objects
 			for(AbstractMetadata m : this.metadata) {
-				m.cborSerialize(metadataBuilder);
+				m.cborSerialize(metadataBuilder, context);
 			}
 		}
 		catch(RuntimeException ex) {
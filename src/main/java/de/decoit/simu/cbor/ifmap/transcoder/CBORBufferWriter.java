@@ -0,0 +1,294 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import co.nstant.in.cbor.CborEncoder;
+import co.nstant.in.cbor.CborException;
+import co.nstant.in.cbor.model.DataItem;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+
+/**
+ * Writes CBOR data items directly into a growing byte array without building a tree of data items.
+ * Arrays are written with a one byte placeholder for their header which is replaced by the actual
+ * number of items when the array is closed. If an array contains 24 or more items, its content is
+ * moved to make room for the longer header. The result is encoded exactly like the output of
+ * {@link CborEncoder} for the same data items, so arrays always have definite length.
+ *
+ * The complete output is kept in memory until it is written to a stream, so memory use is the encoded
+ * message plus two integers per open array. Moving the content of a long array copies it once when the
+ * array is closed, nested long arrays are copied once for every enclosing long array.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+final class CBORBufferWriter extends OutputStream {
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int INITIAL_DEPTH = 16;
+	private static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+	private static final int MAJOR_TYPE_BYTE_STRING = 2;
+	private static final int MAJOR_TYPE_UNICODE_STRING = 3;
+	private static final int MAJOR_TYPE_ARRAY = 4;
+	private static final int MAJOR_TYPE_TAG = 6;
+	private static final int NULL = 0xF6;
+	private static final int MAX_HEADER_LENGTH = 9;
+
+	private final CborEncoder encoder;
+	private byte[] buffer;
+	private int size;
+	private int[] arrayOffsets;
+	private int[] itemCounts;
+	private int depth;
+
+
+	/**
+	 * Create a new, empty writer.
+	 */
+	CBORBufferWriter() {
+		this.encoder = new CborEncoder(this);
+		this.buffer = new byte[INITIAL_CAPACITY];
+		this.size = 0;
+		this.arrayOffsets = new int[INITIAL_DEPTH];
+		this.itemCounts = new int[INITIAL_DEPTH];
+		this.depth = 0;
+	}
+
+
+	/**
+	 * Open a new array. All following data items are added to this array until {@link #endArray()} is called.
+	 */
+	void startArray() {
+		this.countItem();
+
+		if(this.depth == this.arrayOffsets.length) {
+			this.arrayOffsets = Arrays.copyOf(this.arrayOffsets, this.depth * 2);
+			this.itemCounts = Arrays.copyOf(this.itemCounts, this.depth * 2);
+		}
+
+		this.ensureCapacity(1);
+		this.arrayOffsets[this.depth] = this.size;
+		this.itemCounts[this.depth] = 0;
+		this.depth++;
+		this.size++;
+	}
+
+
+	/**
+	 * Close the innermost open array and write its header.
+	 */
+	void endArray() {
+		if(this.depth == 0) {
+			throw new IllegalStateException("No open array");
+		}
+
+		this.depth--;
+		int offset = this.arrayOffsets[this.depth];
+		int count = this.itemCounts[this.depth];
+		int headerLength = headerLength(count);
+
+		// Move the array content if the header does not fit into the placeholder
+		if(headerLength > 1) {
+			this.ensureCapacity(headerLength - 1);
+			System.arraycopy(this.buffer, offset + 1, this.buffer, offset + headerLength, this.size - offset - 1);
+			this.size += headerLength - 1;
+		}
+
+		this.writeHeader(offset, MAJOR_TYPE_ARRAY, count);
+	}
+
+
+	/**
+	 * Write the simple value null.
+	 */
+	void writeNull() {
+		this.countItem();
+		this.ensureCapacity(1);
+		this.buffer[this.size++] = (byte) NULL;
+	}
+
+
+	/**
+	 * Write a text string.
+	 *
+	 * @param value String to write
+	 */
+	void writeString(final String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		this.countItem();
+		this.appendHeader(MAJOR_TYPE_UNICODE_STRING, bytes.length);
+		this.write(bytes, 0, bytes.length);
+	}
+
+
+	/**
+	 * Write a byte string with the specified tag.
+	 *
+	 * @param tag Tag number
+	 * @param value Bytes to write
+	 */
+	void writeTaggedByteString(final long tag, final byte[] value) {
+		this.writeTag(tag);
+		this.countItem();
+		this.appendHeader(MAJOR_TYPE_BYTE_STRING, value.length);
+		this.write(value, 0, value.length);
+	}
+
+
+	/**
+	 * Write a non-negative integer.
+	 *
+	 * @param value Integer to write, must not be negative
+	 */
+	void writeUnsignedInteger(final long value) {
+		if(value < 0) {
+			throw new IllegalArgumentException("Value must not be negative");
+		}
+
+		this.countItem();
+		this.appendHeader(MAJOR_TYPE_UNSIGNED_INTEGER, value);
+	}
+
+
+	/**
+	 * Write the header of a tag. The tag applies to the next data item and does not count as an array item.
+	 *
+	 * @param tag Tag number
+	 */
+	void writeTag(final long tag) {
+		this.appendHeader(MAJOR_TYPE_TAG, tag);
+	}
+
+
+	/**
+	 * Write a data item using the CBOR encoder. This is used for dictionary mappings and other prebuilt items.
+	 *
+	 * @param item Data item to write
+	 * @throws CborException if encoding failed
+	 */
+	void writeDataItem(final DataItem item) throws CborException {
+		this.countItem();
+		this.encoder.encode(item);
+	}
+
+
+	/**
+	 * Write the encoded data to the specified stream. All arrays must be closed.
+	 *
+	 * @param out Target stream
+	 * @throws IOException if writing to the stream failed
+	 */
+	void writeTo(final OutputStream out) throws IOException {
+		if(this.depth != 0) {
+			throw new IllegalStateException("Arrays are still open: " + this.depth);
+		}
+
+		out.write(this.buffer, 0, this.size);
+	}
+
+
+	@Override
+	public void write(final int b) {
+		this.ensureCapacity(1);
+		this.buffer[this.size++] = (byte) b;
+	}
+
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		this.ensureCapacity(len);
+		System.arraycopy(b, off, this.buffer, this.size, len);
+		this.size += len;
+	}
+
+
+	private void countItem() {
+		if(this.depth > 0) {
+			this.itemCounts[this.depth - 1]++;
+		}
+	}
+
+
+	private void appendHeader(final int majorType, final long value) {
+		this.ensureCapacity(MAX_HEADER_LENGTH);
+		this.size += this.writeHeader(this.size, majorType, value);
+	}
+
+
+	/**
+	 * Write the header of a data item with the shortest possible encoding of the value at the specified offset.
+	 *
+	 * @return Number of bytes written
+	 */
+	private int writeHeader(final int offset, final int majorType, final long value) {
+		int initialByte = majorType << 5;
+		int headerLength = headerLength(value);
+
+		switch(headerLength) {
+			case 1:
+				this.buffer[offset] = (byte) (initialByte | (int) value);
+				break;
+			case 2:
+				this.buffer[offset] = (byte) (initialByte | 24);
+				break;
+			case 3:
+				this.buffer[offset] = (byte) (initialByte | 25);
+				break;
+			case 5:
+				this.buffer[offset] = (byte) (initialByte | 26);
+				break;
+			default:
+				this.buffer[offset] = (byte) (initialByte | 27);
+				break;
+		}
+
+		// Argument bytes in network byte order
+		for(int i=1; i<headerLength; i++) {
+			this.buffer[offset + i] = (byte) (value >>> (8 * (headerLength - 1 - i)));
+		}
+
+		return headerLength;
+	}
+
+
+	private static int headerLength(final long value) {
+		if(value < 24) {
+			return 1;
+		}
+		else if(value <= 0xFFL) {
+			return 2;
+		}
+		else if(value <= 0xFFFFL) {
+			return 3;
+		}
+		else if(value <= 0xFFFFFFFFL) {
+			return 5;
+		}
+		else {
+			return MAX_HEADER_LENGTH;
+		}
+	}
+
+
+	private void ensureCapacity(final int additional) {
+		if(this.size + additional > this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + additional));
+		}
+	}
+}
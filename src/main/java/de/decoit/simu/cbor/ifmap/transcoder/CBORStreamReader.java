@@ -0,0 +1,418 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import co.nstant.in.cbor.model.Array;
+import co.nstant.in.cbor.model.ByteString;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.DoublePrecisionFloat;
+import co.nstant.in.cbor.model.HalfPrecisionFloat;
+import co.nstant.in.cbor.model.NegativeInteger;
+import co.nstant.in.cbor.model.SimpleValue;
+import co.nstant.in.cbor.model.SimpleValueType;
+import co.nstant.in.cbor.model.SinglePrecisionFloat;
+import co.nstant.in.cbor.model.Tag;
+import co.nstant.in.cbor.model.UnicodeString;
+import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.DecodeLimits;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.util.CBORHeaderHelper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+
+/**
+ * Reads CBOR data items from a stream one at a time without building a tree of data items.
+ * Arrays can be entered by reading only their header, the items of the array are then read one by one
+ * by the caller. Single values are returned as data items, so they can be passed to the dictionary
+ * reverse lookups. This is the reading counterpart of {@link CBORBufferWriter}.
+ *
+ * Only definite length strings and arrays are supported, like in the output of
+ * {@link de.decoit.simu.cbor.ifmap.CBORSerializer}. If a data item carries more than one tag, only the
+ * tag closest to the item is kept.
+ *
+ * The reader tracks the open arrays on an explicit stack of remaining item counts, so it can enforce
+ * {@link DecodeLimits} while reading: every header is checked before the declared content is read, and
+ * strings are read in chunks, so a header declaring a huge length does not allocate memory for it.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+final class CBORStreamReader {
+	private static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+	private static final int MAJOR_TYPE_NEGATIVE_INTEGER = 1;
+	private static final int MAJOR_TYPE_BYTE_STRING = 2;
+	private static final int MAJOR_TYPE_UNICODE_STRING = 3;
+	private static final int MAJOR_TYPE_ARRAY = 4;
+	private static final int MAJOR_TYPE_TAG = 6;
+	private static final int MAJOR_TYPE_SPECIAL = 7;
+	private static final int SIMPLE_FALSE = 20;
+	private static final int SIMPLE_TRUE = 21;
+	private static final int SIMPLE_NULL = 22;
+	private static final int HALF_PRECISION_FLOAT = 25;
+	private static final int SINGLE_PRECISION_FLOAT = 26;
+	private static final int DOUBLE_PRECISION_FLOAT = 27;
+	private static final int PAYLOAD_CHUNK_SIZE = 8192;
+	private static final int INITIAL_DEPTH = 16;
+	private static final long NO_TAG = -1L;
+
+	private final InputStream in;
+	private final DecodeLimits limits;
+	private final byte[] header;
+	private final ByteBuffer headerBuffer;
+	private boolean headerRead;
+	private long tag;
+	private int majorType;
+	private int additionalInfo;
+	private long argument;
+	private long headerOffset;
+	private long bytesRead;
+	private long items;
+	private long[] remaining;
+	private int depth;
+
+
+	/**
+	 * Create a new reader for the specified stream. The stream should be buffered, since the reader
+	 * reads the headers byte by byte.
+	 *
+	 * @param in Stream containing the CBOR data
+	 * @param limits Limits to enforce, null to disable limits
+	 */
+	CBORStreamReader(final InputStream in, final DecodeLimits limits) {
+		this.in = in;
+		this.limits = limits != null ? limits : DecodeLimits.getUnlimited();
+		this.header = new byte[CBORHeaderHelper.MAX_HEADER_LENGTH];
+		this.headerBuffer = ByteBuffer.wrap(this.header);
+		this.headerRead = false;
+		this.remaining = new long[INITIAL_DEPTH];
+		this.depth = 0;
+	}
+
+
+	/**
+	 * Check if the next data item is an array.
+	 *
+	 * @return true if the next data item is an array, false otherwise
+	 * @throws IOException if reading from the stream failed
+	 * @throws CBORDeserializationException if the data is not well-formed CBOR or exceeds a limit
+	 */
+	boolean isArrayNext() throws IOException, CBORDeserializationException {
+		this.readHeader();
+
+		return this.majorType == MAJOR_TYPE_ARRAY;
+	}
+
+
+	/**
+	 * Read the header of an array. The items of the array are the next data items read from this reader.
+	 *
+	 * @return Number of items in the array
+	 * @throws IOException if reading from the stream failed
+	 * @throws CBORDeserializationException if the next data item is not a definite length array or exceeds a limit
+	 */
+	long readArrayHeader() throws IOException, CBORDeserializationException {
+		this.readHeader();
+
+		if(this.majorType != MAJOR_TYPE_ARRAY) {
+			throw new CBORDeserializationException("Expected array, found major type " + this.majorType);
+		}
+
+		this.headerRead = false;
+		this.openArray();
+
+		return this.argument;
+	}
+
+
+	/**
+	 * Read the next data item completely. Arrays are read including all their items, this should only be
+	 * used for small arrays like decimal fractions. Nested arrays are read iteratively, their depth is only
+	 * bounded by the limits.
+	 *
+	 * @return The data item including its tag
+	 * @throws IOException if reading from the stream failed
+	 * @throws CBORDeserializationException if the data is not well-formed CBOR or exceeds a limit
+	 */
+	DataItem readDataItem() throws IOException, CBORDeserializationException {
+		final int baseDepth = this.depth;
+		// Arrays opened by this call, the last one receives the next item
+		ArrayList<Array> open = new ArrayList<>();
+		DataItem rv = null;
+
+		do {
+			this.readHeader();
+			this.headerRead = false;
+
+			DataItem item;
+			switch(this.majorType) {
+				case MAJOR_TYPE_UNSIGNED_INTEGER:
+					item = this.argument >= 0 ? new UnsignedInteger(this.argument) : new UnsignedInteger(unsignedValue(this.argument));
+					break;
+				case MAJOR_TYPE_NEGATIVE_INTEGER:
+					item = this.argument >= 0 ? new NegativeInteger(-1L - this.argument) : new NegativeInteger(unsignedValue(this.argument).add(BigInteger.ONE).negate());
+					break;
+				case MAJOR_TYPE_BYTE_STRING:
+					item = new ByteString(this.readPayload());
+					break;
+				case MAJOR_TYPE_UNICODE_STRING:
+					item = new UnicodeString(new String(this.readPayload(), StandardCharsets.UTF_8));
+					break;
+				case MAJOR_TYPE_ARRAY:
+					item = new Array();
+					break;
+				case MAJOR_TYPE_SPECIAL:
+					item = this.special();
+					break;
+				default:
+					throw new CBORDeserializationException("Unsupported major type: " + this.majorType);
+			}
+
+			if(this.tag != NO_TAG) {
+				item.setTag(new Tag(this.tag));
+			}
+
+			if(rv == null) {
+				rv = item;
+			}
+			else {
+				open.get(open.size() - 1).add(item);
+			}
+
+			if(this.majorType == MAJOR_TYPE_ARRAY && this.argument > 0) {
+				open.add((Array) item);
+				this.openArray();
+			}
+			else {
+				this.completeItem();
+
+				// Completing the item may have closed the arrays it belongs to
+				while(open.size() > this.depth - baseDepth && !open.isEmpty()) {
+					open.remove(open.size() - 1);
+				}
+			}
+		}
+		while(!open.isEmpty());
+
+		return rv;
+	}
+
+
+	/**
+	 * Read the tags and the header of the next data item, if they have not been read yet.
+	 * The header is checked against the limits before any content of the data item is read.
+	 */
+	private void readHeader() throws IOException, CBORDeserializationException {
+		if(this.headerRead) {
+			return;
+		}
+
+		this.tag = NO_TAG;
+		this.readInitialByte();
+
+		while(this.majorType == MAJOR_TYPE_TAG) {
+			this.tag = this.argument;
+			this.readInitialByte();
+		}
+
+		this.items++;
+		if(this.items > this.limits.getMaxItems()) {
+			throw this.limitExceeded("number of data items exceeds maximum of " + this.limits.getMaxItems());
+		}
+
+		switch(this.majorType) {
+			case MAJOR_TYPE_BYTE_STRING:
+			case MAJOR_TYPE_UNICODE_STRING:
+				if(this.argument < 0 || this.argument > Integer.MAX_VALUE) {
+					throw new CBORDeserializationException("String length exceeds supported range");
+				}
+
+				if(this.argument > this.limits.getMaxStringLength()) {
+					throw this.limitExceeded("string length of " + this.argument + " bytes exceeds maximum of "
+											 + this.limits.getMaxStringLength() + " bytes");
+				}
+
+				if(this.argument > this.limits.getMaxBytes() - this.bytesRead) {
+					throw this.limitExceeded("message size exceeds maximum of " + this.limits.getMaxBytes() + " bytes");
+				}
+				break;
+			case MAJOR_TYPE_ARRAY:
+				if(this.argument < 0) {
+					throw new CBORDeserializationException("Array length exceeds supported range");
+				}
+
+				if(this.argument > this.limits.getMaxArrayLength()) {
+					throw this.limitExceeded("array length of " + this.argument + " exceeds maximum of " + this.limits.getMaxArrayLength());
+				}
+				break;
+			default:
+				break;
+		}
+
+		this.headerRead = true;
+	}
+
+
+	private void readInitialByte() throws IOException, CBORDeserializationException {
+		this.headerOffset = this.bytesRead;
+
+		int initialByte = this.readByte();
+		int headerLength = CBORHeaderHelper.headerLength(initialByte);
+
+		this.majorType = CBORHeaderHelper.majorType(initialByte);
+		this.additionalInfo = CBORHeaderHelper.additionalInfo(initialByte);
+
+		if(headerLength < 0) {
+			if(this.additionalInfo == CBORHeaderHelper.INDEFINITE_LENGTH && this.majorType != MAJOR_TYPE_SPECIAL) {
+				throw new CBORDeserializationException("Indefinite length items are not supported");
+			}
+			else if(this.additionalInfo == CBORHeaderHelper.INDEFINITE_LENGTH) {
+				throw new CBORDeserializationException("Unexpected break");
+			}
+			else {
+				throw new CBORDeserializationException("Reserved additional information: " + this.additionalInfo);
+			}
+		}
+
+		this.header[0] = (byte) initialByte;
+		for(int i=1; i<headerLength; i++) {
+			this.header[i] = (byte) this.readByte();
+		}
+
+		this.argument = CBORHeaderHelper.argument(this.headerBuffer, 0);
+	}
+
+
+	/**
+	 * Read the payload of the string whose header has just been read. The payload is read in chunks, so
+	 * memory is only allocated for data which is actually present in the stream.
+	 */
+	private byte[] readPayload() throws IOException, CBORDeserializationException {
+		int length = (int) this.argument;
+		byte[] rv = new byte[Math.min(length, PAYLOAD_CHUNK_SIZE)];
+		int offset = 0;
+
+		while(offset < length) {
+			if(offset == rv.length) {
+				rv = Arrays.copyOf(rv, (int) Math.min(length, 2L * rv.length));
+			}
+
+			int read = this.in.read(rv, offset, rv.length - offset);
+
+			if(read < 0) {
+				throw new CBORDeserializationException("Unexpected end of CBOR data");
+			}
+
+			offset += read;
+			this.bytesRead += read;
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Open the array whose header has just been read. Empty arrays are complete immediately.
+	 */
+	private void openArray() throws CBORDeserializationException {
+		if(this.argument == 0) {
+			this.completeItem();
+			return;
+		}
+
+		if(this.depth + 1 > this.limits.getMaxDepth()) {
+			throw this.limitExceeded("nesting depth exceeds maximum of " + this.limits.getMaxDepth());
+		}
+
+		if(this.depth == this.remaining.length) {
+			this.remaining = Arrays.copyOf(this.remaining, this.depth * 2);
+		}
+
+		this.remaining[this.depth++] = this.argument;
+	}
+
+
+	/**
+	 * Mark an item as complete in its enclosing array. Arrays whose last item was completed are closed
+	 * and completed in their parent array in turn.
+	 */
+	private void completeItem() {
+		while(this.depth > 0 && --this.remaining[this.depth - 1] == 0) {
+			this.depth--;
+		}
+	}
+
+
+	/**
+	 * Create the data item of a simple value or floating point number. Simple values are created as new
+	 * instances, since a tag may be set on the returned item.
+	 */
+	private DataItem special() throws CBORDeserializationException {
+		switch(this.additionalInfo) {
+			case SIMPLE_FALSE:
+				return new SimpleValue(SimpleValueType.FALSE);
+			case SIMPLE_TRUE:
+				return new SimpleValue(SimpleValueType.TRUE);
+			case SIMPLE_NULL:
+				return new SimpleValue(SimpleValueType.NULL);
+			case HALF_PRECISION_FLOAT:
+				return new HalfPrecisionFloat((float) CBORHeaderHelper.halfToDouble((int) this.argument));
+			case SINGLE_PRECISION_FLOAT:
+				return new SinglePrecisionFloat(Float.intBitsToFloat((int) this.argument));
+			case DOUBLE_PRECISION_FLOAT:
+				return new DoublePrecisionFloat(Double.longBitsToDouble(this.argument));
+			default:
+				throw new CBORDeserializationException("Unsupported simple value: " + this.additionalInfo);
+		}
+	}
+
+
+	private int readByte() throws IOException, CBORDeserializationException {
+		int rv = this.in.read();
+
+		if(rv < 0) {
+			throw new CBORDeserializationException("Unexpected end of CBOR data");
+		}
+
+		this.bytesRead++;
+		if(this.bytesRead > this.limits.getMaxBytes()) {
+			throw this.limitExceeded("message size exceeds maximum of " + this.limits.getMaxBytes() + " bytes");
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Create the exception for a limit violated by the data item whose header was read last.
+	 */
+	private CBORDeserializationException limitExceeded(final String message) {
+		return new CBORDeserializationException("Decode limit exceeded: " + message + " at offset " + this.headerOffset);
+	}
+
+
+	/**
+	 * Convert an argument which exceeds the range of long into its unsigned value.
+	 */
+	private static BigInteger unsignedValue(final long argument) {
+		return new BigInteger(Long.toUnsignedString(argument));
+	}
+}
@@ -0,0 +1,673 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.NegativeInteger;
+import co.nstant.in.cbor.model.SimpleValue;
+import co.nstant.in.cbor.model.SimpleValueType;
+import co.nstant.in.cbor.model.Special;
+import co.nstant.in.cbor.model.SpecialType;
+import co.nstant.in.cbor.model.UnicodeString;
+import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.deserializer.AbstractDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
+import de.decoit.simu.cbor.ifmap.enums.CBORTags;
+import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Transcodes CBOR encoded IF-MAP messages into IF-MAP 2.2 XML without building domain objects.
+ * The CBOR data is read item by item and every element is written to a StAX {@link XMLStreamWriter} as soon
+ * as its attributes are known. Names and enum values are resolved with the dictionary reverse lookups of
+ * {@link AbstractDeserializerManager}, names without dictionary entry are written as they are. Tagged values
+ * are converted back into their XML representation: epoch times become xsd:dateTime strings, IP and MAC
+ * address byte strings become address literals. The ifmap-timestamp and ifmap-timestamp-fraction attributes
+ * of metadata are merged into a single ifmap-timestamp attribute. Extended identifiers are written as
+ * escaped XML in the name of an identity of type "other", like {@link XMLToCBORTranscoder} expects them.
+ *
+ * The transcoder keeps one frame per open element and the attributes of the current element, the size of
+ * the message does not matter. The {@link de.decoit.simu.cbor.ifmap.DecodeLimits} of the codec context are
+ * checked for every data item as it is read. Top level elements are written with the prefixes "ifmap", "meta", "opmeta"
+ * and "server" for the IF-MAP namespaces and generated prefixes for all other namespaces. Nested elements
+ * have no namespace.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public final class CBORToXMLTranscoder {
+	private static final int INITIAL_DEPTH = 16;
+	private static final String GENERATED_PREFIX = "ns";
+	private static final long EXTENDED_IDENTIFIER_TAG = CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem().getValue();
+	private static final long DATE_TIME_EPOCH_TAG = CBORTags.DATE_TIME_EPOCH.getTagDataItem().getValue();
+	private static final long DATE_TIME_STRING_TAG = CBORTags.DATE_TIME_STRING.getTagDataItem().getValue();
+	private static final long IPV4_ADDRESS_TAG = CBORTags.IPV4_ADDRESS.getTagDataItem().getValue();
+	private static final long IPV6_ADDRESS_TAG = CBORTags.IPV6_ADDRESS.getTagDataItem().getValue();
+	private static final long MAC_ADDRESS_TAG = CBORTags.MAC_ADDRESS.getTagDataItem().getValue();
+	private static final Map<String, String> KNOWN_PREFIXES = createKnownPrefixes();
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+	private final CodecContext context;
+	private final CBORStreamReader reader;
+	private final ArrayList<String> attributeNames;
+	private final ArrayList<String> attributeValues;
+	private XMLStreamWriter writer;
+	private Map<String, String> prefixes;
+	private Frame[] frames;
+	private int depth;
+
+
+	/**
+	 * Transcode the specified CBOR message into an XML document using the global dictionary.
+	 *
+	 * @param cborData CBOR encoded IF-MAP request or response
+	 * @return UTF-8 encoded XML document
+	 * @throws CBORDeserializationException if the CBOR data cannot be read or transcoded
+	 */
+	public static byte[] transcode(byte[] cborData) throws CBORDeserializationException {
+		return transcode(cborData, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Transcode the specified CBOR message into an XML document using the dictionary of the specified context.
+	 *
+	 * @param cborData CBOR encoded IF-MAP request or response
+	 * @param context Codec context providing the dictionary
+	 * @return UTF-8 encoded XML document
+	 * @throws CBORDeserializationException if the CBOR data cannot be read or transcoded
+	 */
+	public static byte[] transcode(byte[] cborData, CodecContext context) throws CBORDeserializationException {
+		if(cborData == null) {
+			throw new IllegalArgumentException("CBOR data must not be null");
+		}
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+		transcode(new ByteArrayInputStream(cborData), bos, context);
+
+		return bos.toByteArray();
+	}
+
+
+	/**
+	 * Transcode the CBOR message read from the specified stream and write a UTF-8 encoded XML document to the
+	 * target stream. The global dictionary is used.
+	 *
+	 * @param cborStream Stream containing a CBOR encoded IF-MAP request or response
+	 * @param xmlStream Stream to write the XML document to
+	 * @throws CBORDeserializationException if the CBOR data cannot be read or transcoded
+	 */
+	public static void transcode(InputStream cborStream, OutputStream xmlStream) throws CBORDeserializationException {
+		transcode(cborStream, xmlStream, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Transcode the CBOR message read from the specified stream and write a UTF-8 encoded XML document to the
+	 * target stream. The dictionary of the specified context is used.
+	 *
+	 * @param cborStream Stream containing a CBOR encoded IF-MAP request or response
+	 * @param xmlStream Stream to write the XML document to
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORDeserializationException if the CBOR data cannot be read or transcoded
+	 */
+	public static void transcode(InputStream cborStream, OutputStream xmlStream, CodecContext context) throws CBORDeserializationException {
+		if(xmlStream == null) {
+			throw new IllegalArgumentException("XML stream must not be null");
+		}
+
+		XMLStreamWriter writer;
+		try {
+			writer = OUTPUT_FACTORY.createXMLStreamWriter(xmlStream, "UTF-8");
+		}
+		catch(XMLStreamException ex) {
+			throw new CBORDeserializationException("Error during XML writing, see nested exception for details", ex);
+		}
+
+		try {
+			writer.writeStartDocument("UTF-8", "1.0");
+			transcode(cborStream, writer, context);
+			writer.writeEndDocument();
+			writer.flush();
+		}
+		catch(XMLStreamException ex) {
+			throw new CBORDeserializationException("Error during XML writing, see nested exception for details", ex);
+		}
+		finally {
+			try {
+				writer.close();
+			}
+			catch(XMLStreamException ex) {
+				log.warn("Closing XML writer failed", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Transcode the CBOR message read from the specified stream and write its root element to the specified
+	 * writer. The writer is neither started nor ended, so the message may be wrapped into a SOAP envelope or
+	 * any other document. There must be no default namespace in scope of the writer, since nested elements are
+	 * written without namespace. The stream is read up to the end of the message, it should be buffered.
+	 *
+	 * @param cborStream Stream containing a CBOR encoded IF-MAP request or response
+	 * @param writer Writer to write the XML elements to
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORDeserializationException if the CBOR data cannot be read or transcoded
+	 */
+	public static void transcode(InputStream cborStream, XMLStreamWriter writer, CodecContext context) throws CBORDeserializationException {
+		if(cborStream == null) {
+			throw new IllegalArgumentException("CBOR stream must not be null");
+		}
+
+		if(writer == null) {
+			throw new IllegalArgumentException("XML writer must not be null");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		try {
+			CBORToXMLTranscoder transcoder = new CBORToXMLTranscoder(cborStream, writer, context);
+
+			transcoder.transcodeMessage();
+		}
+		catch(XMLStreamException ex) {
+			throw new CBORDeserializationException("Error during XML writing, see nested exception for details", ex);
+		}
+		catch(IOException ex) {
+			throw new CBORDeserializationException("Reading CBOR data failed, see nested exception for details", ex);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORDeserializationException("RuntimeException during transcoding, see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Create a new transcoder for a single message.
+	 *
+	 * @param cborStream Stream containing the CBOR data
+	 * @param writer Writer to write the XML elements to
+	 * @param context Codec context providing the dictionary
+	 */
+	private CBORToXMLTranscoder(final InputStream cborStream, final XMLStreamWriter writer, final CodecContext context) {
+		this.context = context;
+		this.reader = new CBORStreamReader(cborStream, context.getDecodeOptions().getDecodeLimits());
+		this.attributeNames = new ArrayList<>();
+		this.attributeValues = new ArrayList<>();
+		this.writer = writer;
+		this.prefixes = new HashMap<>();
+		this.frames = new Frame[INITIAL_DEPTH];
+		this.depth = 0;
+	}
+
+
+	/**
+	 * Transcode the message. The message is an array containing namespace, name, attributes and nested
+	 * elements of the root element.
+	 *
+	 * @throws IOException if reading the CBOR data failed
+	 * @throws XMLStreamException if writing the XML failed
+	 * @throws CBORDeserializationException if the CBOR data cannot be transcoded
+	 */
+	private void transcodeMessage() throws IOException, XMLStreamException, CBORDeserializationException {
+		if(this.reader.readArrayHeader() != 4) {
+			throw new CBORDeserializationException("Message array must contain exactly one element");
+		}
+
+		DataItem namespace = this.reader.readDataItem();
+		DataItem elementName = this.reader.readDataItem();
+
+		if(AbstractDeserializerManager.isSimpleValueNull(namespace)) {
+			throw new CBORDeserializationException("Root element must have a namespace");
+		}
+
+		this.transcodeElement(namespace, elementName, null, false);
+	}
+
+
+	/**
+	 * Transcode the element whose namespace and name have just been read, including all nested elements.
+	 * The reader is left behind the end of the element.
+	 *
+	 * @param namespace Namespace of the element
+	 * @param elementName Name of the element
+	 * @param parentEntry Dictionary entry of the parent element, may be null
+	 * @param extendedIdentifier true if the element is the root of an extended identifier
+	 * @throws IOException if reading the CBOR data failed
+	 * @throws XMLStreamException if writing the XML failed
+	 * @throws CBORDeserializationException if the CBOR data cannot be transcoded
+	 */
+	private void transcodeElement(final DataItem namespace, final DataItem elementName, final DictionarySimpleElement parentEntry,
+								  final boolean extendedIdentifier) throws IOException, XMLStreamException, CBORDeserializationException {
+		final int baseDepth = this.depth;
+		DataItem currentNamespace = namespace;
+		DataItem currentName = elementName;
+		DictionarySimpleElement currentParent = parentEntry;
+		boolean checkExtended = !extendedIdentifier;
+
+		while(true) {
+			if(checkExtended && isExtendedIdentifier(currentName)) {
+				this.transcodeExtendedIdentifier(currentNamespace, currentName);
+			}
+			else {
+				this.startElement(currentNamespace, currentName, currentParent);
+			}
+
+			checkExtended = true;
+
+			// Close all elements whose nested elements have been written completely
+			while(this.depth > baseDepth && this.frames[this.depth - 1].remaining == 0) {
+				this.writer.writeEndElement();
+				this.frames[--this.depth].elementEntry = null;
+			}
+
+			if(this.depth == baseDepth) {
+				return;
+			}
+
+			Frame parent = this.frames[this.depth - 1];
+			parent.remaining--;
+
+			currentNamespace = this.reader.readDataItem();
+			currentName = this.reader.readDataItem();
+			currentParent = parent.elementEntry;
+		}
+	}
+
+
+	/**
+	 * Transcode an extended identifier into an identity whose name contains the escaped XML representation
+	 * of the extended identifier.
+	 *
+	 * @param namespace Namespace of the extended identifier
+	 * @param elementName Tagged name of the extended identifier
+	 * @throws IOException if reading the CBOR data failed
+	 * @throws XMLStreamException if writing the XML failed
+	 * @throws CBORDeserializationException if the CBOR data cannot be transcoded
+	 */
+	private void transcodeExtendedIdentifier(final DataItem namespace, final DataItem elementName) throws IOException, XMLStreamException, CBORDeserializationException {
+		if(AbstractDeserializerManager.isSimpleValueNull(namespace)) {
+			throw new CBORDeserializationException("Extended identifier must have a namespace");
+		}
+
+		XMLStreamWriter outerWriter = this.writer;
+		Map<String, String> outerPrefixes = this.prefixes;
+		StringWriter identifierXml = new StringWriter();
+
+		this.writer = OUTPUT_FACTORY.createXMLStreamWriter(identifierXml);
+		this.prefixes = new HashMap<>();
+		try {
+			this.transcodeElement(namespace, elementName, null, true);
+			this.writer.close();
+		}
+		finally {
+			this.writer = outerWriter;
+			this.prefixes = outerPrefixes;
+		}
+
+		this.attributeNames.clear();
+		this.attributeValues.clear();
+		this.addAttribute(CBORIdentity.NAME, identifierXml.toString());
+		this.addAttribute(CBORIdentity.TYPE, IfMapIdentityType.OTHER.getXmlName());
+		this.addAttribute(CBORIdentity.OTHER_TYPE_DEFINITION, XMLToCBORTranscoder.EXTENDED_TYPE_DEFINITION);
+
+		this.writeStartElement(IfMapNamespaces.IFMAP, CBORIdentity.XML_NAME, true);
+	}
+
+
+	/**
+	 * Read attributes and nested elements or value of the element whose namespace and name have just been
+	 * read and write its start tag. If the element has nested elements, a frame is pushed and the element
+	 * is left open. Otherwise the element is written completely.
+	 *
+	 * @param namespace Namespace of the element, simple value null for nested elements
+	 * @param elementName Name of the element
+	 * @param parentEntry Dictionary entry of the parent element, may be null
+	 * @throws IOException if reading the CBOR data failed
+	 * @throws XMLStreamException if writing the XML failed
+	 * @throws CBORDeserializationException if the CBOR data cannot be transcoded
+	 */
+	private void startElement(final DataItem namespace, final DataItem elementName, final DictionarySimpleElement parentEntry) throws IOException, XMLStreamException, CBORDeserializationException {
+		String namespaceUri;
+		String xmlName;
+		DictionarySimpleElement elementEntry;
+
+		if(AbstractDeserializerManager.isSimpleValueNull(namespace)) {
+			if(parentEntry instanceof DictionaryComplexElement) {
+				elementEntry = ((DictionaryComplexElement) parentEntry).reverseLookupNestedElement(elementName);
+			}
+			else {
+				elementEntry = null;
+			}
+
+			namespaceUri = null;
+			xmlName = elementEntry != null ? elementEntry.getXmlName() : AbstractDeserializerManager.getNestedTagXmlName(elementName, null);
+		}
+		else {
+			ElementDescriptor descriptor = AbstractDeserializerManager.resolveElement(namespace, elementName, this.context);
+
+			namespaceUri = descriptor.getNamespace();
+			xmlName = descriptor.getElementName();
+			elementEntry = descriptor.getElementEntry();
+		}
+
+		this.readAttributes(elementEntry);
+
+		if(this.reader.isArrayNext()) {
+			long nestedItems = this.reader.readArrayHeader();
+
+			if(nestedItems % 4 != 0) {
+				throw new CBORDeserializationException("Nested elements array of " + xmlName + " has invalid length: " + nestedItems);
+			}
+
+			if(nestedItems == 0) {
+				this.writeStartElement(namespaceUri, xmlName, true);
+			}
+			else {
+				this.writeStartElement(namespaceUri, xmlName, false);
+
+				Frame frame = this.pushFrame();
+				frame.elementEntry = elementEntry;
+				frame.remaining = nestedItems / 4;
+			}
+		}
+		else {
+			DataItem value = this.reader.readDataItem();
+
+			if(AbstractDeserializerManager.isSimpleValueNull(value)) {
+				this.writeStartElement(namespaceUri, xmlName, true);
+			}
+			else {
+				String text = null;
+				if(elementEntry instanceof DictionaryEnumValueElement) {
+					text = ((DictionaryEnumValueElement) elementEntry).reverseLookupEnumValue(value);
+				}
+
+				if(text == null) {
+					text = this.toXmlValue(value, xmlName);
+				}
+
+				this.writeStartElement(namespaceUri, xmlName, false);
+				this.writer.writeCharacters(text);
+				this.writer.writeEndElement();
+			}
+		}
+	}
+
+
+	/**
+	 * Read the attributes array of the current element and convert names and values into their XML
+	 * representation. Attributes with a null value are dropped.
+	 *
+	 * @param elementEntry Dictionary entry of the element, may be null
+	 * @throws IOException if reading the CBOR data failed
+	 * @throws CBORDeserializationException if the CBOR data cannot be transcoded
+	 */
+	private void readAttributes(final DictionarySimpleElement elementEntry) throws IOException, CBORDeserializationException {
+		this.attributeNames.clear();
+		this.attributeValues.clear();
+
+		long length = this.reader.readArrayHeader();
+		if(length % 2 != 0) {
+			throw new CBORDeserializationException("Attributes array has invalid length: " + length);
+		}
+
+		DataItem timestamp = null;
+		DataItem timestampFraction = null;
+		int timestampIndex = -1;
+
+		for(long i=0; i<length; i=i+2) {
+			DataItem attributeName = this.reader.readDataItem();
+			DataItem value = this.reader.readDataItem();
+			DictionarySimpleAttribute attributeEntry = elementEntry != null ? elementEntry.reverseLookupAttribute(attributeName) : null;
+			String xmlName = attributeEntry != null ? attributeEntry.getXmlName() : AbstractDeserializerManager.getAttributeXmlName(attributeName, null);
+
+			if(AbstractDeserializerManager.isSimpleValueNull(value)) {
+				continue;
+			}
+
+			if(AbstractMetadata.IFMAP_TIMESTAMP_FRACTION.equals(xmlName)) {
+				timestampFraction = value;
+			}
+			else if(AbstractMetadata.IFMAP_TIMESTAMP.equals(xmlName) && hasTag(value, DATE_TIME_EPOCH_TAG)) {
+				// Converted after all attributes are read, the fraction follows the timestamp
+				timestamp = value;
+				timestampIndex = this.attributeNames.size();
+				this.addAttribute(xmlName, null);
+			}
+			else {
+				String xmlValue = null;
+				if(attributeEntry instanceof DictionaryEnumValueAttribute) {
+					xmlValue = ((DictionaryEnumValueAttribute) attributeEntry).reverseLookupEnumValue(value);
+				}
+
+				this.addAttribute(xmlName, xmlValue != null ? xmlValue : this.toXmlValue(value, xmlName));
+			}
+		}
+
+		if(timestampIndex >= 0) {
+			try {
+				this.attributeValues.set(timestampIndex, TimestampHelper.toXsdDateTimeWithFraction(TimestampHelper.fromEpochTimeDataItem(timestamp, timestampFraction)));
+			}
+			catch(IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+				throw new CBORDeserializationException("Invalid value for " + AbstractMetadata.IFMAP_TIMESTAMP + ", see nested exception for details", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Convert a value which is not an enum value into its XML representation.
+	 *
+	 * @param value Data item of the value
+	 * @param xmlName XML name of the attribute or element, used for error messages
+	 * @return XML representation of the value
+	 * @throws CBORDeserializationException if the value has an unsupported type
+	 */
+	private String toXmlValue(final DataItem value, final String xmlName) throws CBORDeserializationException {
+		try {
+			if(value.hasTag()) {
+				long tag = value.getTag().getValue();
+
+				if(tag == DATE_TIME_EPOCH_TAG || tag == DATE_TIME_STRING_TAG) {
+					return TimestampHelper.toXsdDateTime(AbstractDeserializerManager.processZonedDateTimeItem(value, true));
+				}
+				else if(tag == IPV4_ADDRESS_TAG || tag == IPV6_ADDRESS_TAG) {
+					return AbstractDeserializerManager.processInetAddressItem(value, true).getHostAddress();
+				}
+				else if(tag == MAC_ADDRESS_TAG) {
+					return new CBORMacAddress(AbstractDeserializerManager.processByteStringItem(value, true)).toMacString();
+				}
+			}
+
+			switch(value.getMajorType()) {
+				case UNICODE_STRING:
+					return ((UnicodeString) value).getString();
+				case UNSIGNED_INTEGER:
+					return ((UnsignedInteger) value).getValue().toString();
+				case NEGATIVE_INTEGER:
+					return ((NegativeInteger) value).getValue().toString();
+				case SPECIAL:
+					if(((Special) value).getSpecialType() == SpecialType.SIMPLE_VALUE) {
+						SimpleValueType type = ((SimpleValue) value).getSimpleValueType();
+
+						if(type == SimpleValueType.TRUE || type == SimpleValueType.FALSE) {
+							return Boolean.toString(type == SimpleValueType.TRUE);
+						}
+					}
+
+					return Double.toString(AbstractDeserializerManager.readDouble(value));
+				default:
+					throw new CBORDeserializationException("Unsupported major type for value of " + xmlName + ": " + value.getMajorType());
+			}
+		}
+		catch(IllegalArgumentException | ArithmeticException ex) {
+			throw new CBORDeserializationException("Invalid value for " + xmlName + ", see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Write the start tag of an element including the current attributes. Namespaces which are not yet in
+	 * scope are declared on the element.
+	 *
+	 * @param namespaceUri Namespace of the element, null for nested elements
+	 * @param localName Name of the element
+	 * @param empty true if the element has no content
+	 * @throws XMLStreamException if writing the XML failed
+	 */
+	private void writeStartElement(final String namespaceUri, final String localName, final boolean empty) throws XMLStreamException {
+		if(namespaceUri == null) {
+			if(empty) {
+				this.writer.writeEmptyElement(localName);
+			}
+			else {
+				this.writer.writeStartElement(localName);
+			}
+		}
+		else {
+			String prefix = this.writer.getPrefix(namespaceUri);
+			boolean declare = StringUtils.isEmpty(prefix);
+
+			if(declare) {
+				prefix = this.prefixFor(namespaceUri);
+			}
+
+			if(empty) {
+				this.writer.writeEmptyElement(prefix, localName, namespaceUri);
+			}
+			else {
+				this.writer.writeStartElement(prefix, localName, namespaceUri);
+			}
+
+			if(declare) {
+				this.writer.writeNamespace(prefix, namespaceUri);
+				this.writer.setPrefix(prefix, namespaceUri);
+			}
+		}
+
+		for(int i=0; i<this.attributeNames.size(); i++) {
+			this.writer.writeAttribute(this.attributeNames.get(i), this.attributeValues.get(i));
+		}
+	}
+
+
+	/**
+	 * Get the prefix to declare for the specified namespace. Each namespace keeps its prefix for the whole
+	 * message, generated prefixes skip prefixes which are already bound by the writer.
+	 */
+	private String prefixFor(final String namespaceUri) {
+		String rv = this.prefixes.get(namespaceUri);
+
+		if(rv == null) {
+			rv = KNOWN_PREFIXES.get(namespaceUri);
+
+			int counter = this.prefixes.size();
+			while(rv == null || !StringUtils.isEmpty(this.writer.getNamespaceContext().getNamespaceURI(rv))) {
+				rv = GENERATED_PREFIX + (++counter);
+			}
+
+			this.prefixes.put(namespaceUri, rv);
+		}
+
+		return rv;
+	}
+
+
+	private void addAttribute(final String name, final String value) {
+		this.attributeNames.add(name);
+		this.attributeValues.add(value);
+	}
+
+
+	private Frame pushFrame() {
+		if(this.depth == this.frames.length) {
+			this.frames = Arrays.copyOf(this.frames, this.depth * 2);
+		}
+
+		Frame frame = this.frames[this.depth];
+		if(frame == null) {
+			frame = new Frame();
+			this.frames[this.depth] = frame;
+		}
+
+		this.depth++;
+		return frame;
+	}
+
+
+	private static boolean isExtendedIdentifier(final DataItem elementName) {
+		return hasTag(elementName, EXTENDED_IDENTIFIER_TAG);
+	}
+
+
+	private static boolean hasTag(final DataItem item, final long tag) {
+		return item.hasTag() && item.getTag().getValue() == tag;
+	}
+
+
+	private static Map<String, String> createKnownPrefixes() {
+		HashMap<String, String> rv = new HashMap<>();
+		rv.put(IfMapNamespaces.IFMAP, "ifmap");
+		rv.put(IfMapNamespaces.IFMAP_METADATA, "meta");
+		rv.put(IfMapNamespaces.IFMAP_OPEARATIONAL_METADATA, "opmeta");
+		rv.put(IfMapNamespaces.IFMAP_SERVER, "server");
+
+		return Collections.unmodifiableMap(rv);
+	}
+
+
+	/**
+	 * State of an open element. Frames are reused for elements at the same depth.
+	 */
+	private static final class Frame {
+		private DictionarySimpleElement elementEntry;
+		private long remaining;
+	}
+}
@@ -0,0 +1,763 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import co.nstant.in.cbor.CborException;
+import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.enums.CBORTags;
+import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+
+
+/**
+ * Transcodes IF-MAP 2.2 XML messages into CBOR without building domain objects.
+ * The XML is read with a StAX {@link XMLStreamReader} and every element is written to the CBOR output as
+ * soon as it is read, using the same dictionary mappings as {@link de.decoit.simu.cbor.ifmap.AbstractElementBase}.
+ * Elements in a namespace are written as top level elements, elements without namespace are looked up as
+ * nested elements of their parent. Values which the domain classes do not encode as text strings (IP and
+ * MAC addresses, timestamps and integers) are converted as defined by {@link XMLValueTypes}. The result can
+ * be read by {@link de.decoit.simu.cbor.ifmap.CBORDeserializer} like a serialized domain object. Attributes
+ * are written in document order, so the bytes only equal the output of the serializer if the XML lists the
+ * attributes in the order the domain classes write them; otherwise both decode to equal objects.
+ *
+ * Requests and responses may be wrapped into a SOAP 1.1 or 1.2 envelope, in that case the SOAP header is
+ * skipped and the first element of the SOAP body is transcoded. Extended identifiers, which IF-MAP 2.2
+ * transports as escaped XML in the name of an identity of type "other", are transcoded into tagged extended
+ * identifiers.
+ *
+ * The transcoder keeps one frame per open XML element and the encoded output. Since CBOR arrays are written
+ * with definite length, the output is buffered until the message is complete, see {@link CBORBufferWriter}.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public final class XMLToCBORTranscoder {
+	public static final String SOAP_11_ENVELOPE = "http://schemas.xmlsoap.org/soap/envelope/";
+	public static final String SOAP_12_ENVELOPE = "http://www.w3.org/2003/05/soap-envelope";
+	public static final String EXTENDED_TYPE_DEFINITION = "extended";
+	private static final String ENVELOPE = "Envelope";
+	private static final String BODY = "Body";
+	private static final int INITIAL_DEPTH = 16;
+	private static final long EXTENDED_IDENTIFIER_TAG = CBORTags.IF_MAP_EXTENDED_IDENTIFIER.getTagDataItem().getValue();
+	private static final long IPV4_ADDRESS_TAG = CBORTags.IPV4_ADDRESS.getTagDataItem().getValue();
+	private static final long IPV6_ADDRESS_TAG = CBORTags.IPV6_ADDRESS.getTagDataItem().getValue();
+	private static final long MAC_ADDRESS_TAG = CBORTags.MAC_ADDRESS.getTagDataItem().getValue();
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+	private final CodecContext context;
+	private final CBORBufferWriter writer;
+	private final StringBuilder text;
+	private Frame[] frames;
+	private int depth;
+
+
+	/**
+	 * Transcode the XML message read from the specified stream using the global dictionary.
+	 *
+	 * @param xmlStream Stream containing an IF-MAP XML request or response, optionally wrapped into a SOAP envelope
+	 * @return CBOR data representing the message
+	 * @throws CBORSerializationException if the XML cannot be read or transcoded
+	 */
+	public static byte[] transcode(InputStream xmlStream) throws CBORSerializationException {
+		return transcode(xmlStream, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Transcode the XML message read from the specified stream using the dictionary of the specified context.
+	 *
+	 * @param xmlStream Stream containing an IF-MAP XML request or response, optionally wrapped into a SOAP envelope
+	 * @param context Codec context providing the dictionary
+	 * @return CBOR data representing the message
+	 * @throws CBORSerializationException if the XML cannot be read or transcoded
+	 */
+	public static byte[] transcode(InputStream xmlStream, CodecContext context) throws CBORSerializationException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+		transcode(xmlStream, bos, context);
+
+		return bos.toByteArray();
+	}
+
+
+	/**
+	 * Transcode the XML message read from the specified stream and write the CBOR data to the target stream.
+	 * The global dictionary is used.
+	 *
+	 * @param xmlStream Stream containing an IF-MAP XML request or response, optionally wrapped into a SOAP envelope
+	 * @param targetStream Stream to write the CBOR data to
+	 * @throws CBORSerializationException if the XML cannot be read or transcoded
+	 */
+	public static void transcode(InputStream xmlStream, OutputStream targetStream) throws CBORSerializationException {
+		transcode(xmlStream, targetStream, CodecContext.getDefault());
+	}
+
+
+	/**
+	 * Transcode the XML message read from the specified stream and write the CBOR data to the target stream.
+	 * The dictionary of the specified context is used.
+	 *
+	 * @param xmlStream Stream containing an IF-MAP XML request or response, optionally wrapped into a SOAP envelope
+	 * @param targetStream Stream to write the CBOR data to
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if the XML cannot be read or transcoded
+	 */
+	public static void transcode(InputStream xmlStream, OutputStream targetStream, CodecContext context) throws CBORSerializationException {
+		if(xmlStream == null) {
+			throw new IllegalArgumentException("XML stream must not be null");
+		}
+
+		XMLStreamReader reader;
+		try {
+			reader = INPUT_FACTORY.createXMLStreamReader(xmlStream);
+		}
+		catch(XMLStreamException ex) {
+			throw new CBORSerializationException("Error during XML parsing, see nested exception for details", ex);
+		}
+
+		try {
+			transcode(reader, targetStream, context);
+		}
+		finally {
+			try {
+				reader.close();
+			}
+			catch(XMLStreamException ex) {
+				log.warn("Closing XML reader failed", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Transcode the XML message read by the specified reader and write the CBOR data to the target stream.
+	 * The reader must be namespace aware. It must be positioned before the root element of the message or
+	 * the SOAP envelope and is left behind the end of the message.
+	 *
+	 * @param reader Reader providing an IF-MAP XML request or response, optionally wrapped into a SOAP envelope
+	 * @param targetStream Stream to write the CBOR data to
+	 * @param context Codec context providing the dictionary
+	 * @throws CBORSerializationException if the XML cannot be read or transcoded
+	 */
+	public static void transcode(XMLStreamReader reader, OutputStream targetStream, CodecContext context) throws CBORSerializationException {
+		if(reader == null) {
+			throw new IllegalArgumentException("XML reader must not be null");
+		}
+
+		if(targetStream == null) {
+			throw new IllegalArgumentException("Target stream must not be null");
+		}
+
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		try {
+			XMLToCBORTranscoder transcoder = new XMLToCBORTranscoder(context);
+
+			moveToMessage(reader);
+
+			transcoder.writer.startArray();
+			transcoder.transcodeElement(reader, false);
+			transcoder.writer.endArray();
+
+			transcoder.writer.writeTo(targetStream);
+		}
+		catch(XMLStreamException ex) {
+			throw new CBORSerializationException("Error during XML parsing, see nested exception for details", ex);
+		}
+		catch(CborException ex) {
+			throw new CBORSerializationException("CBOR encoding failed, see nested exception for details", ex);
+		}
+		catch(IOException ex) {
+			throw new CBORSerializationException("Writing to target stream failed, see nested exception for details", ex);
+		}
+		catch(RuntimeException ex) {
+			throw new CBORSerializationException("RuntimeException during transcoding, see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Create a new transcoder for a single message.
+	 *
+	 * @param context Codec context providing the dictionary
+	 */
+	private XMLToCBORTranscoder(final CodecContext context) {
+		this.context = context;
+		this.writer = new CBORBufferWriter();
+		this.text = new StringBuilder();
+		this.frames = new Frame[INITIAL_DEPTH];
+		this.depth = 0;
+	}
+
+
+	/**
+	 * Move the reader to the start of the IF-MAP message. If the document is a SOAP envelope, the reader is
+	 * moved to the first element of the SOAP body.
+	 *
+	 * @param reader XML reader
+	 * @throws XMLStreamException if reading the XML failed
+	 * @throws CBORSerializationException if the SOAP body is empty
+	 */
+	private static void moveToMessage(final XMLStreamReader reader) throws XMLStreamException, CBORSerializationException {
+		if(reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+			reader.nextTag();
+		}
+
+		if(!isSoapElement(reader, ENVELOPE)) {
+			return;
+		}
+
+		// Skip the SOAP header and any other element before the body
+		while(reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if(isSoapElement(reader, BODY)) {
+				if(reader.nextTag() != XMLStreamConstants.START_ELEMENT) {
+					throw new CBORSerializationException("SOAP body does not contain an IF-MAP message");
+				}
+
+				return;
+			}
+
+			skipElement(reader);
+		}
+
+		throw new CBORSerializationException("SOAP envelope does not contain a body");
+	}
+
+
+	private static boolean isSoapElement(final XMLStreamReader reader, final String localName) {
+		String namespace = reader.getNamespaceURI();
+
+		return localName.equals(reader.getLocalName()) && (SOAP_11_ENVELOPE.equals(namespace) || SOAP_12_ENVELOPE.equals(namespace));
+	}
+
+
+	/**
+	 * Skip the element the reader is positioned at, including all nested elements.
+	 * The reader is left at the end of the element.
+	 *
+	 * @param reader XML reader positioned at the start of an element
+	 * @throws XMLStreamException if reading the XML failed
+	 */
+	private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+		int level = 1;
+
+		while(level > 0) {
+			int event = reader.next();
+
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				level++;
+			}
+			else if(event == XMLStreamConstants.END_ELEMENT) {
+				level--;
+			}
+		}
+	}
+
+
+	/**
+	 * Transcode the element the reader is positioned at, including all nested elements.
+	 * The reader is left at the end of the element.
+	 *
+	 * @param reader XML reader positioned at the start of an element
+	 * @param extendedIdentifier true if the element is the root of an extended identifier
+	 * @throws XMLStreamException if reading the XML failed
+	 * @throws CborException if encoding a dictionary mapping failed
+	 * @throws CBORSerializationException if the XML cannot be transcoded
+	 */
+	private void transcodeElement(final XMLStreamReader reader, final boolean extendedIdentifier) throws XMLStreamException, CborException, CBORSerializationException {
+		final int baseDepth = this.depth;
+		int event = reader.getEventType();
+
+		while(true) {
+			switch(event) {
+				case XMLStreamConstants.START_ELEMENT:
+					if(this.depth > 0) {
+						this.openNestedElements(this.frames[this.depth - 1]);
+					}
+
+					if(isExtendedIdentity(reader)) {
+						this.transcodeExtendedIdentifier(reader.getAttributeValue(null, CBORIdentity.NAME));
+						skipElement(reader);
+
+						if(this.depth == baseDepth) {
+							return;
+						}
+					}
+					else {
+						this.startElement(reader, extendedIdentifier && this.depth == baseDepth);
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					this.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					this.endElement();
+
+					if(this.depth == baseDepth) {
+						return;
+					}
+					break;
+				case XMLStreamConstants.END_DOCUMENT:
+					throw new CBORSerializationException("Unexpected end of XML document");
+				default:
+					// Comments and processing instructions are not transcoded
+					break;
+			}
+
+			event = reader.next();
+		}
+	}
+
+
+	/**
+	 * Transcode an extended identifier from its escaped XML representation.
+	 *
+	 * @param identifierXml XML representation of the extended identifier
+	 * @throws XMLStreamException if reading the XML failed
+	 * @throws CborException if encoding a dictionary mapping failed
+	 * @throws CBORSerializationException if the XML cannot be transcoded
+	 */
+	private void transcodeExtendedIdentifier(final String identifierXml) throws XMLStreamException, CborException, CBORSerializationException {
+		if(StringUtils.isBlank(identifierXml)) {
+			throw new CBORSerializationException("Extended identifier has no XML representation");
+		}
+
+		XMLStreamReader identifierReader = INPUT_FACTORY.createXMLStreamReader(new StringReader(identifierXml));
+		try {
+			identifierReader.nextTag();
+
+			if(StringUtils.isEmpty(identifierReader.getNamespaceURI())) {
+				throw new CBORSerializationException("Extended identifier must be namespace qualified: " + identifierReader.getLocalName());
+			}
+
+			this.transcodeElement(identifierReader, true);
+		}
+		finally {
+			identifierReader.close();
+		}
+	}
+
+
+	/**
+	 * Write namespace, name and attributes of the element the reader is positioned at and push a new frame.
+	 *
+	 * @param reader XML reader positioned at the start of an element
+	 * @param extendedIdentifier true if the element name must be tagged as extended identifier
+	 * @throws CborException if encoding a dictionary mapping failed
+	 * @throws CBORSerializationException if the XML cannot be transcoded
+	 */
+	private void startElement(final XMLStreamReader reader, final boolean extendedIdentifier) throws CborException, CBORSerializationException {
+		Frame parent = this.depth > 0 ? this.frames[this.depth - 1] : null;
+		Frame frame = this.pushFrame();
+		String namespace = reader.getNamespaceURI();
+		String elementName = reader.getLocalName();
+
+		if(!StringUtils.isEmpty(namespace)) {
+			// Top level element, write namespace and name
+			DictionaryNamespace namespaceEntry = this.context.lookupNamespace(namespace);
+			frame.elementEntry = namespaceEntry != null ? namespaceEntry.lookupElement(elementName) : null;
+
+			if(namespaceEntry != null) {
+				this.writer.writeDataItem(namespaceEntry.getCborName());
+			}
+			else {
+				this.writer.writeString(namespace);
+			}
+
+			DataItem cborName = frame.elementEntry != null ? frame.elementEntry.getCborName() : null;
+			if(extendedIdentifier && (cborName == null || !cborName.hasTag())) {
+				this.writer.writeTag(EXTENDED_IDENTIFIER_TAG);
+			}
+
+			this.writeName(cborName, elementName);
+
+			frame.typed = XMLValueTypes.isTyped(namespace);
+			frame.topLevel = true;
+		}
+		else {
+			// Nested element, namespace is always null
+			if(parent == null) {
+				throw new CBORSerializationException("Root element must be namespace qualified: " + elementName);
+			}
+
+			if(parent.elementEntry instanceof DictionaryComplexElement) {
+				frame.elementEntry = ((DictionaryComplexElement) parent.elementEntry).lookupNestedElement(elementName);
+			}
+			else {
+				frame.elementEntry = null;
+			}
+
+			this.writer.writeNull();
+			this.writeName(frame.elementEntry != null ? frame.elementEntry.getCborName() : null, elementName);
+
+			frame.typed = parent.typed;
+			frame.topLevel = false;
+		}
+
+		frame.name = elementName;
+		frame.valueType = XMLValueTypes.elementType(frame.typed, elementName);
+		frame.nestedOpen = false;
+
+		this.writeAttributes(reader, frame);
+		this.text.setLength(0);
+	}
+
+
+	/**
+	 * Write the attributes array of the element the reader is positioned at.
+	 * Namespace qualified attributes like xsi:type are not part of the IF-MAP data model and are skipped.
+	 *
+	 * @param reader XML reader positioned at the start of an element
+	 * @param frame Frame of the element
+	 * @throws CborException if encoding a dictionary mapping failed
+	 * @throws CBORSerializationException if an attribute value cannot be converted
+	 */
+	private void writeAttributes(final XMLStreamReader reader, final Frame frame) throws CborException, CBORSerializationException {
+		this.writer.startArray();
+
+		for(int i=0; i<reader.getAttributeCount(); i++) {
+			if(!StringUtils.isEmpty(reader.getAttributeNamespace(i))) {
+				continue;
+			}
+
+			String attributeName = reader.getAttributeLocalName(i);
+			String value = reader.getAttributeValue(i);
+			DictionarySimpleAttribute attributeEntry = frame.elementEntry != null ? frame.elementEntry.lookupAttribute(attributeName) : null;
+			XMLValueType type = XMLValueTypes.attributeType(frame.typed, frame.topLevel, frame.name, attributeName);
+
+			this.writeName(attributeEntry != null ? attributeEntry.getCborName() : null, attributeName);
+
+			try {
+				switch(type) {
+					case IFMAP_TIMESTAMP:
+						ZonedDateTime timestamp = TimestampHelper.fromXsdDateTime(value);
+						DictionarySimpleAttribute fractionEntry = frame.elementEntry != null ? frame.elementEntry.lookupAttribute(AbstractMetadata.IFMAP_TIMESTAMP_FRACTION) : null;
+
+						this.writer.writeDataItem(TimestampHelper.toEpochTimeDataItem(timestamp));
+						this.writeName(fractionEntry != null ? fractionEntry.getCborName() : null, AbstractMetadata.IFMAP_TIMESTAMP_FRACTION);
+						this.writer.writeDataItem(TimestampHelper.toIfMapTimestampFractionDataItem(timestamp));
+						break;
+					case STRING:
+						if(attributeEntry instanceof DictionaryEnumValueAttribute) {
+							DataItem enumValue = ((DictionaryEnumValueAttribute) attributeEntry).lookupEnumValue(value);
+
+							if(enumValue != null) {
+								this.writer.writeDataItem(enumValue);
+								break;
+							}
+						}
+
+						this.writer.writeString(value);
+						break;
+					default:
+						this.writeTypedValue(type, value);
+						break;
+				}
+			}
+			catch(DateTimeParseException | UnknownHostException | IllegalArgumentException ex) {
+				throw new CBORSerializationException("Invalid value for attribute " + attributeName + ": " + value, ex);
+			}
+		}
+
+		this.writer.endArray();
+	}
+
+
+	/**
+	 * Open the nested elements array of the specified element, if it is not open yet.
+	 *
+	 * @param frame Frame of the parent element
+	 * @throws CBORSerializationException if the element contains text next to the nested elements
+	 */
+	private void openNestedElements(final Frame frame) throws CBORSerializationException {
+		this.checkNoMixedContent();
+
+		if(!frame.nestedOpen) {
+			this.writer.startArray();
+			frame.nestedOpen = true;
+		}
+	}
+
+
+	/**
+	 * Write the nested elements or value of the current element and pop its frame.
+	 *
+	 * @throws CborException if encoding a dictionary mapping failed
+	 * @throws CBORSerializationException if the element value cannot be converted
+	 */
+	private void endElement() throws CborException, CBORSerializationException {
+		Frame frame = this.frames[--this.depth];
+
+		if(frame.nestedOpen) {
+			this.checkNoMixedContent();
+			this.writer.endArray();
+		}
+		else if(StringUtils.isWhitespace(this.text)) {
+			// Empty element, write an empty nested elements array
+			this.writer.startArray();
+			this.writer.endArray();
+		}
+		else {
+			String value = this.text.toString();
+
+			try {
+				if(frame.valueType == XMLValueType.STRING) {
+					DataItem enumValue = null;
+					if(frame.elementEntry instanceof DictionaryEnumValueElement) {
+						enumValue = ((DictionaryEnumValueElement) frame.elementEntry).lookupEnumValue(value);
+					}
+
+					if(enumValue != null) {
+						this.writer.writeDataItem(enumValue);
+					}
+					else {
+						this.writer.writeString(value);
+					}
+				}
+				else {
+					this.writeTypedValue(frame.valueType, value.trim());
+				}
+			}
+			catch(DateTimeParseException | UnknownHostException | IllegalArgumentException ex) {
+				throw new CBORSerializationException("Invalid value for element " + frame.name + ": " + value, ex);
+			}
+		}
+
+		frame.elementEntry = null;
+		frame.name = null;
+		this.text.setLength(0);
+	}
+
+
+	/**
+	 * Write a value which is not encoded as text string.
+	 *
+	 * @param type Type of the value
+	 * @param value XML representation of the value
+	 * @throws CborException if encoding failed
+	 * @throws UnknownHostException if an IPv6 address literal is invalid
+	 */
+	private void writeTypedValue(final XMLValueType type, final String value) throws CborException, UnknownHostException {
+		switch(type) {
+			case UNSIGNED_INTEGER:
+				this.writer.writeUnsignedInteger(Long.parseLong(value));
+				break;
+			case DATE_TIME:
+				this.writer.writeDataItem(TimestampHelper.toEpochTimeDataItem(TimestampHelper.fromXsdDateTime(value)));
+				break;
+			case IP_ADDRESS:
+				byte[] address = parseIpAddress(value);
+				this.writer.writeTaggedByteString(address.length == 4 ? IPV4_ADDRESS_TAG : IPV6_ADDRESS_TAG, address);
+				break;
+			case MAC_ADDRESS:
+				this.writer.writeTaggedByteString(MAC_ADDRESS_TAG, new CBORMacAddress(value).getValue());
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported value type: " + type);
+		}
+	}
+
+
+	private void writeName(final DataItem cborName, final String xmlName) throws CborException {
+		if(cborName != null) {
+			this.writer.writeDataItem(cborName);
+		}
+		else {
+			this.writer.writeString(xmlName);
+		}
+	}
+
+
+	private void checkNoMixedContent() throws CBORSerializationException {
+		if(!StringUtils.isWhitespace(this.text)) {
+			throw new CBORSerializationException("Mixed content is not supported: " + this.text.toString().trim());
+		}
+
+		this.text.setLength(0);
+	}
+
+
+	private Frame pushFrame() {
+		if(this.depth == this.frames.length) {
+			this.frames = Arrays.copyOf(this.frames, this.depth * 2);
+		}
+
+		Frame frame = this.frames[this.depth];
+		if(frame == null) {
+			frame = new Frame();
+			this.frames[this.depth] = frame;
+		}
+
+		this.depth++;
+		return frame;
+	}
+
+
+	/**
+	 * Check if the reader is positioned at an identity which carries an extended identifier.
+	 */
+	private static boolean isExtendedIdentity(final XMLStreamReader reader) {
+		return IfMapNamespaces.IFMAP.equals(reader.getNamespaceURI())
+			   && CBORIdentity.XML_NAME.equals(reader.getLocalName())
+			   && IfMapIdentityType.OTHER.getXmlName().equals(reader.getAttributeValue(null, CBORIdentity.TYPE))
+			   && EXTENDED_TYPE_DEFINITION.equals(reader.getAttributeValue(null, CBORIdentity.OTHER_TYPE_DEFINITION));
+	}
+
+
+	/**
+	 * Parse an IP address literal. IPv4 addresses are parsed directly. IPv6 addresses are checked to
+	 * consist only of hex digits, colons, dots and an optional scope suffix before they are passed to
+	 * {@link InetAddress#getByName(java.lang.String)}, so that only address literals reach that method
+	 * and it never falls back to a name lookup. IPv4-mapped IPv6 addresses are returned as IPv4 addresses.
+	 *
+	 * @param value IP address literal
+	 * @return Address bytes in network byte order
+	 * @throws UnknownHostException if the IPv6 address literal is invalid
+	 */
+	private static byte[] parseIpAddress(final String value) throws UnknownHostException {
+		if(value.indexOf(':') >= 0) {
+			checkIpv6Literal(value);
+			return InetAddress.getByName(value).getAddress();
+		}
+
+		byte[] rv = new byte[4];
+		int octetIndex = 0;
+		int octet = -1;
+
+		for(int i=0; i<value.length(); i++) {
+			char c = value.charAt(i);
+
+			if(c >= '0' && c <= '9') {
+				octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+
+				if(octet > 255) {
+					throw new IllegalArgumentException("Invalid IPv4 address: " + value);
+				}
+			}
+			else if(c == '.' && octet >= 0 && octetIndex < 3) {
+				rv[octetIndex++] = (byte) octet;
+				octet = -1;
+			}
+			else {
+				throw new IllegalArgumentException("Invalid IPv4 address: " + value);
+			}
+		}
+
+		if(octetIndex != 3 || octet < 0) {
+			throw new IllegalArgumentException("Invalid IPv4 address: " + value);
+		}
+
+		rv[3] = (byte) octet;
+		return rv;
+	}
+
+
+	/**
+	 * Check that the specified string only contains the characters of an IPv6 address literal: hex
+	 * digits, colons and dots for an embedded IPv4 address, optionally followed by '%' and a scope ID
+	 * made of letters, digits, '.', '-' and '_'. The address part must start with a hex digit or colon.
+	 *
+	 * @param value IPv6 address literal
+	 * @throws UnknownHostException if the string contains other characters
+	 */
+	private static void checkIpv6Literal(final String value) throws UnknownHostException {
+		int scope = value.indexOf('%');
+		int addressEnd = scope >= 0 ? scope : value.length();
+
+		// The address must start with a hex digit or colon, otherwise getByName treats it as a host name
+		if(addressEnd == 0 || value.charAt(0) == '.') {
+			throw new UnknownHostException("Invalid IPv6 address literal: " + value);
+		}
+
+		for(int i=0; i<addressEnd; i++) {
+			char c = value.charAt(i);
+
+			if(!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == ':' || c == '.')) {
+				throw new UnknownHostException("Invalid IPv6 address literal: " + value);
+			}
+		}
+
+		if(scope >= 0) {
+			if(scope == value.length() - 1) {
+				throw new UnknownHostException("Invalid IPv6 address literal: " + value);
+			}
+
+			for(int i=scope+1; i<value.length(); i++) {
+				char c = value.charAt(i);
+
+				if(!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '.' || c == '-' || c == '_')) {
+					throw new UnknownHostException("Invalid IPv6 address literal: " + value);
+				}
+			}
+		}
+	}
+
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+		return factory;
+	}
+
+
+	/**
+	 * State of an open XML element. Frames are reused for elements at the same depth.
+	 */
+	private static final class Frame {
+		private DictionarySimpleElement elementEntry;
+		private String name;
+		private boolean typed;
+		private boolean topLevel;
+		private XMLValueType valueType;
+		private boolean nestedOpen;
+	}
+}
@@ -0,0 +1,51 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+
+
+/**
+ * Types of XML attribute and element values which are not encoded as CBOR text strings.
+ * The dictionary only maps names, the value types are defined by {@link XMLValueTypes}.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+enum XMLValueType {
+	/**
+	 * Text string or dictionary enum value
+	 */
+	STRING,
+	/**
+	 * Non-negative integer, encoded as unsigned integer
+	 */
+	UNSIGNED_INTEGER,
+	/**
+	 * xsd:dateTime, encoded as epoch time with full seconds
+	 */
+	DATE_TIME,
+	/**
+	 * The ifmap-timestamp attribute of metadata, encoded as epoch time followed by the ifmap-timestamp-fraction attribute
+	 */
+	IFMAP_TIMESTAMP,
+	/**
+	 * IPv4 or IPv6 address literal, encoded as tagged byte string
+	 */
+	IP_ADDRESS,
+	/**
+	 * MAC address, encoded as tagged byte string
+	 */
+	MAC_ADDRESS;
+}
@@ -0,0 +1,152 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import de.decoit.simu.cbor.ifmap.attributegroup.SearchTypeAttributeGroup;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORIpMac;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORLayer2Information;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORClientTime;
+import de.decoit.simu.cbor.ifmap.request.CBORNewSessionRequest;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+
+/**
+ * Types of the XML values which are not encoded as CBOR text strings by the domain classes.
+ * The domain classes type their values by name: every element or attribute called discovered-time is a
+ * date-time, every max-depth is an unsigned integer and so on, regardless of the element it belongs to.
+ * The names are taken from the constants of the domain classes, so both sides cannot drift apart.
+ * Only the value attribute is typed per element, it holds an address on the ip-address and mac-address
+ * identifiers and a plain string on the nested location-information element.
+ *
+ * Typing only applies below top level elements of the standard IF-MAP namespaces, vendor specific data is
+ * always transcoded as strings. The ifmap-timestamp attribute is the exception, it is typed on every top
+ * level element, so it is also handled for vendor specific metadata.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+final class XMLValueTypes {
+	private static final Set<String> TYPED_NAMESPACES;
+	private static final Map<String, XMLValueType> TYPES_BY_NAME;
+	private static final Map<String, XMLValueType> VALUE_TYPES_BY_ELEMENT;
+	private static final String VALUE = "value";
+
+
+	static {
+		HashSet<String> namespaces = new HashSet<>();
+		namespaces.add(IfMapNamespaces.IFMAP);
+		namespaces.add(IfMapNamespaces.IFMAP_METADATA);
+		namespaces.add(IfMapNamespaces.IFMAP_OPEARATIONAL_METADATA);
+		TYPED_NAMESPACES = Collections.unmodifiableSet(namespaces);
+
+		HashMap<String, XMLValueType> types = new HashMap<>();
+		types.put(CBOREvent.DISCOVERED_TIME, XMLValueType.DATE_TIME);
+		types.put(CBORIpMac.START_TIME, XMLValueType.DATE_TIME);
+		types.put(CBORIpMac.END_TIME, XMLValueType.DATE_TIME);
+		types.put(CBORClientTime.CURRENT_TIME, XMLValueType.DATE_TIME);
+		types.put(CBOREvent.MAGNITUDE, XMLValueType.UNSIGNED_INTEGER);
+		types.put(CBOREvent.CONFIDENCE, XMLValueType.UNSIGNED_INTEGER);
+		types.put(CBORLayer2Information.VLAN, XMLValueType.UNSIGNED_INTEGER);
+		types.put(CBORLayer2Information.PORT, XMLValueType.UNSIGNED_INTEGER);
+		types.put(SearchTypeAttributeGroup.MAX_DEPTH, XMLValueType.UNSIGNED_INTEGER);
+		types.put(SearchTypeAttributeGroup.MAX_SIZE, XMLValueType.UNSIGNED_INTEGER);
+		types.put(CBORNewSessionRequest.MAX_POLL_RESULT_SIZE, XMLValueType.UNSIGNED_INTEGER);
+		TYPES_BY_NAME = Collections.unmodifiableMap(types);
+
+		HashMap<String, XMLValueType> valueTypes = new HashMap<>();
+		valueTypes.put(CBORIpAddress.XML_NAME, XMLValueType.IP_ADDRESS);
+		valueTypes.put(CBORMacAddress.XML_NAME, XMLValueType.MAC_ADDRESS);
+		VALUE_TYPES_BY_ELEMENT = Collections.unmodifiableMap(valueTypes);
+	}
+
+
+	/**
+	 * Check if the values below a top level element of the specified namespace are typed.
+	 *
+	 * @param namespace XML namespace of the top level element
+	 * @return true if the values are typed, false otherwise
+	 */
+	static boolean isTyped(final String namespace) {
+		return TYPED_NAMESPACES.contains(namespace);
+	}
+
+
+	/**
+	 * Get the type of an element value.
+	 *
+	 * @param typed true if the enclosing top level element belongs to a standard IF-MAP namespace
+	 * @param elementName XML name of the element
+	 * @return Type of the value
+	 */
+	static XMLValueType elementType(final boolean typed, final String elementName) {
+		if(typed) {
+			XMLValueType rv = TYPES_BY_NAME.get(elementName);
+
+			if(rv != null) {
+				return rv;
+			}
+		}
+
+		return XMLValueType.STRING;
+	}
+
+
+	/**
+	 * Get the type of an attribute value.
+	 *
+	 * @param typed true if the enclosing top level element belongs to a standard IF-MAP namespace
+	 * @param topLevel true if the attribute belongs to the top level element itself
+	 * @param elementName XML name of the element the attribute belongs to
+	 * @param attributeName XML name of the attribute
+	 * @return Type of the value
+	 */
+	static XMLValueType attributeType(final boolean typed, final boolean topLevel, final String elementName, final String attributeName) {
+		if(typed) {
+			XMLValueType rv;
+			if(VALUE.equals(attributeName)) {
+				rv = topLevel ? VALUE_TYPES_BY_ELEMENT.get(elementName) : null;
+			}
+			else {
+				rv = TYPES_BY_NAME.get(attributeName);
+			}
+
+			if(rv != null) {
+				return rv;
+			}
+		}
+
+		if(topLevel && AbstractMetadata.IFMAP_TIMESTAMP.equals(attributeName)) {
+			return XMLValueType.IFMAP_TIMESTAMP;
+		}
+
+		return XMLValueType.STRING;
+	}
+
+
+	/**
+	 * Private constructor, this class is not meant to be instanciated.
+	 */
+	private XMLValueTypes() {}
+}
@@ -0,0 +1,145 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.util;
+
+import java.nio.ByteBuffer;
+
+
+
+/**
+ * This class provides utility methods to parse the header of a raw CBOR data item.
+ * A header consists of the initial byte, holding major type and additional information, followed by
+ * 0, 1, 2, 4 or 8 bytes of the argument. The argument is the value of integers and simple values and the
+ * length of strings, arrays and maps. It is shared by all readers working on raw CBOR data, so they
+ * agree on how headers are parsed.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class CBORHeaderHelper {
+	/**
+	 * Additional information of indefinite length items and the break stop code.
+	 */
+	public static final int INDEFINITE_LENGTH = 31;
+	/**
+	 * Maximum length of a header in bytes.
+	 */
+	public static final int MAX_HEADER_LENGTH = 9;
+
+
+	/**
+	 * Get the major type encoded in the specified initial byte.
+	 *
+	 * @param initialByte Initial byte of a data item
+	 * @return Major type, 0 to 7
+	 */
+	public static int majorType(final int initialByte) {
+		return (initialByte & 0xFF) >>> 5;
+	}
+
+
+	/**
+	 * Get the additional information encoded in the specified initial byte.
+	 *
+	 * @param initialByte Initial byte of a data item
+	 * @return Additional information, 0 to 31
+	 */
+	public static int additionalInfo(final int initialByte) {
+		return initialByte & 0x1F;
+	}
+
+
+	/**
+	 * Get the length of the header starting with the specified initial byte, including the initial byte.
+	 *
+	 * @param initialByte Initial byte of a data item
+	 * @return Length of the header in bytes, or -1 if the additional information is reserved or marks
+	 *         an indefinite length item, in both cases no argument follows the initial byte
+	 */
+	public static int headerLength(final int initialByte) {
+		int additionalInfo = additionalInfo(initialByte);
+
+		if(additionalInfo < 24) {
+			return 1;
+		}
+		else if(additionalInfo <= 27) {
+			return 1 + (1 << (additionalInfo - 24));
+		}
+		else {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Read the argument of the header at the specified offset of a buffer. The header must be complete,
+	 * check its length with {@link #headerLength(int)} first. The argument is read in network byte order
+	 * regardless of the byte order of the buffer and the position of the buffer is not modified.
+	 *
+	 * @param buffer Buffer containing the header
+	 * @param offset Absolute offset of the initial byte
+	 * @return Argument as unsigned value, arguments above {@link Long#MAX_VALUE} are returned as negative numbers
+	 */
+	public static long argument(final ByteBuffer buffer, final int offset) {
+		int initialByte = buffer.get(offset) & 0xFF;
+		int headerLength = headerLength(initialByte);
+
+		if(headerLength < 0) {
+			throw new IllegalArgumentException("Header has no argument, additional information: " + additionalInfo(initialByte));
+		}
+
+		if(headerLength == 1) {
+			return additionalInfo(initialByte);
+		}
+
+		long rv = 0;
+		for(int i=1; i<headerLength; i++) {
+			rv = (rv << 8) | (buffer.get(offset + i) & 0xFFL);
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Convert the bits of a half precision floating point number into a double.
+	 *
+	 * @param bits IEEE 754 half precision bits in the lower 16 bits
+	 * @return Numeric value
+	 */
+	public static double halfToDouble(final int bits) {
+		int exponent = (bits >> 10) & 0x1F;
+		int mantissa = bits & 0x3FF;
+		double value;
+
+		if(exponent == 0) {
+			value = Math.scalb((double) mantissa, -24);
+		}
+		else if(exponent == 31) {
+			value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+		}
+		else {
+			value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+		}
+
+		return (bits & 0x8000) != 0 ? -value : value;
+	}
+
+
+	/**
+	 * Private constructor, this class is not meant to be instanciated.
+	 */
+	private CBORHeaderHelper() {}
+}
@@ -57,6 +57,23 @@ public class TimestampHelper {
 	}
 
 
+	/**
+	 * Convert the specified time into an xsd:dateTime string.
+	 * Unlike {@link #toXsdDateTime(java.time.ZonedDateTime)} the fraction of the second is kept,
+	 * this is used for ifmap-timestamp values.
+	 *
+	 * @param input Time to convert
+	 * @return xsd:dateTime string including fractional seconds
+	 */
+	public static String toXsdDateTimeWithFraction(ZonedDateTime input) {
+		if(input == null) {
+			throw new IllegalArgumentException("Input time must not be null");
+		}
+
+		return IF_MAP_TIMESTAMP_FORMAT.format(input);
+	}
+
+
 	public static long toEpochTime(ZonedDateTime input) {
 		if(input == null) {
 			throw new IllegalArgumentException("Input time must not be null");
@@ -0,0 +1,103 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+
+
+/**
+ * Base class of the typed views of a single element type.
+ * A typed view resolves the encoded names of its element type once on construction and reads the fields
+ * of any {@link ElementView} positioned at an element of that type. Typed views do not hold any state
+ * besides the encoded names and may be shared between threads.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public abstract class AbstractTypedView {
+	protected final ViewSchema schema;
+	protected final String xmlNamespace;
+	protected final String xmlElementName;
+	private final EncodedName namespace;
+	private final EncodedName elementName;
+
+
+	/**
+	 * Create a typed view for the specified top level element.
+	 *
+	 * @param schema Schema providing the encoded names
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the element
+	 */
+	protected AbstractTypedView(final ViewSchema schema, final String namespace, final String elementName) {
+		if(schema == null) {
+			throw new IllegalArgumentException("View schema must not be null");
+		}
+
+		this.schema = schema;
+		this.xmlNamespace = namespace;
+		this.xmlElementName = elementName;
+		this.namespace = schema.namespace(namespace);
+		this.elementName = schema.element(namespace, elementName);
+	}
+
+
+	/**
+	 * Check if the specified element is of the type handled by this view.
+	 *
+	 * @param element Element view to check
+	 * @return true if namespace and name match
+	 */
+	public boolean matches(final ElementView element) {
+		if(element == null) {
+			throw new IllegalArgumentException("Element view must not be null");
+		}
+
+		return element.matches(this.namespace, this.elementName);
+	}
+
+
+	/**
+	 * Resolve the encoded name of an attribute of the element type handled by this view.
+	 *
+	 * @param attributeName XML name of the attribute
+	 * @return Encoded attribute name
+	 */
+	protected final EncodedName attribute(final String attributeName) {
+		return this.schema.attribute(this.xmlNamespace, this.xmlElementName, attributeName);
+	}
+
+
+	/**
+	 * Resolve the encoded name of a nested element of the element type handled by this view.
+	 *
+	 * @param nestedElementName XML name of the nested element
+	 * @return Encoded nested element name
+	 */
+	protected final EncodedName nestedElement(final String nestedElementName) {
+		return this.schema.nestedElement(this.xmlNamespace, this.xmlElementName, nestedElementName);
+	}
+
+
+	/**
+	 * Resolve the encoded enum values of a nested element of the element type handled by this view.
+	 *
+	 * @param nestedElementName XML name of the nested element
+	 * @param enumValues XML names of the enum values
+	 * @return Encoded enum values in the order of the XML names
+	 */
+	protected final EncodedName[] nestedElementEnumValues(final String nestedElementName, final String... enumValues) {
+		return this.schema.nestedElementEnumValues(this.xmlNamespace, this.xmlElementName, nestedElementName, enumValues);
+	}
+}
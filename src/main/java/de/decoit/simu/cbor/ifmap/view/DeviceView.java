@@ -0,0 +1,65 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of device identifiers.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class DeviceView extends AbstractTypedView {
+	private final EncodedName name;
+
+
+	/**
+	 * Create a view of device identifiers.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public DeviceView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP, CBORDevice.XML_NAME);
+
+		this.name = this.nestedElement(CBORDevice.NAME);
+	}
+
+
+	/**
+	 * Check if the device name is equal to the specified value.
+	 *
+	 * @param element Element view positioned at a device identifier
+	 * @param value Encoded device name, see {@link EncodedName#ofString(String)}
+	 * @return true if the device name is equal
+	 */
+	public boolean nameEquals(final ElementView element, final EncodedName value) {
+		return element.nestedEquals(this.name, value);
+	}
+
+
+	/**
+	 * Get the device name. This creates a String object.
+	 *
+	 * @param element Element view positioned at a device identifier
+	 * @return Device name, null if the device is identified by its AIK name
+	 */
+	public String getName(final ElementView element) {
+		return element.getNestedString(this.name);
+	}
+}
@@ -0,0 +1,406 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+
+
+/**
+ * Reusable cursor pointing at one element of a {@link MessageView}.
+ * An element is stored as the four data items namespace, name, attributes and nested elements or value.
+ * The view only stores the offsets of these items, moving it to another element does not allocate.
+ *
+ * Attribute and nested element accessors take {@link EncodedName} objects resolved by the
+ * {@link ViewSchema} of the message and compare names in their encoded form.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class ElementView {
+	private static final int NOT_FOUND = -1;
+
+	private MessageView message;
+	private int nsOffset = NOT_FOUND;
+	private int nameOffset;
+	private int attrsOffset;
+	private int nestedOffset;
+	private int remainingSiblings;
+
+
+	/**
+	 * Position this view at the element whose namespace item is located at the specified offset.
+	 *
+	 * @param message Message containing the element
+	 * @param offset Offset of the namespace item
+	 * @param remainingSiblings Number of elements following this element in the parent
+	 */
+	void position(final MessageView message, final int offset, final int remainingSiblings) {
+		this.message = message;
+		this.nsOffset = offset;
+		this.nameOffset = message.skip(offset);
+		this.attrsOffset = message.skip(this.nameOffset);
+		this.nestedOffset = message.skip(this.attrsOffset);
+		this.remainingSiblings = remainingSiblings;
+	}
+
+
+	/**
+	 * Get the message this view is positioned in.
+	 *
+	 * @return Message view, null if this view was not positioned yet
+	 */
+	public MessageView getMessage() {
+		return this.message;
+	}
+
+
+	/**
+	 * Get the offset of this element in the message buffer.
+	 *
+	 * @return Offset of the namespace item of this element, -1 if this view was not positioned yet
+	 */
+	public int getOffset() {
+		return this.nsOffset;
+	}
+
+
+	/**
+	 * Check if this element has a namespace. Nested elements and metadata containers do not.
+	 *
+	 * @return true if the namespace item is not null
+	 */
+	public boolean hasNamespace() {
+		this.checkPositioned();
+
+		return !this.message.isNull(this.nsOffset);
+	}
+
+
+	/**
+	 * Check if this element has the specified namespace and name.
+	 *
+	 * @param namespace Encoded namespace
+	 * @param name Encoded element name
+	 * @return true if both match
+	 */
+	public boolean matches(final EncodedName namespace, final EncodedName name) {
+		if(namespace == null) {
+			throw new IllegalArgumentException("Namespace must not be null");
+		}
+
+		return this.nameMatches(name) && namespace.matches(this.message, this.nsOffset);
+	}
+
+
+	/**
+	 * Check if this element has the specified name, the namespace is ignored.
+	 *
+	 * @param name Encoded element name
+	 * @return true if the name matches
+	 */
+	public boolean nameMatches(final EncodedName name) {
+		if(name == null) {
+			throw new IllegalArgumentException("Element name must not be null");
+		}
+
+		this.checkPositioned();
+
+		return name.matches(this.message, this.nameOffset);
+	}
+
+
+	/**
+	 * Position the specified view at the first nested element of this element.
+	 *
+	 * @param target View to position
+	 * @return true if this element has nested elements, false otherwise
+	 */
+	public boolean moveToFirstChild(final ElementView target) {
+		if(target == null) {
+			throw new IllegalArgumentException("Target element view must not be null");
+		}
+
+		this.checkPositioned();
+
+		int children = this.nestedElementCount();
+		if(children == 0) {
+			return false;
+		}
+
+		int first = this.message.skipTags(this.nestedOffset);
+		target.position(this.message, first + this.message.headerLength(first), children - 1);
+		return true;
+	}
+
+
+	/**
+	 * Move this view to the next element of the same parent.
+	 * The view is not modified if there is no next element.
+	 *
+	 * @return true if the view was moved, false if this is the last element
+	 */
+	public boolean moveToNextSibling() {
+		this.checkPositioned();
+
+		if(this.remainingSiblings == 0) {
+			return false;
+		}
+
+		this.position(this.message, this.message.skip(this.nestedOffset), this.remainingSiblings - 1);
+		return true;
+	}
+
+
+	/**
+	 * Get the offset of the value of the specified attribute.
+	 *
+	 * @param name Encoded attribute name
+	 * @return Offset of the attribute value, -1 if the attribute is not present
+	 */
+	public int findAttribute(final EncodedName name) {
+		if(name == null) {
+			throw new IllegalArgumentException("Attribute name must not be null");
+		}
+
+		this.checkPositioned();
+
+		if(!this.message.isArray(this.attrsOffset)) {
+			return NOT_FOUND;
+		}
+
+		int pairs = this.message.length(this.attrsOffset) / 2;
+		int pos = this.message.skipTags(this.attrsOffset);
+		pos += this.message.headerLength(pos);
+
+		for(int i=0; i<pairs; i++) {
+			int value = this.message.skip(pos);
+			if(name.matches(this.message, pos)) {
+				return value;
+			}
+
+			pos = this.message.skip(value);
+		}
+
+		return NOT_FOUND;
+	}
+
+
+	/**
+	 * Get the offset of the value of the specified nested simple element.
+	 *
+	 * @param name Encoded nested element name
+	 * @return Offset of the element value, -1 if the element is not present
+	 */
+	public int findNestedValue(final EncodedName name) {
+		if(name == null) {
+			throw new IllegalArgumentException("Nested element name must not be null");
+		}
+
+		this.checkPositioned();
+
+		int children = this.nestedElementCount();
+		int pos = this.message.skipTags(this.nestedOffset);
+		pos += this.message.headerLength(pos);
+
+		for(int i=0; i<children; i++) {
+			int childName = this.message.skip(pos);
+			int childAttrs = this.message.skip(childName);
+			int childValue = this.message.skip(childAttrs);
+
+			if(name.matches(this.message, childName)) {
+				return childValue;
+			}
+
+			pos = this.message.skip(childValue);
+		}
+
+		return NOT_FOUND;
+	}
+
+
+	/**
+	 * Get the integer value of the specified attribute.
+	 *
+	 * @param name Encoded attribute name
+	 * @param absent Value returned if the attribute is not present
+	 * @return Attribute value
+	 */
+	public long getAttributeLong(final EncodedName name, final long absent) {
+		int offset = this.findAttribute(name);
+
+		return offset != NOT_FOUND ? this.message.readLong(offset) : absent;
+	}
+
+
+	/**
+	 * Get the integer value of the specified nested element.
+	 *
+	 * @param name Encoded nested element name
+	 * @param absent Value returned if the element is not present
+	 * @return Element value
+	 */
+	public long getNestedLong(final EncodedName name, final long absent) {
+		int offset = this.findNestedValue(name);
+
+		return offset != NOT_FOUND ? this.message.readLong(offset) : absent;
+	}
+
+
+	/**
+	 * Get the numeric value of the specified nested element.
+	 *
+	 * @param name Encoded nested element name
+	 * @param absent Value returned if the element is not present
+	 * @return Element value
+	 */
+	public double getNestedDouble(final EncodedName name, final double absent) {
+		int offset = this.findNestedValue(name);
+
+		return offset != NOT_FOUND ? this.message.readDouble(offset) : absent;
+	}
+
+
+	/**
+	 * Get the index of the enum value of the specified attribute in the specified array.
+	 *
+	 * @param name Encoded attribute name
+	 * @param values Encoded enum values
+	 * @return Index of the matching value, -1 if the attribute is not present or does not match any value
+	 */
+	public int getAttributeEnum(final EncodedName name, final EncodedName[] values) {
+		return this.indexOf(this.findAttribute(name), values);
+	}
+
+
+	/**
+	 * Get the index of the enum value of the specified nested element in the specified array.
+	 *
+	 * @param name Encoded nested element name
+	 * @param values Encoded enum values
+	 * @return Index of the matching value, -1 if the element is not present or does not match any value
+	 */
+	public int getNestedEnum(final EncodedName name, final EncodedName[] values) {
+		return this.indexOf(this.findNestedValue(name), values);
+	}
+
+
+	/**
+	 * Check if the value of the specified attribute is equal to the specified value.
+	 *
+	 * @param name Encoded attribute name
+	 * @param value Encoded value
+	 * @return true if the attribute is present and has the specified value
+	 */
+	public boolean attributeEquals(final EncodedName name, final EncodedName value) {
+		if(value == null) {
+			throw new IllegalArgumentException("Value must not be null");
+		}
+
+		int offset = this.findAttribute(name);
+
+		return offset != NOT_FOUND && value.matches(this.message, offset);
+	}
+
+
+	/**
+	 * Check if the value of the specified nested element is equal to the specified value.
+	 *
+	 * @param name Encoded nested element name
+	 * @param value Encoded value
+	 * @return true if the element is present and has the specified value
+	 */
+	public boolean nestedEquals(final EncodedName name, final EncodedName value) {
+		if(value == null) {
+			throw new IllegalArgumentException("Value must not be null");
+		}
+
+		int offset = this.findNestedValue(name);
+
+		return offset != NOT_FOUND && value.matches(this.message, offset);
+	}
+
+
+	/**
+	 * Get the string value of the specified attribute.
+	 * This creates a String object, use {@link #attributeEquals(EncodedName, EncodedName)} in scan loops.
+	 *
+	 * @param name Encoded attribute name
+	 * @return Attribute value, null if the attribute is not present
+	 */
+	public String getAttributeString(final EncodedName name) {
+		int offset = this.findAttribute(name);
+
+		return offset != NOT_FOUND ? this.message.readString(offset) : null;
+	}
+
+
+	/**
+	 * Get the string value of the specified nested element.
+	 * This creates a String object, use {@link #nestedEquals(EncodedName, EncodedName)} in scan loops.
+	 *
+	 * @param name Encoded nested element name
+	 * @return Element value, null if the element is not present
+	 */
+	public String getNestedString(final EncodedName name) {
+		int offset = this.findNestedValue(name);
+
+		return offset != NOT_FOUND ? this.message.readString(offset) : null;
+	}
+
+
+	private int indexOf(final int offset, final EncodedName[] values) {
+		if(values == null) {
+			throw new IllegalArgumentException("Enum values must not be null");
+		}
+
+		if(offset == NOT_FOUND) {
+			return NOT_FOUND;
+		}
+
+		for(int i=0; i<values.length; i++) {
+			if(values[i].matches(this.message, offset)) {
+				return i;
+			}
+		}
+
+		return NOT_FOUND;
+	}
+
+
+	/**
+	 * Get the number of nested elements. Simple elements store their value instead of a nested
+	 * element array and have no nested elements.
+	 *
+	 * @return Number of nested elements
+	 */
+	private int nestedElementCount() {
+		if(!this.message.isArray(this.nestedOffset)) {
+			return 0;
+		}
+
+		int items = this.message.length(this.nestedOffset);
+		if(items % 4 != 0) {
+			throw new IllegalStateException("Nested element array at offset " + this.nestedOffset + " is not a sequence of elements");
+		}
+
+		return items / 4;
+	}
+
+
+	private void checkPositioned() {
+		if(this.message == null) {
+			throw new IllegalStateException("Element view is not positioned");
+		}
+	}
+}
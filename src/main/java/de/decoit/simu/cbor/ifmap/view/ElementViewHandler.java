@@ -0,0 +1,34 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+
+
+/**
+ * Callback receiving the elements found while scanning a {@link MessageView}.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@FunctionalInterface
+public interface ElementViewHandler {
+	/**
+	 * Called for every matching element of the scanned message.
+	 * The element view is reused for the next element and must not be kept after this method returned.
+	 *
+	 * @param element View positioned at the current element
+	 */
+	public void onElement(ElementView element);
+}
@@ -0,0 +1,113 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import co.nstant.in.cbor.CborEncoder;
+import co.nstant.in.cbor.CborException;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.UnicodeString;
+import java.io.ByteArrayOutputStream;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+
+
+/**
+ * Encoded CBOR form of an XML name or enum value, used by views to compare data items in place.
+ * A name is matched by its dictionary mapping and by its plain UnicodeString form, the latter is
+ * used by the serializer if the dictionary does not contain a mapping.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@EqualsAndHashCode(exclude = "plain")
+@ToString(exclude = "plain")
+public final class EncodedName {
+	@Getter
+	private final String xmlName;
+	private final byte[] mapped;
+	private final byte[] plain;
+
+
+	/**
+	 * Create the encoded form of the specified dictionary mapping and XML name.
+	 *
+	 * @param mapping CBOR mapping from the dictionary, null if the dictionary does not contain one
+	 * @param xmlName XML name
+	 * @return Encoded name
+	 */
+	public static EncodedName of(final DataItem mapping, final String xmlName) {
+		if(xmlName == null) {
+			throw new IllegalArgumentException("XML name must not be null");
+		}
+
+		return new EncodedName(xmlName, mapping != null ? encode(mapping) : null, encode(new UnicodeString(xmlName)));
+	}
+
+
+	/**
+	 * Create the encoded form of a plain string value, for example to compare string values in place.
+	 *
+	 * @param value String value
+	 * @return Encoded name
+	 */
+	public static EncodedName ofString(final String value) {
+		return of(null, value);
+	}
+
+
+	private static byte[] encode(final DataItem item) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try {
+			new CborEncoder(out).encode(item);
+		}
+		catch(CborException ex) {
+			throw new IllegalArgumentException("Data item cannot be encoded: " + item, ex);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Private constructor, use {@link #of(DataItem, String)} or {@link #ofString(String)} to create instances.
+	 *
+	 * @param xmlName XML name
+	 * @param mapped Encoded dictionary mapping, may be null
+	 * @param plain Encoded UnicodeString form
+	 */
+	private EncodedName(final String xmlName, final byte[] mapped, final byte[] plain) {
+		this.xmlName = xmlName;
+		this.mapped = mapped;
+		this.plain = plain;
+	}
+
+
+	/**
+	 * Check if the data item at the specified offset of the message is equal to this name.
+	 * Tags of the data item are ignored.
+	 *
+	 * @param message Message containing the data item
+	 * @param offset Offset of the data item
+	 * @return true if the data item matches, false otherwise
+	 */
+	boolean matches(final MessageView message, final int offset) {
+		int pos = message.skipTags(offset);
+
+		return (this.mapped != null && message.bytesEqual(pos, this.mapped)) || message.bytesEqual(pos, this.plain);
+	}
+}
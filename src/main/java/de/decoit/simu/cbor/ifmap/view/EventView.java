@@ -0,0 +1,138 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of event metadata.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class EventView extends AbstractTypedView {
+	private static final IfMapSignificance[] SIGNIFICANCES = IfMapSignificance.values();
+	private static final IfMapEventType[] TYPES = IfMapEventType.values();
+
+	private final EncodedName name;
+	private final EncodedName magnitude;
+	private final EncodedName confidence;
+	private final EncodedName significance;
+	private final EncodedName[] significanceValues;
+	private final EncodedName type;
+	private final EncodedName[] typeValues;
+
+
+	/**
+	 * Create a view of event metadata.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public EventView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+
+		this.name = this.nestedElement(CBOREvent.NAME);
+		this.magnitude = this.nestedElement(CBOREvent.MAGNITUDE);
+		this.confidence = this.nestedElement(CBOREvent.CONFIDENCE);
+		this.significance = this.nestedElement(CBOREvent.SIGNIFICANCE);
+		this.type = this.nestedElement(CBOREvent.TYPE);
+
+		this.significanceValues = new EncodedName[SIGNIFICANCES.length];
+		for(int i=0; i<SIGNIFICANCES.length; i++) {
+			this.significanceValues[i] = this.nestedElementEnumValues(CBOREvent.SIGNIFICANCE, SIGNIFICANCES[i].getXmlName())[0];
+		}
+
+		this.typeValues = new EncodedName[TYPES.length];
+		for(int i=0; i<TYPES.length; i++) {
+			this.typeValues[i] = this.nestedElementEnumValues(CBOREvent.TYPE, TYPES[i].getXmlName())[0];
+		}
+	}
+
+
+	/**
+	 * Get the magnitude of the event.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @return Magnitude, -1 if not present
+	 */
+	public int getMagnitude(final ElementView element) {
+		return (int) element.getNestedLong(this.magnitude, -1);
+	}
+
+
+	/**
+	 * Get the confidence of the event.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @return Confidence, -1 if not present
+	 */
+	public int getConfidence(final ElementView element) {
+		return (int) element.getNestedLong(this.confidence, -1);
+	}
+
+
+	/**
+	 * Get the significance of the event.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @return Significance, null if not present or unknown
+	 */
+	public IfMapSignificance getSignificance(final ElementView element) {
+		int index = element.getNestedEnum(this.significance, this.significanceValues);
+
+		return index >= 0 ? SIGNIFICANCES[index] : null;
+	}
+
+
+	/**
+	 * Get the type of the event.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @return Event type, null if not present or unknown
+	 */
+	public IfMapEventType getType(final ElementView element) {
+		int index = element.getNestedEnum(this.type, this.typeValues);
+
+		return index >= 0 ? TYPES[index] : null;
+	}
+
+
+	/**
+	 * Check if the name of the event is equal to the specified value.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @param value Encoded name, see {@link EncodedName#ofString(String)}
+	 * @return true if the name is equal
+	 */
+	public boolean nameEquals(final ElementView element, final EncodedName value) {
+		return element.nestedEquals(this.name, value);
+	}
+
+
+	/**
+	 * Get the name of the event. This creates a String object.
+	 *
+	 * @param element Element view positioned at event metadata
+	 * @return Event name, null if not present
+	 */
+	public String getName(final ElementView element) {
+		return element.getNestedString(this.name);
+	}
+}
@@ -0,0 +1,117 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of ip-address identifiers.
+ * The address is read from the encoded byte string without creating an InetAddress.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class IpAddressView extends AbstractTypedView {
+	private static final int IPV4_LENGTH = 4;
+	private static final int IPV6_LENGTH = 16;
+
+	private final EncodedName value;
+
+
+	/**
+	 * Create a view of ip-address identifiers.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public IpAddressView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP, CBORIpAddress.XML_NAME);
+
+		this.value = this.attribute(CBORIpAddress.VALUE);
+	}
+
+
+	/**
+	 * Check if the address is an IPv4 address.
+	 *
+	 * @param element Element view positioned at an ip-address identifier
+	 * @return true for IPv4 addresses
+	 */
+	public boolean isIpv4(final ElementView element) {
+		return this.getAddressLength(element) == IPV4_LENGTH;
+	}
+
+
+	/**
+	 * Get the length of the address in bytes.
+	 *
+	 * @param element Element view positioned at an ip-address identifier
+	 * @return 4 for IPv4, 16 for IPv6, -1 if no address is present
+	 */
+	public int getAddressLength(final ElementView element) {
+		int offset = element.findAttribute(this.value);
+
+		return offset >= 0 ? element.getMessage().byteStringLength(offset) : -1;
+	}
+
+
+	/**
+	 * Get an IPv4 address as 32 bit number in network byte order.
+	 *
+	 * @param element Element view positioned at an ip-address identifier
+	 * @return Address bits
+	 * @throws IllegalStateException if the identifier does not contain an IPv4 address
+	 */
+	public int getIpv4Address(final ElementView element) {
+		return (int) this.readAddress(element, IPV4_LENGTH, 0, IPV4_LENGTH);
+	}
+
+
+	/**
+	 * Get the upper 64 bits of an IPv6 address.
+	 *
+	 * @param element Element view positioned at an ip-address identifier
+	 * @return Upper address bits
+	 * @throws IllegalStateException if the identifier does not contain an IPv6 address
+	 */
+	public long getIpv6High(final ElementView element) {
+		return this.readAddress(element, IPV6_LENGTH, 0, 8);
+	}
+
+
+	/**
+	 * Get the lower 64 bits of an IPv6 address.
+	 *
+	 * @param element Element view positioned at an ip-address identifier
+	 * @return Lower address bits
+	 * @throws IllegalStateException if the identifier does not contain an IPv6 address
+	 */
+	public long getIpv6Low(final ElementView element) {
+		return this.readAddress(element, IPV6_LENGTH, 8, 8);
+	}
+
+
+	private long readAddress(final ElementView element, final int length, final int from, final int count) {
+		int offset = element.findAttribute(this.value);
+
+		if(offset < 0 || element.getMessage().byteStringLength(offset) != length) {
+			throw new IllegalStateException("Identifier does not contain an address of " + length + " bytes");
+		}
+
+		return element.getMessage().readByteStringBits(offset, from, count);
+	}
+}
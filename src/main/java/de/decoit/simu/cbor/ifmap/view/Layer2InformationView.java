@@ -0,0 +1,91 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORLayer2Information;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of layer2-information metadata.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class Layer2InformationView extends AbstractTypedView {
+	private final EncodedName vlan;
+	private final EncodedName vlanName;
+	private final EncodedName port;
+
+
+	/**
+	 * Create a view of layer2-information metadata.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public Layer2InformationView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP_METADATA, CBORLayer2Information.XML_NAME);
+
+		this.vlan = this.nestedElement(CBORLayer2Information.VLAN);
+		this.vlanName = this.nestedElement(CBORLayer2Information.VLAN_NAME);
+		this.port = this.nestedElement(CBORLayer2Information.PORT);
+	}
+
+
+	/**
+	 * Get the VLAN number.
+	 *
+	 * @param element Element view positioned at layer2-information metadata
+	 * @return VLAN number, -1 if not present
+	 */
+	public int getVlan(final ElementView element) {
+		return (int) element.getNestedLong(this.vlan, -1);
+	}
+
+
+	/**
+	 * Get the port number.
+	 *
+	 * @param element Element view positioned at layer2-information metadata
+	 * @return Port number, -1 if not present
+	 */
+	public int getPort(final ElementView element) {
+		return (int) element.getNestedLong(this.port, -1);
+	}
+
+
+	/**
+	 * Check if the VLAN name is equal to the specified value.
+	 *
+	 * @param element Element view positioned at layer2-information metadata
+	 * @param value Encoded VLAN name, see {@link EncodedName#ofString(String)}
+	 * @return true if the VLAN name is equal
+	 */
+	public boolean vlanNameEquals(final ElementView element, final EncodedName value) {
+		return element.nestedEquals(this.vlanName, value);
+	}
+
+
+	/**
+	 * Get the VLAN name. This creates a String object.
+	 *
+	 * @param element Element view positioned at layer2-information metadata
+	 * @return VLAN name, null if not present
+	 */
+	public String getVlanName(final ElementView element) {
+		return element.getNestedString(this.vlanName);
+	}
+}
@@ -0,0 +1,66 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of mac-address identifiers.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class MacAddressView extends AbstractTypedView {
+	private static final int MAC_LENGTH = 6;
+
+	private final EncodedName value;
+
+
+	/**
+	 * Create a view of mac-address identifiers.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public MacAddressView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP, CBORMacAddress.XML_NAME);
+
+		this.value = this.attribute(CBORMacAddress.VALUE);
+	}
+
+
+	/**
+	 * Get the MAC address as 48 bit number, the first octet is stored in the most significant position.
+	 *
+	 * @param element Element view positioned at a mac-address identifier
+	 * @return Address bits, -1 if no address is present
+	 * @throws IllegalStateException if the address does not have 6 bytes
+	 */
+	public long getAddress(final ElementView element) {
+		int offset = element.findAttribute(this.value);
+
+		if(offset < 0) {
+			return -1;
+		}
+
+		if(element.getMessage().byteStringLength(offset) != MAC_LENGTH) {
+			throw new IllegalStateException("Identifier does not contain an address of " + MAC_LENGTH + " bytes");
+		}
+
+		return element.getMessage().readByteStringBits(offset, 0, MAC_LENGTH);
+	}
+}
@@ -0,0 +1,625 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.DecodeLimits;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.util.CBORHeaderHelper;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+
+/**
+ * Read-only view of an encoded IF-MAP message stored in a {@link ByteBuffer}.
+ * The view navigates the CBOR data by offsets and never builds data items or domain objects. Elements
+ * are accessed through reusable {@link ElementView} objects, names and enum values are compared in
+ * their encoded form using {@link EncodedName} objects resolved by a {@link ViewSchema}.
+ *
+ * The view reads the buffer using absolute positions, the position and limit of the buffer passed to
+ * {@link #wrap(ByteBuffer, ViewSchema)} are not modified. The buffer content must not change while the
+ * view is used. Indefinite length items are not supported. If the codec context of the schema carries
+ * {@link de.decoit.simu.cbor.ifmap.DecodeLimits}, the forEach methods check the message against them
+ * once before scanning it. Navigating element views directly does not apply the limits. A view and its
+ * element views must only be used by one thread at a time.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class MessageView {
+	private static final int MAJOR_UNSIGNED_INTEGER = 0;
+	private static final int MAJOR_NEGATIVE_INTEGER = 1;
+	private static final int MAJOR_BYTE_STRING = 2;
+	private static final int MAJOR_UNICODE_STRING = 3;
+	private static final int MAJOR_ARRAY = 4;
+	private static final int MAJOR_MAP = 5;
+	private static final int MAJOR_TAG = 6;
+	private static final int MAJOR_SPECIAL = 7;
+	private static final int SIMPLE_VALUE_NULL = 0xF6;
+	private static final int INITIAL_SKIP_DEPTH = 8;
+
+	private final ByteBuffer buffer;
+	private final ViewSchema schema;
+	private final int start;
+	private final int limit;
+	private int[] skipStack;
+	private boolean limitsChecked;
+
+
+	/**
+	 * Create a view of the message between position and limit of the specified buffer.
+	 *
+	 * @param buffer Buffer containing the encoded message
+	 * @param schema Schema providing the encoded names of the dictionary
+	 * @return Message view
+	 */
+	public static MessageView wrap(final ByteBuffer buffer, final ViewSchema schema) {
+		if(buffer == null) {
+			throw new IllegalArgumentException("Buffer must not be null");
+		}
+
+		if(schema == null) {
+			throw new IllegalArgumentException("View schema must not be null");
+		}
+
+		return new MessageView(buffer, schema);
+	}
+
+
+	/**
+	 * Private constructor, use {@link #wrap(ByteBuffer, ViewSchema)} to create instances.
+	 *
+	 * @param buffer Buffer containing the encoded message
+	 * @param schema Schema providing the encoded names
+	 */
+	private MessageView(final ByteBuffer buffer, final ViewSchema schema) {
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		this.schema = schema;
+		this.start = buffer.position();
+		this.limit = buffer.limit();
+		this.skipStack = new int[INITIAL_SKIP_DEPTH];
+	}
+
+
+	/**
+	 * Get the schema used by this view.
+	 *
+	 * @return View schema
+	 */
+	public ViewSchema getSchema() {
+		return this.schema;
+	}
+
+
+	/**
+	 * Position the specified element view at the top level element of this message.
+	 *
+	 * @param target Element view to position
+	 * @return true if the message contains a top level element, false otherwise
+	 */
+	public boolean moveToRoot(final ElementView target) {
+		if(target == null) {
+			throw new IllegalArgumentException("Target element view must not be null");
+		}
+
+		if(this.start >= this.limit || !this.isArray(this.start) || this.length(this.start) != 4) {
+			return false;
+		}
+
+		int root = this.skipTags(this.start);
+		target.position(this, root + this.headerLength(root), 0);
+		return true;
+	}
+
+
+	/**
+	 * Report all metadata elements of the search or poll result contained in this message.
+	 * The same element view instance is passed to the handler for every metadata element, it must not be
+	 * kept after the handler returned. Messages not containing a search or poll result report nothing.
+	 *
+	 * @param handler Handler receiving the metadata elements
+	 * @return Number of reported metadata elements
+	 * @throws CBORDeserializationException if the message is malformed
+	 */
+	public int forEachMetadata(final ElementViewHandler handler) throws CBORDeserializationException {
+		return this.scanResultItems(handler, true);
+	}
+
+
+	/**
+	 * Report all identifier elements of the search or poll result contained in this message.
+	 * The same element view instance is passed to the handler for every identifier element, it must not be
+	 * kept after the handler returned. Messages not containing a search or poll result report nothing.
+	 *
+	 * @param handler Handler receiving the identifier elements
+	 * @return Number of reported identifier elements
+	 * @throws CBORDeserializationException if the message is malformed
+	 */
+	public int forEachIdentifier(final ElementViewHandler handler) throws CBORDeserializationException {
+		return this.scanResultItems(handler, false);
+	}
+
+
+	private int scanResultItems(final ElementViewHandler handler, final boolean metadata) throws CBORDeserializationException {
+		if(handler == null) {
+			throw new IllegalArgumentException("Element view handler must not be null");
+		}
+
+		this.checkLimits();
+
+		try {
+			ElementView root = new ElementView();
+			if(!this.moveToRoot(root) || !root.matches(this.schema.getResponseNamespace(), this.schema.getResponseName())) {
+				throw new CBORDeserializationException("Message does not contain an IF-MAP response");
+			}
+
+			ElementView result = new ElementView();
+			if(!root.moveToFirstChild(result)) {
+				return 0;
+			}
+
+			ElementView block = new ElementView();
+			ElementView item = new ElementView();
+			ElementView child = new ElementView();
+			ElementView element = new ElementView();
+			int count = 0;
+
+			if(result.nameMatches(this.schema.getPollResultName())) {
+				if(result.moveToFirstChild(block)) {
+					do {
+						if(!block.nameMatches(this.schema.getErrorResultName())) {
+							count += scanResultBlock(block, item, child, element, handler, metadata);
+						}
+					}
+					while(block.moveToNextSibling());
+				}
+			}
+			else if(result.nameMatches(this.schema.getSearchResultName())) {
+				count += scanResultBlock(result, item, child, element, handler, metadata);
+			}
+
+			return count;
+		}
+		catch(IllegalStateException | IndexOutOfBoundsException | ArithmeticException ex) {
+			throw new CBORDeserializationException("Malformed message, see nested exception for details", ex);
+		}
+	}
+
+
+	/**
+	 * Check the message against the decode limits of the schema's codec context, if any.
+	 * The check runs only once per view.
+	 *
+	 * @throws CBORDeserializationException if a limit is exceeded or the message is malformed
+	 */
+	private void checkLimits() throws CBORDeserializationException {
+		if(this.limitsChecked) {
+			return;
+		}
+
+		DecodeLimits limits = this.schema.getContext().getDecodeOptions().getDecodeLimits();
+		if(limits != null) {
+			ByteBuffer message = this.buffer.duplicate();
+			message.position(this.start).limit(this.limit);
+
+			limits.check(message);
+		}
+
+		this.limitsChecked = true;
+	}
+
+
+	private static int scanResultBlock(final ElementView block,
+									   final ElementView item,
+									   final ElementView child,
+									   final ElementView element,
+									   final ElementViewHandler handler,
+									   final boolean metadata) {
+		int count = 0;
+
+		if(!block.moveToFirstChild(item)) {
+			return 0;
+		}
+
+		do {
+			if(!item.moveToFirstChild(child)) {
+				continue;
+			}
+
+			do {
+				// Identifiers carry a namespace, the metadata container of a result item does not
+				if(child.hasNamespace()) {
+					if(!metadata) {
+						handler.onElement(child);
+						count++;
+					}
+				}
+				else if(metadata && child.moveToFirstChild(element)) {
+					do {
+						handler.onElement(element);
+						count++;
+					}
+					while(element.moveToNextSibling());
+				}
+			}
+			while(child.moveToNextSibling());
+		}
+		while(item.moveToNextSibling());
+
+		return count;
+	}
+
+
+	/**
+	 * Skip the tags preceding the data item at the specified offset.
+	 *
+	 * @param offset Offset of the data item or its first tag
+	 * @return Offset of the data item itself
+	 */
+	int skipTags(final int offset) {
+		int pos = offset;
+
+		while(this.rawMajorType(pos) == MAJOR_TAG) {
+			pos += this.headerLength(pos);
+		}
+
+		return pos;
+	}
+
+
+	/**
+	 * Get the major type of the data item at the specified offset, tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Major type number
+	 */
+	int majorType(final int offset) {
+		return this.rawMajorType(this.skipTags(offset));
+	}
+
+
+	private int rawMajorType(final int offset) {
+		return (this.byteAt(offset) & 0xFF) >>> 5;
+	}
+
+
+	/**
+	 * Get the length of the head of the data item at the specified offset. Tags are not skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Length of the head in bytes
+	 */
+	int headerLength(final int offset) {
+		int rv = CBORHeaderHelper.headerLength(this.byteAt(offset));
+
+		if(rv < 0) {
+			throw new IllegalStateException("Unsupported additional information " + CBORHeaderHelper.additionalInfo(this.byteAt(offset)) + " at offset " + offset);
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Get the argument of the head of the data item at the specified offset. Tags are not skipped.
+	 * The argument is the value of integers and the length of strings, arrays and maps.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Argument as unsigned value
+	 */
+	long argument(final int offset) {
+		this.checkRange(offset, this.headerLength(offset));
+
+		return CBORHeaderHelper.argument(this.buffer, offset);
+	}
+
+
+	/**
+	 * Get the offset directly behind the data item at the specified offset, including all nested items.
+	 * Scalars, strings and empty arrays and maps are skipped directly. Nested arrays and maps are tracked
+	 * on an explicit stack of remaining item counts which is kept by the view and reused, so deeply nested
+	 * messages cannot overflow the call stack and skipping does not allocate.
+	 *
+	 * @param offset Offset of the data item or its first tag
+	 * @return Offset of the next data item
+	 * @throws ArithmeticException if the number of map entries overflows
+	 */
+	int skip(final int offset) {
+		int pos = this.skipTags(offset);
+		int items = this.containedItems(pos);
+
+		if(items == 0) {
+			return this.skipHead(pos);
+		}
+
+		// Remaining number of items of every open array or map
+		int[] remaining = this.skipStack;
+		int depth = 0;
+		remaining[depth++] = items;
+		pos = this.skipHead(pos);
+
+		do {
+			pos = this.skipTags(pos);
+			items = this.containedItems(pos);
+			pos = this.skipHead(pos);
+
+			if(items > 0) {
+				if(depth == remaining.length) {
+					remaining = Arrays.copyOf(remaining, depth * 2);
+					this.skipStack = remaining;
+				}
+
+				remaining[depth++] = items;
+			}
+			else {
+				// A completed item may complete its enclosing arrays and maps as well
+				while(depth > 0 && --remaining[depth-1] == 0) {
+					depth--;
+				}
+			}
+		}
+		while(depth > 0);
+
+		return pos;
+	}
+
+
+	/**
+	 * Get the number of items contained in the array or map at the specified offset, map entries count
+	 * as two items. Tags are not skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Number of contained items, 0 for all other data items
+	 * @throws ArithmeticException if the number of map entries overflows
+	 */
+	private int containedItems(final int offset) {
+		switch(this.rawMajorType(offset)) {
+			case MAJOR_ARRAY:
+				return this.length(offset);
+			case MAJOR_MAP:
+				return Math.multiplyExact(this.length(offset), 2);
+			default:
+				return 0;
+		}
+	}
+
+
+	/**
+	 * Get the offset behind the head of the data item at the specified offset, including the payload of
+	 * strings. Tags are not skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Offset behind the head and payload
+	 */
+	private int skipHead(final int offset) {
+		int header = this.headerLength(offset);
+
+		switch(this.rawMajorType(offset)) {
+			case MAJOR_BYTE_STRING:
+			case MAJOR_UNICODE_STRING:
+				int length = this.length(offset);
+				this.checkRange(offset, header + length);
+				return offset + header + length;
+			default:
+				return offset + header;
+		}
+	}
+
+
+	/**
+	 * Get the length of the string, array or map at the specified offset. Tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Length in bytes or number of items
+	 */
+	int length(final int offset) {
+		long length = this.argument(this.skipTags(offset));
+
+		if(length < 0 || length > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Length of data item at offset " + offset + " is out of range");
+		}
+
+		return (int) length;
+	}
+
+
+	/**
+	 * Check if the data item at the specified offset is the simple value NULL. Tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return true if the data item is NULL
+	 */
+	boolean isNull(final int offset) {
+		return (this.byteAt(this.skipTags(offset)) & 0xFF) == SIMPLE_VALUE_NULL;
+	}
+
+
+	/**
+	 * Check if the data item at the specified offset is an array.
+	 *
+	 * @param offset Offset of the data item
+	 * @return true if the data item is an array
+	 */
+	boolean isArray(final int offset) {
+		return this.majorType(offset) == MAJOR_ARRAY;
+	}
+
+
+	/**
+	 * Compare the bytes at the specified offset with the specified encoded data item.
+	 *
+	 * @param offset Offset in the buffer
+	 * @param encoded Complete encoding of a data item
+	 * @return true if the bytes are equal
+	 */
+	boolean bytesEqual(final int offset, final byte[] encoded) {
+		if(offset + encoded.length > this.limit) {
+			return false;
+		}
+
+		for(int i=0; i<encoded.length; i++) {
+			if(this.buffer.get(offset + i) != encoded[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Read the integer at the specified offset. Tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Integer value
+	 */
+	long readLong(final int offset) {
+		int pos = this.skipTags(offset);
+		long value = this.argument(pos);
+
+		switch(this.rawMajorType(pos)) {
+			case MAJOR_UNSIGNED_INTEGER:
+				if(value < 0) {
+					throw new IllegalStateException("Integer at offset " + offset + " exceeds the range of long");
+				}
+				return value;
+			case MAJOR_NEGATIVE_INTEGER:
+				if(value < 0) {
+					throw new IllegalStateException("Integer at offset " + offset + " exceeds the range of long");
+				}
+				return -1L - value;
+			default:
+				throw new IllegalStateException("Data item at offset " + offset + " is not an integer");
+		}
+	}
+
+
+	/**
+	 * Read the floating point number or integer at the specified offset. Tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Numeric value
+	 */
+	double readDouble(final int offset) {
+		int pos = this.skipTags(offset);
+
+		if(this.rawMajorType(pos) != MAJOR_SPECIAL) {
+			return this.readLong(pos);
+		}
+
+		this.checkRange(pos, this.headerLength(pos));
+
+		switch(this.byteAt(pos) & 0x1F) {
+			case 25:
+				return CBORHeaderHelper.halfToDouble(this.buffer.getShort(pos + 1));
+			case 26:
+				return Float.intBitsToFloat(this.buffer.getInt(pos + 1));
+			case 27:
+				return Double.longBitsToDouble(this.buffer.getLong(pos + 1));
+			default:
+				throw new IllegalStateException("Data item at offset " + offset + " is not a number");
+		}
+	}
+
+
+	/**
+	 * Read the byte string at the specified offset as an unsigned big-endian number. Tags are skipped.
+	 * This is used for IP and MAC addresses, which fit into a long without creating a byte array.
+	 *
+	 * @param offset Offset of the data item
+	 * @param from Index of the first byte to read
+	 * @param count Number of bytes to read, 8 at most
+	 * @return Numeric value of the bytes
+	 */
+	long readByteStringBits(final int offset, final int from, final int count) {
+		int pos = this.skipTags(offset);
+
+		if(this.rawMajorType(pos) != MAJOR_BYTE_STRING) {
+			throw new IllegalStateException("Data item at offset " + offset + " is not a byte string");
+		}
+
+		if(from < 0 || count > 8 || from + count > this.length(pos)) {
+			throw new IllegalStateException("Byte string at offset " + offset + " is too short");
+		}
+
+		int first = pos + this.headerLength(pos) + from;
+		this.checkRange(first, count);
+
+		long rv = 0;
+		for(int i=0; i<count; i++) {
+			rv = (rv << 8) | (this.buffer.get(first + i) & 0xFF);
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Get the length of the byte string at the specified offset. Tags are skipped.
+	 *
+	 * @param offset Offset of the data item
+	 * @return Length in bytes
+	 */
+	int byteStringLength(final int offset) {
+		if(this.majorType(offset) != MAJOR_BYTE_STRING) {
+			throw new IllegalStateException("Data item at offset " + offset + " is not a byte string");
+		}
+
+		return this.length(offset);
+	}
+
+
+	/**
+	 * Read the text string at the specified offset. Tags are skipped.
+	 * This creates a String object and should be avoided in scan loops, compare with
+	 * {@link EncodedName#ofString(String)} instead.
+	 *
+	 * @param offset Offset of the data item
+	 * @return String value
+	 */
+	String readString(final int offset) {
+		int pos = this.skipTags(offset);
+
+		if(this.rawMajorType(pos) != MAJOR_UNICODE_STRING) {
+			throw new IllegalStateException("Data item at offset " + offset + " is not a text string");
+		}
+
+		int length = this.length(pos);
+		int first = pos + this.headerLength(pos);
+		this.checkRange(first, length);
+
+		byte[] bytes = new byte[length];
+		for(int i=0; i<length; i++) {
+			bytes[i] = this.buffer.get(first + i);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	private byte byteAt(final int offset) {
+		this.checkRange(offset, 1);
+		return this.buffer.get(offset);
+	}
+
+
+	private void checkRange(final int offset, final int length) {
+		if(offset < this.start || length < 0 || offset + length > this.limit || offset + length < offset) {
+			throw new IllegalStateException("Data item at offset " + offset + " exceeds the message");
+		}
+	}
+}
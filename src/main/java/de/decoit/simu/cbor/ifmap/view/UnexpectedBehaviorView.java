@@ -0,0 +1,90 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORUnexpectedBehavior;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+
+
+
+/**
+ * Typed view of unexpected-behavior metadata.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class UnexpectedBehaviorView extends AbstractTypedView {
+	private static final IfMapSignificance[] SIGNIFICANCES = IfMapSignificance.values();
+
+	private final EncodedName magnitude;
+	private final EncodedName confidence;
+	private final EncodedName significance;
+	private final EncodedName[] significanceValues;
+
+
+	/**
+	 * Create a view of unexpected-behavior metadata.
+	 *
+	 * @param schema Schema providing the encoded names
+	 */
+	public UnexpectedBehaviorView(final ViewSchema schema) {
+		super(schema, IfMapNamespaces.IFMAP_METADATA, CBORUnexpectedBehavior.XML_NAME);
+
+		this.magnitude = this.nestedElement(CBORUnexpectedBehavior.MAGNITUDE);
+		this.confidence = this.nestedElement(CBORUnexpectedBehavior.CONFIDENCE);
+		this.significance = this.nestedElement(CBORUnexpectedBehavior.SIGNIFICANCE);
+
+		this.significanceValues = new EncodedName[SIGNIFICANCES.length];
+		for(int i=0; i<SIGNIFICANCES.length; i++) {
+			this.significanceValues[i] = this.nestedElementEnumValues(CBORUnexpectedBehavior.SIGNIFICANCE, SIGNIFICANCES[i].getXmlName())[0];
+		}
+	}
+
+
+	/**
+	 * Get the magnitude of the unexpected behavior.
+	 *
+	 * @param element Element view positioned at unexpected-behavior metadata
+	 * @return Magnitude, -1 if not present
+	 */
+	public int getMagnitude(final ElementView element) {
+		return (int) element.getNestedLong(this.magnitude, -1);
+	}
+
+
+	/**
+	 * Get the confidence of the unexpected behavior.
+	 *
+	 * @param element Element view positioned at unexpected-behavior metadata
+	 * @return Confidence, -1 if not present
+	 */
+	public int getConfidence(final ElementView element) {
+		return (int) element.getNestedLong(this.confidence, -1);
+	}
+
+
+	/**
+	 * Get the significance of the unexpected behavior.
+	 *
+	 * @param element Element view positioned at unexpected-behavior metadata
+	 * @return Significance, null if not present or unknown
+	 */
+	public IfMapSignificance getSignificance(final ElementView element) {
+		int index = element.getNestedEnum(this.significance, this.significanceValues);
+
+		return index >= 0 ? SIGNIFICANCES[index] : null;
+	}
+}
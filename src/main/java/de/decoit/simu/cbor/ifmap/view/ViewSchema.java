@@ -0,0 +1,252 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import co.nstant.in.cbor.model.DataItem;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResult;
+import de.decoit.simu.cbor.ifmap.util.DictionaryHelper;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryComplexElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryEnumValueElement;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleAttribute;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import de.decoit.simu.cbor.xml.dictionary.exception.DictionaryPathException;
+import lombok.Getter;
+
+
+
+/**
+ * Encoded names of a dictionary, used by {@link MessageView} and the typed views to compare names in place.
+ * All names are resolved when they are requested, so resolve them once and keep the returned
+ * {@link EncodedName} objects for the lifetime of the schema. Names missing from the dictionary are
+ * resolved to their plain UnicodeString form, which is what the serializer writes in that case.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class ViewSchema {
+	private static final String RESPONSE = "response";
+
+	/**
+	 * Codec context the names were resolved for, its decode limits are applied by {@link MessageView}.
+	 */
+	@Getter
+	private final CodecContext context;
+	@Getter
+	private final EncodedName responseNamespace;
+	@Getter
+	private final EncodedName responseName;
+	@Getter
+	private final EncodedName pollResultName;
+	@Getter
+	private final EncodedName searchResultName;
+	@Getter
+	private final EncodedName errorResultName;
+
+
+	/**
+	 * Create a schema for the dictionary of the specified codec context.
+	 *
+	 * @param context Codec context providing the dictionary
+	 * @return View schema
+	 */
+	public static ViewSchema forContext(final CodecContext context) {
+		if(context == null) {
+			throw new IllegalArgumentException("Codec context must not be null");
+		}
+
+		return new ViewSchema(context);
+	}
+
+
+	/**
+	 * Private constructor, use {@link #forContext(CodecContext)} to create instances.
+	 *
+	 * @param context Codec context providing the dictionary
+	 */
+	private ViewSchema(final CodecContext context) {
+		this.context = context;
+		this.responseNamespace = this.namespace(IfMapNamespaces.IFMAP);
+		this.responseName = this.element(IfMapNamespaces.IFMAP, RESPONSE);
+		this.pollResultName = this.nestedElement(IfMapNamespaces.IFMAP, RESPONSE, CBORPollResult.XML_NAME);
+		this.searchResultName = this.nestedElement(IfMapNamespaces.IFMAP, RESPONSE, SearchResult.XML_NAME);
+		this.errorResultName = this.nestedElement(IfMapNamespaces.IFMAP, RESPONSE, CBORPollResult.XML_NAME + "+" + CBORErrorResult.XML_NAME);
+	}
+
+
+	/**
+	 * Resolve the encoded name of a namespace.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @return Encoded namespace
+	 */
+	public EncodedName namespace(final String namespace) {
+		DictionaryNamespace namespaceEntry = this.context.lookupNamespace(namespace);
+
+		return EncodedName.of(namespaceEntry != null ? namespaceEntry.getCborName() : null, namespace);
+	}
+
+
+	/**
+	 * Resolve the encoded name of a top level element.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the element
+	 * @return Encoded element name
+	 */
+	public EncodedName element(final String namespace, final String elementName) {
+		DictionarySimpleElement elementEntry = this.lookupElement(namespace, elementName);
+
+		return EncodedName.of(elementEntry != null ? elementEntry.getCborName() : null, elementName);
+	}
+
+
+	/**
+	 * Resolve the encoded name of an attribute of a top level element.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the element
+	 * @param attributeName XML name of the attribute
+	 * @return Encoded attribute name
+	 */
+	public EncodedName attribute(final String namespace, final String elementName, final String attributeName) {
+		DictionarySimpleAttribute attributeEntry = this.lookupAttribute(namespace, elementName, attributeName);
+
+		return EncodedName.of(attributeEntry != null ? attributeEntry.getCborName() : null, attributeName);
+	}
+
+
+	/**
+	 * Resolve the encoded enum values of an attribute of a top level element.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the element
+	 * @param attributeName XML name of the attribute
+	 * @param enumValues XML names of the enum values
+	 * @return Encoded enum values in the order of the XML names
+	 */
+	public EncodedName[] attributeEnumValues(final String namespace, final String elementName, final String attributeName, final String... enumValues) {
+		DictionarySimpleAttribute attributeEntry = this.lookupAttribute(namespace, elementName, attributeName);
+		EncodedName[] rv = new EncodedName[enumValues.length];
+
+		for(int i=0; i<enumValues.length; i++) {
+			DataItem mapping = null;
+			if(attributeEntry instanceof DictionaryEnumValueAttribute) {
+				mapping = ((DictionaryEnumValueAttribute) attributeEntry).lookupEnumValue(enumValues[i]);
+			}
+
+			rv[i] = EncodedName.of(mapping, enumValues[i]);
+		}
+
+		return rv;
+	}
+
+
+	/**
+	 * Resolve the encoded name of a nested element of a top level element.
+	 * The nested element is specified by a dictionary path like ELEMENTNAME_1+ELEMENTNAME_2.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the top level element
+	 * @param nestedPath Path of the nested element
+	 * @return Encoded nested element name
+	 */
+	public EncodedName nestedElement(final String namespace, final String elementName, final String nestedPath) {
+		DictionarySimpleElement nestedEntry = this.lookupNestedElement(namespace, elementName, nestedPath);
+
+		return EncodedName.of(nestedEntry != null ? nestedEntry.getCborName() : null, lastPathElement(nestedPath));
+	}
+
+
+	/**
+	 * Resolve the encoded enum values of a nested element of a top level element.
+	 *
+	 * @param namespace XML name of the namespace
+	 * @param elementName XML name of the top level element
+	 * @param nestedPath Path of the nested element
+	 * @param enumValues XML names of the enum values
+	 * @return Encoded enum values in the order of the XML names
+	 */
+	public EncodedName[] nestedElementEnumValues(final String namespace, final String elementName, final String nestedPath, final String... enumValues) {
+		DictionarySimpleElement nestedEntry = this.lookupNestedElement(namespace, elementName, nestedPath);
+		EncodedName[] rv = new EncodedName[enumValues.length];
+
+		for(int i=0; i<enumValues.length; i++) {
+			DataItem mapping = null;
+			if(nestedEntry instanceof DictionaryEnumValueElement) {
+				mapping = ((DictionaryEnumValueElement) nestedEntry).lookupEnumValue(enumValues[i]);
+			}
+
+			rv[i] = EncodedName.of(mapping, enumValues[i]);
+		}
+
+		return rv;
+	}
+
+
+	private DictionarySimpleElement lookupElement(final String namespace, final String elementName) {
+		if(namespace == null) {
+			throw new IllegalArgumentException("Namespace must not be null");
+		}
+
+		if(elementName == null) {
+			throw new IllegalArgumentException("Element name must not be null");
+		}
+
+		DictionaryNamespace namespaceEntry = this.context.lookupNamespace(namespace);
+
+		return namespaceEntry != null ? namespaceEntry.lookupElement(elementName) : null;
+	}
+
+
+	private DictionarySimpleAttribute lookupAttribute(final String namespace, final String elementName, final String attributeName) {
+		if(attributeName == null) {
+			throw new IllegalArgumentException("Attribute name must not be null");
+		}
+
+		DictionarySimpleElement elementEntry = this.lookupElement(namespace, elementName);
+
+		return elementEntry != null ? elementEntry.lookupAttribute(attributeName) : null;
+	}
+
+
+	private DictionarySimpleElement lookupNestedElement(final String namespace, final String elementName, final String nestedPath) {
+		if(nestedPath == null) {
+			throw new IllegalArgumentException("Nested element path must not be null");
+		}
+
+		DictionarySimpleElement elementEntry = this.lookupElement(namespace, elementName);
+		if(!(elementEntry instanceof DictionaryComplexElement)) {
+			return null;
+		}
+
+		try {
+			return DictionaryHelper.findNestedElement(nestedPath, elementEntry);
+		}
+		catch(DictionaryPathException ex) {
+			throw new IllegalArgumentException("Invalid nested element path: " + nestedPath, ex);
+		}
+	}
+
+
+	private static String lastPathElement(final String nestedPath) {
+		return nestedPath.substring(nestedPath.lastIndexOf('+') + 1);
+	}
+}
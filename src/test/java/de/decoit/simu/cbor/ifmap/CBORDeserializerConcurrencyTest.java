@@ -0,0 +1,89 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class CBORDeserializerConcurrencyTest extends AbstractTestBase {
+	private static final int THREADS = 16;
+	private static final int ITERATIONS = 200;
+
+
+	@Test
+	public void testDeserializeRequest_concurrent() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		for(int i=0; i<10; i++) {
+			CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device-" + i, false),
+															 new CBORIpAddress(InetAddress.getByName("10.0.0." + i)));
+			update.addMetadata(new CBORDeviceIp());
+			request.addPublishType(update);
+		}
+
+		final byte[] cborBytes = CBORSerializer.serializeRequest(request);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+			List<Future<List<AbstractRequest>>> results = new ArrayList<>();
+			for(int t=0; t<THREADS; t++) {
+				results.add(executor.submit((Callable<List<AbstractRequest>>) () -> {
+					start.await();
+
+					List<AbstractRequest> decoded = new ArrayList<>();
+					for(int i=0; i<ITERATIONS; i++) {
+						decoded.add(CBORDeserializer.deserializeRequest(cborBytes));
+					}
+
+					return decoded;
+				}));
+			}
+
+			start.countDown();
+
+			for(Future<List<AbstractRequest>> f : results) {
+				for(AbstractRequest decoded : f.get()) {
+					assertEquals(request, decoded);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.CBORNewSessionRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.RequestHeader;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class CBORDeserializerPeekTest extends AbstractTestBase {
+	@Test
+	public void testPeekRequestHeader_publish() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device", false),
+														 new CBORIpAddress(InetAddress.getByName("10.0.0.1")));
+		update.addMetadata(new CBORDeviceIp());
+		request.addPublishType(update);
+
+		ByteBuffer buffer = ByteBuffer.wrap(CBORSerializer.serializeRequest(request));
+		RequestHeader result = CBORDeserializer.peekRequestHeader(buffer);
+
+		assertEquals(IfMapNamespaces.IFMAP, result.getNamespace());
+		assertEquals("publish", result.getElementName());
+		assertEquals("my-session-id", result.getSessionId());
+		assertEquals(0, buffer.position());
+	}
+
+
+	@Test
+	public void testPeekRequestHeader_noSessionId() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap(CBORSerializer.serializeRequest(new CBORNewSessionRequest()));
+		RequestHeader result = CBORDeserializer.peekRequestHeader(buffer);
+
+		assertEquals("newSession", result.getElementName());
+		assertNull(result.getSessionId());
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testPeekRequestHeader_noArray() throws Exception {
+		CBORDeserializer.peekRequestHeader(ByteBuffer.wrap(new byte[] {0x61, 0x61}));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testPeekRequestHeader_empty() throws Exception {
+		CBORDeserializer.peekRequestHeader(ByteBuffer.allocate(0));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPeekRequestHeader_null() throws Exception {
+		CBORDeserializer.peekRequestHeader(null);
+	}
+}
@@ -0,0 +1,158 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import java.net.InetAddress;
+import java.util.Arrays;
+import javax.xml.bind.DatatypeConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class CBORDeserializerValidationTest extends AbstractTestBase {
+	@Test
+	public void testTryDeserializeRequest() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device", false),
+														 new CBORIpAddress(InetAddress.getByName("10.0.0.1")));
+		update.addMetadata(new CBORDeviceIp());
+		request.addPublishType(update);
+
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(CBORSerializer.serializeRequest(request));
+
+		assertTrue(result.isSuccess());
+		assertEquals(request, result.getValue());
+		assertNull(result.getErrorCode());
+	}
+
+
+	@Test
+	public void testTryDeserializeRequest_truncated() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(new CBORPublishRequest("my-session-id"));
+
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(Arrays.copyOf(cborBytes, cborBytes.length - 1));
+
+		assertFalse(result.isSuccess());
+		assertEquals(IfMapErrorCode.FAILURE, result.getErrorCode());
+		assertEquals(cborBytes.length - 1, result.getOffset());
+	}
+
+
+	@Test
+	public void testTryDeserializeRequest_noArray() {
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(DatatypeConverter.parseHexBinary("6161"));
+
+		assertFalse(result.isSuccess());
+		assertEquals(0, result.getOffset());
+	}
+
+
+	@Test
+	public void testTryDeserializeRequest_invalidStructure() {
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(DatatypeConverter.parseHexBinary("83010203"));
+
+		assertFalse(result.isSuccess());
+		assertEquals(IfMapErrorCode.FAILURE, result.getErrorCode());
+	}
+
+
+	@Test
+	public void testTryDeserializeRequest_unknownElement() {
+		// ["foo", "bar", [], []]
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(DatatypeConverter.parseHexBinary("8463666F6F636261728080"));
+
+		assertFalse(result.isSuccess());
+		assertEquals(DecodeResult.UNKNOWN_OFFSET, result.getOffset());
+	}
+
+
+	@Test
+	public void testTryDeserializeResponse_limits() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(new CBORPublishRequest("my-session-id"));
+		CodecContext limitedContext = CodecContext.getDefault()
+				.withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(DecodeLimits.getUnlimited().withMaxDepth(1)));
+
+		DecodeResult<CBORResponse> result = CBORDeserializer.tryDeserializeResponse(cborBytes, limitedContext);
+
+		assertFalse(result.isSuccess());
+		assertTrue(result.getErrorMessage().startsWith("Decode limit exceeded"));
+	}
+
+
+	@Test
+	public void testTryDeserializeRequest_deepNesting() {
+		byte[] cborBytes = new byte[100001];
+		Arrays.fill(cborBytes, (byte) 0x81);
+		cborBytes[cborBytes.length - 1] = 0x00;
+
+		DecodeResult<AbstractRequest> result = CBORDeserializer.tryDeserializeRequest(cborBytes);
+
+		assertFalse(result.isSuccess());
+		assertEquals("Decode limit exceeded: nesting depth exceeds maximum of " + DecodeLimits.DEFAULT_MAX_DEPTH, result.getErrorMessage());
+		assertEquals(DecodeLimits.DEFAULT_MAX_DEPTH, result.getOffset());
+	}
+
+
+	@Test
+	public void testToErrorResult() {
+		DecodeResult<AbstractRequest> result = DecodeResult.failure(IfMapErrorCode.FAILURE, "Broken", 12);
+
+		CBORErrorResult errorResult = result.toErrorResult();
+
+		assertEquals(IfMapErrorCode.FAILURE, errorResult.getErrorCode());
+		assertEquals("Broken (offset 12)", errorResult.getErrorString());
+	}
+
+
+	@Test
+	public void testToException() {
+		CBORDeserializationException ex = DecodeResult.failure(IfMapErrorCode.FAILURE, "Broken", 12).toException();
+
+		assertEquals("Broken (offset 12)", ex.getMessage());
+		assertEquals(0, ex.getStackTrace().length);
+	}
+
+
+	@Test
+	public void testWrappingException_stackTrace() {
+		CBORDeserializationException ex = new CBORDeserializationException("Wrapped", new IllegalStateException());
+
+		assertTrue(ex.getStackTrace().length > 0);
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testGetValue_failure() {
+		DecodeResult.failure(IfMapErrorCode.FAILURE, "Broken", 0).getValue();
+	}
+}
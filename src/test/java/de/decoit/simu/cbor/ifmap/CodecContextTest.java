@@ -0,0 +1,185 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import co.nstant.in.cbor.CborBuilder;
+import co.nstant.in.cbor.CborEncoder;
+import co.nstant.in.cbor.builder.ArrayBuilder;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.deserializer.AbstractDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.CBOREndSessionRequest;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryNamespace;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.util.Arrays;
+import javax.xml.bind.DatatypeConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class CodecContextTest extends AbstractTestBase {
+	@Test
+	public void testGetDefault() {
+		CodecContext instance = CodecContext.getDefault();
+
+		assertTrue(instance.isDefault());
+		assertSame(DictionaryProvider.getInstance(), instance.getDictionary());
+		assertSame(instance, CodecContext.getDefault());
+	}
+
+
+	@Test
+	public void testForDictionary() {
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+
+		assertFalse(instance.isDefault());
+		assertSame(DictionaryProvider.getInstance(), instance.getDictionary());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForDictionary_null() {
+		CodecContext.forDictionary(null);
+	}
+
+
+	@Test
+	public void testWithDecodeOptions() {
+		CodecContext source = CodecContext.forDictionary(DictionaryProvider.getInstance());
+		DecodeOptions options = DecodeOptions.getDefault().withLazyMetadata(true);
+
+		CodecContext instance = source.withDecodeOptions(options);
+
+		assertNotSame(source, instance);
+		assertSame(options, instance.getDecodeOptions());
+		assertSame(DecodeOptions.getDefault(), source.getDecodeOptions());
+		assertSame(source.getDictionary(), instance.getDictionary());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWithDecodeOptions_null() {
+		CodecContext.getDefault().withDecodeOptions(null);
+	}
+
+
+	@Test
+	public void testLookupNamespace() {
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+
+		assertNotNull(instance.lookupNamespace(IfMapNamespaces.IFMAP));
+		assertSame(instance.lookupNamespace(IfMapNamespaces.IFMAP), instance.lookupNamespace(IfMapNamespaces.IFMAP));
+		assertNull(instance.lookupNamespace("http://www.example.com/unknown"));
+	}
+
+
+	@Test
+	public void testCborSerialize() throws Exception {
+		CBORIpAddress identifier = new CBORIpAddress(InetAddress.getByName("255.3.2.1"));
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+
+		CborBuilder cb = new CborBuilder();
+		ArrayBuilder ab = cb.addArray();
+
+		identifier.cborSerialize(ab, instance);
+
+		ab.end();
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		CborEncoder ce = new CborEncoder(bos);
+		ce.encode(cb.build());
+
+		log.info("CBOR serialize:");
+		log.info(DatatypeConverter.printHexBinary(bos.toByteArray()));
+
+		byte[] expResult = DatatypeConverter.parseHexBinary("8400038400D9A41144FF030201020080");
+
+		assertTrue("Byte array mismatch", Arrays.equals(expResult, bos.toByteArray()));
+	}
+
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+		CBOREndSessionRequest request = new CBOREndSessionRequest("my-session-id");
+
+		byte[] cborBytes = CBORSerializer.serializeRequest(request, instance);
+		assertTrue("Byte array mismatch", Arrays.equals(CBORSerializer.serializeRequest(request), cborBytes));
+
+		AbstractRequest result = CBORDeserializer.deserializeRequest(cborBytes, instance);
+		assertEquals(request, result);
+	}
+
+
+	@Test
+	public void testResolveElement() throws Exception {
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+		UnicodeString namespace = new UnicodeString(IfMapNamespaces.IFMAP);
+		UnicodeString elementName = new UnicodeString("ip-address");
+
+		ElementDescriptor result = AbstractDeserializerManager.resolveElement(namespace, elementName, instance);
+
+		assertEquals(IfMapNamespaces.IFMAP, result.getNamespace());
+		assertEquals("ip-address", result.getElementName());
+		assertNotNull(result.getElementEntry());
+		assertSame(result, instance.getElementDescriptor(namespace, elementName));
+		assertSame(result, AbstractDeserializerManager.resolveElement(namespace, elementName, instance));
+	}
+
+
+	@Test
+	public void testResolveElement_default() throws Exception {
+		CodecContext instance = CodecContext.getDefault();
+		DictionaryNamespace namespaceEntry = instance.lookupNamespace(IfMapNamespaces.IFMAP);
+		DataItem namespace = namespaceEntry.getCborName();
+		DataItem elementName = namespaceEntry.lookupElement("ip-address").getCborName();
+
+		ElementDescriptor result = AbstractDeserializerManager.resolveElement(namespace, elementName, instance);
+
+		assertEquals(IfMapNamespaces.IFMAP, result.getNamespace());
+		assertEquals("ip-address", result.getElementName());
+		assertSame(result, instance.getElementDescriptor(namespace, elementName));
+		assertSame(result, AbstractDeserializerManager.resolveElement(namespace, elementName, instance));
+	}
+
+
+	@Test
+	public void testResolveElement_unknown() throws Exception {
+		CodecContext instance = CodecContext.forDictionary(DictionaryProvider.getInstance());
+		UnicodeString namespace = new UnicodeString("http://www.example.com/unknown");
+		UnicodeString elementName = new UnicodeString("unknown");
+
+		ElementDescriptor result = AbstractDeserializerManager.resolveElement(namespace, elementName, instance);
+
+		assertEquals("http://www.example.com/unknown", result.getNamespace());
+		assertEquals("unknown", result.getElementName());
+		assertNull(result.getElementEntry());
+		assertNull(instance.getElementDescriptor(namespace, elementName));
+	}
+}
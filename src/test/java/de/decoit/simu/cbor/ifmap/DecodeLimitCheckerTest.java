@@ -0,0 +1,287 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import java.io.ByteArrayInputStream;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import javax.xml.bind.DatatypeConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class DecodeLimitCheckerTest extends AbstractTestBase {
+	@Test
+	public void testCheck_withinLimits() throws Exception {
+		// [1, "ab", [h'00', {1: 2}]]
+		byte[] input = DatatypeConverter.parseHexBinary("8301626162824100A10102");
+		DecodeLimits limits = DecodeLimits.getUnlimited()
+				.withMaxBytes(input.length)
+				.withMaxDepth(3)
+				.withMaxArrayLength(3)
+				.withMaxStringLength(2)
+				.withMaxItems(8);
+
+		DecodeLimitChecker.check(input, limits);
+	}
+
+
+	@Test
+	public void testCheck_indefiniteLength() throws Exception {
+		// [_ "a", (_ h'00', h'01')]
+		byte[] input = DatatypeConverter.parseHexBinary("9F61615F41004101FFFF");
+
+		DecodeLimitChecker.check(input, DecodeLimits.getUnlimited().withMaxDepth(2));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_maxBytes() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("83010203"), DecodeLimits.getUnlimited().withMaxBytes(3));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_maxDepth() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("8181818100"), DecodeLimits.getUnlimited().withMaxDepth(3));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_maxArrayLength() throws Exception {
+		// Array declaring 2^32 elements, rejected before the elements are read
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("9B0000000100000000"), DecodeLimits.getUnlimited().withMaxArrayLength(1000));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_maxStringLength() throws Exception {
+		// Byte string declaring 2^31 bytes
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("5A80000000"), DecodeLimits.getUnlimited().withMaxStringLength(1024));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_maxItems() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("83010203"), DecodeLimits.getUnlimited().withMaxItems(3));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_truncated() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("830102"), DecodeLimits.getUnlimited());
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_unexpectedBreak() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("8101FF"), DecodeLimits.getUnlimited());
+	}
+
+
+	@Test
+	public void testScan_offset() {
+		DecodeResult<Void> result = DecodeLimitChecker.scan(DatatypeConverter.parseHexBinary("8301825A80000000"),
+															DecodeLimits.getUnlimited().withMaxStringLength(1024));
+
+		assertFalse(result.isSuccess());
+		assertEquals(3, result.getOffset());
+	}
+
+
+	@Test
+	public void testCheck_exceptionStackTrace() {
+		try {
+			DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("830102"), DecodeLimits.getUnlimited());
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getStackTrace().length > 0);
+		}
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadBounded_maxBytes() throws Exception {
+		DecodeLimitChecker.readBounded(new ByteArrayInputStream(new byte[100]), 99);
+	}
+
+
+	@Test
+	public void testReadBounded_exceptionStackTrace() {
+		try {
+			DecodeLimitChecker.readBounded(new ByteArrayInputStream(new byte[100]), 99);
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getStackTrace().length > 0);
+		}
+	}
+
+
+	@Test
+	public void testCheck_offsetReportedOnce() {
+		try {
+			DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("8301825A80000000"),
+									 DecodeLimits.getUnlimited().withMaxStringLength(1024));
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getMessage().endsWith(" (offset 3)"));
+			assertEquals(ex.getMessage().indexOf("offset"), ex.getMessage().lastIndexOf("offset"));
+		}
+	}
+
+
+	@Test
+	public void testDeserializeRequest_limits() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		for(int i=0; i<10; i++) {
+			CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device-" + i, false),
+															 new CBORIpAddress(InetAddress.getByName("10.0.0." + i)));
+			update.addMetadata(new CBORDeviceIp());
+			request.addPublishType(update);
+		}
+
+		byte[] cborBytes = CBORSerializer.serializeRequest(request);
+		DecodeLimits limits = DecodeLimits.getUnlimited().withMaxBytes(cborBytes.length).withMaxDepth(16);
+		CodecContext limitedContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(limits));
+
+		assertEquals(request, CBORDeserializer.deserializeRequest(cborBytes, limitedContext));
+		assertEquals(request, CBORDeserializer.deserializeRequest(new ByteArrayInputStream(cborBytes), limitedContext));
+
+		CodecContext tooSmallContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(limits.withMaxItems(10)));
+		try {
+			CBORDeserializer.deserializeRequest(new ByteArrayInputStream(cborBytes), tooSmallContext);
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getMessage().startsWith("Decode limit exceeded"));
+		}
+	}
+
+
+	@Test
+	public void testCheck_tagChain() throws Exception {
+		// 8 tags on one item are accepted
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("C0C0C0C0C0C0C0C000"), DecodeLimits.getUnlimited());
+
+		try {
+			DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("C0C0C0C0C0C0C0C0C000"), DecodeLimits.getUnlimited());
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getMessage().contains("tags"));
+		}
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testCheck_tagWithoutItem() throws Exception {
+		DecodeLimitChecker.check(DatatypeConverter.parseHexBinary("C0"), DecodeLimits.getUnlimited());
+	}
+
+
+	@Test
+	public void testCheck_bufferRange() throws Exception {
+		// Garbage around the message [1, 2] must be ignored
+		ByteBuffer buffer = ByteBuffer.wrap(DatatypeConverter.parseHexBinary("FF820102FF"));
+		buffer.position(1).limit(4);
+
+		DecodeLimits.getUnlimited().withMaxBytes(3).withMaxItems(3).check(buffer);
+		assertEquals(1, buffer.position());
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testPeekRequestHeader_limits() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(new CBORPublishRequest("my-session-id"));
+		DecodeLimits limits = DecodeLimits.getUnlimited().withMaxBytes(cborBytes.length - 1);
+		CodecContext limitedContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(limits));
+
+		CBORDeserializer.peekRequestHeader(ByteBuffer.wrap(cborBytes), limitedContext);
+	}
+
+
+	@Test
+	public void testScanHeader_bodyNotScanned() throws Exception {
+		// [1, "ab", [h'00', {1: 2}], "abcdef"], the body string exceeds the limit
+		ByteBuffer buffer = ByteBuffer.wrap(DatatypeConverter.parseHexBinary("8401626162824100A1010266616263646566"));
+		DecodeLimits limits = DecodeLimits.getUnlimited().withMaxStringLength(2);
+
+		assertTrue(DecodeLimitChecker.scanHeader(buffer, limits, 3).isSuccess());
+		assertFalse(DecodeLimitChecker.scan(buffer, limits).isSuccess());
+
+		// [1, "a", [], h'...'], the body declares a string far beyond the end of the buffer
+		buffer = ByteBuffer.wrap(DatatypeConverter.parseHexBinary("84016161805A80000000"));
+		assertTrue(DecodeLimitChecker.scanHeader(buffer, DecodeLimits.getUnlimited(), 3).isSuccess());
+	}
+
+
+	@Test
+	public void testScanHeader_headerViolation() throws Exception {
+		// [1, "abc", []]
+		ByteBuffer buffer = ByteBuffer.wrap(DatatypeConverter.parseHexBinary("830163616263" + "80"));
+
+		DecodeResult<Void> result = DecodeLimitChecker.scanHeader(buffer, DecodeLimits.getUnlimited().withMaxStringLength(2), 3);
+		assertFalse(result.isSuccess());
+		assertEquals(2, result.getOffset());
+
+		result = DecodeLimitChecker.scanHeader(buffer, DecodeLimits.getUnlimited().withMaxBytes(buffer.remaining() - 1), 3);
+		assertFalse(result.isSuccess());
+		assertEquals(0, result.getOffset());
+
+		// Header ends before the attribute array
+		result = DecodeLimitChecker.scanHeader(ByteBuffer.wrap(DatatypeConverter.parseHexBinary("83016161")), DecodeLimits.getUnlimited(), 3);
+		assertFalse(result.isSuccess());
+	}
+
+
+	@Test
+	public void testPeekRequestHeader_bodyNotScanned() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device", false),
+														 new CBORIpAddress(InetAddress.getByName("192.168.1.1")));
+		update.addMetadata(new CBORDeviceIp());
+		request.addPublishType(update);
+		byte[] cborBytes = CBORSerializer.serializeRequest(request);
+
+		// The body contains more items than allowed, the header does not
+		DecodeLimits limits = DecodeLimits.getUnlimited().withMaxItems(8);
+		CodecContext limitedContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(limits));
+
+		assertEquals("my-session-id", CBORDeserializer.peekRequestHeader(ByteBuffer.wrap(cborBytes), limitedContext).getSessionId());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWithMaxDepth_invalid() {
+		DecodeLimits.getUnlimited().withMaxDepth(0);
+	}
+}
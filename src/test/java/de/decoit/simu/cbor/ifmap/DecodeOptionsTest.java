@@ -0,0 +1,159 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class DecodeOptionsTest extends AbstractTestBase {
+	@Test
+	public void testGetDefault() {
+		DecodeOptions instance = DecodeOptions.getDefault();
+
+		assertFalse(instance.isLazyMetadata());
+		assertFalse(instance.isMetadataFiltered());
+		assertTrue(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, CBOREvent.class));
+		assertTrue(instance.acceptsMetadata("http://www.example.com/vendor", null));
+	}
+
+
+	@Test
+	public void testWithLazyMetadata() {
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true);
+
+		assertTrue(instance.isLazyMetadata());
+		assertFalse(DecodeOptions.getDefault().isLazyMetadata());
+	}
+
+
+	@Test
+	public void testWithAcceptedMetadataTypes() {
+		Set<Class<? extends AbstractMetadata>> types = new HashSet<>(Arrays.asList(CBOREvent.class));
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true).withAcceptedMetadataTypes(types);
+		types.add(CBORCapability.class);
+
+		assertTrue(instance.isLazyMetadata());
+		assertTrue(instance.isMetadataFiltered());
+		assertTrue(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, CBOREvent.class));
+		assertFalse(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, CBORCapability.class));
+		assertFalse(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, null));
+	}
+
+
+	@Test
+	public void testWithAcceptedMetadataNamespaces() {
+		DecodeOptions instance = DecodeOptions.getDefault()
+				.withAcceptedMetadataTypes(Collections.singleton(CBOREvent.class))
+				.withAcceptedMetadataNamespaces(Collections.singleton("http://www.example.com/vendor"));
+
+		assertTrue(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, CBOREvent.class));
+		assertTrue(instance.acceptsMetadata("http://www.example.com/vendor", null));
+		assertFalse(instance.acceptsMetadata(IfMapNamespaces.IFMAP_METADATA, CBORCapability.class));
+	}
+
+
+	@Test
+	public void testWithAcceptedMetadataTypes_null() {
+		DecodeOptions instance = DecodeOptions.getDefault()
+				.withAcceptedMetadataTypes(Collections.singleton(CBOREvent.class))
+				.withAcceptedMetadataTypes(null);
+
+		assertFalse(instance.isMetadataFiltered());
+		assertEquals(DecodeOptions.getDefault(), instance);
+	}
+
+
+	@Test
+	public void testWithParallelPool() {
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true).withParallelPool(ForkJoinPool.commonPool());
+
+		assertSame(ForkJoinPool.commonPool(), instance.getParallelPool());
+		assertTrue(instance.isLazyMetadata());
+		assertNull(DecodeOptions.getDefault().getParallelPool());
+		assertNull(instance.withParallelPool(null).getParallelPool());
+	}
+
+
+	@Test
+	public void testWithIdentifierPool() {
+		IdentifierPool pool = IdentifierPool.bounded(10);
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true).withIdentifierPool(pool);
+
+		assertSame(pool, instance.getIdentifierPool());
+		assertTrue(instance.isLazyMetadata());
+		assertNull(DecodeOptions.getDefault().getIdentifierPool());
+		assertNull(instance.withIdentifierPool(null).getIdentifierPool());
+	}
+
+
+	@Test
+	public void testWithDecodeLimits() {
+		DecodeLimits limits = DecodeLimits.getUnlimited().withMaxBytes(1024);
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true).withDecodeLimits(limits);
+
+		assertSame(limits, instance.getDecodeLimits());
+		assertTrue(instance.isLazyMetadata());
+		assertNull(DecodeOptions.getDefault().getDecodeLimits());
+		assertNull(instance.withDecodeLimits(null).getDecodeLimits());
+	}
+
+
+	@Test
+	public void testWithCompactModel() {
+		DecodeOptions instance = DecodeOptions.getDefault().withLazyMetadata(true).withCompactModel(true);
+
+		assertTrue(instance.isCompactModel());
+		assertTrue(instance.isLazyMetadata());
+		assertTrue(instance.withDecodeLimits(null).isCompactModel());
+		assertFalse(DecodeOptions.getDefault().isCompactModel());
+		assertFalse(instance.withCompactModel(false).isCompactModel());
+	}
+
+
+	@Test
+	public void testWithRawUnknownMetadata() {
+		DecodeOptions instance = DecodeOptions.getDefault().withCompactModel(true).withRawUnknownMetadata(true);
+
+		assertTrue(instance.isRawUnknownMetadata());
+		assertTrue(instance.isCompactModel());
+		assertTrue(instance.withLazyMetadata(true).isRawUnknownMetadata());
+		assertFalse(DecodeOptions.getDefault().isRawUnknownMetadata());
+		assertFalse(instance.withRawUnknownMetadata(false).isRawUnknownMetadata());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWithAcceptedMetadataNamespaces_nullElement() {
+		DecodeOptions.getDefault().withAcceptedMetadataNamespaces(new HashSet<>(Arrays.asList((String) null)));
+	}
+}
@@ -0,0 +1,129 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import java.net.InetAddress;
+import java.util.HashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class FrozenElementTest extends AbstractTestBase {
+	private CBORPublishRequest createRequest() throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("my-device", false), new CBORIpAddress(InetAddress.getByName("10.0.0.1")));
+		update.addMetadata(new CBORDeviceIp());
+		request.addPublishType(update);
+
+		return request;
+	}
+
+
+	@Test
+	public void testOf() throws Exception {
+		CBORPublishRequest request = this.createRequest();
+
+		FrozenElement<CBORPublishRequest> instance = FrozenElement.of(request);
+
+		assertSame(request, instance.getElement());
+		assertTrue(request.isFrozen());
+		assertTrue(request.getPublishTypes().get(0).isFrozen());
+		assertTrue(request.getPublishTypes().get(0).getIdentifierA().isFrozen());
+		assertTrue(request.getPublishTypes().get(0).getIdentifierB().isFrozen());
+		assertTrue(((CBORPublishUpdate) request.getPublishTypes().get(0)).getMetadata().get(0).isFrozen());
+		assertEquals(request.hashCode(), instance.hashCode());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOf_null() {
+		FrozenElement.of(null);
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testFreeze_modifyRoot() throws Exception {
+		CBORPublishRequest request = this.createRequest();
+		request.freeze();
+
+		request.addPublishType(new CBORPublishUpdate(new CBORDevice("other-device", false), null));
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testFreeze_modifyNested() throws Exception {
+		CBORPublishRequest request = this.createRequest();
+		request.freeze();
+
+		((CBORPublishUpdate) request.getPublishTypes().get(0)).addMetadata(new CBORDeviceIp());
+	}
+
+
+	@Test
+	public void testFreeze_searchResultItem() {
+		SearchResultItem item = new SearchResultItem(new CBORDevice("my-device", false));
+		item.addMetadata(new CBORCapability("my-capability"));
+		item.freeze();
+
+		assertTrue(item.isFrozen());
+		assertTrue(item.getIdentifierA().isFrozen());
+		assertTrue(item.getMetadata().get(0).isFrozen());
+
+		try {
+			item.removeAllMetadata();
+			fail("Frozen item was modified");
+		}
+		catch(IllegalStateException ex) {
+			assertEquals(1, item.getMetadata().size());
+		}
+	}
+
+
+	@Test
+	public void testEquals() throws Exception {
+		CBORPublishRequest mutable = this.createRequest();
+		FrozenElement<CBORPublishRequest> a = FrozenElement.of(this.createRequest());
+		FrozenElement<CBORPublishRequest> b = FrozenElement.of(this.createRequest());
+
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals(mutable, a.getElement());
+		assertFalse(mutable.isFrozen());
+	}
+
+
+	@Test
+	public void testMapKey() throws Exception {
+		HashMap<FrozenElement<CBORPublishRequest>, String> cache = new HashMap<>();
+		cache.put(FrozenElement.of(this.createRequest()), "cached");
+
+		assertEquals("cached", cache.get(FrozenElement.of(this.createRequest())));
+	}
+}
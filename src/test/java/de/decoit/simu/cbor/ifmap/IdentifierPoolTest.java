@@ -0,0 +1,127 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import java.net.InetAddress;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class IdentifierPoolTest extends AbstractTestBase {
+	@Test
+	public void testIntern_weak() throws Exception {
+		IdentifierPool instance = IdentifierPool.weak();
+		CBORIpAddress first = new CBORIpAddress(InetAddress.getByName("10.0.0.1"));
+		CBORIpAddress second = new CBORIpAddress(InetAddress.getByName("10.0.0.1"));
+
+		assertSame(first, instance.intern(first));
+		assertSame(first, instance.intern(second));
+		assertEquals(1, instance.size());
+	}
+
+
+	@Test
+	public void testIntern_bounded() {
+		IdentifierPool instance = IdentifierPool.bounded(2);
+		CBORDevice a = new CBORDevice("device-a", false);
+		CBORDevice b = new CBORDevice("device-b", false);
+		CBORDevice c = new CBORDevice("device-c", false);
+
+		instance.intern(a);
+		instance.intern(b);
+		instance.intern(new CBORDevice("device-a", false));
+		instance.intern(c);
+
+		assertEquals(2, instance.size());
+		assertSame(a, instance.intern(new CBORDevice("device-a", false)));
+		assertNotSame(b, instance.intern(new CBORDevice("device-b", false)));
+	}
+
+
+	@Test
+	public void testIntern_frozen() {
+		IdentifierPool instance = IdentifierPool.weak();
+		CBORDevice device = new CBORDevice("device-a", false);
+
+		assertSame(device, instance.intern(device));
+		assertTrue(device.isFrozen());
+	}
+
+
+	@Test
+	public void testIntern_boundedStriped() {
+		IdentifierPool instance = IdentifierPool.bounded(1000);
+		for(int i=0; i<5000; i++) {
+			instance.intern(new CBORDevice("device-" + i, false));
+		}
+
+		assertTrue(instance.size() <= 1000);
+
+		CBORDevice last = new CBORDevice("device-last", false);
+		assertSame(last, instance.intern(last));
+		assertSame(last, instance.intern(new CBORDevice("device-last", false)));
+	}
+
+
+	@Test
+	public void testIntern_differentTypes() throws Exception {
+		IdentifierPool instance = IdentifierPool.weak();
+		CBORDevice device = new CBORDevice("10.0.0.1", false);
+		CBORIpAddress ip = new CBORIpAddress(InetAddress.getByName("10.0.0.1"));
+
+		assertSame(device, instance.intern(device));
+		assertSame(ip, instance.intern(ip));
+		assertEquals(2, instance.size());
+	}
+
+
+	@Test
+	public void testClear() {
+		IdentifierPool instance = IdentifierPool.bounded(10);
+		instance.intern(new CBORDevice("device", false));
+
+		instance.clear();
+
+		assertEquals(0, instance.size());
+	}
+
+
+	@Test
+	public void testGetGlobal() {
+		assertSame(IdentifierPool.getGlobal(), IdentifierPool.getGlobal());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBounded_invalidSize() {
+		IdentifierPool.bounded(0);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIntern_null() {
+		IdentifierPool.weak().intern(null);
+	}
+}
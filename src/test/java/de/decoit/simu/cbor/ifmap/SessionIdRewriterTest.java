@@ -0,0 +1,120 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap;
+
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.CBORNewSessionRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPollRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class SessionIdRewriterTest extends AbstractTestBase {
+	@Test
+	public void testRewriteSessionId_longer() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(this.createPublishRequest("old-session"));
+		byte[] result = SessionIdRewriter.rewriteSessionId(cborBytes, "a-much-longer-session-id-than-before");
+
+		assertEquals(this.createPublishRequest("a-much-longer-session-id-than-before"), CBORDeserializer.deserializeRequest(result));
+	}
+
+
+	@Test
+	public void testRewriteSessionId_shorter() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(this.createPublishRequest("old-session"));
+		byte[] result = SessionIdRewriter.rewriteSessionId(cborBytes, "s");
+
+		assertEquals(this.createPublishRequest("s"), CBORDeserializer.deserializeRequest(result));
+		assertEquals("s", CBORDeserializer.peekRequestHeader(ByteBuffer.wrap(result)).getSessionId());
+	}
+
+
+	@Test
+	public void testRewriteSessionId_poll() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(new CBORPollRequest("old-session"));
+		byte[] result = SessionIdRewriter.rewriteSessionId(cborBytes, "new-session");
+
+		assertEquals(new CBORPollRequest("new-session"), CBORDeserializer.deserializeRequest(result));
+	}
+
+
+	@Test
+	public void testRewriteSessionId_buffer() throws Exception {
+		byte[] cborBytes = CBORSerializer.serializeRequest(this.createPublishRequest("old-session"));
+		ByteBuffer buffer = ByteBuffer.wrap(cborBytes);
+		ByteBuffer[] parts = SessionIdRewriter.rewriteSessionId(buffer, "new-session");
+
+		assertEquals(3, parts.length);
+		assertEquals(0, buffer.position());
+
+		ByteBuffer joined = ByteBuffer.allocate(parts[0].remaining() + parts[1].remaining() + parts[2].remaining());
+		for(ByteBuffer part : parts) {
+			joined.put(part.duplicate());
+		}
+
+		assertArrayEquals(SessionIdRewriter.rewriteSessionId(cborBytes, "new-session"), joined.array());
+		assertArrayEquals(CBORSerializer.serializeRequest(this.createPublishRequest("new-session")), joined.array());
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testRewriteSessionId_noSessionId() throws Exception {
+		SessionIdRewriter.rewriteSessionId(CBORSerializer.serializeRequest(new CBORNewSessionRequest()), "new-session");
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testRewriteSessionId_noArray() throws Exception {
+		SessionIdRewriter.rewriteSessionId(new byte[] {0x61, 0x61}, "new-session");
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRewriteSessionId_blankSessionId() throws Exception {
+		SessionIdRewriter.rewriteSessionId(CBORSerializer.serializeRequest(new CBORPollRequest("old-session")), " ");
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRewriteSessionId_null() throws Exception {
+		SessionIdRewriter.rewriteSessionId((byte[]) null, "new-session");
+	}
+
+
+	private CBORPublishRequest createPublishRequest(String sessionId) throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest(sessionId);
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device", false),
+														 new CBORIpAddress(InetAddress.getByName("10.0.0.1")));
+		update.addMetadata(new CBORDeviceIp());
+		request.addPublishType(update);
+
+		return request;
+	}
+}
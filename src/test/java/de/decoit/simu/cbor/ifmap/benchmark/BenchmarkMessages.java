@@ -0,0 +1,182 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.benchmark;
+
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORSearchRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import java.net.InetAddress;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.util.function.IntFunction;
+
+
+
+/**
+ * Sample messages shared by the benchmarks.
+ * The messages contain a fixed number of items so that results of different benchmarks can be compared.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public final class BenchmarkMessages {
+	private static final String SESSION_ID = "benchmark-session-id";
+	private static final String PUBLISHER_ID = "benchmark-publisher-id";
+
+
+	/**
+	 * Load the IF-MAP base dictionary into the global dictionary provider.
+	 *
+	 * @throws Exception if the dictionary cannot be loaded
+	 */
+	public static void loadDictionary() throws Exception {
+		DictionaryProvider.getInstance().replaceDictionary(Paths.get(ClassLoader.getSystemResource("ifmap-base.dict").toURI()));
+	}
+
+
+	/**
+	 * Build a publish request containing the specified number of update operations.
+	 * Each update links a device and an IP address with a single device-ip metadata item.
+	 *
+	 * @param updates Number of update operations
+	 * @return Serialized request
+	 * @throws Exception if the request cannot be serialized
+	 */
+	public static byte[] publishRequest(final int updates) throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest(SESSION_ID);
+
+		for(int i=0; i<updates; i++) {
+			CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device-" + i, false),
+															 new CBORIpAddress(InetAddress.getByAddress(new byte[] {10, 0, (byte) (i >> 8), (byte) i})));
+			update.addMetadata(new CBORDeviceIp());
+			request.addPublishType(update);
+		}
+
+		return CBORSerializer.serializeRequest(request);
+	}
+
+
+	/**
+	 * Build a search request for an identity identifier.
+	 *
+	 * @return Serialized request
+	 * @throws Exception if the request cannot be serialized
+	 */
+	public static byte[] searchRequest() throws Exception {
+		CBORIdentity identity = new CBORIdentity("benchmark-identity", IfMapIdentityType.USERNAME);
+
+		return CBORSerializer.serializeRequest(new CBORSearchRequest(SESSION_ID, identity));
+	}
+
+
+	/**
+	 * Build a poll response containing one update result with the specified number of result items.
+	 * Each item carries two metadata items.
+	 *
+	 * @param items Number of search result items
+	 * @return Serialized response
+	 * @throws Exception if the response cannot be serialized
+	 */
+	public static byte[] pollResponse(final int items) throws Exception {
+		return pollResponse(1, items);
+	}
+
+
+	/**
+	 * Build a poll response containing the specified number of update results, each with the specified
+	 * number of result items. Each item carries two metadata items.
+	 *
+	 * @param blocks Number of update results
+	 * @param items Number of search result items per update result
+	 * @return Serialized response
+	 * @throws Exception if the response cannot be serialized
+	 */
+	public static byte[] pollResponse(final int blocks, final int items) throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2015-06-01T12:00:00.123456+02:00");
+		CBORPollResult pollResult = new CBORPollResult();
+
+		for(int b=0; b<blocks; b++) {
+			UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+			updateResult.setName("subscription-" + b);
+
+			for(int i=0; i<items; i++) {
+				SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+				item.addMetadata(new CBORCapability(PUBLISHER_ID, timestamp, "capability-" + i));
+				item.addMetadata(new CBORDeviceAttribute(PUBLISHER_ID, timestamp, "attribute-" + i));
+				updateResult.addSearchResultItem(item);
+			}
+
+			pollResult.addPollResult(updateResult);
+		}
+
+		return CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+	}
+
+
+	/**
+	 * Build a poll response containing one update result with the specified number of result items.
+	 * Each item carries a single metadata item created by the specified factory.
+	 *
+	 * @param items Number of search result items
+	 * @param metadataFactory Factory creating the metadata of item i
+	 * @return Serialized response
+	 * @throws Exception if the response cannot be serialized
+	 */
+	public static byte[] pollResponse(final int items, final IntFunction<AbstractMetadata> metadataFactory) throws Exception {
+		CBORPollResult pollResult = new CBORPollResult();
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.setName("subscription");
+
+		for(int i=0; i<items; i++) {
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			item.addMetadata(metadataFactory.apply(i));
+			updateResult.addSearchResultItem(item);
+		}
+
+		pollResult.addPollResult(updateResult);
+
+		return CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+	}
+
+
+	/**
+	 * Get the publisher ID used by the sample messages.
+	 *
+	 * @return Publisher ID
+	 */
+	public static String getPublisherId() {
+		return PUBLISHER_ID;
+	}
+
+
+	/**
+	 * Private constructor, this class is not meant to be instanciated.
+	 */
+	private BenchmarkMessages() {}
+}
@@ -0,0 +1,105 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.benchmark;
+
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+
+/**
+ * Measures decode throughput of publish, search and poll messages with an increasing number of threads.
+ * All threads decode the same message using the global dictionary and deserializer registries, so a
+ * throughput that does not grow with the thread count points to contention on that shared state.
+ * Run the main method to execute the benchmark with 1, 2, 4, ... threads up to the number of available cores.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class DecodeScalingBenchmark {
+	@Param({"publish", "search", "poll"})
+	private String message;
+
+	private byte[] cborBytes;
+	private boolean response;
+
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkMessages.loadDictionary();
+
+		switch(this.message) {
+			case "publish":
+				this.cborBytes = BenchmarkMessages.publishRequest(20);
+				this.response = false;
+				break;
+			case "search":
+				this.cborBytes = BenchmarkMessages.searchRequest();
+				this.response = false;
+				break;
+			case "poll":
+				this.cborBytes = BenchmarkMessages.pollResponse(20);
+				this.response = true;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown message: " + this.message);
+		}
+	}
+
+
+	@Benchmark
+	public Object decode() throws Exception {
+		if(this.response) {
+			return CBORDeserializer.deserializeResponse(this.cborBytes);
+		}
+
+		return CBORDeserializer.deserializeRequest(this.cborBytes);
+	}
+
+
+	public static void main(String[] args) throws RunnerException {
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+
+		for(int threads=1; threads<=maxThreads; threads=threads*2) {
+			Options opt = new OptionsBuilder()
+					.include(DecodeScalingBenchmark.class.getSimpleName())
+					.threads(threads)
+					.build();
+
+			new Runner(opt).run();
+		}
+	}
+}
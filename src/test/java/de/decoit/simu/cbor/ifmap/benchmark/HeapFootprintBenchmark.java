@@ -0,0 +1,116 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.benchmark;
+
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORIpMac;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORLayer2Information;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORLocation;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORRole;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import java.time.ZonedDateTime;
+import java.util.function.IntFunction;
+import org.openjdk.jol.info.GraphLayout;
+
+
+
+/**
+ * Measures the heap retained by decoded poll results, per metadata type.
+ * For every metadata type a poll response with one metadata item per result item is decoded, once with
+ * the default decode options and once in compact mode. The size of the object graph reachable from the
+ * decoded response is measured with JOL and divided by the number of result items. Objects shared by
+ * several items, like a common publisher ID string, are counted once. Run the main method to print the
+ * retained bytes per result item for every combination.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public class HeapFootprintBenchmark {
+	private static final int ITEMS = 1000;
+	private static final String[] METADATA = {"capability", "device-attribute", "device-ip", "ip-mac", "layer2-information", "role", "location", "event"};
+
+
+	private static IntFunction<AbstractMetadata> metadataFactory(final String metadata) {
+		final String publisherId = BenchmarkMessages.getPublisherId();
+		final ZonedDateTime timestamp = ZonedDateTime.parse("2015-06-01T12:00:00.123456+02:00");
+
+		switch(metadata) {
+			case "capability":
+				return (i) -> new CBORCapability(publisherId, timestamp, "capability-" + i);
+			case "device-attribute":
+				return (i) -> new CBORDeviceAttribute(publisherId, timestamp, "attribute-" + i);
+			case "device-ip":
+				return (i) -> new CBORDeviceIp(publisherId, timestamp);
+			case "ip-mac":
+				return (i) -> new CBORIpMac(publisherId, timestamp);
+			case "layer2-information":
+				return (i) -> new CBORLayer2Information(publisherId, timestamp);
+			case "role":
+				return (i) -> new CBORRole(publisherId, timestamp, "role-" + i);
+			case "location":
+				return (i) -> {
+					CBORLocation loc = new CBORLocation(publisherId, timestamp, timestamp, "discoverer");
+					loc.addLocationInformation("building", "building-" + i);
+					return loc;
+				};
+			case "event":
+				return (i) -> {
+					CBOREvent event = new CBOREvent(publisherId, timestamp, "event-" + i, timestamp, "discoverer", 50, 50, IfMapSignificance.INFORMATIONAL);
+					event.setType(IfMapEventType.CVE);
+					return event;
+				};
+			default:
+				throw new IllegalArgumentException("Unknown metadata type: " + metadata);
+		}
+	}
+
+
+	/**
+	 * Decode a poll response with {@link #ITEMS} result items of the specified metadata type and
+	 * measure the retained size of the decoded response.
+	 *
+	 * @param metadata Metadata type
+	 * @param compact Enable compact mode for decoding
+	 * @return Retained bytes per result item
+	 * @throws Exception if the response cannot be built or decoded
+	 */
+	static long retainedBytesPerItem(final String metadata, final boolean compact) throws Exception {
+		byte[] cborBytes = BenchmarkMessages.pollResponse(ITEMS, metadataFactory(metadata));
+		CodecContext context = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withCompactModel(compact));
+
+		CBORResponse response = CBORDeserializer.deserializeResponse(cborBytes, context);
+
+		return GraphLayout.parseInstance(response).totalSize() / ITEMS;
+	}
+
+
+	public static void main(String[] args) throws Exception {
+		BenchmarkMessages.loadDictionary();
+
+		System.out.printf("%-20s %15s %15s%n", "metadata", "default [B]", "compact [B]");
+		for(String metadata : METADATA) {
+			System.out.printf("%-20s %15d %15d%n", metadata, retainedBytesPerItem(metadata, false), retainedBytesPerItem(metadata, true));
+		}
+	}
+}
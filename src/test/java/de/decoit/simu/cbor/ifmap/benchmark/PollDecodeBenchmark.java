@@ -0,0 +1,93 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.benchmark;
+
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+
+/**
+ * Compares sequential and parallel decoding of large poll results, as received by a catch-up poll after
+ * an outage. The parallel variant uses the common fork/join pool.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PollDecodeBenchmark {
+	@Param({"10", "1000"})
+	private int blocks;
+
+	@Param({"false", "true"})
+	private boolean parallel;
+
+	private byte[] cborBytes;
+	private CodecContext context;
+
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkMessages.loadDictionary();
+
+		this.cborBytes = BenchmarkMessages.pollResponse(this.blocks, 10);
+
+		DecodeOptions options = DecodeOptions.getDefault();
+		if(this.parallel) {
+			options = options.withParallelPool(ForkJoinPool.commonPool());
+		}
+
+		this.context = CodecContext.getDefault().withDecodeOptions(options);
+	}
+
+
+	@Benchmark
+	public CBORResponse decode() throws Exception {
+		return CBORDeserializer.deserializeResponse(this.cborBytes, this.context);
+	}
+
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(PollDecodeBenchmark.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
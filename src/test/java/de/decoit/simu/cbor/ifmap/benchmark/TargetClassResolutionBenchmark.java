@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.benchmark;
+
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.deserializer.AbstractDeserializerManager;
+import de.decoit.simu.cbor.ifmap.deserializer.ElementDescriptor;
+import de.decoit.simu.cbor.ifmap.deserializer.MetadataDeserializerManager;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+
+/**
+ * Measures the cost of resolving the target class of a single decoded metadata item.
+ * The concatenatedKey benchmark reproduces the former lookup which built a "namespace?name" key for every item.
+ * Run the main method to execute it with the GC profiler, the gc.alloc.rate.norm column shows the bytes
+ * allocated per resolved item.
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class TargetClassResolutionBenchmark {
+	private HashMap<String, Class<? extends AbstractMetadata>> concatenatedKeyMap;
+	private String namespace;
+	private String elementName;
+	private ElementDescriptor descriptor;
+
+
+	@Setup
+	public void setup() throws Exception {
+		this.namespace = IfMapNamespaces.IFMAP_METADATA;
+		this.elementName = CBOREvent.XML_NAME;
+
+		this.concatenatedKeyMap = new HashMap<>();
+		this.concatenatedKeyMap.put(this.namespace + "?" + this.elementName, CBOREvent.class);
+
+		this.descriptor = AbstractDeserializerManager.resolveElement(new UnicodeString(this.namespace),
+																	 new UnicodeString(this.elementName),
+																	 CodecContext.getDefault());
+	}
+
+
+	@Benchmark
+	public Class<? extends AbstractMetadata> concatenatedKey() {
+		return this.concatenatedKeyMap.get(this.namespace + "?" + this.elementName);
+	}
+
+
+	@Benchmark
+	public Class<? extends AbstractMetadata> resolveByName() {
+		return MetadataDeserializerManager.resolveTargetClass(this.namespace, this.elementName);
+	}
+
+
+	@Benchmark
+	public Class<? extends AbstractMetadata> resolveByDescriptor() {
+		return MetadataDeserializerManager.resolveTargetClass(this.descriptor);
+	}
+
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(TargetClassResolutionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,119 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import co.nstant.in.cbor.model.DoublePrecisionFloat;
+import co.nstant.in.cbor.model.HalfPrecisionFloat;
+import co.nstant.in.cbor.model.SinglePrecisionFloat;
+import co.nstant.in.cbor.model.UnicodeString;
+import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import java.math.BigInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class AbstractDeserializerManagerTest extends AbstractTestBase {
+	@Test
+	public void testReadInt() throws Exception {
+		assertEquals(4094, AbstractDeserializerManager.readInt(new UnsignedInteger(4094), true, AbstractDeserializerManager.ABSENT_VALUE));
+		assertEquals(Integer.MAX_VALUE, AbstractDeserializerManager.readInt(new UnsignedInteger(Integer.MAX_VALUE), true, AbstractDeserializerManager.ABSENT_VALUE));
+	}
+
+
+	@Test
+	public void testReadInt_absent() throws Exception {
+		assertEquals(AbstractDeserializerManager.ABSENT_VALUE, AbstractDeserializerManager.readInt(null, false, AbstractDeserializerManager.ABSENT_VALUE));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadInt_requiredAbsent() throws Exception {
+		AbstractDeserializerManager.readInt(null, true, AbstractDeserializerManager.ABSENT_VALUE);
+	}
+
+
+	@Test
+	public void testReadInt_required() throws Exception {
+		assertEquals(4094, AbstractDeserializerManager.readInt(new UnsignedInteger(4094)));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadInt_requiredNull() throws Exception {
+		AbstractDeserializerManager.readInt(null);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadInt_outOfRange() throws Exception {
+		AbstractDeserializerManager.readInt(new UnsignedInteger(Integer.MAX_VALUE + 1L), true, AbstractDeserializerManager.ABSENT_VALUE);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadInt_invalidType() throws Exception {
+		AbstractDeserializerManager.readInt(new UnicodeString("1"), true, AbstractDeserializerManager.ABSENT_VALUE);
+	}
+
+
+	@Test
+	public void testReadLong() throws Exception {
+		assertEquals(Long.MAX_VALUE, AbstractDeserializerManager.readLong(new UnsignedInteger(Long.MAX_VALUE), true, AbstractDeserializerManager.ABSENT_VALUE));
+		assertEquals(7L, AbstractDeserializerManager.readLong(null, false, 7L));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadLong_outOfRange() throws Exception {
+		AbstractDeserializerManager.readLong(new UnsignedInteger(BigInteger.ONE.shiftLeft(63)), true, AbstractDeserializerManager.ABSENT_VALUE);
+	}
+
+
+	@Test
+	public void testReadDouble() throws Exception {
+		assertEquals(1.5, AbstractDeserializerManager.readDouble(new DoublePrecisionFloat(1.5), true, Double.NaN), 0.0);
+		assertEquals(1.5, AbstractDeserializerManager.readDouble(new SinglePrecisionFloat(1.5f), true, Double.NaN), 0.0);
+		assertEquals(1.5, AbstractDeserializerManager.readDouble(new HalfPrecisionFloat(1.5f), true, Double.NaN), 0.0);
+		assertTrue(Double.isNaN(AbstractDeserializerManager.readDouble(null, false, Double.NaN)));
+	}
+
+
+	@Test
+	public void testReadDouble_required() throws Exception {
+		assertEquals(1.5, AbstractDeserializerManager.readDouble(new SinglePrecisionFloat(1.5f)), 0.0);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadDouble_requiredNull() throws Exception {
+		AbstractDeserializerManager.readDouble(null);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testReadDouble_invalidType() throws Exception {
+		AbstractDeserializerManager.readDouble(new UnsignedInteger(1), true, Double.NaN);
+	}
+}
@@ -0,0 +1,174 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class DeserializerRegistryTest extends AbstractTestBase {
+	@Test
+	public void testRegister() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+
+		assertTrue(instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+		assertFalse(instance.register(CBOREvent.class, "other", IfMapNamespaces.IFMAP_METADATA, "other"));
+		assertEquals("event", instance.getDeserializer(CBOREvent.class));
+		assertTrue(instance.hasDeserializer(CBOREvent.class));
+		assertNull(instance.lookup(IfMapNamespaces.IFMAP_METADATA, "other"));
+	}
+
+
+	@Test
+	public void testLookup() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+		instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+		instance.register(CBORDeviceIp.class, "device-ip", IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME);
+
+		assertEquals(CBOREvent.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+		assertEquals(CBORDeviceIp.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME));
+	}
+
+
+	@Test
+	public void testLookup_unknown() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+		instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+
+		assertNull(instance.lookup(IfMapNamespaces.IFMAP, CBOREvent.XML_NAME));
+		assertNull(instance.lookup(IfMapNamespaces.IFMAP_METADATA, "unknown"));
+		assertNull(instance.lookup(null, null));
+	}
+
+
+	@Test
+	public void testRegister_replaceTargetClass() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+		instance.register(CBORDeviceIp.class, "device-ip", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+		instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+
+		assertEquals(CBOREvent.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegister_blankNamespace() {
+		new DeserializerRegistry<AbstractMetadata, String>().register(CBOREvent.class, "event", " ", CBOREvent.XML_NAME);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegister_nullClass() {
+		new DeserializerRegistry<AbstractMetadata, String>().register(null, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+	}
+
+
+	@Test
+	public void testUnregister() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+		instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+		instance.register(CBORDeviceIp.class, "device-ip", IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME);
+
+		instance.unregister(CBOREvent.class);
+		instance.unregister(CBOREvent.class);
+
+		assertNull(instance.getDeserializer(CBOREvent.class));
+		assertFalse(instance.hasDeserializer(CBOREvent.class));
+		assertNull(instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+		assertEquals(CBORDeviceIp.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME));
+	}
+
+
+	@Test
+	public void testReplaceAll() {
+		DeserializerRegistry<AbstractMetadata, String> instance = new DeserializerRegistry<>();
+		instance.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+
+		DeserializerRegistry<AbstractMetadata, String> contents = new DeserializerRegistry<>();
+		contents.register(CBORDeviceIp.class, "device-ip", IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME);
+		instance.replaceAll(contents);
+		contents.register(CBOREvent.class, "event", IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME);
+
+		assertNull(instance.getDeserializer(CBOREvent.class));
+		assertNull(instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+		assertEquals("device-ip", instance.getDeserializer(CBORDeviceIp.class));
+		assertEquals(CBORDeviceIp.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME));
+	}
+
+
+	@Test
+	public void testRegister_concurrent() throws Exception {
+		final DeserializerRegistry<AbstractMetadata, Integer> instance = new DeserializerRegistry<>();
+		final int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for(int t=0; t<threads; t++) {
+				final int value = t;
+				results.add(executor.submit((Callable<Integer>) () -> {
+					start.await();
+
+					int registered = 0;
+					if(instance.register(CBOREvent.class, value, IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME)) {
+						registered++;
+					}
+					if(instance.register(CBORDeviceIp.class, value, IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME)) {
+						registered++;
+					}
+
+					return registered;
+				}));
+			}
+
+			start.countDown();
+
+			int total = 0;
+			for(Future<Integer> f : results) {
+				total += f.get();
+			}
+
+			assertEquals(2, total);
+			assertNotNull(instance.getDeserializer(CBOREvent.class));
+			assertNotNull(instance.getDeserializer(CBORDeviceIp.class));
+			assertEquals(CBOREvent.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBOREvent.XML_NAME));
+			assertEquals(CBORDeviceIp.class, instance.lookup(IfMapNamespaces.IFMAP_METADATA, CBORDeviceIp.XML_NAME));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
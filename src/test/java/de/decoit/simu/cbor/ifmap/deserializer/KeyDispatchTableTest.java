@@ -0,0 +1,100 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import co.nstant.in.cbor.model.ByteString;
+import co.nstant.in.cbor.model.UnicodeString;
+import co.nstant.in.cbor.model.UnsignedInteger;
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import de.decoit.simu.cbor.xml.dictionary.DictionaryProvider;
+import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class KeyDispatchTableTest extends AbstractTestBase {
+	private final KeyDispatchTable instance = new KeyDispatchTable(
+			new String[] {CBOREvent.IFMAP_PUBLISHER_ID, CBOREvent.IFMAP_TIMESTAMP},
+			new String[] {CBOREvent.NAME, CBOREvent.MAGNITUDE});
+
+
+	private DictionarySimpleElement getEventEntry() throws Exception {
+		return DictionaryProvider.getInstance().findElementByPath("<" + IfMapNamespaces.IFMAP_METADATA + ">" + CBOREvent.XML_NAME);
+	}
+
+
+	@Test
+	public void testAttributeToken_dictionary() throws Exception {
+		DictionarySimpleElement entry = this.getEventEntry();
+
+		assertEquals(0, this.instance.attributeToken(new UnsignedInteger(0), entry));
+		assertEquals(1, this.instance.attributeToken(new UnsignedInteger(1), entry));
+		assertEquals(KeyDispatchTable.UNKNOWN, this.instance.attributeToken(new UnsignedInteger(2), entry));
+	}
+
+
+	@Test
+	public void testAttributeToken_string() throws Exception {
+		assertEquals(1, this.instance.attributeToken(new UnicodeString(CBOREvent.IFMAP_TIMESTAMP), null));
+		assertEquals(1, this.instance.attributeToken(new UnicodeString(CBOREvent.IFMAP_TIMESTAMP), this.getEventEntry()));
+		assertEquals(KeyDispatchTable.UNKNOWN, this.instance.attributeToken(new UnicodeString("unknown"), null));
+	}
+
+
+	@Test
+	public void testNestedTagToken_dictionary() throws Exception {
+		DictionarySimpleElement entry = this.getEventEntry();
+
+		assertEquals(0, this.instance.nestedTagToken(new UnsignedInteger(0), entry));
+		assertEquals(1, this.instance.nestedTagToken(new UnsignedInteger(3), entry));
+		assertEquals(KeyDispatchTable.UNKNOWN, this.instance.nestedTagToken(new UnsignedInteger(1), entry));
+	}
+
+
+	@Test
+	public void testNestedTagToken_string() throws Exception {
+		assertEquals(1, this.instance.nestedTagToken(new UnicodeString(CBOREvent.MAGNITUDE), null));
+		assertEquals(KeyDispatchTable.UNKNOWN, this.instance.nestedTagToken(new UnicodeString("unknown"), null));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testAttributeToken_invalidType() throws Exception {
+		this.instance.attributeToken(new ByteString(new byte[] {0x01}), null);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_duplicateName() {
+		new KeyDispatchTable(new String[] {CBOREvent.NAME, CBOREvent.NAME}, new String[] {});
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_null() {
+		new KeyDispatchTable(null, new String[] {});
+	}
+}
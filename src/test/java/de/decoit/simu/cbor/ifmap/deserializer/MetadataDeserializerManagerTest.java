@@ -19,6 +19,8 @@ import co.nstant.in.cbor.CborDecoder;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
 import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
 import de.decoit.simu.cbor.ifmap.deserializer.vendor.VendorMetadataDeserializer;
 import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
 import de.decoit.simu.cbor.ifmap.enums.IfMapEnforcementAction;
@@ -26,6 +28,8 @@ import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
 import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
 import de.decoit.simu.cbor.ifmap.enums.IfMapWlanSecurityType;
 import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.RawMetadata;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.AbstractMultiValueMetadata;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
@@ -648,6 +652,62 @@ public class MetadataDeserializerManagerTest extends AbstractTestBase {
 	}
 
 
+	@Test
+	public void testDeserializeMetadataList_rawUnknownMetadata() throws Exception {
+		// Dummy metadata with dictionary entry but no deserializer, followed by an element with unmapped integer names
+		byte[] input = DatatypeConverter.parseHexBinary("8863646E73616482646361726400801863182A8080");
+
+		ByteArrayInputStream bis = new ByteArrayInputStream(input);
+		CborDecoder cd = new CborDecoder(bis);
+		Array metadataArray = (Array) cd.decode().get(0);
+		CodecContext context = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withRawUnknownMetadata(true));
+
+		List<AbstractMetadata> result = MetadataDeserializerManager.deserializeMetadataList(metadataArray, context);
+
+		assertEquals(2, result.size());
+		assertTrue(result.get(0) instanceof RawMetadata);
+		assertEquals("dummy-namespace", result.get(0).getNamespace());
+		assertEquals("dummy", result.get(0).getElementName());
+		assertEquals(IfMapCardinality.SINGLE_VALUE, result.get(0).getIfMapCardinality());
+		assertArrayEquals(DatatypeConverter.parseHexBinary("63646E73616482646361726400" + "80"), ((RawMetadata) result.get(0)).getEncoded());
+
+		assertTrue(result.get(1) instanceof RawMetadata);
+		assertEquals(IfMapCardinality.MULTI_VALUE, result.get(1).getIfMapCardinality());
+		assertArrayEquals(DatatypeConverter.parseHexBinary("1863182A8080"), ((RawMetadata) result.get(1)).getEncoded());
+		// Every call returns newly encoded bytes, callers cannot modify the element
+		((RawMetadata) result.get(1)).getEncoded()[0] = 0;
+		assertArrayEquals(DatatypeConverter.parseHexBinary("1863182A8080"), ((RawMetadata) result.get(1)).getEncoded());
+	}
+
+
+	@Test
+	public void testDeserializeMetadataList_rawUnknownMetadata_known() throws Exception {
+		byte[] input = DatatypeConverter.parseHexBinary("84010088006F6D792D7075626C69736865722D696401C11A4ED9E8B202C482281A075BCA00030080");
+
+		ByteArrayInputStream bis = new ByteArrayInputStream(input);
+		CborDecoder cd = new CborDecoder(bis);
+		Array metadataArray = (Array) cd.decode().get(0);
+		CodecContext context = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withRawUnknownMetadata(true));
+
+		List<AbstractMetadata> result = MetadataDeserializerManager.deserializeMetadataList(metadataArray, context);
+
+		assertEquals(1, result.size());
+		assertTrue(result.get(0) instanceof CBORAccessRequestDevice);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testDeserializeMetadataList_unresolvableName() throws Exception {
+		byte[] input = DatatypeConverter.parseHexBinary("841863182A8080");
+
+		ByteArrayInputStream bis = new ByteArrayInputStream(input);
+		CborDecoder cd = new CborDecoder(bis);
+		Array metadataArray = (Array) cd.decode().get(0);
+
+		MetadataDeserializerManager.deserializeMetadataList(metadataArray, CodecContext.getDefault());
+	}
+
+
 	private static class VendorDeserializerDMA implements VendorMetadataDeserializer<DummyMetadataA> {
 		@Override
 		public DummyMetadataA deserialize(Array attributes, DataItem nestedTags, DictionarySimpleElement elementDictEntry) throws CBORDeserializationException {
@@ -0,0 +1,311 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.deserializer;
+
+import co.nstant.in.cbor.CborDecoder;
+import co.nstant.in.cbor.model.Array;
+import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.ResponseVisitor;
+import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.metadata.AbstractMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.RawMetadata;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.AbstractResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORNewSessionResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.io.ByteArrayInputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.xml.bind.DatatypeConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class ResponseVisitorDriverTest extends AbstractTestBase {
+	private final ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+
+
+	@Test
+	public void testVisitPollResult() throws Exception {
+		CBORErrorResult error = new CBORErrorResult(IfMapErrorCode.FAILURE);
+		error.setName("sub-01");
+		error.setErrorString("custom-error");
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(this.buildUpdateResult());
+		pollResult.addPollResult(error);
+
+		RecordingVisitor visitor = new RecordingVisitor(true);
+		CBORDeserializer.visitResponse(CBORSerializer.serializeResponse(new CBORResponse(pollResult)), visitor);
+
+		assertEquals(Arrays.asList(
+				"block:updateResult:sub-02",
+				"item:device-01:null",
+				"metadata:" + IfMapNamespaces.IFMAP_METADATA + ":capability",
+				"element:name=cap-01",
+				"metadata:" + IfMapNamespaces.IFMAP_METADATA + ":device-attribute",
+				"element:name=my-attribute",
+				"error:FAILURE:sub-01:custom-error"), visitor.getStructuralEvents());
+		assertTrue(visitor.events.contains("attribute:ifmap-cardinality=multiValue"));
+	}
+
+
+	@Test
+	public void testVisitSearchResult() throws Exception {
+		SearchResult sr = new SearchResult();
+		sr.setName("search-01");
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-01", false));
+		item.addMetadata(new CBORCapability("my-publisher-id", this.timestamp, "cap-01"));
+		sr.addSearchResultItem(item);
+
+		RecordingVisitor visitor = new RecordingVisitor(false);
+		CBORDeserializer.visitResponse(CBORSerializer.serializeResponse(new CBORResponse(new CBORSearchResult(sr))), visitor);
+
+		assertEquals(Arrays.asList(
+				"block:searchResult:search-01",
+				"item:device-01:null",
+				"metadata:" + IfMapNamespaces.IFMAP_METADATA + ":capability"), visitor.events);
+	}
+
+
+	@Test
+	public void testVisitPollResult_filtered() throws Exception {
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(this.buildUpdateResult());
+
+		List<Class<? extends AbstractMetadata>> types = Collections.singletonList(CBORDeviceAttribute.class);
+		DecodeOptions options = DecodeOptions.getDefault().withAcceptedMetadataTypes(new HashSet<>(types));
+
+		RecordingVisitor visitor = new RecordingVisitor(false);
+		CBORDeserializer.visitResponse(CBORSerializer.serializeResponse(new CBORResponse(pollResult)), visitor,
+									   CodecContext.getDefault().withDecodeOptions(options));
+
+		assertEquals(Arrays.asList(
+				"block:updateResult:sub-02",
+				"item:device-01:null",
+				"metadata:" + IfMapNamespaces.IFMAP_METADATA + ":device-attribute"), visitor.events);
+	}
+
+
+	@Test
+	public void testVisitOtherResult() throws Exception {
+		CBORNewSessionResult result = new CBORNewSessionResult("my-session-id", "my-publisher-id");
+
+		RecordingVisitor visitor = new RecordingVisitor(false);
+		CBORDeserializer.visitResponse(CBORSerializer.serializeResponse(new CBORResponse(result)), visitor);
+
+		assertEquals(Arrays.asList("result:newSessionResult"), visitor.events);
+		assertEquals(result, visitor.result);
+	}
+
+
+	@Test
+	public void testVisitPollResult_rawIdentifiers() throws Exception {
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(this.buildUpdateResult());
+
+		final List<String> events = new ArrayList<>();
+		CBORDeserializer.visitResponse(CBORSerializer.serializeResponse(new CBORResponse(pollResult)), new ResponseVisitor() {
+			@Override
+			public boolean onIdentifier(String namespace, String elementName, Array attributes, Array nestedTags) {
+				events.add("identifier:" + elementName + ":" + nestedTags.getDataItems().size());
+				return false;
+			}
+
+
+			@Override
+			public void onItem(AbstractIdentifier identifierA, AbstractIdentifier identifierB) {
+				events.add("item:" + identifierA + ":" + identifierB);
+			}
+
+
+			@Override
+			public boolean onMetadata(String namespace, String elementName) {
+				return CBORCapability.XML_NAME.equals(elementName);
+			}
+
+
+			@Override
+			public void onMetadataAttribute(String name, DataItem value) {
+				events.add("attribute:" + name);
+			}
+
+
+			@Override
+			public void onMetadataEnumAttribute(String name, String value) {
+				events.add("enum:" + name + "=" + value);
+			}
+		});
+
+		assertEquals("identifier:device:4", events.get(0));
+		assertEquals("item:null:null", events.get(1));
+		assertTrue(events.contains("enum:ifmap-cardinality=multiValue"));
+		assertFalse(events.contains("attribute:ifmap-cardinality"));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVisit_nullVisitor() throws Exception {
+		ResponseVisitorDriver.visit(null, null, null, null, null, CodecContext.getDefault());
+	}
+
+
+	@Test
+	public void testVisitPollResult_rawUnknownMetadata() throws Exception {
+		// [999, 42, ["card", 0], []], integer names without dictionary entry
+		Array dummyElement = (Array) new CborDecoder(new ByteArrayInputStream(DatatypeConverter.parseHexBinary("841903E7182A8264636172640080"))).decode().get(0);
+		List<DataItem> dummyItems = dummyElement.getDataItems();
+
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-01", false));
+		item.addMetadata(new RawMetadata("999", "42", IfMapCardinality.MULTI_VALUE, dummyItems.get(0), dummyItems.get(1), (Array) dummyItems.get(2), dummyItems.get(3)));
+		item.addMetadata(new CBORCapability("my-publisher-id", this.timestamp, "cap-01"));
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.addSearchResultItem(item);
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+
+		RecordingVisitor visitor = new RecordingVisitor(false);
+		CBORDeserializer.visitResponse(cborBytes, visitor,
+									   CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withRawUnknownMetadata(true)));
+
+		assertEquals(Arrays.asList(
+				"block:updateResult:null",
+				"item:device-01:null",
+				"metadata:" + dummyItems.get(0) + ":" + dummyItems.get(1),
+				"metadata:" + IfMapNamespaces.IFMAP_METADATA + ":capability"), visitor.events);
+
+		try {
+			CBORDeserializer.visitResponse(cborBytes, new RecordingVisitor(false));
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			// Unknown names fail without pass-through
+		}
+	}
+
+
+	private UpdatePollSearchResult buildUpdateResult() {
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-01", false));
+		item.addMetadata(new CBORCapability("my-publisher-id", this.timestamp, "cap-01"));
+		item.addMetadata(new CBORDeviceAttribute("my-publisher-id", this.timestamp, "my-attribute"));
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.setName("sub-02");
+		updateResult.addSearchResultItem(item);
+
+		return updateResult;
+	}
+
+
+
+	private static class RecordingVisitor implements ResponseVisitor {
+		private final boolean descend;
+		private final List<String> events = new ArrayList<>();
+		private AbstractResult result;
+
+
+		private RecordingVisitor(boolean descend) {
+			this.descend = descend;
+		}
+
+
+		private List<String> getStructuralEvents() {
+			List<String> rv = new ArrayList<>();
+			for(String e : this.events) {
+				if(!e.startsWith("attribute:")) {
+					rv.add(e);
+				}
+			}
+
+			return rv;
+		}
+
+
+		@Override
+		public void onResultBlock(String type, String name) {
+			this.events.add("block:" + type + ":" + name);
+		}
+
+
+		@Override
+		public void onItem(AbstractIdentifier identifierA, AbstractIdentifier identifierB) {
+			this.events.add("item:" + ((CBORDevice) identifierA).getName() + ":" + identifierB);
+		}
+
+
+		@Override
+		public boolean onMetadata(String namespace, String elementName) {
+			this.events.add("metadata:" + namespace + ":" + elementName);
+			return this.descend;
+		}
+
+
+		@Override
+		public void onMetadataAttribute(String name, DataItem value) {
+			this.events.add("attribute:" + name + "=" + (value instanceof UnicodeString ? ((UnicodeString) value).getString() : value));
+		}
+
+
+		@Override
+		public void onMetadataElement(String name, DataItem value) {
+			this.events.add("element:" + name + "=" + ((UnicodeString) value).getString());
+		}
+
+
+		@Override
+		public void onError(IfMapErrorCode errorCode, String name, String errorString) {
+			this.events.add("error:" + errorCode + ":" + name + ":" + errorString);
+		}
+
+
+		@Override
+		public void onResult(AbstractResult result) {
+			this.events.add("result:" + result.getElementName());
+			this.result = result;
+		}
+	}
+}
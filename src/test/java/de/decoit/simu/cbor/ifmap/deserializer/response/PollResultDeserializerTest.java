@@ -18,20 +18,31 @@ package de.decoit.simu.cbor.ifmap.deserializer.response;
 import co.nstant.in.cbor.CborDecoder;
 import co.nstant.in.cbor.model.Array;
 import co.nstant.in.cbor.model.DataItem;
+import co.nstant.in.cbor.model.UnicodeString;
+import de.decoit.simu.cbor.ifmap.AbstractNestedElementBase;
 import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.IdentifierPool;
 import de.decoit.simu.cbor.ifmap.enums.IfMapCardinality;
 import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
 import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
 import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
+import de.decoit.simu.cbor.ifmap.metadata.RawMetadata;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORCapability;
 import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORDeviceAttribute;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
 import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
 import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.AbstractPollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.DeletePollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.NotifyPollSearchResult;
 import de.decoit.simu.cbor.ifmap.response.model.search.SearchPollSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
 import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
 import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
 import de.decoit.simu.cbor.ifmap.util.TimestampHelper;
@@ -40,7 +51,9 @@ import de.decoit.simu.cbor.xml.dictionary.DictionarySimpleElement;
 import java.io.ByteArrayInputStream;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import javax.xml.bind.DatatypeConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
@@ -115,6 +128,275 @@ public class PollResultDeserializerTest extends AbstractTestBase {
 	}
 	
 	
+	@Test
+	public void testDeserialize_lazyMetadata() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		for(int i=0; i<3; i++) {
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-" + i));
+			item.addMetadata(new CBORDeviceAttribute("my-publisher-id", timestamp, "attr-" + i));
+			updateResult.addSearchResultItem(item);
+		}
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+
+		CodecContext lazyContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withLazyMetadata(true));
+		CBORResponse eager = CBORDeserializer.deserializeResponse(cborBytes);
+		CBORResponse lazy = CBORDeserializer.deserializeResponse(cborBytes, lazyContext);
+
+		UpdatePollSearchResult lazyResult = (UpdatePollSearchResult) ((CBORPollResult) lazy.getResult()).getResults().get(0);
+		assertEquals(3, lazyResult.getResultItems().size());
+		lazyResult.getResultItems().stream().forEach((ri) -> {
+			assertTrue(ri.isMetadataPending());
+			assertTrue(ri.getIdentifierA() instanceof CBORDevice);
+		});
+
+		assertEquals(eager, lazy);
+		lazyResult.getResultItems().stream().forEach((ri) -> {
+			assertFalse(ri.isMetadataPending());
+			assertEquals(2, ri.getMetadata().size());
+		});
+	}
+	
+	
+	@Test
+	public void testDeserialize_identifierPool() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		for(int i=0; i<3; i++) {
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device", false));
+			item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-" + i));
+			updateResult.addSearchResultItem(item);
+		}
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+
+		IdentifierPool pool = IdentifierPool.bounded(100);
+		CodecContext pooledContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withIdentifierPool(pool));
+		CBORResponse first = CBORDeserializer.deserializeResponse(cborBytes, pooledContext);
+		CBORResponse second = CBORDeserializer.deserializeResponse(cborBytes, pooledContext);
+
+		List<SearchResultItem> firstItems = ((UpdatePollSearchResult) ((CBORPollResult) first.getResult()).getResults().get(0)).getResultItems();
+		List<SearchResultItem> secondItems = ((UpdatePollSearchResult) ((CBORPollResult) second.getResult()).getResults().get(0)).getResultItems();
+		assertEquals(3, firstItems.size());
+		assertSame(firstItems.get(0).getIdentifierA(), firstItems.get(1).getIdentifierA());
+		assertSame(firstItems.get(0).getIdentifierA(), firstItems.get(2).getIdentifierA());
+		assertSame(firstItems.get(0).getIdentifierA(), secondItems.get(0).getIdentifierA());
+		assertEquals(1, pool.size());
+		assertEquals(CBORDeserializer.deserializeResponse(cborBytes), first);
+	}
+	
+	
+	@Test
+	public void testDeserialize_rawUnknownMetadata() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		Array dummyElement = (Array) new CborDecoder(new ByteArrayInputStream(DatatypeConverter.parseHexBinary("8463646E7361648264636172640082006178"))).decode().get(0);
+		List<DataItem> dummyItems = dummyElement.getDataItems();
+
+		SearchResultItem item = new SearchResultItem(new CBORDevice("my-device", false));
+		item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap"));
+		item.addMetadata(new RawMetadata("dummy-namespace", "dummy", IfMapCardinality.SINGLE_VALUE, dummyItems.get(0), dummyItems.get(1), (Array) dummyItems.get(2), dummyItems.get(3)));
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.addSearchResultItem(item);
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+
+		CBORResponse expResult = new CBORResponse(pollResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(expResult);
+
+		CodecContext rawContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withRawUnknownMetadata(true));
+		CBORResponse result = CBORDeserializer.deserializeResponse(cborBytes, rawContext);
+
+		assertEquals(expResult, result);
+		assertArrayEquals(cborBytes, CBORSerializer.serializeResponse(result));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testDeserialize_unknownMetadata() throws Exception {
+		Array dummyElement = (Array) new CborDecoder(new ByteArrayInputStream(DatatypeConverter.parseHexBinary("8463646E7361648264636172640082006178"))).decode().get(0);
+		List<DataItem> dummyItems = dummyElement.getDataItems();
+
+		SearchResultItem item = new SearchResultItem(new CBORDevice("my-device", false));
+		item.addMetadata(new RawMetadata("dummy-namespace", "dummy", IfMapCardinality.SINGLE_VALUE, dummyItems.get(0), dummyItems.get(1), (Array) dummyItems.get(2), dummyItems.get(3)));
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.addSearchResultItem(item);
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+
+		CBORDeserializer.deserializeResponse(CBORSerializer.serializeResponse(new CBORResponse(pollResult)));
+	}
+
+
+	@Test
+	public void testDeserialize_compactModel() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		for(int i=0; i<3; i++) {
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-" + i));
+			updateResult.addSearchResultItem(item);
+		}
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+		CBORResponse expResult = new CBORResponse(pollResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(expResult);
+
+		CodecContext compactContext = CodecContext.getDefault().withDecodeOptions(DecodeOptions.getDefault().withCompactModel(true));
+		CBORResponse result = CBORDeserializer.deserializeResponse(cborBytes, compactContext);
+
+		assertEquals(expResult, result);
+		SearchResultItem item = ((UpdatePollSearchResult) ((CBORPollResult) result.getResult()).getResults().get(0)).getResultItems().get(0);
+		assertEquals(TimestampHelper.toUTC(timestamp), item.getMetadata().get(0).getIfMapTimestamp());
+		assertSame(item.getMetadata().get(0).getIfMapTimestamp(), item.getMetadata().get(0).getIfMapTimestamp());
+
+		// The trimmed lists still accept new elements
+		item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-new"));
+		assertEquals(2, item.getMetadata().size());
+	}
+	
+	
+	@Test
+	public void testDeserialize_acceptedMetadataTypes() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		for(int i=0; i<4; i++) {
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			if(i % 2 == 0) {
+				item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-" + i));
+			}
+			item.addMetadata(new CBORDeviceAttribute("my-publisher-id", timestamp, "attr-" + i));
+			updateResult.addSearchResultItem(item);
+		}
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+
+		DecodeOptions options = DecodeOptions.getDefault().withAcceptedMetadataTypes(Collections.singleton(CBORCapability.class));
+		CBORResponse response = CBORDeserializer.deserializeResponse(cborBytes, CodecContext.getDefault().withDecodeOptions(options));
+
+		UpdatePollSearchResult result = (UpdatePollSearchResult) ((CBORPollResult) response.getResult()).getResults().get(0);
+		assertEquals(2, result.getResultItems().size());
+		assertEquals(new CBORDevice("device-0", false), result.getResultItems().get(0).getIdentifierA());
+		assertEquals(new CBORDevice("device-2", false), result.getResultItems().get(1).getIdentifierA());
+
+		result.getResultItems().stream().forEach((ri) -> {
+			assertEquals(1, ri.getMetadata().size());
+			assertTrue(ri.getMetadata().get(0) instanceof CBORCapability);
+		});
+	}
+	
+	
+	@Test
+	public void testDeserialize_acceptedMetadataNamespaces() throws Exception {
+		byte[] input = CBORSerializer.serializeResponse(new CBORResponse(this.buildSingleItemPollResult()));
+
+		DecodeOptions accepting = DecodeOptions.getDefault().withAcceptedMetadataNamespaces(Collections.singleton(IfMapNamespaces.IFMAP_METADATA));
+		CBORResponse accepted = CBORDeserializer.deserializeResponse(input, CodecContext.getDefault().withDecodeOptions(accepting));
+		assertEquals(CBORDeserializer.deserializeResponse(input), accepted);
+
+		DecodeOptions rejecting = DecodeOptions.getDefault().withAcceptedMetadataNamespaces(Collections.singleton("http://www.example.com/vendor"));
+		CBORResponse rejected = CBORDeserializer.deserializeResponse(input, CodecContext.getDefault().withDecodeOptions(rejecting));
+		UpdatePollSearchResult result = (UpdatePollSearchResult) ((CBORPollResult) rejected.getResult()).getResults().get(0);
+		assertTrue(result.getResultItems().isEmpty());
+	}
+	
+	
+	@Test
+	public void testDeserialize_parallel() throws Exception {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		CBORPollResult pollResult = new CBORPollResult();
+		for(int i=0; i<100; i++) {
+			AbstractPollSearchResult block = (i % 2 == 0) ? new UpdatePollSearchResult() : new DeletePollSearchResult();
+			block.setName("sub-" + i);
+
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-" + i));
+			block.addSearchResultItem(item);
+
+			pollResult.addPollResult(block);
+		}
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DecodeOptions options = DecodeOptions.getDefault().withParallelPool(pool);
+			CBORResponse parallel = CBORDeserializer.deserializeResponse(cborBytes, CodecContext.getDefault().withDecodeOptions(options));
+			CBORResponse sequential = CBORDeserializer.deserializeResponse(cborBytes);
+
+			assertEquals(sequential, parallel);
+
+			List<AbstractNestedElementBase> results = ((CBORPollResult) parallel.getResult()).getResults();
+			assertEquals(100, results.size());
+			for(int i=0; i<100; i++) {
+				assertEquals("sub-" + i, ((AbstractPollSearchResult) results.get(i)).getName());
+			}
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	
+	@Test(expected = CBORDeserializationException.class)
+	public void testDeserialize_parallelFailure() throws Exception {
+		CBORPollResult pollResult = new CBORPollResult();
+		for(int i=0; i<20; i++) {
+			CBORErrorResult error = new CBORErrorResult(IfMapErrorCode.FAILURE);
+			error.setName("error-" + i);
+			pollResult.addPollResult(error);
+		}
+		
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+		Array topLevelArray = (Array) new CborDecoder(new ByteArrayInputStream(cborBytes)).decode().get(0);
+		List<DataItem> pollResultDataItems = ((Array) topLevelArray.getDataItems().get(3)).getDataItems();
+		List<DataItem> blocks = ((Array) pollResultDataItems.get(3)).getDataItems();
+		
+		// Replace the namespace of the last block by a string to break decoding of that block
+		Array brokenBlocks = new Array();
+		for(int i=0; i<blocks.size(); i++) {
+			brokenBlocks.add(i == blocks.size() - 4 ? new UnicodeString("http://www.example.com/vendor") : blocks.get(i));
+		}
+
+		DictionarySimpleElement dse = DictionaryProvider.getInstance().findElementByPath("<" + IfMapNamespaces.IFMAP + ">response+pollResult");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DecodeOptions options = DecodeOptions.getDefault().withParallelPool(pool);
+			PollResultDeserializer.getInstance().deserialize((Array) pollResultDataItems.get(2),
+															 brokenBlocks,
+															 dse,
+															 CodecContext.getDefault().withDecodeOptions(options));
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	
+	private CBORPollResult buildSingleItemPollResult() {
+		ZonedDateTime timestamp = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-01", false));
+		item.addMetadata(new CBORCapability("my-publisher-id", timestamp, "cap-01"));
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.addSearchResultItem(item);
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+
+		return pollResult;
+	}
+	
+	
 	private void assertPollResult(AbstractPollSearchResult result) {
 		assertEquals(2, result.getResultItems().size());
 		
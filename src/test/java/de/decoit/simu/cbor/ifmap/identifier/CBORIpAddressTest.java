@@ -70,6 +70,71 @@ public class CBORIpAddressTest extends AbstractTestBase {
 	}
 
 
+	@Test
+	public void testConstructor_rawIPv4() {
+		CBORIpAddress instance = new CBORIpAddress(0xFF030201);
+
+		assertEquals(IfMapIpAddressType.IPV4, instance.getType());
+		assertEquals(0xFF030201, instance.getIpv4Address());
+		assertEquals(this.ipv4, instance.getValue());
+		assertEquals(new CBORIpAddress(this.ipv4), instance);
+		assertEquals(new CBORIpAddress(this.ipv4).hashCode(), instance.hashCode());
+	}
+
+
+	@Test
+	public void testConstructor_rawIPv6() {
+		CBORIpAddress instance = new CBORIpAddress(0x20010db885a308d3L, 0x13198a2e03707344L);
+
+		assertEquals(IfMapIpAddressType.IPV6, instance.getType());
+		assertEquals(0x20010db885a308d3L, instance.getIpv6AddressHigh());
+		assertEquals(0x13198a2e03707344L, instance.getIpv6AddressLow());
+		assertEquals(this.ipv6, instance.getValue());
+		assertEquals(new CBORIpAddress(this.ipv6), instance);
+	}
+
+
+	@Test
+	public void testConstructor_rawIPv4Mapped() {
+		CBORIpAddress instance = new CBORIpAddress(0L, 0x0000FFFFFF030201L);
+
+		assertEquals(IfMapIpAddressType.IPV4, instance.getType());
+		assertEquals(0xFF030201, instance.getIpv4Address());
+		assertEquals(new CBORIpAddress(this.ipv4), instance);
+	}
+
+
+	@Test
+	public void testFromAddressBytes() {
+		assertEquals(new CBORIpAddress(this.ipv4), CBORIpAddress.fromAddressBytes(this.ipv4.getAddress()));
+		assertEquals(new CBORIpAddress(this.ipv6), CBORIpAddress.fromAddressBytes(this.ipv6.getAddress()));
+		assertArrayEquals(this.ipv6.getAddress(), CBORIpAddress.fromAddressBytes(this.ipv6.getAddress()).getAddressBytes());
+	}
+
+
+	@Test
+	public void testFromAddressBytes_ipv4Mapped() {
+		byte[] mapped = DatatypeConverter.parseHexBinary("00000000000000000000FFFFFF030201");
+
+		CBORIpAddress instance = CBORIpAddress.fromAddressBytes(mapped);
+
+		assertEquals(IfMapIpAddressType.IPV4, instance.getType());
+		assertEquals(new CBORIpAddress(this.ipv4), instance);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromAddressBytes_invalidLength() {
+		CBORIpAddress.fromAddressBytes(new byte[5]);
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testGetIpv4Address_ipv6() {
+		new CBORIpAddress(this.ipv6).getIpv4Address();
+	}
+
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_null() {
 		CBORIpAddress instance = new CBORIpAddress(null);
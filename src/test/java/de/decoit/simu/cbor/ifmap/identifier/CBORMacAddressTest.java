@@ -191,6 +191,36 @@ public class CBORMacAddressTest extends AbstractTestBase {
 	}
 
 
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_String_MixedSeparators() {
+		CBORMacAddress instance = new CBORMacAddress("80:7e-41:ae:fd:00");
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_String_InvalidDigit() {
+		CBORMacAddress instance = new CBORMacAddress("80:7e:41:ae:fd:0g");
+	}
+
+
+	@Test
+	public void testConstructor_long() {
+		CBORMacAddress instance = new CBORMacAddress(0x807e41aefd00L);
+
+		assertEquals(0x807e41aefd00L, instance.getAddress());
+		assertEquals("80:7e:41:ae:fd:00", instance.toMacString());
+		assertEquals(new CBORMacAddress("80-7E-41-AE-FD-00"), instance);
+		assertEquals(new CBORMacAddress("807e.41ae.fd00").hashCode(), instance.hashCode());
+		assertEquals(new CBORMacAddress(new byte[] {(byte) 0x80, 0x7e, 0x41, (byte) 0xae, (byte) 0xfd, 0x00}), instance);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_long_outOfRange() {
+		CBORMacAddress instance = new CBORMacAddress(0x1000000000000L);
+	}
+
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_String_EmptyString() {
 		CBORMacAddress instance = new CBORMacAddress("");
@@ -211,6 +241,15 @@ public class CBORMacAddressTest extends AbstractTestBase {
 	}
 
 
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_String_NonAsciiDigit() {
+		// Fullwidth digit one at the end
+		String valueColonString = "80:7e:41:ae:fd:0\uFF11";
+
+		CBORMacAddress instance = new CBORMacAddress(valueColonString);
+	}
+
+
 	@Test
 	public void testSetAdministrativeDomain() {
 		byte[] value = new byte[] {(byte)0x00, (byte)0x80, (byte)0x41, (byte)0xae, (byte)0xfd, (byte)0x7e};
@@ -28,6 +28,7 @@ import co.nstant.in.cbor.model.UnsignedInteger;
 import de.decoit.simu.cbor.ifmap.AbstractTestBase;
 import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import javax.xml.bind.DatatypeConverter;
 import lombok.extern.slf4j.Slf4j;
@@ -205,6 +206,17 @@ public class AbstractExtendedIdentifierTest extends AbstractTestBase {
 	}
 	
 	
+	@Test
+	public void testFreeze_sharedEmptyMaps() {
+		AbstractExtendedIdentifierImpl instance = new AbstractExtendedIdentifierImpl();
+		instance.setValue("dummy-value");
+		instance.freeze();
+		
+		assertSame(Collections.emptyMap(), instance.simpleElements);
+		assertEquals(2, instance.attributes.size());
+	}
+	
+	
 	@Test
 	public void testCborSerialize() throws Exception {
 		AbstractExtendedIdentifierImpl instance = new AbstractExtendedIdentifierImpl();
@@ -58,6 +58,17 @@ public class CBORRoleTest extends AbstractTestBase {
 	}
 
 
+	@Test
+	public void testConstructor_timestampOutsideNanosRange() {
+		ZonedDateTime before = ZonedDateTime.parse("1600-01-01T00:00:00.5Z", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		ZonedDateTime after = ZonedDateTime.parse("2300-01-01T00:00:00.5Z", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+
+		assertEquals(before, new CBORRole(this.publisherId, before, this.name).getIfMapTimestamp());
+		assertEquals(after, new CBORRole(this.publisherId, after, this.name).getIfMapTimestamp());
+		assertNotEquals(new CBORRole(this.publisherId, before, this.name), new CBORRole(this.publisherId, after, this.name));
+	}
+
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_NullName() {
 		CBORRole instance = new CBORRole(this.publisherId, this.ifMapTimestamp, null);
@@ -0,0 +1,207 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.pipeline;
+
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.request.AbstractRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class DecodePipelineTest extends AbstractTestBase {
+	@Test
+	public void testOrderedDelivery() throws Exception {
+		List<CBORPublishRequest> requests = new ArrayList<>();
+		for(int i=0; i<50; i++) {
+			// Alternate large and small messages, so workers finish out of order
+			requests.add(this.buildRequest("session-" + i, (i % 2 == 0) ? 40 : 1));
+		}
+
+		RecordingListener<AbstractRequest> listener = new RecordingListener<>(null);
+		try(DecodePipeline<AbstractRequest> instance = DecodePipeline.forRequests(8, 4, CodecContext.getDefault(), listener)) {
+			for(CBORPublishRequest r : requests) {
+				instance.submit(CBORSerializer.serializeRequest(r));
+			}
+		}
+
+		assertEquals(requests, listener.decoded);
+		assertTrue(listener.failures.isEmpty());
+	}
+
+
+	@Test
+	public void testBackpressure() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingListener<AbstractRequest> listener = new RecordingListener<>(release);
+		byte[] message = CBORSerializer.serializeRequest(this.buildRequest("my-session-id", 1));
+
+		DecodePipeline<AbstractRequest> instance = DecodePipeline.forRequests(2, 2, CodecContext.getDefault(), listener);
+		try {
+			assertTrue(instance.offer(message));
+			assertTrue(instance.offer(message));
+			assertFalse(instance.offer(message));
+			assertFalse(instance.offer(message, 10, TimeUnit.MILLISECONDS));
+
+			DecodePipelineMetrics metrics = instance.getMetrics();
+			assertEquals(2, metrics.getQueueDepth());
+			assertEquals(2, metrics.getCapacity());
+			assertEquals(2, metrics.getSubmitted());
+			assertEquals(2, metrics.getRejected());
+		}
+		finally {
+			release.countDown();
+			instance.close();
+		}
+
+		DecodePipelineMetrics metrics = instance.getMetrics();
+		assertEquals(0, metrics.getQueueDepth());
+		assertEquals(2, metrics.getDelivered());
+		assertEquals(2, listener.decoded.size());
+	}
+
+
+	@Test
+	public void testFailure() throws Exception {
+		byte[] valid = CBORSerializer.serializeRequest(this.buildRequest("my-session-id", 1));
+		byte[] invalid = new byte[] {(byte) 0x84, 0x01};
+
+		RecordingListener<AbstractRequest> listener = new RecordingListener<>(null);
+		DecodePipeline<AbstractRequest> instance = DecodePipeline.forRequests(4, 2, CodecContext.getDefault(), listener);
+		instance.submit(invalid);
+		instance.submit(valid);
+		instance.close();
+
+		assertEquals(1, listener.failures.size());
+		assertSame(invalid, listener.failures.get(0));
+		assertEquals(1, listener.decoded.size());
+		assertEquals(1, instance.getMetrics().getFailed());
+	}
+
+
+	@Test(timeout = 10000)
+	public void testListenerError() throws Exception {
+		byte[] message = CBORSerializer.serializeRequest(this.buildRequest("my-session-id", 1));
+		final List<AbstractRequest> decoded = Collections.synchronizedList(new ArrayList<>());
+
+		DecodePipeline<AbstractRequest> instance = DecodePipeline.forRequests(1, 1, CodecContext.getDefault(), new DecodeListener<AbstractRequest>() {
+			@Override
+			public void onDecoded(AbstractRequest request) {
+				decoded.add(request);
+
+				if(decoded.size() == 1) {
+					throw new AssertionError("Listener failure");
+				}
+			}
+
+
+			@Override
+			public void onFailure(byte[] message, CBORDeserializationException ex) {
+				fail("Unexpected failure");
+			}
+		});
+
+		// With a capacity of one, the second submit blocks until the first message was delivered
+		instance.submit(message);
+		instance.submit(message);
+		instance.close();
+
+		assertEquals(2, decoded.size());
+		assertEquals(2, instance.getMetrics().getDelivered());
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testSubmit_closed() throws Exception {
+		DecodePipeline<AbstractRequest> instance = DecodePipeline.forRequests(4, 1, CodecContext.getDefault(), new RecordingListener<>(null));
+		instance.close();
+
+		instance.submit(new byte[] {0x01});
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForRequests_zeroCapacity() {
+		DecodePipeline.forRequests(0, 1, CodecContext.getDefault(), new RecordingListener<>(null));
+	}
+
+
+	private CBORPublishRequest buildRequest(String sessionId, int updates) throws Exception {
+		CBORPublishRequest request = new CBORPublishRequest(sessionId);
+		for(int i=0; i<updates; i++) {
+			CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device-" + i, false),
+															 new CBORIpAddress(InetAddress.getByName("10.0.0." + i)));
+			update.addMetadata(new CBORDeviceIp());
+			request.addPublishType(update);
+		}
+
+		return request;
+	}
+
+
+
+	private static class RecordingListener<T> implements DecodeListener<T> {
+		private final CountDownLatch release;
+		private final List<T> decoded = Collections.synchronizedList(new ArrayList<>());
+		private final List<byte[]> failures = Collections.synchronizedList(new ArrayList<>());
+
+
+		private RecordingListener(CountDownLatch release) {
+			this.release = release;
+		}
+
+
+		@Override
+		public void onDecoded(T decoded) {
+			if(this.release != null) {
+				try {
+					this.release.await();
+				}
+				catch(InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			this.decoded.add(decoded);
+		}
+
+
+		@Override
+		public void onFailure(byte[] message, CBORDeserializationException ex) {
+			this.failures.add(message);
+		}
+	}
+}
@@ -20,6 +20,7 @@ import co.nstant.in.cbor.CborEncoder;
 import co.nstant.in.cbor.builder.ArrayBuilder;
 import de.decoit.simu.cbor.ifmap.AbstractTestBase;
 import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
 import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
 import de.decoit.simu.cbor.ifmap.identifier.AbstractIdentifier;
 import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
@@ -35,6 +36,7 @@ import java.io.ByteArrayOutputStream;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.xml.bind.DatatypeConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
@@ -235,6 +237,77 @@ public class SearchResultItemTest extends AbstractTestBase {
 	}
 
 
+	@Test
+	public void testSetMetadataLoader() {
+		SearchResultItem instance = new SearchResultItem(this.identifierA, null);
+		instance.addMetadata(this.m1);
+
+		final AtomicInteger calls = new AtomicInteger();
+		instance.setMetadataLoader(() -> {
+			calls.incrementAndGet();
+			return Arrays.asList(this.m2, this.m3);
+		});
+
+		assertTrue(instance.isMetadataPending());
+		assertEquals(0, calls.get());
+
+		assertEquals(Arrays.asList(this.m1, this.m2, this.m3), instance.getMetadata());
+		assertEquals(Arrays.asList(this.m1, this.m2, this.m3), instance.getMetadata());
+		assertFalse(instance.isMetadataPending());
+		assertEquals(1, calls.get());
+	}
+
+
+	@Test
+	public void testSetMetadataLoader_equals() {
+		SearchResultItem eager = new SearchResultItem(this.identifierA, this.identifierB);
+		eager.addMetadata(this.m1);
+
+		SearchResultItem lazy = new SearchResultItem(this.identifierA, this.identifierB);
+		lazy.setMetadataLoader(() -> Arrays.asList(this.m1));
+
+		assertEquals(eager, lazy);
+		assertEquals(eager.hashCode(), lazy.hashCode());
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testSetMetadataLoader_failure() {
+		SearchResultItem instance = new SearchResultItem(this.identifierA, null);
+		instance.setMetadataLoader(() -> {
+			throw new CBORDeserializationException("Broken metadata");
+		});
+
+		instance.getMetadata();
+	}
+
+
+	@Test
+	public void testResolveMetadata_failure() {
+		SearchResultItem instance = new SearchResultItem(this.identifierA, null);
+		instance.setMetadataLoader(() -> {
+			throw new CBORDeserializationException("Broken metadata");
+		});
+
+		try {
+			instance.resolveMetadata();
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertEquals("Broken metadata", ex.getMessage());
+		}
+
+		assertTrue(instance.isMetadataPending());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetMetadataLoader_null() {
+		SearchResultItem instance = new SearchResultItem(this.identifierA, null);
+		instance.setMetadataLoader(null);
+	}
+
+
 	@Test
 	public void testCborSerialize_SingleIdentifier() throws Exception {
 		DictionarySimpleElement parentElementEntry = DictionaryProvider.getInstance().findElementByPath("<" + IfMapNamespaces.IFMAP + ">response+searchResult");
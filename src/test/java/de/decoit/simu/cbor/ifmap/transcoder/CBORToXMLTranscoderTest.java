@@ -0,0 +1,246 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.DecodeLimits;
+import de.decoit.simu.cbor.ifmap.DecodeOptions;
+import de.decoit.simu.cbor.ifmap.benchmark.BenchmarkMessages;
+import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.identifier.extended.CBORExtendedIfMapServer;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORIpMac;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORServerCapability;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class CBORToXMLTranscoderTest extends AbstractTestBase {
+	@Test
+	public void testTranscode_publish() throws Exception {
+		CBORIpMac ipMac = new CBORIpMac();
+		ipMac.setStartTime(ZonedDateTime.parse("2015-06-01T10:00:00Z"));
+		ipMac.setEndTime(ZonedDateTime.parse("2015-06-02T10:00:00Z"));
+		ipMac.setDhcpServer("dhcp-01");
+
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORIpAddress(InetAddress.getByName("10.0.0.1")),
+														 new CBORMacAddress("00:11:22:33:44:55"));
+		update.addMetadata(ipMac);
+
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		request.addPublishType(update);
+
+		byte[] cborData = CBORSerializer.serializeRequest(request);
+		String xml = new String(CBORToXMLTranscoder.transcode(cborData), StandardCharsets.UTF_8);
+		log.debug(xml);
+
+		assertTrue(xml.contains("<ifmap:publish"));
+		assertTrue(xml.contains("session-id=\"my-session-id\""));
+		assertTrue(xml.contains("value=\"10.0.0.1\""));
+		assertTrue(xml.contains("value=\"00:11:22:33:44:55\""));
+		assertTrue(xml.contains("<start-time>2015-06-01T10:00:00Z</start-time>"));
+		assertTrue(xml.contains("<dhcp-server>dhcp-01</dhcp-server>"));
+		assertArrayEquals(cborData, XMLToCBORTranscoder.transcode(this.toStream(xml)));
+	}
+
+
+	@Test
+	public void testTranscode_pollResponse() throws Exception {
+		CBOREvent event = new CBOREvent("publisher-1", ZonedDateTime.parse("2015-06-01T10:00:00.123456Z"), "event-1",
+										ZonedDateTime.parse("2015-06-01T09:00:00Z"), "discoverer", 42, 100, IfMapSignificance.CRITICAL);
+		event.setType(IfMapEventType.CVE);
+
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-1", false));
+		item.addMetadata(event);
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.setName("subscription");
+		updateResult.addSearchResultItem(item);
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+
+		byte[] cborData = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+		String xml = new String(CBORToXMLTranscoder.transcode(cborData), StandardCharsets.UTF_8);
+		log.debug(xml);
+
+		assertTrue(xml.contains("ifmap-timestamp=\"2015-06-01T10:00:00.123456Z\""));
+		assertFalse(xml.contains("ifmap-timestamp-fraction"));
+		assertTrue(xml.contains("<significance>critical</significance>"));
+		assertTrue(xml.contains("<magnitude>42</magnitude>"));
+		assertArrayEquals(cborData, XMLToCBORTranscoder.transcode(this.toStream(xml)));
+	}
+
+
+	@Test
+	public void testTranscode_largePollResponse() throws Exception {
+		byte[] cborData = BenchmarkMessages.pollResponse(4, 100);
+
+		byte[] xml = CBORToXMLTranscoder.transcode(cborData);
+
+		assertArrayEquals(cborData, XMLToCBORTranscoder.transcode(new ByteArrayInputStream(xml)));
+	}
+
+
+	@Test
+	public void testTranscode_extendedIdentifier() throws Exception {
+		CBORServerCapability capability = new CBORServerCapability();
+		capability.addCapability("capability-1");
+
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORExtendedIfMapServer("domain"));
+		update.addMetadata(capability);
+
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		request.addPublishType(update);
+
+		String xml = new String(CBORToXMLTranscoder.transcode(CBORSerializer.serializeRequest(request)), StandardCharsets.UTF_8);
+		log.debug(xml);
+
+		assertTrue(xml.contains("type=\"other\""));
+		assertTrue(xml.contains("other-type-definition=\"extended\""));
+		assertTrue(xml.contains("&lt;server:ifmap-server"));
+		assertEquals(request, CBORDeserializer.deserializeRequest(XMLToCBORTranscoder.transcode(this.toStream(xml))));
+	}
+
+
+	@Test
+	public void testTranscode_soapEnvelope() throws Exception {
+		byte[] cborData = BenchmarkMessages.pollResponse(10);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(bos, "UTF-8");
+
+		writer.writeStartDocument("UTF-8", "1.0");
+		writer.writeStartElement("env", "Envelope", XMLToCBORTranscoder.SOAP_12_ENVELOPE);
+		writer.writeNamespace("env", XMLToCBORTranscoder.SOAP_12_ENVELOPE);
+		writer.writeStartElement("env", "Body", XMLToCBORTranscoder.SOAP_12_ENVELOPE);
+		CBORToXMLTranscoder.transcode(new ByteArrayInputStream(cborData), writer, CodecContext.getDefault());
+		writer.writeEndElement();
+		writer.writeEndElement();
+		writer.writeEndDocument();
+		writer.close();
+
+		assertArrayEquals(cborData, XMLToCBORTranscoder.transcode(new ByteArrayInputStream(bos.toByteArray())));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testTranscode_truncated() throws Exception {
+		byte[] cborData = BenchmarkMessages.pollResponse(10);
+
+		CBORToXMLTranscoder.transcode(Arrays.copyOf(cborData, cborData.length / 2));
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testTranscode_noMessageArray() throws Exception {
+		CBORToXMLTranscoder.transcode(new byte[] {0x60});
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testTranscode_hugeStringLength() throws Exception {
+		// Text string declaring Integer.MAX_VALUE bytes without any content
+		byte[] cborData = new byte[] {(byte) 0x84, 0x7B, 0x00, 0x00, 0x00, 0x00, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+		CBORToXMLTranscoder.transcode(cborData);
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testTranscode_deepNesting() throws Exception {
+		byte[] cborData = new byte[100002];
+		Arrays.fill(cborData, (byte) 0x81);
+		cborData[0] = (byte) 0x84;
+		cborData[cborData.length - 1] = 0x00;
+
+		CBORToXMLTranscoder.transcode(cborData);
+	}
+
+
+	@Test
+	public void testTranscode_decodeLimits() throws Exception {
+		byte[] cborData = BenchmarkMessages.pollResponse(10);
+		CodecContext context = CodecContext.getDefault()
+				.withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(DecodeLimits.getUnlimited().withMaxStringLength(4)));
+
+		try {
+			CBORToXMLTranscoder.transcode(cborData, context);
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getMessage().startsWith("Decode limit exceeded: string length"));
+		}
+	}
+
+
+	@Test
+	public void testTranscode_decodeLimitsDepth() throws Exception {
+		byte[] cborData = new byte[102];
+		Arrays.fill(cborData, (byte) 0x81);
+		cborData[0] = (byte) 0x84;
+		cborData[cborData.length - 1] = 0x00;
+		CodecContext context = CodecContext.getDefault()
+				.withDecodeOptions(DecodeOptions.getDefault().withDecodeLimits(DecodeLimits.getUnlimited().withMaxDepth(8)));
+
+		try {
+			CBORToXMLTranscoder.transcode(cborData, context);
+			fail("Expected CBORDeserializationException");
+		}
+		catch(CBORDeserializationException ex) {
+			assertTrue(ex.getMessage().startsWith("Decode limit exceeded: nesting depth"));
+		}
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTranscode_null() throws Exception {
+		CBORToXMLTranscoder.transcode((byte[]) null);
+	}
+
+
+	private ByteArrayInputStream toStream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,260 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.transcoder;
+
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORDeserializer;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapIdentityType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.exception.CBORSerializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIdentity;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.identifier.extended.CBORExtendedIfMapServer;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORIpMac;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORDeviceIp;
+import de.decoit.simu.cbor.ifmap.metadata.singlevalue.CBORServerCapability;
+import de.decoit.simu.cbor.ifmap.request.CBORPublishRequest;
+import de.decoit.simu.cbor.ifmap.request.CBORSearchRequest;
+import de.decoit.simu.cbor.ifmap.request.model.publish.CBORPublishUpdate;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import de.decoit.simu.cbor.ifmap.util.IfMapNamespaces;
+import java.io.ByteArrayInputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class XMLToCBORTranscoderTest extends AbstractTestBase {
+	private static final String NAMESPACES = "xmlns:ifmap=\"" + IfMapNamespaces.IFMAP + "\" "
+											 + "xmlns:meta=\"" + IfMapNamespaces.IFMAP_METADATA + "\"";
+
+
+	@Test
+	public void testTranscode_publish() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					 + "<ifmap:publish " + NAMESPACES + " session-id=\"my-session-id\">"
+					 + "  <update lifetime=\"session\">"
+					 + "    <ifmap:ip-address value=\"10.0.0.1\" type=\"IPv4\"/>"
+					 + "    <ifmap:mac-address value=\"00:11:22:33:44:55\"/>"
+					 + "    <metadata>"
+					 + "      <meta:ip-mac ifmap-cardinality=\"multiValue\">"
+					 + "        <start-time>2015-06-01T10:00:00Z</start-time>"
+					 + "        <end-time>2015-06-02T10:00:00Z</end-time>"
+					 + "        <dhcp-server>dhcp-01</dhcp-server>"
+					 + "      </meta:ip-mac>"
+					 + "    </metadata>"
+					 + "  </update>"
+					 + "</ifmap:publish>";
+
+		CBORIpMac ipMac = new CBORIpMac();
+		ipMac.setStartTime(ZonedDateTime.parse("2015-06-01T10:00:00Z"));
+		ipMac.setEndTime(ZonedDateTime.parse("2015-06-02T10:00:00Z"));
+		ipMac.setDhcpServer("dhcp-01");
+
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORIpAddress(InetAddress.getByName("10.0.0.1")),
+														 new CBORMacAddress("00:11:22:33:44:55"));
+		update.addMetadata(ipMac);
+
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		request.addPublishType(update);
+
+		byte[] result = XMLToCBORTranscoder.transcode(this.toStream(xml));
+
+		assertArrayEquals(CBORSerializer.serializeRequest(request), result);
+		assertEquals(request, CBORDeserializer.deserializeRequest(result));
+	}
+
+
+	@Test
+	public void testTranscode_publishManyUpdates() throws Exception {
+		StringBuilder xml = new StringBuilder("<ifmap:publish " + NAMESPACES + " session-id=\"my-session-id\">");
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+
+		for(int i=0; i<100; i++) {
+			xml.append("<update lifetime=\"session\">");
+			xml.append("<ifmap:device><name>device-").append(i).append("</name></ifmap:device>");
+			xml.append("<ifmap:ip-address value=\"10.0.").append(i >> 8).append('.').append(i & 0xFF).append("\" type=\"IPv4\"/>");
+			xml.append("<metadata><meta:device-ip ifmap-cardinality=\"singleValue\"/></metadata>");
+			xml.append("</update>");
+
+			CBORPublishUpdate update = new CBORPublishUpdate(new CBORDevice("device-" + i, false),
+															 new CBORIpAddress(InetAddress.getByAddress(new byte[] {10, 0, (byte) (i >> 8), (byte) i})));
+			update.addMetadata(new CBORDeviceIp());
+			request.addPublishType(update);
+		}
+
+		xml.append("</ifmap:publish>");
+
+		assertArrayEquals(CBORSerializer.serializeRequest(request), XMLToCBORTranscoder.transcode(this.toStream(xml.toString())));
+	}
+
+
+	@Test
+	public void testTranscode_soapPollResponse() throws Exception {
+		String xml = "<env:Envelope xmlns:env=\"" + XMLToCBORTranscoder.SOAP_12_ENVELOPE + "\">"
+					 + "<env:Header><ifmap:ignored " + NAMESPACES + "/></env:Header>"
+					 + "<env:Body>"
+					 + "<ifmap:response " + NAMESPACES + ">"
+					 + "<pollResult>"
+					 + "<updateResult name=\"subscription\">"
+					 + "<resultItem>"
+					 + "<ifmap:device><name>device-1</name></ifmap:device>"
+					 + "<metadata>"
+					 + "<meta:event ifmap-publisher-id=\"publisher-1\" ifmap-timestamp=\"2015-06-01T12:00:00.123456+02:00\" ifmap-cardinality=\"multiValue\">"
+					 + "<name>event-1</name>"
+					 + "<discovered-time>2015-06-01T10:00:00Z</discovered-time>"
+					 + "<discoverer-id>discoverer</discoverer-id>"
+					 + "<magnitude>42</magnitude>"
+					 + "<confidence>100</confidence>"
+					 + "<significance>critical</significance>"
+					 + "<type>cve</type>"
+					 + "</meta:event>"
+					 + "</metadata>"
+					 + "</resultItem>"
+					 + "</updateResult>"
+					 + "</pollResult>"
+					 + "</ifmap:response>"
+					 + "</env:Body>"
+					 + "</env:Envelope>";
+
+		CBOREvent event = new CBOREvent("publisher-1", ZonedDateTime.parse("2015-06-01T12:00:00.123456+02:00"), "event-1",
+										ZonedDateTime.parse("2015-06-01T10:00:00Z"), "discoverer", 42, 100, IfMapSignificance.CRITICAL);
+		event.setType(IfMapEventType.CVE);
+
+		SearchResultItem item = new SearchResultItem(new CBORDevice("device-1", false));
+		item.addMetadata(event);
+
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.setName("subscription");
+		updateResult.addSearchResultItem(item);
+
+		CBORPollResult pollResult = new CBORPollResult();
+		pollResult.addPollResult(updateResult);
+
+		byte[] result = XMLToCBORTranscoder.transcode(this.toStream(xml));
+
+		assertArrayEquals(CBORSerializer.serializeResponse(new CBORResponse(pollResult)), result);
+	}
+
+
+	@Test
+	public void testTranscode_searchAttributes() throws Exception {
+		String xml = "<ifmap:search " + NAMESPACES + " session-id=\"my-session-id\" max-depth=\"3\" max-size=\"10000\">"
+					 + "<ifmap:identity name=\"joe\" type=\"username\"/>"
+					 + "</ifmap:search>";
+
+		CBORSearchRequest request = new CBORSearchRequest("my-session-id", new CBORIdentity("joe", IfMapIdentityType.USERNAME));
+		request.getSearchTypeAttributes().setMaxDepth(3);
+		request.getSearchTypeAttributes().setMaxSize(10000);
+
+		assertEquals(request, CBORDeserializer.deserializeRequest(XMLToCBORTranscoder.transcode(this.toStream(xml))));
+	}
+
+
+	@Test
+	public void testTranscode_extendedIdentifier() throws Exception {
+		String identifierXml = "&lt;ifmap-server xmlns=&quot;" + IfMapNamespaces.IFMAP_SERVER + "&quot; administrative-domain=&quot;domain&quot;/&gt;";
+		String xml = "<ifmap:publish " + NAMESPACES + " xmlns:server=\"" + IfMapNamespaces.IFMAP_SERVER + "\" session-id=\"my-session-id\">"
+					 + "<update lifetime=\"session\">"
+					 + "<ifmap:identity type=\"other\" other-type-definition=\"extended\" name=\"" + identifierXml + "\"/>"
+					 + "<metadata>"
+					 + "<server:server-capability ifmap-cardinality=\"singleValue\"><capability>capability-1</capability></server:server-capability>"
+					 + "</metadata>"
+					 + "</update>"
+					 + "</ifmap:publish>";
+
+		CBORServerCapability capability = new CBORServerCapability();
+		capability.addCapability("capability-1");
+
+		CBORPublishUpdate update = new CBORPublishUpdate(new CBORExtendedIfMapServer("domain"));
+		update.addMetadata(capability);
+
+		CBORPublishRequest request = new CBORPublishRequest("my-session-id");
+		request.addPublishType(update);
+
+		assertEquals(request, CBORDeserializer.deserializeRequest(XMLToCBORTranscoder.transcode(this.toStream(xml))));
+	}
+
+
+	@Test(expected = CBORSerializationException.class)
+	public void testTranscode_mixedContent() throws Exception {
+		String xml = "<ifmap:publish " + NAMESPACES + " session-id=\"my-session-id\">text<update/></ifmap:publish>";
+
+		XMLToCBORTranscoder.transcode(this.toStream(xml));
+	}
+
+
+	@Test(expected = CBORSerializationException.class)
+	public void testTranscode_invalidMacAddress() throws Exception {
+		String xml = "<ifmap:publish " + NAMESPACES + " session-id=\"my-session-id\">"
+					 + "<update><ifmap:mac-address value=\"invalid\"/></update>"
+					 + "</ifmap:publish>";
+
+		XMLToCBORTranscoder.transcode(this.toStream(xml));
+	}
+
+
+	@Test(expected = CBORSerializationException.class)
+	public void testTranscode_ipv6HostName() throws Exception {
+		String xml = "<ifmap:publish " + NAMESPACES + " session-id=\"my-session-id\">"
+					 + "<update><ifmap:ip-address value=\"example.com:80\" type=\"IPv6\"/></update>"
+					 + "</ifmap:publish>";
+
+		XMLToCBORTranscoder.transcode(this.toStream(xml));
+	}
+
+
+	@Test(expected = CBORSerializationException.class)
+	public void testTranscode_unqualifiedRoot() throws Exception {
+		XMLToCBORTranscoder.transcode(this.toStream("<publish session-id=\"my-session-id\"/>"));
+	}
+
+
+	@Test(expected = CBORSerializationException.class)
+	public void testTranscode_emptySoapBody() throws Exception {
+		String xml = "<env:Envelope xmlns:env=\"" + XMLToCBORTranscoder.SOAP_11_ENVELOPE + "\"><env:Body/></env:Envelope>";
+
+		XMLToCBORTranscoder.transcode(this.toStream(xml));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTranscode_null() throws Exception {
+		XMLToCBORTranscoder.transcode(null);
+	}
+
+
+	private ByteArrayInputStream toStream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
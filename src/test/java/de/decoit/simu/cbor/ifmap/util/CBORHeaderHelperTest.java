@@ -0,0 +1,76 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+public class CBORHeaderHelperTest {
+	@Test
+	public void testMajorTypeAndAdditionalInfo() {
+		assertEquals(4, CBORHeaderHelper.majorType(0x98));
+		assertEquals(24, CBORHeaderHelper.additionalInfo(0x98));
+		assertEquals(7, CBORHeaderHelper.majorType((byte) 0xFF));
+	}
+
+
+	@Test
+	public void testHeaderLength() {
+		assertEquals(1, CBORHeaderHelper.headerLength(0x17));
+		assertEquals(2, CBORHeaderHelper.headerLength(0x18));
+		assertEquals(3, CBORHeaderHelper.headerLength(0x19));
+		assertEquals(5, CBORHeaderHelper.headerLength(0x1A));
+		assertEquals(9, CBORHeaderHelper.headerLength(0x1B));
+		assertEquals(-1, CBORHeaderHelper.headerLength(0x1C));
+		assertEquals(-1, CBORHeaderHelper.headerLength(0x9F));
+	}
+
+
+	@Test
+	public void testArgument() {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0x00, 0x17, 0x19, 0x01, 0x02, 0x1B, (byte) 0xFF, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01});
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		assertEquals(23L, CBORHeaderHelper.argument(buffer, 1));
+		assertEquals(0x0102L, CBORHeaderHelper.argument(buffer, 2));
+		assertEquals(0xFF00000000000001L, CBORHeaderHelper.argument(buffer, 5));
+		assertEquals(0, buffer.position());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testArgument_indefinite() {
+		CBORHeaderHelper.argument(ByteBuffer.wrap(new byte[] {(byte) 0x9F}), 0);
+	}
+
+
+	@Test
+	public void testHalfToDouble() {
+		assertEquals(1.0, CBORHeaderHelper.halfToDouble(0x3C00), 0.0);
+		assertEquals(-2.0, CBORHeaderHelper.halfToDouble(0xC000), 0.0);
+		assertEquals(65504.0, CBORHeaderHelper.halfToDouble(0x7BFF), 0.0);
+		assertEquals(5.960464477539063E-8, CBORHeaderHelper.halfToDouble(0x0001), 0.0);
+		assertEquals(Double.NEGATIVE_INFINITY, CBORHeaderHelper.halfToDouble((short) 0xFC00), 0.0);
+		assertTrue(Double.isNaN(CBORHeaderHelper.halfToDouble(0x7E00)));
+	}
+}
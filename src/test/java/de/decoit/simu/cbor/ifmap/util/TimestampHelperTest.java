@@ -66,6 +66,21 @@ public class TimestampHelperTest {
 	}
 
 
+	@Test
+	public void testToXsdDateTimeWithFraction() {
+		ZonedDateTime input = ZonedDateTime.parse("2011-12-03T10:15:30.123456+01:00", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		String expResult = "2011-12-03T10:15:30.123456+01:00";
+		String result = TimestampHelper.toXsdDateTimeWithFraction(input);
+		assertEquals(expResult, result);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testToXsdDateTimeWithFraction_null() {
+		String result = TimestampHelper.toXsdDateTimeWithFraction(null);
+	}
+
+
 	@Test
 	public void testToEpochTime() {
 		ZonedDateTime input = ZonedDateTime.parse("2011-12-03T10:15:30.123456Z", DateTimeFormatter.ISO_OFFSET_DATE_TIME);
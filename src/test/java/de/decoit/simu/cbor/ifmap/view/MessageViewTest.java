@@ -0,0 +1,258 @@
+/* 
+ * Copyright 2015 DECOIT GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.decoit.simu.cbor.ifmap.view;
+
+import de.decoit.simu.cbor.ifmap.AbstractTestBase;
+import de.decoit.simu.cbor.ifmap.CBORSerializer;
+import de.decoit.simu.cbor.ifmap.CodecContext;
+import de.decoit.simu.cbor.ifmap.enums.IfMapErrorCode;
+import de.decoit.simu.cbor.ifmap.enums.IfMapEventType;
+import de.decoit.simu.cbor.ifmap.enums.IfMapSignificance;
+import de.decoit.simu.cbor.ifmap.exception.CBORDeserializationException;
+import de.decoit.simu.cbor.ifmap.identifier.CBORDevice;
+import de.decoit.simu.cbor.ifmap.identifier.CBORIpAddress;
+import de.decoit.simu.cbor.ifmap.identifier.CBORMacAddress;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBOREvent;
+import de.decoit.simu.cbor.ifmap.metadata.multivalue.CBORLayer2Information;
+import de.decoit.simu.cbor.ifmap.response.CBORResponse;
+import de.decoit.simu.cbor.ifmap.response.model.CBORErrorResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORPollResult;
+import de.decoit.simu.cbor.ifmap.response.model.CBORSearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResult;
+import de.decoit.simu.cbor.ifmap.response.model.search.SearchResultItem;
+import de.decoit.simu.cbor.ifmap.response.model.search.UpdatePollSearchResult;
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+
+/**
+ *
+ * @author Thomas Rix (rix@decoit.de)
+ */
+@Slf4j
+public class MessageViewTest extends AbstractTestBase {
+	private final String publisherId = "my-publisher-id";
+	private final ZonedDateTime timestamp = ZonedDateTime.parse("2015-06-01T12:00:00+02:00");
+
+
+	@Test
+	public void testForEachMetadata_pollResult() throws Exception {
+		CBORPollResult pollResult = new CBORPollResult();
+		UpdatePollSearchResult updateResult = new UpdatePollSearchResult();
+		updateResult.setName("subscription");
+
+		for(int i=0; i<3; i++) {
+			CBOREvent event = new CBOREvent(this.publisherId, this.timestamp, "event-" + i, this.timestamp, "discoverer", 10 + i, 50 + i, IfMapSignificance.IMPORTANT);
+			event.setType(IfMapEventType.WORM_INFECTION);
+
+			CBORLayer2Information l2i = new CBORLayer2Information(this.publisherId, this.timestamp);
+			l2i.setVlan(100 + i);
+			l2i.setPort(i);
+			l2i.setVlanName("vlan-" + i);
+
+			SearchResultItem item = new SearchResultItem(new CBORDevice("device-" + i, false));
+			item.addMetadata(event);
+			item.addMetadata(l2i);
+			updateResult.addSearchResultItem(item);
+		}
+
+		pollResult.addPollResult(updateResult);
+		pollResult.addPollResult(new CBORErrorResult(IfMapErrorCode.FAILURE));
+
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(pollResult));
+		ViewSchema schema = ViewSchema.forContext(CodecContext.getDefault());
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes), schema);
+
+		EventView eventView = new EventView(schema);
+		Layer2InformationView l2iView = new Layer2InformationView(schema);
+		EncodedName vlanName = EncodedName.ofString("vlan-1");
+		List<String> events = new ArrayList<>();
+		List<Integer> vlans = new ArrayList<>();
+		int[] vlanNameMatches = new int[1];
+
+		int count = instance.forEachMetadata((element) -> {
+			if(eventView.matches(element)) {
+				assertEquals(IfMapSignificance.IMPORTANT, eventView.getSignificance(element));
+				assertEquals(IfMapEventType.WORM_INFECTION, eventView.getType(element));
+				assertEquals(eventView.getMagnitude(element) + 40, eventView.getConfidence(element));
+				events.add(eventView.getName(element));
+			}
+			else if(l2iView.matches(element)) {
+				assertEquals(l2iView.getVlan(element), 100 + l2iView.getPort(element));
+				vlans.add(l2iView.getVlan(element));
+
+				if(l2iView.vlanNameEquals(element, vlanName)) {
+					vlanNameMatches[0]++;
+				}
+			}
+			else {
+				fail("Unexpected metadata element");
+			}
+		});
+
+		assertEquals(6, count);
+		assertEquals(Arrays.asList("event-0", "event-1", "event-2"), events);
+		assertEquals(Arrays.asList(100, 101, 102), vlans);
+		assertEquals(1, vlanNameMatches[0]);
+	}
+
+
+	@Test
+	public void testForEachIdentifier_searchResult() throws Exception {
+		SearchResult searchResult = new SearchResult();
+
+		SearchResultItem item = new SearchResultItem(new CBORIpAddress(0x0A000001), new CBORMacAddress(0x001122334455L));
+		item.addMetadata(new CBORLayer2Information(this.publisherId, this.timestamp));
+		searchResult.addSearchResultItem(item);
+
+		item = new SearchResultItem(new CBORIpAddress(0x20010DB800000000L, 1L), new CBORDevice("my-device", false));
+		item.addMetadata(new CBORLayer2Information(this.publisherId, this.timestamp));
+		searchResult.addSearchResultItem(item);
+
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(new CBORSearchResult(searchResult)));
+		ViewSchema schema = ViewSchema.forContext(CodecContext.getDefault());
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes), schema);
+
+		IpAddressView ipView = new IpAddressView(schema);
+		MacAddressView macView = new MacAddressView(schema);
+		DeviceView deviceView = new DeviceView(schema);
+		List<String> found = new ArrayList<>();
+
+		int count = instance.forEachIdentifier((element) -> {
+			if(ipView.matches(element)) {
+				if(ipView.isIpv4(element)) {
+					assertEquals(0x0A000001, ipView.getIpv4Address(element));
+					found.add("ipv4");
+				}
+				else {
+					assertEquals(0x20010DB800000000L, ipView.getIpv6High(element));
+					assertEquals(1L, ipView.getIpv6Low(element));
+					found.add("ipv6");
+				}
+			}
+			else if(macView.matches(element)) {
+				assertEquals(0x001122334455L, macView.getAddress(element));
+				found.add("mac");
+			}
+			else if(deviceView.matches(element)) {
+				assertTrue(deviceView.nameEquals(element, EncodedName.ofString("my-device")));
+				assertFalse(deviceView.nameEquals(element, EncodedName.ofString("other-device")));
+				found.add("device");
+			}
+		});
+
+		assertEquals(4, count);
+		assertEquals(Arrays.asList("ipv4", "mac", "ipv6", "device"), found);
+		assertEquals(2, instance.forEachMetadata((element) -> {}));
+	}
+
+
+	@Test
+	public void testWrap_bufferPosition() throws Exception {
+		SearchResult searchResult = new SearchResult();
+		SearchResultItem item = new SearchResultItem(new CBORDevice("my-device", false));
+		item.addMetadata(new CBORLayer2Information(this.publisherId, this.timestamp));
+		searchResult.addSearchResultItem(item);
+
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(new CBORSearchResult(searchResult)));
+		byte[] padded = new byte[cborBytes.length + 8];
+		System.arraycopy(cborBytes, 0, padded, 3, cborBytes.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(padded, 3, cborBytes.length);
+		MessageView instance = MessageView.wrap(buffer, ViewSchema.forContext(CodecContext.getDefault()));
+
+		assertEquals(1, instance.forEachIdentifier((element) -> {}));
+		assertEquals(3, buffer.position());
+		assertEquals(3 + cborBytes.length, buffer.limit());
+	}
+
+
+	@Test(expected = CBORDeserializationException.class)
+	public void testForEachMetadata_truncated() throws Exception {
+		SearchResult searchResult = new SearchResult();
+		SearchResultItem item = new SearchResultItem(new CBORDevice("my-device", false));
+		item.addMetadata(new CBORLayer2Information(this.publisherId, this.timestamp));
+		searchResult.addSearchResultItem(item);
+
+		byte[] cborBytes = CBORSerializer.serializeResponse(new CBORResponse(new CBORSearchResult(searchResult)));
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes, 0, cborBytes.length - 5), ViewSchema.forContext(CodecContext.getDefault()));
+
+		instance.forEachMetadata((element) -> {});
+	}
+
+
+	@Test
+	public void testSkip_deepNesting() {
+		// 100000 nested arrays of one item each around the integer 0, followed by the integer 1
+		byte[] cborBytes = new byte[100002];
+		Arrays.fill(cborBytes, 0, 100000, (byte) 0x81);
+		cborBytes[100001] = 0x01;
+
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes), ViewSchema.forContext(CodecContext.getDefault()));
+
+		assertEquals(100001, instance.skip(0));
+	}
+
+
+	@Test
+	public void testSkip_mixedContainers() {
+		// [{1: "a", 2: []}, h'00', [[]]]
+		byte[] cborBytes = new byte[] {(byte) 0x83, (byte) 0xA2, 0x01, 0x61, 0x61, 0x02, (byte) 0x80, 0x41, 0x00, (byte) 0x81, (byte) 0x80, 0x07};
+
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes), ViewSchema.forContext(CodecContext.getDefault()));
+
+		assertEquals(11, instance.skip(0));
+	}
+
+
+	@Test
+	public void testSkip_scalarsAndEmptyContainers() {
+		// [], {}, 1000, "a", 1(0), then [[1]] to reuse the stack after a deep skip
+		byte[] cborBytes = new byte[] {(byte) 0x80, (byte) 0xA0, 0x19, 0x03, (byte) 0xE8, 0x61, 0x61, (byte) 0xC1, 0x00, (byte) 0x81, (byte) 0x81, 0x01};
+
+		MessageView instance = MessageView.wrap(ByteBuffer.wrap(cborBytes), ViewSchema.forContext(CodecContext.getDefault()));
+
+		assertEquals(1, instance.skip(0));
+		assertEquals(2, instance.skip(1));
+		assertEquals(5, instance.skip(2));
+		assertEquals(7, instance.skip(5));
+		assertEquals(9, instance.skip(7));
+		assertEquals(12, instance.skip(9));
+		assertEquals(12, instance.skip(9));
+	}
+
+
+	@Test(expected = ArithmeticException.class)
+	public void testSkip_mapLengthOverflow() {
+		// Map declaring 0x7FFFFFFF entries
+		byte[] cborBytes = new byte[] {(byte) 0xBA, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+		MessageView.wrap(ByteBuffer.wrap(cborBytes), ViewSchema.forContext(CodecContext.getDefault())).skip(0);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrap_nullBuffer() {
+		MessageView.wrap(null, ViewSchema.forContext(CodecContext.getDefault()));
+	}
+}